@@ -0,0 +1,219 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * CBOR converters for types which have a native CBOR representation.
+ * Other types are processed through their JSON converters via throughJson methods.
+ */
+public abstract class CborConverter {
+
+	public static final CborWriter.WriteObject<Boolean> BOOL_WRITER = (writer, value) -> {
+		if (value == null) writer.writeNull();
+		else writer.writeBool(value);
+	};
+	public static final CborReader.ReadObject<Boolean> BOOL_READER = reader -> reader.tryReadNull() ? null : reader.readBool();
+	public static final CborWriter.WriteObject<Number> INTEGER_WRITER = (writer, value) -> {
+		if (value == null) writer.writeNull();
+		else writer.writeLong(value.longValue());
+	};
+	public static final CborReader.ReadObject<Byte> BYTE_READER = reader -> reader.tryReadNull() ? null : reader.readByte();
+	public static final CborReader.ReadObject<Short> SHORT_READER = reader -> reader.tryReadNull() ? null : reader.readShort();
+	public static final CborReader.ReadObject<Integer> INT_READER = reader -> reader.tryReadNull() ? null : reader.readInt();
+	public static final CborReader.ReadObject<Long> LONG_READER = reader -> reader.tryReadNull() ? null : reader.readLong();
+	public static final CborWriter.WriteObject<Float> FLOAT_WRITER = (writer, value) -> {
+		if (value == null) writer.writeNull();
+		else writer.writeFloat(value);
+	};
+	public static final CborReader.ReadObject<Float> FLOAT_READER = reader -> reader.tryReadNull() ? null : reader.readFloat();
+	public static final CborWriter.WriteObject<Double> DOUBLE_WRITER = (writer, value) -> {
+		if (value == null) writer.writeNull();
+		else writer.writeDouble(value);
+	};
+	public static final CborReader.ReadObject<Double> DOUBLE_READER = reader -> reader.tryReadNull() ? null : reader.readDouble();
+	public static final CborWriter.WriteObject<BigInteger> BIG_INTEGER_WRITER = CborWriter::writeBigInteger;
+	public static final CborReader.ReadObject<BigInteger> BIG_INTEGER_READER = reader -> {
+		if (reader.tryReadNull()) return null;
+		final Number number = reader.readNumber();
+		if (number instanceof BigInteger) return (BigInteger) number;
+		if (number instanceof Long) return BigInteger.valueOf(number.longValue());
+		return (number instanceof BigDecimal ? (BigDecimal) number : BigDecimal.valueOf(number.doubleValue())).toBigIntegerExact();
+	};
+	public static final CborWriter.WriteObject<BigDecimal> DECIMAL_WRITER = CborWriter::writeDecimal;
+	public static final CborReader.ReadObject<BigDecimal> DECIMAL_READER = reader -> {
+		if (reader.tryReadNull()) return null;
+		final Number number = reader.readNumber();
+		if (number instanceof BigDecimal) return (BigDecimal) number;
+		if (number instanceof Long) return BigDecimal.valueOf(number.longValue());
+		if (number instanceof BigInteger) return new BigDecimal((BigInteger) number);
+		return BigDecimal.valueOf(number.doubleValue());
+	};
+	public static final CborWriter.WriteObject<String> STRING_WRITER = CborWriter::writeString;
+	public static final CborReader.ReadObject<String> STRING_READER = reader -> reader.tryReadNull() ? null : reader.readString();
+	public static final CborWriter.WriteObject<byte[]> BINARY_WRITER = CborWriter::writeBinary;
+	public static final CborReader.ReadObject<byte[]> BINARY_READER = reader -> reader.tryReadNull() ? null : reader.readBinary();
+
+	static <T> void registerDefault(DslJson<T> json) {
+		json.registerCborWriter(boolean.class, BOOL_WRITER);
+		json.registerCborReader(boolean.class, BOOL_READER);
+		json.registerCborWriter(Boolean.class, BOOL_WRITER);
+		json.registerCborReader(Boolean.class, BOOL_READER);
+		json.registerCborWriter(byte.class, INTEGER_WRITER);
+		json.registerCborReader(byte.class, BYTE_READER);
+		json.registerCborWriter(Byte.class, INTEGER_WRITER);
+		json.registerCborReader(Byte.class, BYTE_READER);
+		json.registerCborWriter(short.class, INTEGER_WRITER);
+		json.registerCborReader(short.class, SHORT_READER);
+		json.registerCborWriter(Short.class, INTEGER_WRITER);
+		json.registerCborReader(Short.class, SHORT_READER);
+		json.registerCborWriter(int.class, INTEGER_WRITER);
+		json.registerCborReader(int.class, INT_READER);
+		json.registerCborWriter(Integer.class, INTEGER_WRITER);
+		json.registerCborReader(Integer.class, INT_READER);
+		json.registerCborWriter(long.class, INTEGER_WRITER);
+		json.registerCborReader(long.class, LONG_READER);
+		json.registerCborWriter(Long.class, INTEGER_WRITER);
+		json.registerCborReader(Long.class, LONG_READER);
+		json.registerCborWriter(float.class, FLOAT_WRITER);
+		json.registerCborReader(float.class, FLOAT_READER);
+		json.registerCborWriter(Float.class, FLOAT_WRITER);
+		json.registerCborReader(Float.class, FLOAT_READER);
+		json.registerCborWriter(double.class, DOUBLE_WRITER);
+		json.registerCborReader(double.class, DOUBLE_READER);
+		json.registerCborWriter(Double.class, DOUBLE_WRITER);
+		json.registerCborReader(Double.class, DOUBLE_READER);
+		json.registerCborWriter(BigInteger.class, BIG_INTEGER_WRITER);
+		json.registerCborReader(BigInteger.class, BIG_INTEGER_READER);
+		json.registerCborWriter(BigDecimal.class, DECIMAL_WRITER);
+		json.registerCborReader(BigDecimal.class, DECIMAL_READER);
+		json.registerCborWriter(String.class, STRING_WRITER);
+		json.registerCborReader(String.class, STRING_READER);
+		json.registerCborWriter(byte[].class, BINARY_WRITER);
+		json.registerCborReader(byte[].class, BINARY_READER);
+	}
+
+	/**
+	 * Adapt JSON writer for CBOR output.
+	 * Value is written as JSON which is then converted into CBOR.
+	 *
+	 * @param converter JSON writer
+	 * @param <T>       type
+	 * @return CBOR writer
+	 */
+	public static <T> CborWriter.WriteObject<T> throughJson(final JsonWriter.WriteObject<T> converter) {
+		if (converter == null) throw new IllegalArgumentException("converter can't be null");
+		return (writer, value) -> writer.writeThroughJson(converter, value);
+	}
+
+	/**
+	 * Adapt JSON reader for CBOR input.
+	 * CBOR item is converted into JSON which is then processed by the JSON reader.
+	 *
+	 * @param converter JSON reader
+	 * @param <T>       type
+	 * @return CBOR reader
+	 */
+	public static <T> CborReader.ReadObject<T> throughJson(final JsonReader.ReadObject<T> converter) {
+		if (converter == null) throw new IllegalArgumentException("converter can't be null");
+		return reader -> reader.readThroughJson(converter);
+	}
+
+	static <T> CborWriter.WriteObject<Collection<T>> collectionWriter(final CborWriter.WriteObject<T> element) {
+		return (writer, value) -> {
+			if (value == null) {
+				writer.writeNull();
+				return;
+			}
+			writer.writeArrayStart(value.size());
+			for (T item : value) {
+				element.write(writer, item);
+			}
+		};
+	}
+
+	static <T> CborWriter.WriteObject<Object> arrayWriter(final CborWriter.WriteObject<T> element) {
+		return (writer, value) -> {
+			if (value == null) {
+				writer.writeNull();
+				return;
+			}
+			final int length = Array.getLength(value);
+			writer.writeArrayStart(length);
+			for (int i = 0; i < length; i++) {
+				@SuppressWarnings("unchecked")
+				final T item = (T) Array.get(value, i);
+				element.write(writer, item);
+			}
+		};
+	}
+
+	static <T> CborReader.ReadObject<Collection<T>> collectionReader(final CborReader.ReadObject<T> element, final boolean asSet) {
+		return reader -> {
+			if (reader.tryReadNull()) return null;
+			final int length = reader.readArrayStart();
+			final int capacity = length < 0 ? 4 : length;
+			final Collection<T> result = asSet ? new LinkedHashSet<T>(capacity) : new ArrayList<T>(capacity);
+			readItems(reader, element, length, result);
+			return result;
+		};
+	}
+
+	static <T> CborReader.ReadObject<Object> arrayReader(final CborReader.ReadObject<T> element, final Class<?> component) {
+		return reader -> {
+			if (reader.tryReadNull()) return null;
+			final int length = reader.readArrayStart();
+			final ArrayList<T> items = new ArrayList<T>(length < 0 ? 4 : length);
+			readItems(reader, element, length, items);
+			final Object result = Array.newInstance(component, items.size());
+			for (int i = 0; i < items.size(); i++) {
+				Array.set(result, i, items.get(i));
+			}
+			return result;
+		};
+	}
+
+	static <K, V> CborWriter.WriteObject<Map<K, V>> mapWriter(
+			final CborWriter.WriteObject<K> key,
+			final CborWriter.WriteObject<V> value) {
+		return (writer, map) -> {
+			if (map == null) {
+				writer.writeNull();
+				return;
+			}
+			writer.writeMapStart(map.size());
+			for (Map.Entry<K, V> kv : map.entrySet()) {
+				key.write(writer, kv.getKey());
+				value.write(writer, kv.getValue());
+			}
+		};
+	}
+
+	static <K, V> CborReader.ReadObject<Map<K, V>> mapReader(
+			final CborReader.ReadObject<K> key,
+			final CborReader.ReadObject<V> value) {
+		return reader -> {
+			if (reader.tryReadNull()) return null;
+			final int length = reader.readMapStart();
+			final Map<K, V> result = new LinkedHashMap<K, V>(length < 0 ? 4 : length);
+			for (int i = 0; length < 0 ? !reader.tryReadBreak() : i < length; i++) {
+				final K k = key.read(reader);
+				result.put(k, value.read(reader));
+			}
+			return result;
+		};
+	}
+
+	private static <T> void readItems(
+			final CborReader reader,
+			final CborReader.ReadObject<T> element,
+			final int length,
+			final Collection<T> result) throws IOException {
+		for (int i = 0; length < 0 ? !reader.tryReadBreak() : i < length; i++) {
+			result.add(element.read(reader));
+		}
+	}
+}
@@ -0,0 +1,632 @@
+package com.dslplatform.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary counterpart of JsonReader which reads CBOR (RFC 8949) from a byte[] input.
+ * <p>
+ * Both definite and indefinite length items are supported.
+ * Tags are ignored, except for big numbers and decimal fractions which are converted into numbers.
+ * Reader is positioned at the start of the next item, so there is no "current token" as in JsonReader.
+ * <p>
+ * Instances are created via DslJson#newCborReader.
+ * Types without a CBOR specific converter are read through their JSON converter,
+ * in which case CBOR input is converted into JSON.
+ * CborReader should not be shared across threads (concurrently).
+ */
+public final class CborReader {
+
+	/**
+	 * Definition for CBOR deserialization of a specific type.
+	 *
+	 * @param <T> type
+	 */
+	public interface ReadObject<T> {
+		@Nullable
+		T read(CborReader reader) throws IOException;
+	}
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private byte[] buffer = EMPTY;
+	private int length;
+	private int position;
+	private int nameStart;
+	private int nameLength;
+	@Nullable
+	private byte[] lastChunkedName;
+	private char[] chars = new char[64];
+
+	final DslJson<?> json;
+	private final JsonReader.ErrorInfo errorInfo;
+
+	CborReader(final DslJson<?> json, final JsonReader.ErrorInfo errorInfo) {
+		this.json = json;
+		this.errorInfo = errorInfo;
+	}
+
+	/**
+	 * Prepare the reader for a new input.
+	 *
+	 * @param input  CBOR
+	 * @param length size of the input
+	 * @return itself
+	 */
+	public CborReader process(final byte[] input, final int length) {
+		if (input == null) throw new IllegalArgumentException("input can't be null");
+		if (length < 0 || length > input.length) throw new IllegalArgumentException("length must be within the input");
+		this.buffer = input;
+		this.length = length;
+		this.position = 0;
+		this.nameLength = 0;
+		return this;
+	}
+
+	/**
+	 * Release the reference to the last input.
+	 */
+	public void reset() {
+		buffer = EMPTY;
+		length = 0;
+		position = 0;
+		nameLength = 0;
+	}
+
+	public int getCurrentIndex() {
+		return position;
+	}
+
+	public boolean isEndOfInput() {
+		return position >= length;
+	}
+
+	public ParsingException newParseError(final String description) {
+		return newParseErrorAt(description, 0);
+	}
+
+	public ParsingException newParseErrorAt(final String description, final int positionOffset) {
+		if (errorInfo == JsonReader.ErrorInfo.MINIMAL) return ParsingException.create(description, false);
+		final String message = description + " at position: " + (position - positionOffset);
+		return ParsingException.create(message, errorInfo == JsonReader.ErrorInfo.WITH_STACK_TRACE);
+	}
+
+	private int initial() throws ParsingException {
+		if (position >= length) throw newParseError("Unexpected end of CBOR input");
+		return buffer[position] & 0xFF;
+	}
+
+	/**
+	 * Major type of the next item, without consuming it.
+	 *
+	 * @return major type in [0, 7] range
+	 * @throws ParsingException end of input
+	 */
+	public int peekMajor() throws ParsingException {
+		return initial() >>> 5;
+	}
+
+	/**
+	 * Consume null (or undefined) if it's the next item.
+	 *
+	 * @return true if null was consumed
+	 * @throws ParsingException end of input
+	 */
+	public boolean tryReadNull() throws ParsingException {
+		final int b = initial();
+		if (b == (CborWriter.NULL & 0xFF) || b == (CborWriter.UNDEFINED & 0xFF)) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Consume break marker of an indefinite length item if it's the next item.
+	 *
+	 * @return true if break was consumed
+	 * @throws ParsingException end of input
+	 */
+	public boolean tryReadBreak() throws ParsingException {
+		if (initial() == (CborWriter.BREAK & 0xFF)) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void require(final int size) throws ParsingException {
+		if (size > length - position) throw newParseError("Unexpected end of CBOR input");
+	}
+
+	//argument of the header, -1 for indefinite length. 8 byte arguments are returned as unsigned long bits
+	private long readArgument(final int initial) throws ParsingException {
+		final int info = initial & 31;
+		if (info < 24) return info;
+		switch (info) {
+			case 24:
+				require(1);
+				return buffer[position++] & 0xFF;
+			case 25:
+				require(2);
+				position += 2;
+				return (buffer[position - 2] & 0xFF) << 8 | buffer[position - 1] & 0xFF;
+			case 26:
+				require(4);
+				position += 4;
+				return (long) (buffer[position - 4] & 0xFF) << 24 | (buffer[position - 3] & 0xFF) << 16
+						| (buffer[position - 2] & 0xFF) << 8 | buffer[position - 1] & 0xFF;
+			case 27:
+				require(8);
+				long value = 0;
+				for (int i = 0; i < 8; i++) {
+					value = value << 8 | buffer[position++] & 0xFF;
+				}
+				return value;
+			case CborWriter.INDEFINITE:
+				return -1;
+			default:
+				throw newParseErrorAt("Invalid additional information in CBOR header", 1);
+		}
+	}
+
+	//skips over tags, since they don't change the encoding of the content
+	private int header() throws ParsingException {
+		int initial = initial();
+		while (initial >>> 5 == CborWriter.MAJOR_TAG) {
+			position++;
+			readArgument(initial);
+			initial = initial();
+		}
+		position++;
+		return initial;
+	}
+
+	private int readLength(final int initial, final int major, final String expected) throws ParsingException {
+		if (initial >>> 5 != major) throw newParseErrorAt(expected, 1);
+		if ((initial & 31) == CborWriter.INDEFINITE) return -1;
+		final long size = readArgument(initial);
+		if (size < 0 || size > Integer.MAX_VALUE) throw newParseErrorAt("Unsupported CBOR length", 1);
+		return (int) size;
+	}
+
+	public boolean readBool() throws ParsingException {
+		final int initial = header();
+		if (initial == (CborWriter.TRUE & 0xFF)) return true;
+		if (initial == (CborWriter.FALSE & 0xFF)) return false;
+		throw newParseErrorAt("Expecting boolean", 1);
+	}
+
+	public long readLong() throws IOException {
+		final int start = position;
+		final int initial = header();
+		final int major = initial >>> 5;
+		if (major == CborWriter.MAJOR_UNSIGNED || major == CborWriter.MAJOR_NEGATIVE) {
+			final long value = readArgument(initial);
+			if (value < 0) throw newParseErrorAt("Integer is out of range of long", position - start);
+			return major == CborWriter.MAJOR_UNSIGNED ? value : ~value;
+		}
+		if (major == CborWriter.MAJOR_SIMPLE) {
+			final double value = readFloatingPoint(initial, start);
+			if (value == (long) value && value != 0x1p63) return (long) value;
+		}
+		position = start;
+		throw newParseError("Expecting integer");
+	}
+
+	public int readInt() throws IOException {
+		final int start = position;
+		final long value = readLong();
+		if (value != (int) value) throw newParseErrorAt("Integer is out of range of int", position - start);
+		return (int) value;
+	}
+
+	public short readShort() throws IOException {
+		final int start = position;
+		final long value = readLong();
+		if (value != (short) value) throw newParseErrorAt("Integer is out of range of short", position - start);
+		return (short) value;
+	}
+
+	public byte readByte() throws IOException {
+		final int start = position;
+		final long value = readLong();
+		if (value != (byte) value) throw newParseErrorAt("Integer is out of range of byte", position - start);
+		return (byte) value;
+	}
+
+	public double readDouble() throws IOException {
+		final int start = position;
+		final int initial = header();
+		switch (initial >>> 5) {
+			case CborWriter.MAJOR_UNSIGNED:
+				final long positive = readArgument(initial);
+				return positive >= 0 ? positive : unsigned(positive).doubleValue();
+			case CborWriter.MAJOR_NEGATIVE:
+				final long negative = readArgument(initial);
+				return negative >= 0 ? ~negative : unsigned(negative).not().doubleValue();
+			case CborWriter.MAJOR_SIMPLE:
+				return readFloatingPoint(initial, start);
+			default:
+				position = start;
+				return readNumber().doubleValue();
+		}
+	}
+
+	public float readFloat() throws IOException {
+		return (float) readDouble();
+	}
+
+	private double readFloatingPoint(final int initial, final int start) throws ParsingException {
+		if (initial == (CborWriter.DOUBLE & 0xFF)) {
+			return Double.longBitsToDouble(readArgument(initial));
+		} else if (initial == (CborWriter.SINGLE & 0xFF)) {
+			return Float.intBitsToFloat((int) readArgument(initial));
+		} else if (initial == (CborWriter.HALF & 0xFF)) {
+			return halfToFloat((int) readArgument(initial));
+		}
+		position = start;
+		throw newParseError("Expecting number");
+	}
+
+	private static float halfToFloat(final int half) {
+		final int exponent = half >> 10 & 0x1F;
+		final int mantissa = half & 0x3FF;
+		final float value;
+		if (exponent == 0) {
+			value = mantissa * 0x1p-24f;
+		} else if (exponent == 31) {
+			value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+		} else {
+			value = Float.intBitsToFloat(exponent + 112 << 23 | mantissa << 13);
+		}
+		return (half & 0x8000) != 0 ? -value : value;
+	}
+
+	private static BigInteger unsigned(final long bits) {
+		return BigInteger.valueOf(bits >>> 1).shiftLeft(1).or(BigInteger.valueOf(bits & 1));
+	}
+
+	/**
+	 * Read number of any CBOR representation, including big numbers and decimal fractions.
+	 * Integers which fit into long are returned as Long, floating point numbers as Double,
+	 * big numbers as BigInteger and decimal fractions as BigDecimal.
+	 *
+	 * @return number
+	 * @throws IOException invalid input
+	 */
+	public Number readNumber() throws IOException {
+		final int start = position;
+		int initial = initial();
+		if (initial >>> 5 == CborWriter.MAJOR_TAG) {
+			position++;
+			final long tag = readArgument(initial);
+			if (tag == CborWriter.TAG_POSITIVE_BIGNUM || tag == CborWriter.TAG_NEGATIVE_BIGNUM) {
+				final BigInteger magnitude = new BigInteger(1, readBinary());
+				return tag == CborWriter.TAG_POSITIVE_BIGNUM ? magnitude : magnitude.not();
+			} else if (tag == CborWriter.TAG_DECIMAL_FRACTION) {
+				if (readArrayStart() != 2) throw newParseErrorAt("Expecting array of two elements for decimal fraction", position - start);
+				final long exponent = readLong();
+				final Number mantissa = readNumber();
+				if (exponent != (int) exponent || mantissa instanceof Double || mantissa instanceof BigDecimal) {
+					throw newParseErrorAt("Invalid decimal fraction", position - start);
+				}
+				final BigInteger unscaled = mantissa instanceof BigInteger
+						? (BigInteger) mantissa
+						: BigInteger.valueOf(mantissa.longValue());
+				return new BigDecimal(unscaled, (int) -exponent);
+			}
+			return readNumber();
+		}
+		position++;
+		switch (initial >>> 5) {
+			case CborWriter.MAJOR_UNSIGNED:
+				final long positive = readArgument(initial);
+				return positive >= 0 ? (Number) positive : unsigned(positive);
+			case CborWriter.MAJOR_NEGATIVE:
+				final long negative = readArgument(initial);
+				return negative >= 0 ? (Number) ~negative : unsigned(negative).not();
+			case CborWriter.MAJOR_SIMPLE:
+				return readFloatingPoint(initial, start);
+			default:
+				position = start;
+				throw newParseError("Expecting number");
+		}
+	}
+
+	/**
+	 * Read byte string. Chunks of indefinite length byte string are concatenated.
+	 *
+	 * @return content of the byte string
+	 * @throws ParsingException invalid input
+	 */
+	public byte[] readBinary() throws ParsingException {
+		final int initial = header();
+		final int size = readLength(initial, CborWriter.MAJOR_BYTES, "Expecting byte string");
+		if (size >= 0) {
+			require(size);
+			position += size;
+			return Arrays.copyOfRange(buffer, position - size, position);
+		}
+		final ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+		while (!tryReadBreak()) {
+			final int chunk = readLength(header(), CborWriter.MAJOR_BYTES, "Expecting byte string chunk");
+			if (chunk < 0) throw newParseErrorAt("Nested indefinite length chunk", 1);
+			require(chunk);
+			chunks.write(buffer, position, chunk);
+			position += chunk;
+		}
+		return chunks.toByteArray();
+	}
+
+	/**
+	 * Read text string. Chunks of indefinite length text string are concatenated.
+	 *
+	 * @return decoded string
+	 * @throws ParsingException invalid input
+	 */
+	public String readString() throws ParsingException {
+		final int initial = header();
+		final int size = readLength(initial, CborWriter.MAJOR_TEXT, "Expecting text string");
+		if (size < 0) {
+			return new String(readChunks(), StandardCharsets.UTF_8);
+		}
+		require(size);
+		final int start = position;
+		position += size;
+		if (size > chars.length) {
+			chars = new char[Math.max(size, chars.length * 2)];
+		}
+		//most names and values are ASCII, so try to avoid the decoder
+		final char[] tmp = chars;
+		for (int i = 0; i < size; i++) {
+			final byte b = buffer[start + i];
+			if (b < 0) {
+				return new String(buffer, start, size, StandardCharsets.UTF_8);
+			}
+			tmp[i] = (char) b;
+		}
+		return new String(tmp, 0, size);
+	}
+
+	private byte[] readChunks() throws ParsingException {
+		final ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+		while (!tryReadBreak()) {
+			final int chunk = readLength(header(), CborWriter.MAJOR_TEXT, "Expecting text string chunk");
+			if (chunk < 0) throw newParseErrorAt("Nested indefinite length chunk", 1);
+			require(chunk);
+			chunks.write(buffer, position, chunk);
+			position += chunk;
+		}
+		return chunks.toByteArray();
+	}
+
+	/**
+	 * Read array header.
+	 *
+	 * @return number of elements or -1 for indefinite length array which ends with a break
+	 * @throws ParsingException invalid input
+	 */
+	public int readArrayStart() throws ParsingException {
+		return readLength(header(), CborWriter.MAJOR_ARRAY, "Expecting array");
+	}
+
+	/**
+	 * Read map header.
+	 *
+	 * @return number of entries or -1 for indefinite length map which ends with a break
+	 * @throws ParsingException invalid input
+	 */
+	public int readMapStart() throws ParsingException {
+		return readLength(header(), CborWriter.MAJOR_MAP, "Expecting map");
+	}
+
+	/**
+	 * Read text string key and calculate its hash.
+	 * Hash is the same as the one calculated by JsonReader#fillName,
+	 * so generated converters can use the same switch for JSON and CBOR names.
+	 *
+	 * @return hash of the key
+	 * @throws ParsingException invalid input
+	 */
+	public int fillName() throws ParsingException {
+		final int initial = header();
+		int size = readLength(initial, CborWriter.MAJOR_TEXT, "Expecting text string for map key");
+		final byte[] name;
+		int start;
+		if (size < 0) {
+			//rare case, name is kept in a separate buffer
+			name = readChunks();
+			start = 0;
+			size = name.length;
+		} else {
+			require(size);
+			name = buffer;
+			start = position;
+			position += size;
+		}
+		long hash = 0x811c9dc5;
+		for (int i = start; i < start + size; i++) {
+			hash ^= name[i];
+			hash *= 0x1000193;
+		}
+		lastChunkedName = name != buffer ? name : null;
+		nameStart = start;
+		nameLength = size;
+		return (int) hash;
+	}
+
+	/**
+	 * Compare the last key read via fillName with the expected one.
+	 *
+	 * @param name expected UTF-8 name
+	 * @return if names are equal
+	 */
+	public boolean wasLastName(final byte[] name) {
+		if (name.length != nameLength) return false;
+		final byte[] source = lastChunkedName != null ? lastChunkedName : buffer;
+		for (int i = 0; i < name.length; i++) {
+			if (source[nameStart + i] != name[i]) return false;
+		}
+		return true;
+	}
+
+	public String getLastName() {
+		final byte[] source = lastChunkedName != null ? lastChunkedName : buffer;
+		return new String(source, nameStart, nameLength, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Skip over the next item, including nested items within arrays and maps.
+	 *
+	 * @throws ParsingException invalid input
+	 */
+	public void skip() throws ParsingException {
+		final int initial = header();
+		final int major = initial >>> 5;
+		final boolean indefinite = (initial & 31) == CborWriter.INDEFINITE;
+		if (indefinite && major < CborWriter.MAJOR_BYTES) {
+			throw newParseErrorAt("Unexpected indefinite length for integer", 1);
+		} else if (indefinite && major == CborWriter.MAJOR_SIMPLE) {
+			throw newParseErrorAt("Unexpected break", 1);
+		}
+		final long argument = indefinite ? -1 : readArgument(initial);
+		switch (major) {
+			case CborWriter.MAJOR_BYTES:
+			case CborWriter.MAJOR_TEXT:
+				if (indefinite) {
+					while (!tryReadBreak()) skip();
+				} else {
+					require(argument < 0 || argument > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) argument);
+					position += (int) argument;
+				}
+				return;
+			case CborWriter.MAJOR_ARRAY:
+			case CborWriter.MAJOR_MAP:
+				final int items = major == CborWriter.MAJOR_MAP ? 2 : 1;
+				if (indefinite) {
+					while (!tryReadBreak()) {
+						for (int i = 0; i < items; i++) skip();
+					}
+				} else {
+					//each item takes at least a byte
+					if (argument < 0 || argument > length - position) throw newParseError("Unexpected end of CBOR input");
+					for (long i = 0; i < argument * items; i++) skip();
+				}
+		}
+	}
+
+	/**
+	 * Read value through its JSON converter.
+	 * Next item is converted into JSON which is then processed by the JSON converter.
+	 *
+	 * @param converter JSON converter for the value
+	 * @param <T>       type
+	 * @return deserialized value
+	 * @throws IOException invalid input
+	 */
+	@Nullable
+	public <T> T readThroughJson(final JsonReader.ReadObject<T> converter) throws IOException {
+		//JSON is written and read through the pools of the parent DslJson
+		final JsonWriter jw = json.writerPool.take();
+		final JsonReader jr = json.readerPool.take();
+		try {
+			jw.reset();
+			readJson(jw);
+			jr.process(jw.getByteBuffer(), jw.size());
+			jr.getNextToken();
+			return converter.read(jr);
+		} finally {
+			jr.reset();
+			json.readerPool.release(jr);
+			if (json.writerRetention != null) {
+				json.writerRetention.apply(jw);
+			}
+			jw.reset();
+			json.writerPool.release(jw);
+		}
+	}
+
+	/**
+	 * Convert the next item into JSON.
+	 * Byte strings are written as Base64 strings, integer map keys as quoted numbers.
+	 *
+	 * @param writer target for JSON
+	 * @throws IOException invalid input
+	 */
+	public void readJson(final JsonWriter writer) throws IOException {
+		final int start = position;
+		final int initial = initial();
+		switch (initial >>> 5) {
+			case CborWriter.MAJOR_TAG:
+				position++;
+				final long tag = readArgument(initial);
+				if (tag < CborWriter.TAG_POSITIVE_BIGNUM || tag > CborWriter.TAG_DECIMAL_FRACTION) {
+					//other tags only add meaning to the content, which is converted as is
+					readJson(writer);
+					return;
+				}
+				position = start;
+			case CborWriter.MAJOR_UNSIGNED:
+			case CborWriter.MAJOR_NEGATIVE:
+				final Number number = readNumber();
+				if (number instanceof Long) NumberConverter.serialize(number.longValue(), writer);
+				else if (number instanceof Double) NumberConverter.serialize(number.doubleValue(), writer);
+				else if (number instanceof BigDecimal) NumberConverter.serialize((BigDecimal) number, writer);
+				else writer.writeAscii(number.toString());
+				return;
+			case CborWriter.MAJOR_BYTES:
+				writer.writeBinary(readBinary());
+				return;
+			case CborWriter.MAJOR_TEXT:
+				writer.writeString(readString());
+				return;
+			case CborWriter.MAJOR_ARRAY:
+				final int elements = readArrayStart();
+				writer.writeByte(JsonWriter.ARRAY_START);
+				for (int i = 0; elements < 0 ? !tryReadBreak() : i < elements; i++) {
+					if (i > 0) writer.writeByte(JsonWriter.COMMA);
+					readJson(writer);
+				}
+				writer.writeByte(JsonWriter.ARRAY_END);
+				return;
+			case CborWriter.MAJOR_MAP:
+				final int entries = readMapStart();
+				writer.writeByte(JsonWriter.OBJECT_START);
+				for (int i = 0; entries < 0 ? !tryReadBreak() : i < entries; i++) {
+					if (i > 0) writer.writeByte(JsonWriter.COMMA);
+					final int key = peekMajor();
+					if (key == CborWriter.MAJOR_TEXT) {
+						writer.writeString(readString());
+					} else if (key == CborWriter.MAJOR_UNSIGNED || key == CborWriter.MAJOR_NEGATIVE) {
+						writer.writeByte(JsonWriter.QUOTE);
+						NumberConverter.serialize(readLong(), writer);
+						writer.writeByte(JsonWriter.QUOTE);
+					} else {
+						throw newParseError("Only text and integer map keys can be converted to JSON");
+					}
+					writer.writeByte(JsonWriter.SEMI);
+					readJson(writer);
+				}
+				writer.writeByte(JsonWriter.OBJECT_END);
+				return;
+			default:
+				if (initial == (CborWriter.TRUE & 0xFF)) {
+					position++;
+					writer.writeAscii("true");
+				} else if (initial == (CborWriter.FALSE & 0xFF)) {
+					position++;
+					writer.writeAscii("false");
+				} else if (tryReadNull()) {
+					writer.writeNull();
+				} else {
+					final double value = readFloatingPoint(header(), start);
+					NumberConverter.serialize(value, writer);
+				}
+		}
+	}
+}
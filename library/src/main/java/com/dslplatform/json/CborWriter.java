@@ -0,0 +1,553 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Binary counterpart of JsonWriter which writes CBOR (RFC 8949).
+ * Numbers are written in their binary form and byte[] as byte strings,
+ * so there is no number formatting, Base64 or string escaping involved.
+ * <p>
+ * Writer can target an output stream or buffer the entire response in memory.
+ * To use stream as target reset(OutputStream) must be called before processing
+ * and flush() after the processing is done.
+ * <p>
+ * Instances are created via DslJson#newCborWriter.
+ * Types without a CBOR specific converter are written through their JSON converter,
+ * in which case JSON output is converted into CBOR.
+ * CborWriter should not be shared across threads (concurrently).
+ */
+public final class CborWriter {
+
+	/**
+	 * Definition for CBOR serialization of a specific type.
+	 *
+	 * @param <T> type
+	 */
+	public interface WriteObject<T> {
+		void write(CborWriter writer, @Nullable T value);
+	}
+
+	static final int MAJOR_UNSIGNED = 0;
+	static final int MAJOR_NEGATIVE = 1;
+	static final int MAJOR_BYTES = 2;
+	static final int MAJOR_TEXT = 3;
+	static final int MAJOR_ARRAY = 4;
+	static final int MAJOR_MAP = 5;
+	static final int MAJOR_TAG = 6;
+	static final int MAJOR_SIMPLE = 7;
+
+	static final byte FALSE = (byte) 0xF4;
+	static final byte TRUE = (byte) 0xF5;
+	static final byte NULL = (byte) 0xF6;
+	static final byte UNDEFINED = (byte) 0xF7;
+	static final byte HALF = (byte) 0xF9;
+	static final byte SINGLE = (byte) 0xFA;
+	static final byte DOUBLE = (byte) 0xFB;
+	static final byte BREAK = (byte) 0xFF;
+	static final int INDEFINITE = 31;
+
+	static final int TAG_POSITIVE_BIGNUM = 2;
+	static final int TAG_NEGATIVE_BIGNUM = 3;
+	static final int TAG_DECIMAL_FRACTION = 4;
+
+	private byte[] buffer;
+	private int position;
+	private long flushed;
+	@Nullable
+	private OutputStream target;
+
+	final DslJson<?> json;
+	int smallWrites;
+
+	CborWriter(final DslJson<?> json, final int size) {
+		this.json = json;
+		this.buffer = new byte[size];
+	}
+
+	int capacity() {
+		return buffer.length;
+	}
+
+	//part of the buffer used since the last reset, output larger than the buffer uses all of it
+	int usedCapacity() {
+		return (int) Math.min(buffer.length, flushed + position);
+	}
+
+	void replaceBuffer(final int capacity) {
+		buffer = new byte[capacity];
+		position = 0;
+	}
+
+	private void ensureCapacity(final int free) {
+		if (position + free > buffer.length) {
+			enlargeOrFlush(free);
+		}
+	}
+
+	private void enlargeOrFlush(final int free) {
+		if (target != null) {
+			try {
+				target.write(buffer, 0, position);
+			} catch (IOException ex) {
+				throw new SerializationException("Unable to write to target stream.", ex);
+			}
+			flushed += position;
+			position = 0;
+			if (free <= buffer.length) {
+				return;
+			}
+		}
+		buffer = Arrays.copyOf(buffer, buffer.length + buffer.length / 2 + free);
+	}
+
+	private static int headerSize(final long value) {
+		if (value < 24) return 1;
+		if (value < 0x100) return 2;
+		if (value < 0x10000) return 3;
+		if (value < 0x100000000L) return 5;
+		return 9;
+	}
+
+	//value is interpreted as unsigned, since major type 0 and 1 cover the whole 64 bit range
+	private static int writeHeader(final byte[] buffer, int pos, final int major, final long value) {
+		final int type = major << 5;
+		if (value >= 0 && value < 24) {
+			buffer[pos] = (byte) (type | (int) value);
+			return pos + 1;
+		} else if (value >= 0 && value < 0x100) {
+			buffer[pos] = (byte) (type | 24);
+			buffer[pos + 1] = (byte) value;
+			return pos + 2;
+		} else if (value >= 0 && value < 0x10000) {
+			buffer[pos] = (byte) (type | 25);
+			buffer[pos + 1] = (byte) (value >> 8);
+			buffer[pos + 2] = (byte) value;
+			return pos + 3;
+		} else if (value >= 0 && value < 0x100000000L) {
+			buffer[pos] = (byte) (type | 26);
+			buffer[pos + 1] = (byte) (value >> 24);
+			buffer[pos + 2] = (byte) (value >> 16);
+			buffer[pos + 3] = (byte) (value >> 8);
+			buffer[pos + 4] = (byte) value;
+			return pos + 5;
+		}
+		buffer[pos++] = (byte) (type | 27);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			buffer[pos++] = (byte) (value >> shift);
+		}
+		return pos;
+	}
+
+	private void writeHeader(final int major, final long value) {
+		ensureCapacity(9);
+		position = writeHeader(buffer, position, major, value);
+	}
+
+	/**
+	 * Encode property name as CBOR text string.
+	 * Generated converters keep encoded names in static fields and write them via writeRaw.
+	 *
+	 * @param name property name
+	 * @return encoded text string
+	 */
+	public static byte[] encodeKey(final String name) {
+		final byte[] utf8 = name.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+		final byte[] result = new byte[headerSize(utf8.length) + utf8.length];
+		final int pos = writeHeader(result, 0, MAJOR_TEXT, utf8.length);
+		System.arraycopy(utf8, 0, result, pos, utf8.length);
+		return result;
+	}
+
+	public void writeNull() {
+		ensureCapacity(1);
+		buffer[position++] = NULL;
+	}
+
+	public void writeBool(final boolean value) {
+		ensureCapacity(1);
+		buffer[position++] = value ? TRUE : FALSE;
+	}
+
+	public void writeInt(final int value) {
+		writeLong(value);
+	}
+
+	public void writeLong(final long value) {
+		if (value >= 0) {
+			writeHeader(MAJOR_UNSIGNED, value);
+		} else {
+			writeHeader(MAJOR_NEGATIVE, ~value);
+		}
+	}
+
+	public void writeFloat(final float value) {
+		ensureCapacity(5);
+		final int bits = Float.floatToIntBits(value);
+		buffer[position] = SINGLE;
+		buffer[position + 1] = (byte) (bits >> 24);
+		buffer[position + 2] = (byte) (bits >> 16);
+		buffer[position + 3] = (byte) (bits >> 8);
+		buffer[position + 4] = (byte) bits;
+		position += 5;
+	}
+
+	/**
+	 * Write double in the smallest IEEE 754 form which holds the exact value.
+	 * Values which fit into a float without loss are written in 4 bytes.
+	 *
+	 * @param value double to write
+	 */
+	public void writeDouble(final double value) {
+		if ((float) value == value || value != value) {
+			writeFloat((float) value);
+			return;
+		}
+		ensureCapacity(9);
+		final long bits = Double.doubleToLongBits(value);
+		buffer[position++] = DOUBLE;
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			buffer[position++] = (byte) (bits >> shift);
+		}
+	}
+
+	public void writeBigInteger(@Nullable final BigInteger value) {
+		if (value == null) {
+			writeNull();
+		} else if (value.bitLength() < 64) {
+			writeLong(value.longValue());
+		} else {
+			final boolean negative = value.signum() < 0;
+			writeHeader(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+			final byte[] bytes = (negative ? value.not() : value).toByteArray();
+			//two's complement representation can have a leading zero byte for the sign
+			final int offset = bytes[0] == 0 ? 1 : 0;
+			writeHeader(MAJOR_BYTES, bytes.length - offset);
+			writeRaw(bytes, offset, bytes.length - offset);
+		}
+	}
+
+	/**
+	 * Write decimal as an integer when it doesn't have a scale,
+	 * otherwise as a decimal fraction (tag 4) so the scale is preserved.
+	 *
+	 * @param value decimal to write
+	 */
+	public void writeDecimal(@Nullable final BigDecimal value) {
+		if (value == null) {
+			writeNull();
+			return;
+		}
+		if (value.scale() == 0) {
+			writeBigInteger(value.unscaledValue());
+			return;
+		}
+		writeHeader(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+		writeHeader(MAJOR_ARRAY, 2);
+		writeLong(-value.scale());
+		writeBigInteger(value.unscaledValue());
+	}
+
+	/**
+	 * Write string as CBOR text string.
+	 * Header is reserved for the worst case UTF-8 length and moved when the actual length is shorter.
+	 *
+	 * @param value string to write
+	 */
+	public void writeString(@Nullable final String value) {
+		if (value == null) {
+			writeNull();
+			return;
+		}
+		final int length = value.length();
+		final int reserved = headerSize(length * 3L);
+		ensureCapacity(reserved + length * 3);
+		final byte[] buf = buffer;
+		final int start = position + reserved;
+		int pos = start;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c < 0x80) {
+				buf[pos++] = (byte) c;
+			} else if (c < 0x800) {
+				buf[pos++] = (byte) (0xC0 | c >> 6);
+				buf[pos++] = (byte) (0x80 | c & 0x3F);
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				final int cp = Character.toCodePoint(c, value.charAt(++i));
+				buf[pos++] = (byte) (0xF0 | cp >> 18);
+				buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+				buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+				buf[pos++] = (byte) (0x80 | cp & 0x3F);
+			} else if (Character.isSurrogate(c)) {
+				//same replacement as in String.getBytes
+				buf[pos++] = '?';
+			} else {
+				buf[pos++] = (byte) (0xE0 | c >> 12);
+				buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+				buf[pos++] = (byte) (0x80 | c & 0x3F);
+			}
+		}
+		final int written = pos - start;
+		final int header = headerSize(written);
+		if (header != reserved) {
+			System.arraycopy(buf, start, buf, position + header, written);
+		}
+		writeHeader(buf, position, MAJOR_TEXT, written);
+		position += header + written;
+	}
+
+	public void writeBinary(@Nullable final byte[] value) {
+		if (value == null) {
+			writeNull();
+			return;
+		}
+		writeHeader(MAJOR_BYTES, value.length);
+		writeRaw(value, 0, value.length);
+	}
+
+	/**
+	 * Start an array with known number of elements.
+	 *
+	 * @param size number of elements which will follow
+	 */
+	public void writeArrayStart(final int size) {
+		writeHeader(MAJOR_ARRAY, size);
+	}
+
+	/**
+	 * Start a map with known number of entries.
+	 * Each entry is written as a key followed by a value.
+	 *
+	 * @param size number of entries which will follow
+	 */
+	public void writeMapStart(final int size) {
+		writeHeader(MAJOR_MAP, size);
+	}
+
+	/**
+	 * Start an array of unknown length. It must be closed with writeBreak().
+	 */
+	public void writeArrayStart() {
+		ensureCapacity(1);
+		buffer[position++] = (byte) (MAJOR_ARRAY << 5 | INDEFINITE);
+	}
+
+	/**
+	 * Start a map of unknown length. It must be closed with writeBreak().
+	 */
+	public void writeMapStart() {
+		ensureCapacity(1);
+		buffer[position++] = (byte) (MAJOR_MAP << 5 | INDEFINITE);
+	}
+
+	public void writeBreak() {
+		ensureCapacity(1);
+		buffer[position++] = BREAK;
+	}
+
+	/**
+	 * Copy bytes into the output as is.
+	 * Bytes must represent valid CBOR, such as names prepared via encodeKey.
+	 *
+	 * @param bytes  source
+	 * @param offset start in the source
+	 * @param length number of bytes to copy
+	 */
+	public void writeRaw(final byte[] bytes, final int offset, final int length) {
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, buffer, position, length);
+		position += length;
+	}
+
+	public void writeRaw(final byte[] bytes) {
+		writeRaw(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Write value through its JSON converter.
+	 * Output of the JSON converter is converted into CBOR, so this is slower than a CBOR specific converter,
+	 * but allows the use of every type which DslJson can serialize.
+	 *
+	 * @param converter JSON converter for the value
+	 * @param value     value to write
+	 * @param <T>       type
+	 */
+	public <T> void writeThroughJson(final JsonWriter.WriteObject<T> converter, @Nullable final T value) {
+		if (value == null) {
+			writeNull();
+			return;
+		}
+		//JSON is written and read through the pools of the parent DslJson
+		final JsonWriter jw = json.writerPool.take();
+		final JsonReader jr = json.readerPool.take();
+		try {
+			jw.reset();
+			converter.write(jw, value);
+			jr.process(jw.getByteBuffer(), jw.size());
+			jr.getNextToken();
+			writeJson(jr);
+		} catch (IOException ex) {
+			throw new SerializationException("Unable to convert JSON output into CBOR", ex);
+		} finally {
+			jr.reset();
+			json.readerPool.release(jr);
+			if (json.writerRetention != null) {
+				json.writerRetention.apply(jw);
+			}
+			jw.reset();
+			json.writerPool.release(jw);
+		}
+	}
+
+	/**
+	 * Convert JSON value at the current position of the reader into CBOR.
+	 * Objects and arrays are written with indefinite length.
+	 * Integers are written as CBOR integers and decimals as doubles when that is lossless.
+	 *
+	 * @param reader JSON positioned at the start of a value
+	 * @throws IOException unable to parse JSON
+	 */
+	public void writeJson(final JsonReader reader) throws IOException {
+		switch (reader.last()) {
+			case 'n':
+				if (!reader.wasNull()) throw reader.newParseErrorAt("Expecting 'null' for null constant", 0);
+				writeNull();
+				return;
+			case 't':
+				if (!reader.wasTrue()) throw reader.newParseErrorAt("Expecting 'true' for true constant", 0);
+				writeBool(true);
+				return;
+			case 'f':
+				if (!reader.wasFalse()) throw reader.newParseErrorAt("Expecting 'false' for false constant", 0);
+				writeBool(false);
+				return;
+			case '"':
+				writeString(reader.readString());
+				return;
+			case '{':
+				writeMapStart();
+				if (reader.getNextToken() != '}') {
+					writeString(reader.readKey());
+					writeJson(reader);
+					while (reader.getNextToken() == ',') {
+						reader.getNextToken();
+						writeString(reader.readKey());
+						writeJson(reader);
+					}
+					if (reader.last() != '}') throw reader.newParseError("Expecting '}' for object end");
+				}
+				writeBreak();
+				return;
+			case '[':
+				writeArrayStart();
+				if (reader.getNextToken() != ']') {
+					writeJson(reader);
+					while (reader.getNextToken() == ',') {
+						reader.getNextToken();
+						writeJson(reader);
+					}
+					if (reader.last() != ']') throw reader.newParseError("Expecting ']' for array end");
+				}
+				writeBreak();
+				return;
+			default:
+				final Number number = NumberConverter.deserializeNumber(reader);
+				if (number instanceof Long) {
+					writeLong(number.longValue());
+				} else if (number instanceof BigDecimal) {
+					writeDecimal((BigDecimal) number);
+				} else {
+					writeDouble(number.doubleValue());
+				}
+		}
+	}
+
+	/**
+	 * Content of the internal buffer.
+	 * When stream is used as target, only the part after the last flush is available.
+	 *
+	 * @return internal buffer
+	 */
+	public byte[] getByteBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Number of bytes in the internal buffer.
+	 *
+	 * @return current position in the buffer
+	 */
+	public int size() {
+		return position;
+	}
+
+	/**
+	 * Total number of bytes written to the target stream.
+	 *
+	 * @return bytes flushed into the stream
+	 */
+	public long flushed() {
+		return flushed;
+	}
+
+	/**
+	 * Copy of the buffered content.
+	 *
+	 * @return CBOR
+	 */
+	public byte[] toByteArray() {
+		if (target != null) {
+			throw new ConfigurationException("Method is not available when targeting stream");
+		}
+		return Arrays.copyOf(buffer, position);
+	}
+
+	/**
+	 * Copy buffered content into the provided stream.
+	 *
+	 * @param stream target
+	 * @throws IOException unable to write into the stream
+	 */
+	public void toStream(final OutputStream stream) throws IOException {
+		if (target != null) {
+			throw new ConfigurationException("Method should not be used when targeting streams. Instead use flush() to copy what's remaining in the buffer");
+		}
+		stream.write(buffer, 0, position);
+	}
+
+	public void reset() {
+		position = 0;
+		flushed = 0;
+		target = null;
+	}
+
+	/**
+	 * Prepare the writer for the stream target.
+	 * Buffer is copied into the stream whenever it becomes full.
+	 *
+	 * @param stream target, null to buffer the output in memory
+	 */
+	public void reset(@Nullable final OutputStream stream) {
+		position = 0;
+		flushed = 0;
+		target = stream;
+	}
+
+	/**
+	 * Copy the remaining of the buffer into the target stream.
+	 */
+	public void flush() {
+		if (target != null && position != 0) {
+			try {
+				target.write(buffer, 0, position);
+			} catch (IOException ex) {
+				throw new SerializationException("Unable to write to target stream.", ex);
+			}
+			flushed += position;
+			position = 0;
+		}
+	}
+}
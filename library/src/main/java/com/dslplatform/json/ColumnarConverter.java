@@ -0,0 +1,40 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Columnar (struct of arrays) representation of a list of objects.
+ * Instead of an array of objects, list is encoded as a single object with an array of values for each property:
+ * <pre>
+ *     {"id":[1,2,3],"price":[1.5,2.5,3.5]}
+ * </pre>
+ * Property names are written only once and values of the same type are next to each other,
+ * which makes large homogeneous lists smaller and easier to compress.
+ * <p>
+ * Annotation processor creates columnar converters for classes with object format,
+ * which decode primitive properties directly into primitive arrays before objects are constructed.
+ * Other types are converted through their JSON converters.
+ *
+ * @param <T> element type
+ */
+public interface ColumnarConverter<T> {
+	/**
+	 * Write list in columnar format.
+	 * Elements must not be null.
+	 *
+	 * @param writer target
+	 * @param rows   list of elements
+	 */
+	void write(JsonWriter writer, List<T> rows);
+
+	/**
+	 * Read list from columnar format.
+	 * Reader must be positioned at the start of the object.
+	 *
+	 * @param reader input
+	 * @return list of elements
+	 * @throws IOException unable to read input or invalid input detected
+	 */
+	List<T> read(JsonReader reader) throws IOException;
+}
@@ -0,0 +1,248 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Helper methods for columnar converters.
+ * Compiled columnar converters use it to check column sizes,
+ * while for other types JSON converters are adapted with throughJson.
+ */
+public abstract class ColumnarFormat {
+
+	private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+	/**
+	 * Check if the column has the same number of values as the previous columns.
+	 *
+	 * @param reader   input
+	 * @param expected number of values in previous columns or -1 for the first column
+	 * @param actual   number of values in the current column
+	 * @param name     column name
+	 * @return number of rows
+	 * @throws ParsingException when column sizes differ
+	 */
+	public static int checkSize(final JsonReader reader, final int expected, final int actual, final String name) throws ParsingException {
+		if (expected != -1 && expected != actual) {
+			throw reader.newParseErrorWith("Column sizes are different. Expecting " + expected + " values, but found " + actual + " in", name);
+		}
+		return actual;
+	}
+
+	static void checkRows(final List<?> rows) {
+		for (int i = 0; i < rows.size(); i++) {
+			if (rows.get(i) == null) {
+				throw new SerializationException("Null elements are not supported in columnar format. Found null at index: " + i);
+			}
+		}
+	}
+
+	/**
+	 * Adapt JSON converters for columnar format.
+	 * Each element is written as JSON object which is then split into columns,
+	 * and during reading each row is assembled into a JSON object which is then processed by the JSON reader.
+	 * Null values are treated as missing properties, so reader defaults are used for them.
+	 *
+	 * @param json     DslJson for scratch writers and readers
+	 * @param manifest element type
+	 * @param writer   JSON writer for elements, can be null when only reading is required
+	 * @param reader   JSON reader for elements, can be null when only writing is required
+	 * @param <T>      element type
+	 * @return columnar converter
+	 */
+	public static <T> ColumnarConverter<T> throughJson(
+			final DslJson<?> json,
+			final Type manifest,
+			@Nullable final JsonWriter.WriteObject<T> writer,
+			@Nullable final JsonReader.ReadObject<T> reader) {
+		if (json == null) throw new IllegalArgumentException("json can't be null");
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (writer == null && reader == null) throw new IllegalArgumentException("both writer and reader can't be null");
+		return new Transcoder<T>(json, manifest, writer, reader);
+	}
+
+	private static final class Column {
+		final String name;
+		final byte[] key;
+		final JsonWriter values;
+		int count;
+
+		Column(final String name, final JsonWriter values) {
+			this.name = name;
+			this.values = values;
+			final JsonWriter tmp = new JsonWriter(null);
+			tmp.writeString(name);
+			tmp.writeByte(JsonWriter.SEMI);
+			this.key = tmp.toByteArray();
+		}
+
+		void add(final int row, final byte[] input, final int start, final int end) {
+			fill(row);
+			if (count > 0) values.writeByte(JsonWriter.COMMA);
+			values.writeRaw(input, start, end - start);
+			count++;
+		}
+
+		void fill(final int rows) {
+			while (count < rows) {
+				if (count > 0) values.writeByte(JsonWriter.COMMA);
+				values.writeNull();
+				count++;
+			}
+		}
+	}
+
+	private static final class Transcoder<T> implements ColumnarConverter<T> {
+		private final DslJson<?> json;
+		private final Type manifest;
+		private final JsonWriter.WriteObject<T> writer;
+		private final JsonReader.ReadObject<T> reader;
+
+		Transcoder(
+				final DslJson<?> json,
+				final Type manifest,
+				@Nullable final JsonWriter.WriteObject<T> writer,
+				@Nullable final JsonReader.ReadObject<T> reader) {
+			this.json = json;
+			this.manifest = manifest;
+			this.writer = writer;
+			this.reader = reader;
+		}
+
+		@Override
+		public void write(final JsonWriter output, final List<T> rows) {
+			if (writer == null) throw new ConfigurationException("Unable to find writer for " + manifest);
+			checkRows(rows);
+			final JsonWriter row = json.newWriter();
+			final JsonReader<?> parser = json.newReader();
+			final LinkedHashMap<String, Column> columns = new LinkedHashMap<String, Column>();
+			try {
+				for (int i = 0; i < rows.size(); i++) {
+					row.reset();
+					writer.write(row, rows.get(i));
+					parser.process(row.getByteBuffer(), row.size());
+					if (parser.getNextToken() != '{') {
+						throw new SerializationException("Columnar format requires object format for " + manifest);
+					}
+					if (parser.getNextToken() == '}') continue;
+					byte next;
+					do {
+						final String name = parser.readKey();
+						final int start = parser.getCurrentIndex() - 1;
+						next = parser.skip();
+						Column column = columns.get(name);
+						if (column == null) {
+							column = new Column(name, json.newWriter());
+							columns.put(name, column);
+						}
+						column.add(i, row.getByteBuffer(), start, parser.getCurrentIndex() - 1);
+						if (next == ',') parser.getNextToken();
+					} while (next == ',');
+				}
+			} catch (IOException ex) {
+				throw new SerializationException(ex);
+			}
+			output.writeByte(JsonWriter.OBJECT_START);
+			boolean first = true;
+			for (Column column : columns.values()) {
+				if (!first) output.writeByte(JsonWriter.COMMA);
+				first = false;
+				column.fill(rows.size());
+				output.writeAscii(column.key);
+				output.writeByte(JsonWriter.ARRAY_START);
+				output.writeRaw(column.values.getByteBuffer(), 0, column.values.size());
+				output.writeByte(JsonWriter.ARRAY_END);
+			}
+			output.writeByte(JsonWriter.OBJECT_END);
+		}
+
+		@Override
+		public List<T> read(final JsonReader input) throws IOException {
+			if (reader == null) throw new ConfigurationException("Unable to find reader for " + manifest);
+			if (input.last() != '{') throw input.newParseError("Expecting '{' for columnar format start");
+			final JsonReader<?> parser = json.newReader();
+			final ArrayList<Column> columns = new ArrayList<Column>();
+			final ArrayList<byte[]> data = new ArrayList<byte[]>();
+			final ArrayList<int[]> bounds = new ArrayList<int[]>();
+			int size = -1;
+			if (input.getNextToken() != '}') {
+				byte next;
+				do {
+					final String name = input.readKey();
+					if (input.wasNull()) {
+						next = input.getNextToken();
+					} else {
+						if (input.last() != '[') throw input.newParseErrorWith("Expecting '[' for column start", name);
+						final byte[] values = input.readRaw();
+						final int[] positions = findValues(parser, values);
+						size = checkSize(input, size, positions.length / 2, name);
+						columns.add(new Column(name, null));
+						data.add(values);
+						bounds.add(positions);
+						next = input.getNextToken();
+					}
+					if (next == ',') input.getNextToken();
+				} while (next == ',');
+				if (next != '}') throw input.newParseError("Expecting '}' or ',' while decoding columns");
+			}
+			final ArrayList<T> result = new ArrayList<T>(Math.max(size, 0));
+			final JsonWriter row = json.newWriter();
+			for (int i = 0; i < size; i++) {
+				row.reset();
+				row.writeByte(JsonWriter.OBJECT_START);
+				boolean first = true;
+				for (int c = 0; c < columns.size(); c++) {
+					final byte[] values = data.get(c);
+					final int start = bounds.get(c)[i * 2];
+					final int end = bounds.get(c)[i * 2 + 1];
+					if (isNull(values, start, end)) continue;
+					if (!first) row.writeByte(JsonWriter.COMMA);
+					first = false;
+					row.writeAscii(columns.get(c).key);
+					row.writeRaw(values, start, end - start);
+				}
+				row.writeByte(JsonWriter.OBJECT_END);
+				parser.process(row.getByteBuffer(), row.size());
+				parser.getNextToken();
+				result.add(reader.read(parser));
+			}
+			return result;
+		}
+
+		//start and end of each value in the array
+		private static int[] findValues(final JsonReader<?> parser, final byte[] values) throws IOException {
+			parser.process(values, values.length);
+			parser.getNextToken();
+			if (parser.getNextToken() == ']') return new int[0];
+			int[] positions = new int[16];
+			int count = 0;
+			byte next;
+			do {
+				if (count == positions.length) {
+					final int[] tmp = new int[positions.length * 2];
+					System.arraycopy(positions, 0, tmp, 0, positions.length);
+					positions = tmp;
+				}
+				positions[count++] = parser.getCurrentIndex() - 1;
+				next = parser.skip();
+				positions[count++] = parser.getCurrentIndex() - 1;
+				if (next == ',') parser.getNextToken();
+			} while (next == ',');
+			if (count == positions.length) return positions;
+			final int[] result = new int[count];
+			System.arraycopy(positions, 0, result, 0, count);
+			return result;
+		}
+
+		private static boolean isNull(final byte[] values, final int start, final int end) {
+			if (end - start < NULL.length) return false;
+			for (int i = 0; i < NULL.length; i++) {
+				if (values[start + i] != NULL[i]) return false;
+			}
+			return true;
+		}
+	}
+}
@@ -186,4 +186,19 @@ public @interface CompiledJson {
 	 * @return deserialization hint or additional serialization info
 	 */
 	String name() default "";
+
+	/**
+	 * Projections of the object for which additional converters will be created.
+	 * View is identified by a marker class (usually an empty interface) which is referenced
+	 * from properties through @JsonAttribute(views = ...).
+	 * View converter writes only properties from that view,
+	 * while reading binds only them and skips over everything else, regardless of onUnknown setting.
+	 * <p>
+	 * View converters can be used through DslJson.serializeView/deserializeView
+	 * or found through DslJson.tryFindViewWriter/tryFindViewReader.
+	 * Views are supported only in object format of non generic classes.
+	 *
+	 * @return marker classes of supported views
+	 */
+	Class[] views() default {};
 }
\ No newline at end of file
@@ -3,11 +3,17 @@ package com.dslplatform.json;
 import java.io.*;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Main DSL-JSON class.
@@ -78,6 +84,11 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 	 * object will be serialized in such a way. Regardless of this value deserialization will support all formats.
 	 */
 	public final boolean allowArrayFormat;
+	/**
+	 * When objects are decoded via runtime analysis, learn the order in which properties arrive.
+	 * Once the same order is observed in several consecutive inputs, it's used as the expected order for the fast path.
+	 */
+	public final boolean learnPropertyOrder;
 
 	protected final StringCache keyCache;
 	protected final StringCache valuesCache;
@@ -94,8 +105,16 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 	private final int maxStringSize;
 	protected final ThreadLocal<JsonWriter> localWriter;
 	protected final ThreadLocal<JsonReader> localReader;
+	final BufferPool<JsonWriter> writerPool;
+	final BufferPool<JsonReader> readerPool;
+	private final BufferPool<CborWriter> cborWriterPool;
+	private final BufferPool<CborReader> cborReaderPool;
+	@Nullable
+	final BufferRetention writerRetention;
 	private final ExternalConverterAnalyzer externalConverterAnalyzer;
 	private final Map<Class<? extends Annotation>, Boolean> creatorMarkers;
+	private final Map<Type, SerializedCache.Config> serializedCaches;
+	private final Set<Class<?>> columnarTypes;
 
 	public interface Fallback<TContext> {
 		void serialize(@Nullable Object instance, OutputStream stream) throws IOException;
@@ -112,6 +131,33 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		T tryCreate(Type manifest, DslJson dslJson);
 	}
 
+	/**
+	 * Pool of writers or readers used by the stream and byte[] API.
+	 * Instance is taken for the duration of a single call and released afterwards.
+	 * Released instance is already reset, so it doesn't reference the processed input or output.
+	 *
+	 * @param <T> JsonWriter, JsonReader, CborWriter or CborReader
+	 */
+	public interface BufferPool<T> {
+		T take();
+
+		void release(T instance);
+	}
+
+	/**
+	 * Creates pools for a specific DslJson instance.
+	 * Writers and readers must be created through provided DslJson since they are bound to its configuration.
+	 */
+	public interface BufferPoolStrategy {
+		BufferPool<JsonWriter> writers(DslJson<?> dslJson);
+
+		BufferPool<JsonReader> readers(DslJson<?> dslJson);
+
+		BufferPool<CborWriter> cborWriters(DslJson<?> dslJson);
+
+		BufferPool<CborReader> cborReaders(DslJson<?> dslJson);
+	}
+
 	/**
 	 * Configuration for DslJson options.
 	 * By default key cache is enabled. Everything else is not configured.
@@ -125,6 +171,9 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		private Fallback<TContext> fallback;
 		private boolean omitDefaults;
 		private boolean allowArrayFormat;
+		private boolean learnPropertyOrder;
+		private BufferPoolStrategy bufferPool;
+		private BufferRetention writerRetention;
 		private StringCache keyCache = new SimpleStringCache();
 		private StringCache valuesCache;
 		private int fromServiceLoader;
@@ -139,6 +188,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		private final List<ConverterFactory<JsonReader.BindObject>> binderFactories = new ArrayList<ConverterFactory<JsonReader.BindObject>>();
 		private final Set<ClassLoader> classLoaders = new HashSet<ClassLoader>();
 		private final Map<Class<? extends Annotation>, Boolean> creatorMarkers = new HashMap<Class<? extends Annotation>, Boolean>();
+		private final Map<Type, SerializedCache.Config> serializedCaches = new HashMap<Type, SerializedCache.Config>();
+		private final Set<Class<?>> columnarTypes = new HashSet<Class<?>>();
 
 		/**
 		 * Pass in context for DslJson.
@@ -203,6 +254,93 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			return this;
 		}
 
+		/**
+		 * Objects analyzed in runtime expect properties in declaration order.
+		 * While input follows that order, properties are matched one after another without a lookup.
+		 * When producers use a different, but stable order, each object falls back to the slower lookup.
+		 * With this setting, observed order is recorded per type and after it repeats in several consecutive
+		 * inputs it replaces the expected order. Disabled by default.
+		 *
+		 * @param learnPropertyOrder adapt expected property order to the input
+		 * @return itself
+		 */
+		public Settings<TContext> learnPropertyOrder(boolean learnPropertyOrder) {
+			this.learnPropertyOrder = learnPropertyOrder;
+			return this;
+		}
+
+		/**
+		 * Strategy for reusing writers and readers in the stream and byte[] API.
+		 * By default they are kept in thread local variables, which works well with a fixed number of platform threads.
+		 * When there are many short lived threads, such as virtual threads, thread local instances are rarely reused,
+		 * but each thread still allocates its own buffers.
+		 * In that case a shared pool such as BoundedBufferPool should be used instead.
+		 * <p>
+		 * Use null to revert to thread local variables.
+		 *
+		 * @param bufferPool strategy for reusing writers and readers
+		 * @return itself
+		 */
+		public Settings<TContext> bufferPool(@Nullable BufferPoolStrategy bufferPool) {
+			this.bufferPool = bufferPool;
+			return this;
+		}
+
+		/**
+		 * Remember serialized JSON of immutable instances of the specified type.
+		 * When the same instance is serialized again, cached bytes are copied into the output
+		 * instead of encoding the instance again.
+		 * Writer for the type is wrapped with SerializedCache when it's registered,
+		 * which works for both compiled converters and converters created via runtime analysis.
+		 * <p>
+		 * Cache has a fixed number of slots, so it's bounded regardless of the number of different instances.
+		 * Use it only for types which are not changed after construction, such as reference data.
+		 *
+		 * @param manifest type with immutable instances
+		 * @param capacity number of cached instances
+		 * @param identity compare instances by reference instead of equals
+		 * @return itself
+		 */
+		public Settings<TContext> cacheSerialized(Class<?> manifest, int capacity, boolean identity) {
+			if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+			if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+			serializedCaches.put(manifest, new SerializedCache.Config(capacity, identity));
+			return this;
+		}
+
+		/**
+		 * Write lists of the specified type in columnar format by default.
+		 * Instead of an array of objects, list will be written as an object with an array of values for each property.
+		 * This applies to lists passed directly to serialize, while lists nested in other objects are written as arrays.
+		 * <p>
+		 * deserializeList for the specified type will accept both array and columnar input.
+		 * Columnar format can also be selected for each call with serializeColumnar and deserializeColumnar.
+		 *
+		 * @param manifest element type
+		 * @return itself
+		 */
+		public Settings<TContext> columnar(Class<?> manifest) {
+			if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+			columnarTypes.add(manifest);
+			return this;
+		}
+
+		/**
+		 * Limit the size of buffers retained by reused writers.
+		 * Writer buffer grows to fit the largest output and by default it's never reduced,
+		 * so a single large response keeps the large buffer alive as long as the writer is reused.
+		 * Retention policy is checked when pooled writer is released, for both JSON and CBOR writers.
+		 * <p>
+		 * By default there is no limit.
+		 *
+		 * @param writerRetention retention policy for writer buffers
+		 * @return itself
+		 */
+		public Settings<TContext> writerRetention(@Nullable BufferRetention writerRetention) {
+			this.writerRetention = writerRetention;
+			return this;
+		}
+
 		/**
 		 * Use specific key cache implementation.
 		 * Key cache is enabled by default and it's used when deserializing unstructured objects such as Map&lt;String, Object&gt;
@@ -505,6 +643,23 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		this.fallback = settings.fallback;
 		this.omitDefaults = settings.omitDefaults;
 		this.allowArrayFormat = settings.allowArrayFormat;
+		this.learnPropertyOrder = settings.learnPropertyOrder;
+		this.writerRetention = settings.writerRetention;
+		if (settings.bufferPool == null) {
+			this.writerPool = new ThreadLocalPool<JsonWriter>(localWriter);
+			this.readerPool = new ThreadLocalPool<JsonReader>(localReader);
+			this.cborWriterPool = new ThreadLocalPool<CborWriter>(localCborWriter);
+			this.cborReaderPool = new ThreadLocalPool<CborReader>(localCborReader);
+		} else {
+			this.writerPool = settings.bufferPool.writers(this);
+			this.readerPool = settings.bufferPool.readers(this);
+			this.cborWriterPool = settings.bufferPool.cborWriters(this);
+			this.cborReaderPool = settings.bufferPool.cborReaders(this);
+			if (writerPool == null) throw new IllegalArgumentException("bufferPool returned null for writers");
+			if (readerPool == null) throw new IllegalArgumentException("bufferPool returned null for readers");
+			if (cborWriterPool == null) throw new IllegalArgumentException("bufferPool returned null for cborWriters");
+			if (cborReaderPool == null) throw new IllegalArgumentException("bufferPool returned null for cborReaders");
+		}
 		this.keyCache = settings.keyCache;
 		this.valuesCache = settings.valuesCache;
 		this.unknownNumbers = settings.unknownNumbers;
@@ -520,6 +675,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		this.settingsBinders = settings.binderFactories.size();
 		this.externalConverterAnalyzer = new ExternalConverterAnalyzer(settings.classLoaders);
 		this.creatorMarkers = new HashMap<Class<? extends Annotation>, Boolean>(settings.creatorMarkers);
+		this.serializedCaches = new HashMap<Type, SerializedCache.Config>(settings.serializedCaches);
+		this.columnarTypes = new HashSet<Class<?>>(settings.columnarTypes);
 
 		BinaryConverter.registerDefault(this);
 		BoolConverter.registerDefault(this);
@@ -531,6 +688,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		NetConverter.registerDefault(this);
 		NumberConverter.registerDefault(this);
 		UUIDConverter.registerDefault(this);
+		RawJsonConverter.registerDefault(this);
+		CborConverter.registerDefault(this);
 		StringConverter.registerDefault(this);
 		JavaTimeConverter.registerDefault(this);
 		registerWriter(ResultSet.class, new ResultSetConverter(this));
@@ -546,6 +705,212 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		}
 	}
 
+	private static final class ThreadLocalPool<T> implements BufferPool<T> {
+		private final ThreadLocal<T> local;
+
+		ThreadLocalPool(ThreadLocal<T> local) {
+			this.local = local;
+		}
+
+		@Override
+		public T take() {
+			return local.get();
+		}
+
+		@Override
+		public void release(T instance) {
+		}
+	}
+
+	/**
+	 * Lock free pool with a fixed number of slots, shared between all threads.
+	 * Threads start looking for an instance from different slots to reduce contention.
+	 * When pool is empty a new instance is created and when it's full released instance is left for GC,
+	 * so the number of retained buffers is bounded regardless of the number of threads.
+	 * <p>
+	 * Useful when serialization is done from virtual threads or other short lived threads.
+	 */
+	public static class BoundedBufferPool implements BufferPoolStrategy {
+		private final int capacity;
+
+		/**
+		 * Will use 64 slots for each kind of writers and readers.
+		 */
+		public BoundedBufferPool() {
+			this(64);
+		}
+
+		public BoundedBufferPool(int capacity) {
+			if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+			this.capacity = capacity;
+		}
+
+		@Override
+		public BufferPool<JsonWriter> writers(final DslJson<?> dslJson) {
+			return new Slots<JsonWriter>(capacity) {
+				@Override
+				JsonWriter create() {
+					return dslJson.newWriter(4096);
+				}
+			};
+		}
+
+		@Override
+		public BufferPool<JsonReader> readers(final DslJson<?> dslJson) {
+			return new Slots<JsonReader>(capacity) {
+				@Override
+				JsonReader create() {
+					return dslJson.newReader();
+				}
+			};
+		}
+
+		@Override
+		public BufferPool<CborWriter> cborWriters(final DslJson<?> dslJson) {
+			return new Slots<CborWriter>(capacity) {
+				@Override
+				CborWriter create() {
+					return new CborWriter(dslJson, 4096);
+				}
+			};
+		}
+
+		@Override
+		public BufferPool<CborReader> cborReaders(final DslJson<?> dslJson) {
+			return new Slots<CborReader>(capacity) {
+				@Override
+				CborReader create() {
+					return dslJson.newCborReader();
+				}
+			};
+		}
+
+		private static abstract class Slots<T> implements BufferPool<T> {
+			private final AtomicReferenceArray<T> slots;
+
+			Slots(int capacity) {
+				slots = new AtomicReferenceArray<T>(capacity);
+			}
+
+			abstract T create();
+
+			private int start() {
+				final long id = Thread.currentThread().getId();
+				return (int) (((id ^ (id >>> 32)) * 0x9E3779B9L >>> 1) % slots.length());
+			}
+
+			@Override
+			public T take() {
+				final int length = slots.length();
+				final int start = start();
+				for (int i = 0; i < length; i++) {
+					final int index = start + i < length ? start + i : start + i - length;
+					final T instance = slots.get(index);
+					if (instance != null && slots.compareAndSet(index, instance, null)) {
+						return instance;
+					}
+				}
+				return create();
+			}
+
+			@Override
+			public void release(T instance) {
+				final int length = slots.length();
+				final int start = start();
+				for (int i = 0; i < length; i++) {
+					final int index = start + i < length ? start + i : start + i - length;
+					if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retention policy for buffers of reused writers.
+	 * Buffer larger than the maximum retained capacity is replaced immediately after the write.
+	 * Buffer which was mostly unused (less than a quarter) in several consecutive writes is halved,
+	 * but not below the initial size of pooled writers.
+	 * <p>
+	 * Counters can be used to check how often the policy triggers.
+	 * Same instance can be shared between several DslJson instances.
+	 */
+	public static class BufferRetention {
+		private static final int MIN_CAPACITY = 4096;
+
+		private final int maxRetainedCapacity;
+		private final int decayAfter;
+		private final AtomicLong oversized = new AtomicLong();
+		private final AtomicLong decayed = new AtomicLong();
+
+		/**
+		 * Will retain up to 1MB and halve the buffer after 100 small writes.
+		 */
+		public BufferRetention() {
+			this(1024 * 1024, 100);
+		}
+
+		/**
+		 * @param maxRetainedCapacity largest buffer which can be kept after the write
+		 * @param decayAfter          number of consecutive small writes after which buffer is halved. Use 0 to disable decay
+		 */
+		public BufferRetention(int maxRetainedCapacity, int decayAfter) {
+			if (maxRetainedCapacity < MIN_CAPACITY) throw new IllegalArgumentException("maxRetainedCapacity must be at least " + MIN_CAPACITY);
+			if (decayAfter < 0) throw new IllegalArgumentException("decayAfter can't be negative");
+			this.maxRetainedCapacity = maxRetainedCapacity;
+			this.decayAfter = decayAfter;
+		}
+
+		/**
+		 * Number of times buffer was replaced since it was larger than the maximum retained capacity.
+		 *
+		 * @return oversized buffer count
+		 */
+		public long getOversizedCount() {
+			return oversized.get();
+		}
+
+		/**
+		 * Number of times buffer was halved after consecutive small writes.
+		 *
+		 * @return decay count
+		 */
+		public long getDecayedCount() {
+			return decayed.get();
+		}
+
+		void apply(final JsonWriter writer) {
+			final int capacity = writer.capacity();
+			if (capacity > maxRetainedCapacity) {
+				writer.replaceBuffer(maxRetainedCapacity);
+				writer.smallWrites = 0;
+				oversized.incrementAndGet();
+			} else if (decayAfter == 0 || capacity <= MIN_CAPACITY || writer.usedCapacity() >= capacity / 4) {
+				writer.smallWrites = 0;
+			} else if (++writer.smallWrites >= decayAfter) {
+				writer.replaceBuffer(Math.max(MIN_CAPACITY, capacity / 2));
+				writer.smallWrites = 0;
+				decayed.incrementAndGet();
+			}
+		}
+
+		void apply(final CborWriter writer) {
+			final int capacity = writer.capacity();
+			if (capacity > maxRetainedCapacity) {
+				writer.replaceBuffer(maxRetainedCapacity);
+				writer.smallWrites = 0;
+				oversized.incrementAndGet();
+			} else if (decayAfter == 0 || capacity <= MIN_CAPACITY || writer.usedCapacity() >= capacity / 4) {
+				writer.smallWrites = 0;
+			} else if (++writer.smallWrites >= decayAfter) {
+				writer.replaceBuffer(Math.max(MIN_CAPACITY, capacity / 2));
+				writer.smallWrites = 0;
+				decayed.incrementAndGet();
+			}
+		}
+	}
+
 	/**
 	 * Simplistic string cache implementation.
 	 * It uses a fixed String[] structure in which it caches string value based on it's hash.
@@ -644,6 +1009,21 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		return new JsonWriter(buffer, this);
 	}
 
+	/**
+	 * Create a writer bound to this DSL-JSON which buffers the response in a chain of fixed size segments.
+	 * When segment is full, writing continues in the next one, so already written data is never copied.
+	 * This avoids repeated copies and the peak memory of growing byte[] for very large outputs.
+	 * Result can be processed via toByteBuffers (eg. for gathering writes) or copied once via toByteArray.
+	 * Segments are reused after reset.
+	 *
+	 * @param segmentSize size of a single segment in bytes
+	 * @return bound segmented writer
+	 */
+	public JsonWriter newSegmentedWriter(int segmentSize) {
+		if (segmentSize < 64) throw new IllegalArgumentException("segmentSize must be at least 64");
+		return new JsonWriter(this, segmentSize);
+	}
+
 	/**
 	 * Create a reader bound to this DSL-JSON.
 	 * Bound reader can reuse key cache (which is used during Map deserialization)
@@ -713,6 +1093,20 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		return reader;
 	}
 
+	/**
+	 * Create a reader bound to this DSL-JSON.
+	 * Bound reader can reuse key cache (which is used during Map deserialization)
+	 * Created reader can be reused (using process method).
+	 * Heap buffers will be processed in place, while direct buffers will be processed in chunks.
+	 *
+	 * @param input input buffer
+	 * @return bound reader
+	 * @throws java.io.IOException unable to read from buffer
+	 */
+	public JsonReader<TContext> newReader(ByteBuffer input) throws IOException {
+		return newReader().process(input);
+	}
+
 	/**
 	 * Create a reader bound to this DSL-JSON.
 	 * Bound reader can reuse key cache (which is used during Map deserialization)
@@ -728,6 +1122,30 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		return new JsonReader<TContext>(bytes, bytes.length, context, new char[64], keyCache, valuesCache, this, errorInfo, doublePrecision, unknownNumbers, maxNumberDigits, maxStringSize);
 	}
 
+	/**
+	 * Create an on demand document view bound to this DSL-JSON.
+	 * Only values which are accessed through the document will be decoded.
+	 * Document can be reused via process method.
+	 *
+	 * @return document view
+	 */
+	public JsonDocument<TContext> newDocument() {
+		return new JsonDocument<TContext>(newReader(), this);
+	}
+
+	/**
+	 * Compile JSON Pointer into a path which can extract matching values from the input
+	 * without binding the whole document.
+	 * Besides the standard pointer syntax, * can be used to match every attribute or array element.
+	 * Compiled path is thread safe and should be reused.
+	 *
+	 * @param pointer JSON Pointer, eg: /order/items/*&#47;sku
+	 * @return compiled path
+	 */
+	public JsonPath compilePath(final String pointer) {
+		return new JsonPath(pointer, this);
+	}
+
 	private static void loadDefaultConverters(final DslJson json, Set<ClassLoader> loaders, final String name) {
 		for (ClassLoader loader : loaders) {
 			try {
@@ -916,10 +1334,18 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			writers.remove(manifest);
 		} else {
 			writerMap.put(manifest, manifest);
-			writers.put(manifest, writer);
+			writers.put(manifest, withSerializedCache(manifest, writer));
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private JsonWriter.WriteObject withSerializedCache(final Type manifest, final JsonWriter.WriteObject writer) {
+		if (serializedCaches.isEmpty() || writer instanceof SerializedCache) return writer;
+		final SerializedCache.Config config = serializedCaches.get(manifest);
+		if (config == null) return writer;
+		return new SerializedCache(writer, config.capacity, config.identity);
+	}
+
 	/**
 	 * Register custom writer for specific type (instance -&gt; JSON conversion).
 	 * Writer is used for conversion from object instance -&gt; output byte[]
@@ -939,7 +1365,7 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		try {
 			return writers.get(manifest);
 		} finally {
-			writers.put(manifest, writer);
+			writers.put(manifest, withSerializedCache(manifest, writer));
 		}
 	}
 
@@ -978,6 +1404,14 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (writer != null) {
 			if (manifest instanceof Class<?> && actualType == manifest) {
 				writers.putIfAbsent(manifest, writer);
+				if (serializedCaches.containsKey(manifest)) {
+					//factory can register the writer by itself, in which case it's already wrapped
+					final JsonWriter.WriteObject registered = writers.get(manifest);
+					if (registered instanceof SerializedCache) return registered;
+					final JsonWriter.WriteObject cached = withSerializedCache(manifest, writer);
+					writers.put(manifest, cached);
+					return cached;
+				}
 			}
 			return writer;
 		}
@@ -1186,70 +1620,385 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		return (JsonReader.BindObject<T>) tryFindBinder((Type) manifest);
 	}
 
-	private static void findAllSignatures(final Class<?> manifest, final ArrayList<Class<?>> found) {
-		if (found.contains(manifest)) {
-			return;
-		}
-		found.add(manifest);
-		final Class<?> superClass = manifest.getSuperclass();
-		if (superClass != null && superClass != Object.class) {
-			findAllSignatures(superClass, found);
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, JsonReader.ReadObject<?>>> viewReaders =
+			new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, JsonReader.ReadObject<?>>>();
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, JsonWriter.WriteObject<?>>> viewWriters =
+			new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, JsonWriter.WriteObject<?>>>();
+
+	/**
+	 * Register reader for a projection of the specified type.
+	 * View reader binds only properties from the view and skips over everything else.
+	 * <p>
+	 * Views declared through @CompiledJson(views = ...) are registered automatically.
+	 * If null is registered for a reader, view will be removed.
+	 *
+	 * @param manifest specified class
+	 * @param view     marker class of the view
+	 * @param reader   reader for the view
+	 * @param <T>      type
+	 * @param <S>      type or subtype
+	 */
+	public <T, S extends T> void registerViewReader(final Class<T> manifest, final Class<?> view, @Nullable final JsonReader.ReadObject<S> reader) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (view == null) throw new IllegalArgumentException("view can't be null");
+		if (reader == null) {
+			final Map<Class<?>, JsonReader.ReadObject<?>> found = viewReaders.get(manifest);
+			if (found != null) found.remove(view);
+		} else {
+			viewReaders.computeIfAbsent(manifest, k -> new ConcurrentHashMap<Class<?>, JsonReader.ReadObject<?>>()).put(view, reader);
 		}
-		for (final Class<?> iface : manifest.getInterfaces()) {
-			findAllSignatures(iface, found);
+	}
+
+	/**
+	 * Register writer for a projection of the specified type.
+	 * View writer includes only properties from the view in the output.
+	 * <p>
+	 * Views declared through @CompiledJson(views = ...) are registered automatically.
+	 * If null is registered for a writer, view will be removed.
+	 *
+	 * @param manifest specified class
+	 * @param view     marker class of the view
+	 * @param writer   writer for the view
+	 * @param <T>      type
+	 */
+	public <T> void registerViewWriter(final Class<T> manifest, final Class<?> view, @Nullable final JsonWriter.WriteObject<T> writer) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (view == null) throw new IllegalArgumentException("view can't be null");
+		if (writer == null) {
+			final Map<Class<?>, JsonWriter.WriteObject<?>> found = viewWriters.get(manifest);
+			if (found != null) found.remove(view);
+		} else {
+			viewWriters.computeIfAbsent(manifest, k -> new ConcurrentHashMap<Class<?>, JsonWriter.WriteObject<?>>()).put(view, writer);
 		}
 	}
 
+	/**
+	 * Try to find registered reader for the view of the specified type.
+	 * Exact match must be found, type hierarchy will not be scanned.
+	 *
+	 * @param manifest specified class
+	 * @param view     marker class of the view
+	 * @param <T>      specified type
+	 * @return found reader or null
+	 */
 	@SuppressWarnings("unchecked")
 	@Nullable
-	private JsonReader.ReadJsonObject<JsonObject> probeForObjectReader(Class<?> manifest, Object instance) {
-		Object found;
-		try {
-			found = manifest.getField("JSON_READER").get(instance);
-		} catch (Exception ignore) {
-			try {
-				found = manifest.getMethod("JSON_READER").invoke(instance);
-			} catch (Exception ignore2) {
-				try {
-					found = manifest.getMethod("getJSON_READER").invoke(instance);
-				} catch (Exception ignore3) {
-					return null;
-				}
-			}
-		}
-		return found instanceof JsonReader.ReadJsonObject
-				? (JsonReader.ReadJsonObject<JsonObject>)found
-				: null;
+	public <T> JsonReader.ReadObject<T> tryFindViewReader(final Class<T> manifest, final Class<?> view) {
+		Map<Class<?>, JsonReader.ReadObject<?>> found = viewReaders.get(manifest);
+		if (found == null) {
+			//views are registered together with the generated converter which is loaded lazily
+			externalConverterAnalyzer.tryFindConverter(manifest, this);
+			found = viewReaders.get(manifest);
+		}
+		return found != null ? (JsonReader.ReadObject<T>) found.get(view) : null;
 	}
 
+	/**
+	 * Try to find registered writer for the view of the specified type.
+	 * Exact match must be found, type hierarchy will not be scanned.
+	 *
+	 * @param manifest specified class
+	 * @param view     marker class of the view
+	 * @param <T>      specified type
+	 * @return found writer or null
+	 */
 	@SuppressWarnings("unchecked")
 	@Nullable
-	protected final JsonReader.ReadJsonObject<JsonObject> getObjectReader(final Class<?> manifest) {
-		try {
-			JsonReader.ReadJsonObject<JsonObject> reader = objectReaders.get(manifest);
-			if (reader == null) {
-				reader = probeForObjectReader(manifest, null);
-				if (reader == null) {
-					//probe in few special places
-					try {
-						Object companion = manifest.getField("Companion").get(null);
-						reader = probeForObjectReader(companion.getClass(), companion);
-					} catch (Exception ignore) {
-						return null;
-					}
-				}
-				if (reader != null) {
-					objectReaders.putIfAbsent(manifest, reader);
-				}
-			}
-			return reader;
-		} catch (final Exception ignore) {
-			return null;
-		}
+	public <T> JsonWriter.WriteObject<T> tryFindViewWriter(final Class<T> manifest, final Class<?> view) {
+		Map<Class<?>, JsonWriter.WriteObject<?>> found = viewWriters.get(manifest);
+		if (found == null) {
+			//views are registered together with the generated converter which is loaded lazily
+			externalConverterAnalyzer.tryFindConverter(manifest, this);
+			found = viewWriters.get(manifest);
+		}
+		return found != null ? (JsonWriter.WriteObject<T>) found.get(view) : null;
 	}
 
-	public void serializeMap(final Map<String, Object> value, final JsonWriter sw) throws IOException {
-		sw.writeByte(JsonWriter.OBJECT_START);
+	private final ConcurrentMap<Type, CborReader.ReadObject<?>> cborReaders = new ConcurrentHashMap<Type, CborReader.ReadObject<?>>();
+	private final ConcurrentMap<Type, CborWriter.WriteObject<?>> cborWriters = new ConcurrentHashMap<Type, CborWriter.WriteObject<?>>();
+	private final ThreadLocal<CborWriter> localCborWriter = ThreadLocal.withInitial(this::newCborWriter);
+	private final ThreadLocal<CborReader> localCborReader = ThreadLocal.withInitial(this::newCborReader);
+
+	/**
+	 * Create a writer for CBOR output.
+	 *
+	 * @return new writer
+	 */
+	public CborWriter newCborWriter() {
+		return new CborWriter(this, 512);
+	}
+
+	/**
+	 * Create a reader for CBOR input.
+	 *
+	 * @return new reader
+	 */
+	public CborReader newCborReader() {
+		return new CborReader(this, errorInfo);
+	}
+
+	/**
+	 * Register CBOR reader for the specified type.
+	 * Classes annotated with @CompiledJson register CBOR readers which share the compiled property metadata.
+	 * Types without registered CBOR reader are read through their JSON reader.
+	 * <p>
+	 * If null is registered for a reader, JSON reader will be used for that type.
+	 *
+	 * @param manifest specified class
+	 * @param reader   provide custom implementation for reading CBOR into an object instance
+	 * @param <T>      type
+	 * @param <S>      type or subtype
+	 */
+	public <T, S extends T> void registerCborReader(final Class<T> manifest, @Nullable final CborReader.ReadObject<S> reader) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (reader == null) cborReaders.remove(manifest);
+		else cborReaders.put(manifest, reader);
+	}
+
+	/**
+	 * Register CBOR writer for the specified type.
+	 * Classes annotated with @CompiledJson register CBOR writers which share the compiled property metadata.
+	 * Types without registered CBOR writer are written through their JSON writer.
+	 * <p>
+	 * If null is registered for a writer, JSON writer will be used for that type.
+	 *
+	 * @param manifest specified class
+	 * @param writer   provide custom implementation for writing object instance as CBOR
+	 * @param <T>      type
+	 */
+	public <T> void registerCborWriter(final Class<T> manifest, @Nullable final CborWriter.WriteObject<? super T> writer) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (writer == null) cborWriters.remove(manifest);
+		else cborWriters.put(manifest, writer);
+	}
+
+	/**
+	 * Try to find CBOR reader for the specified type.
+	 * When CBOR reader is not registered, JSON reader is looked up and adapted,
+	 * so every type which can be read from JSON can also be read from CBOR.
+	 *
+	 * @param manifest specified type
+	 * @return found reader or null
+	 */
+	@Nullable
+	public CborReader.ReadObject<?> tryFindCborReader(final Type manifest) {
+		final CborReader.ReadObject<?> found = cborReaders.get(manifest);
+		if (found != null) return found;
+		final CborReader.ReadObject<?> adapted;
+		final Type element = cborElementType(manifest);
+		final CborReader.ReadObject<?> elementReader = element != null ? tryFindCborReader(element) : null;
+		if (elementReader != null && manifest instanceof Class<?>) {
+			adapted = CborConverter.arrayReader(elementReader, ((Class<?>) manifest).getComponentType());
+		} else if (elementReader != null && isCborCollection(manifest, true)) {
+			final Class<?> raw = (Class<?>) ((ParameterizedType) manifest).getRawType();
+			adapted = CborConverter.collectionReader(elementReader, Set.class.isAssignableFrom(raw));
+		} else if (isCborMap(manifest, true)) {
+			final Type[] args = ((ParameterizedType) manifest).getActualTypeArguments();
+			final CborReader.ReadObject<?> key = tryFindCborReader(args[0]);
+			final CborReader.ReadObject<?> value = tryFindCborReader(args[1]);
+			if (key == null || value == null) return null;
+			adapted = CborConverter.mapReader(key, value);
+		} else {
+			final JsonReader.ReadObject<?> json = tryFindReader(manifest);
+			if (json == null) return null;
+			adapted = CborConverter.throughJson(json);
+		}
+		final CborReader.ReadObject<?> existing = cborReaders.putIfAbsent(manifest, adapted);
+		return existing != null ? existing : adapted;
+	}
+
+	/**
+	 * Try to find CBOR writer for the specified type.
+	 * When CBOR writer is not registered, JSON writer is looked up and adapted,
+	 * so every type which can be written as JSON can also be written as CBOR.
+	 *
+	 * @param manifest specified type
+	 * @return found writer or null
+	 */
+	@Nullable
+	public CborWriter.WriteObject<?> tryFindCborWriter(final Type manifest) {
+		final CborWriter.WriteObject<?> found = cborWriters.get(manifest);
+		if (found != null) return found;
+		final CborWriter.WriteObject<?> adapted;
+		final Type element = cborElementType(manifest);
+		final CborWriter.WriteObject<?> elementWriter = element != null ? tryFindCborWriter(element) : null;
+		if (elementWriter != null && manifest instanceof Class<?>) {
+			adapted = CborConverter.arrayWriter(elementWriter);
+		} else if (elementWriter != null && isCborCollection(manifest, false)) {
+			adapted = CborConverter.collectionWriter(elementWriter);
+		} else if (isCborMap(manifest, false)) {
+			final Type[] args = ((ParameterizedType) manifest).getActualTypeArguments();
+			final CborWriter.WriteObject<?> key = tryFindCborWriter(args[0]);
+			final CborWriter.WriteObject<?> value = tryFindCborWriter(args[1]);
+			if (key == null || value == null) return null;
+			adapted = CborConverter.mapWriter(key, value);
+		} else {
+			final JsonWriter.WriteObject<?> json = tryFindWriter(manifest);
+			if (json == null) return null;
+			adapted = CborConverter.throughJson(json);
+		}
+		final CborWriter.WriteObject<?> existing = cborWriters.putIfAbsent(manifest, adapted);
+		return existing != null ? existing : adapted;
+	}
+
+	private final ConcurrentMap<Class<?>, ColumnarConverter<?>> columnarConverters = new ConcurrentHashMap<Class<?>, ColumnarConverter<?>>();
+
+	/**
+	 * Register converter for lists of the specified type in columnar format.
+	 * Columnar converters for classes with @CompiledJson in object format are registered automatically.
+	 * If null is registered for a converter, it will be removed.
+	 *
+	 * @param manifest  element type
+	 * @param converter columnar converter
+	 * @param <T>       element type
+	 */
+	public <T> void registerColumnarConverter(final Class<T> manifest, @Nullable final ColumnarConverter<T> converter) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (converter == null) columnarConverters.remove(manifest);
+		else columnarConverters.put(manifest, converter);
+	}
+
+	/**
+	 * Try to find columnar converter for lists of the specified type.
+	 * When columnar converter is not registered, JSON writer and reader are looked up and adapted,
+	 * so every type in object format can be processed in columnar format.
+	 *
+	 * @param manifest element type
+	 * @param <T>      element type
+	 * @return found converter or null
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> ColumnarConverter<T> tryFindColumnarConverter(final Class<T> manifest) {
+		final ColumnarConverter<?> found = columnarConverters.get(manifest);
+		if (found != null) return (ColumnarConverter<T>) found;
+		final JsonWriter.WriteObject<T> writer = (JsonWriter.WriteObject<T>) tryFindWriter(manifest);
+		final JsonReader.ReadObject<T> reader = (JsonReader.ReadObject<T>) tryFindReader(manifest);
+		if (writer == null && reader == null) return null;
+		final ColumnarConverter<T> adapted = ColumnarFormat.throughJson(this, manifest, writer, reader);
+		final ColumnarConverter<?> existing = columnarConverters.putIfAbsent(manifest, adapted);
+		return existing != null ? (ColumnarConverter<T>) existing : adapted;
+	}
+
+	private <T> ColumnarConverter<T> findColumnarConverter(final Class<T> manifest) {
+		final ColumnarConverter<T> converter = tryFindColumnarConverter(manifest);
+		if (converter == null) {
+			throw new ConfigurationException("Unable to find columnar converter for " + manifest);
+		}
+		return converter;
+	}
+
+	//columnar format is used by default only for non empty lists with all elements of the same configured type
+	@SuppressWarnings("unchecked")
+	private boolean trySerializeColumnar(final JsonWriter writer, final List<?> rows) {
+		if (rows.isEmpty() || rows.get(0) == null) return false;
+		final Class<?> manifest = rows.get(0).getClass();
+		if (!columnarTypes.contains(manifest)) return false;
+		for (int i = 1; i < rows.size(); i++) {
+			final Object item = rows.get(i);
+			if (item == null || item.getClass() != manifest) return false;
+		}
+		findColumnarConverter((Class<Object>) manifest).write(writer, (List<Object>) rows);
+		return true;
+	}
+
+	//element type of arrays and collections which are processed natively in CBOR
+	@Nullable
+	private static Type cborElementType(final Type manifest) {
+		if (manifest instanceof Class<?>) {
+			final Class<?> component = ((Class<?>) manifest).getComponentType();
+			return component != null && !component.isPrimitive() ? component : null;
+		}
+		if (manifest instanceof ParameterizedType) {
+			final ParameterizedType pt = (ParameterizedType) manifest;
+			if (pt.getActualTypeArguments().length == 1 && pt.getRawType() instanceof Class<?>
+					&& Collection.class.isAssignableFrom((Class<?>) pt.getRawType())) {
+				return pt.getActualTypeArguments()[0];
+			}
+		}
+		return null;
+	}
+
+	//only collections which can be created with ArrayList or LinkedHashSet are read natively
+	private static boolean isCborCollection(final Type manifest, final boolean forReading) {
+		if (!(manifest instanceof ParameterizedType)) return false;
+		final Class<?> raw = (Class<?>) ((ParameterizedType) manifest).getRawType();
+		return !forReading || raw.isAssignableFrom(ArrayList.class) || raw.isAssignableFrom(LinkedHashSet.class);
+	}
+
+	//only maps which can be created with LinkedHashMap are read natively
+	private static boolean isCborMap(final Type manifest, final boolean forReading) {
+		if (!(manifest instanceof ParameterizedType)) return false;
+		final ParameterizedType pt = (ParameterizedType) manifest;
+		if (pt.getActualTypeArguments().length != 2 || !(pt.getRawType() instanceof Class<?>)) return false;
+		final Class<?> raw = (Class<?>) pt.getRawType();
+		return Map.class.isAssignableFrom(raw) && (!forReading || raw.isAssignableFrom(LinkedHashMap.class));
+	}
+
+	private static void findAllSignatures(final Class<?> manifest, final ArrayList<Class<?>> found) {
+		if (found.contains(manifest)) {
+			return;
+		}
+		found.add(manifest);
+		final Class<?> superClass = manifest.getSuperclass();
+		if (superClass != null && superClass != Object.class) {
+			findAllSignatures(superClass, found);
+		}
+		for (final Class<?> iface : manifest.getInterfaces()) {
+			findAllSignatures(iface, found);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private JsonReader.ReadJsonObject<JsonObject> probeForObjectReader(Class<?> manifest, Object instance) {
+		Object found;
+		try {
+			found = manifest.getField("JSON_READER").get(instance);
+		} catch (Exception ignore) {
+			try {
+				found = manifest.getMethod("JSON_READER").invoke(instance);
+			} catch (Exception ignore2) {
+				try {
+					found = manifest.getMethod("getJSON_READER").invoke(instance);
+				} catch (Exception ignore3) {
+					return null;
+				}
+			}
+		}
+		return found instanceof JsonReader.ReadJsonObject
+				? (JsonReader.ReadJsonObject<JsonObject>)found
+				: null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	protected final JsonReader.ReadJsonObject<JsonObject> getObjectReader(final Class<?> manifest) {
+		try {
+			JsonReader.ReadJsonObject<JsonObject> reader = objectReaders.get(manifest);
+			if (reader == null) {
+				reader = probeForObjectReader(manifest, null);
+				if (reader == null) {
+					//probe in few special places
+					try {
+						Object companion = manifest.getField("Companion").get(null);
+						reader = probeForObjectReader(companion.getClass(), companion);
+					} catch (Exception ignore) {
+						return null;
+					}
+				}
+				if (reader != null) {
+					objectReaders.putIfAbsent(manifest, reader);
+				}
+			}
+			return reader;
+		} catch (final Exception ignore) {
+			return null;
+		}
+	}
+
+	public void serializeMap(final Map<String, Object> value, final JsonWriter sw) throws IOException {
+		sw.writeByte(JsonWriter.OBJECT_START);
 		final int size = value.size();
 		if (size > 0) {
 			final Iterator<Map.Entry<String, Object>> iterator = value.entrySet().iterator();
@@ -1494,7 +2243,7 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (body == null) {
 			throw new IllegalArgumentException("body can't be null");
 		}
-		final JsonReader json = localReader.get().process(body, size);
+		final JsonReader json = readerPool.take().process(body, size);
 		try {
 			json.getNextToken();
 			final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
@@ -1520,6 +2269,190 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			throw createErrorMessage(manifest);
 		} finally {
 			json.reset();
+			readerPool.release(json);
+		}
+	}
+
+	/**
+	 * Deserialize only properties from the view of the target object.
+	 * Other properties in the input are skipped and are left at their default values.
+	 *
+	 * @param manifest  target type
+	 * @param view      marker class of the view
+	 * @param body      input JSON
+	 * @param size      length
+	 * @param <TResult> target type
+	 * @return deserialized instance
+	 * @throws IOException error during deserialization
+	 */
+	@Nullable
+	public <TResult> TResult deserializeView(
+			final Class<TResult> manifest,
+			final Class<?> view,
+			final byte[] body,
+			final int size) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (view == null) {
+			throw new IllegalArgumentException("view can't be null");
+		}
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
+		}
+		final JsonReader.ReadObject<TResult> reader = tryFindViewReader(manifest, view);
+		if (reader == null) {
+			throw new ConfigurationException("Unable to find reader for view " + view + " on " + manifest);
+		}
+		final JsonReader json = readerPool.take().process(body, size);
+		try {
+			json.getNextToken();
+			return reader.read(json);
+		} finally {
+			json.reset();
+			readerPool.release(json);
+		}
+	}
+
+	/**
+	 * Deserialize list in columnar format.
+	 * Input is an object with an array of values for each property, eg. {"id":[1,2],"name":["a","b"]}.
+	 * Missing columns are treated as missing properties, while unknown columns are processed
+	 * in the same way as unknown properties.
+	 *
+	 * @param manifest  element type
+	 * @param body      input JSON
+	 * @param size      length
+	 * @param <TResult> element type
+	 * @return deserialized list or null when input is null
+	 * @throws IOException error during deserialization
+	 */
+	@Nullable
+	public <TResult> List<TResult> deserializeColumnar(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
+		}
+		final ColumnarConverter<TResult> converter = findColumnarConverter(manifest);
+		final JsonReader json = readerPool.take().process(body, size);
+		try {
+			json.getNextToken();
+			return json.wasNull() ? null : converter.read(json);
+		} finally {
+			json.reset();
+			readerPool.release(json);
+		}
+	}
+
+	/**
+	 * Deserialize list in columnar format from the stream.
+	 *
+	 * @param manifest  element type
+	 * @param stream    input JSON
+	 * @param <TResult> element type
+	 * @return deserialized list or null when input is null
+	 * @throws IOException error during deserialization
+	 */
+	@Nullable
+	public <TResult> List<TResult> deserializeColumnar(
+			final Class<TResult> manifest,
+			final InputStream stream) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final ColumnarConverter<TResult> converter = findColumnarConverter(manifest);
+		final JsonReader json = readerPool.take().process(stream);
+		try {
+			json.getNextToken();
+			return json.wasNull() ? null : converter.read(json);
+		} finally {
+			json.reset();
+			readerPool.release(json);
+		}
+	}
+
+	/**
+	 * Deserialize CBOR input into target object.
+	 * CBOR reader registered for the target is used, or JSON reader when there is none.
+	 *
+	 * @param manifest  target type
+	 * @param body      input CBOR
+	 * @param size      length
+	 * @param <TResult> target type
+	 * @return deserialized instance
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <TResult> TResult deserializeCbor(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
+		}
+		final CborReader.ReadObject<?> reader = tryFindCborReader(manifest);
+		if (reader == null) {
+			throw new ConfigurationException("Unable to find reader for " + manifest);
+		}
+		final CborReader cbor = cborReaderPool.take().process(body, size);
+		try {
+			return (TResult) reader.read(cbor);
+		} finally {
+			cbor.reset();
+			cborReaderPool.release(cbor);
+		}
+	}
+
+	/**
+	 * Deserialize CBOR array into list of target objects.
+	 *
+	 * @param manifest  element type
+	 * @param body      input CBOR
+	 * @param size      length
+	 * @param <TResult> element type
+	 * @return deserialized list or null when input is null
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <TResult> List<TResult> deserializeCborList(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
+		}
+		final CborReader.ReadObject<?> reader = tryFindCborReader(manifest);
+		if (reader == null) {
+			throw new ConfigurationException("Unable to find reader for " + manifest);
+		}
+		final CborReader cbor = cborReaderPool.take().process(body, size);
+		try {
+			if (cbor.tryReadNull()) return null;
+			final int length = cbor.readArrayStart();
+			final List<TResult> result = new ArrayList<TResult>(length < 0 ? 4 : length);
+			for (int i = 0; length < 0 ? !cbor.tryReadBreak() : i < length; i++) {
+				result.add((TResult) reader.read(cbor));
+			}
+			return result;
+		} finally {
+			cbor.reset();
+			cborReaderPool.release(cbor);
 		}
 	}
 
@@ -1551,7 +2484,7 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (body == null) {
 			throw new IllegalArgumentException("body can't be null");
 		}
-		final JsonReader json = localReader.get().process(body, size);
+		final JsonReader json = readerPool.take().process(body, size);
 		try {
 			json.getNextToken();
 			final Object result = deserializeWith(manifest, json);
@@ -1563,6 +2496,7 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 					"Try initializing DslJson with custom fallback in case of unsupported objects or register specified type using registerReader into " + getClass());
 		} finally {
 			json.reset();
+			readerPool.release(json);
 		}
 	}
 
@@ -1687,11 +2621,13 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		} else if (size == 2 && body[0] == '[' && body[1] == ']') {
 			return new ArrayList<TResult>(0);
 		}
-		final JsonReader json = localReader.get().process(body, size);
+		final JsonReader json = readerPool.take().process(body, size);
 		try {
 			if (json.getNextToken() != '[') {
 				if (json.wasNull()) {
 					return null;
+				} else if (json.last() == '{' && columnarTypes.contains(manifest)) {
+					return findColumnarConverter(manifest).read(json);
 				}
 				throw json.newParseError("Expecting '[' for list start");
 			}
@@ -1724,9 +2660,91 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			throw createErrorMessage(manifest);
 		} finally {
 			json.reset();
+			readerPool.release(json);
 		}
 	}
 
+	/**
+	 * Convenient deserialize list API for working with large byte inputs.
+	 * Elements of the top level array will be deserialized in parallel on the provided pool.
+	 * <p>
+	 * Input is first scanned for element boundaries and split into chunks.
+	 * Each chunk is processed with a pooled reader and results are returned in the original order.
+	 * Elements must be independent and their readers thread safe (which is the case for registered readers).
+	 * Small inputs and types which require fallback are processed on the calling thread.
+	 * Only whitespace is allowed after the end of the array.
+	 *
+	 * @param manifest  target type
+	 * @param body      input JSON
+	 * @param size      length
+	 * @param pool      pool on which chunks will be processed
+	 * @param <TResult> target element type
+	 * @return deserialized list instance
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <TResult> List<TResult> deserializeList(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size,
+			final ForkJoinPool pool) throws IOException {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (body == null) throw new IllegalArgumentException("body can't be null");
+		if (pool == null) throw new IllegalArgumentException("pool can't be null");
+		final int chunkSize = ParallelListReader.chunkSize(size, pool);
+		final long[] chunks = ParallelListReader.findChunks(body, size, chunkSize);
+		final JsonReader.ReadObject<TResult> reader = chunks == null || chunks.length < 3 || size < 2 * chunkSize
+				? null
+				: (JsonReader.ReadObject<TResult>) tryFindReader(manifest);
+		if (reader == null) {
+			return deserializeList(manifest, body, size);
+		}
+		return ParallelListReader.deserialize(this, reader, body, chunks, pool);
+	}
+
+	/**
+	 * Deserialize file content into a list of target objects.
+	 * Elements of the top level array will be deserialized in parallel on the provided pool.
+	 * <p>
+	 * File is processed from the current channel position.
+	 * It's first scanned for element boundaries through mapped regions and split into chunks.
+	 * Each chunk is then mapped into memory and processed with a pooled reader,
+	 * so neither the file nor its chunks are copied into a byte[].
+	 * Results are returned in the original order.
+	 * Elements must be independent and their readers thread safe (which is the case for registered readers).
+	 * Small files and types which require fallback are processed on the calling thread.
+	 * Only whitespace is allowed after the end of the array.
+	 * Channel position will not be changed and channel will not be closed.
+	 *
+	 * @param manifest  target type
+	 * @param channel   file with JSON input
+	 * @param pool      pool on which chunks will be processed
+	 * @param <TResult> target element type
+	 * @return deserialized list
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <TResult> List<TResult> deserializeList(
+			final Class<TResult> manifest,
+			final FileChannel channel,
+			final ForkJoinPool pool) throws IOException {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (channel == null) throw new IllegalArgumentException("channel can't be null");
+		if (pool == null) throw new IllegalArgumentException("pool can't be null");
+		final long size = channel.size() - channel.position();
+		final int chunkSize = ParallelListReader.chunkSize(size, pool);
+		final long[] chunks = ParallelListReader.findChunks(channel, chunkSize);
+		final JsonReader.ReadObject<TResult> reader = chunks == null || chunks.length < 3 || size < 2L * chunkSize
+				? null
+				: (JsonReader.ReadObject<TResult>) tryFindReader(manifest);
+		if (reader == null) {
+			return deserializeList(manifest, channel);
+		}
+		return ParallelListReader.deserialize(this, reader, channel, chunks, pool);
+	}
+
 	/**
 	 * This is deprecated to avoid using it.
 	 * Use deserializeList method without the buffer argument instead.
@@ -1790,14 +2808,39 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
 		if (stream == null) throw new IllegalArgumentException("stream can't be null");
 
-		final JsonReader json = localReader.get().process(stream);
+		final JsonReader json = readerPool.take().process(stream);
 		try {
 			return deserializeList(manifest, json, stream);
 		} finally {
 			json.reset();
+			readerPool.release(json);
 		}
 	}
 
+	/**
+	 * Convenient deserialize list API for working with large files.
+	 * Deserialize file content into a list of target objects.
+	 * <p>
+	 * File is processed from the current channel position by mapping consecutive regions of the file into memory.
+	 * Mapped regions are then processed through thread local reader in the same way as InputStream.
+	 * This avoids read calls for each processed chunk and allows for processing files larger than 2GB.
+	 * Channel position will not be changed and channel will not be closed.
+	 *
+	 * @param manifest  target type
+	 * @param channel   file with JSON input
+	 * @param <TResult> target element type
+	 * @return deserialized list
+	 * @throws IOException error during deserialization
+	 */
+	@Nullable
+	public <TResult> List<TResult> deserializeList(
+			final Class<TResult> manifest,
+			final FileChannel channel) throws IOException {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (channel == null) throw new IllegalArgumentException("channel can't be null");
+		return deserializeList(manifest, new MappedFileStream(channel, MappedFileStream.DEFAULT_WINDOW_SIZE));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Nullable
 	protected <TResult> List<TResult> deserializeList(
@@ -1807,6 +2850,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (json.getNextToken() != '[') {
 			if (json.wasNull()) {
 				return null;
+			} else if (json.last() == '{' && columnarTypes.contains(manifest)) {
+				return findColumnarConverter(manifest).read(json);
 			}
 			throw json.newParseError("Expecting '[' for list start");
 		}
@@ -1909,11 +2954,12 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (stream == null) {
 			throw new IllegalArgumentException("stream can't be null");
 		}
-		final JsonReader json = localReader.get().process(stream);
+		final JsonReader json = readerPool.take().process(stream);
 		try {
 			return deserialize(manifest, json, stream);
 		} finally {
 			json.reset();
+			readerPool.release(json);
 		}
 	}
 
@@ -1924,9 +2970,19 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			final JsonReader json,
 			final InputStream stream) throws IOException {
 		json.getNextToken();
+		final Object result = deserializeWith(manifest, json);
+		if (result != unknownValue) return (TResult) result;
+		if (fallback != null) {
+			return (TResult) fallback.deserialize(context, manifest, new RereadStream(json.buffer, stream));
+		}
+		throw createErrorMessage(manifest);
+	}
+
+	@Nullable
+	private Object deserializeWith(final Class<?> manifest, final JsonReader json) throws IOException {
 		final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
 		if (simpleReader != null) {
-			return (TResult) simpleReader.read(json);
+			return simpleReader.read(json);
 		}
 		if (manifest.isArray()) {
 			if (json.wasNull()) {
@@ -1936,26 +2992,23 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			}
 			final Class<?> elementManifest = manifest.getComponentType();
 			if (json.getNextToken() == ']') {
-				return (TResult) Array.newInstance(elementManifest, 0);
+				return Array.newInstance(elementManifest, 0);
 			}
 			//leave for now in to avoid overhead of going through redirection via generic tryFindReader
 			if (JsonObject.class.isAssignableFrom(elementManifest)) {
 				final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(elementManifest);
 				if (objectReader != null) {
 					List<?> list = json.deserializeNullableCollection(objectReader);
-					return (TResult) convertResultToArray(elementManifest, list);
+					return convertResultToArray(elementManifest, list);
 				}
 			}
 			final JsonReader.ReadObject<?> simpleElementReader = tryFindReader(elementManifest);
 			if (simpleElementReader != null) {
 				List<?> list = json.deserializeNullableCollection(simpleElementReader);
-				return (TResult) convertResultToArray(elementManifest, list);
+				return convertResultToArray(elementManifest, list);
 			}
 		}
-		if (fallback != null) {
-			return (TResult) fallback.deserialize(context, manifest, new RereadStream(json.buffer, stream));
-		}
-		throw createErrorMessage(manifest);
+		return unknownValue;
 	}
 
 	/**
@@ -2004,51 +3057,135 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (fallback != null) {
 			return fallback.deserialize(context, manifest, new RereadStream(buffer, stream));
 		}
-		throw new ConfigurationException("Unable to find reader for provided type: " + manifest + " and fallback serialization is not registered.\n" +
-				"Try initializing DslJson with custom fallback in case of unsupported objects or register specified type using registerReader into " + getClass());
+		throw new ConfigurationException("Unable to find reader for provided type: " + manifest + " and fallback serialization is not registered.\n" +
+				"Try initializing DslJson with custom fallback in case of unsupported objects or register specified type using registerReader into " + getClass());
+	}
+
+	/**
+	 * Deserialize API for working with streams.
+	 * Deserialize provided stream input into target object.
+	 * This method reuses thread local reader for processing JSON input.
+	 * <p>
+	 * Since JSON is often though of as a series of char,
+	 * most libraries will convert inputs into a sequence of chars and do processing on them.
+	 * <p>
+	 * When working on InputStream DslJson will process JSON in chunks of byte[] inputs.
+	 * <p>
+	 *
+	 * @param manifest target type
+	 * @param stream   input JSON
+	 * @return deserialized instance
+	 * @throws IOException error during deserialization
+	 */
+	@Nullable
+	public Object deserialize(
+			final Type manifest,
+			final InputStream stream) throws IOException {
+		if (manifest instanceof Class<?>) {
+			return deserialize((Class<?>) manifest, stream);
+		}
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final JsonReader json = readerPool.take().process(stream);
+		try {
+			json.getNextToken();
+			final Object result = deserializeWith(manifest, json);
+			if (result != unknownValue) return result;
+			if (fallback != null) {
+				return fallback.deserialize(context, manifest, new RereadStream(json.buffer, stream));
+			}
+			throw new ConfigurationException("Unable to find reader for provided type: " + manifest + " and fallback serialization is not registered.\n" +
+					"Try initializing DslJson with custom fallback in case of unsupported objects or register specified type using registerReader into " + getClass());
+		} finally {
+			json.reset();
+			readerPool.release(json);
+		}
+	}
+
+	/**
+	 * Convenient deserialize API for working with NIO buffers.
+	 * Deserialize provided buffer input into target object.
+	 * Input is processed from the current buffer position up to its limit.
+	 * Position of the provided buffer will not be changed.
+	 * This method reuses thread local reader for processing.
+	 * <p>
+	 * Heap buffers are processed in place, without copying the input into an intermediate byte[].
+	 * Direct buffers are processed in chunks of thread local reader buffer, similar to InputStream processing.
+	 *
+	 * @param manifest  target type
+	 * @param body      input JSON
+	 * @param <TResult> target type
+	 * @return deserialized instance
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <TResult> TResult deserialize(
+			final Class<TResult> manifest,
+			final ByteBuffer body) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
+		}
+		final JsonReader json = readerPool.take().process(body);
+		try {
+			json.getNextToken();
+			final Object result = deserializeWith(manifest, json);
+			if (result != unknownValue) return (TResult) result;
+			if (fallback != null) {
+				return (TResult) fallback.deserialize(context, manifest, new JsonReader.ByteBufferStream(body.duplicate()));
+			}
+			throw createErrorMessage(manifest);
+		} finally {
+			json.reset();
+			readerPool.release(json);
+		}
 	}
 
 	/**
-	 * Deserialize API for working with streams.
-	 * Deserialize provided stream input into target object.
-	 * This method reuses thread local reader for processing JSON input.
-	 * <p>
-	 * Since JSON is often though of as a series of char,
-	 * most libraries will convert inputs into a sequence of chars and do processing on them.
-	 * <p>
-	 * When working on InputStream DslJson will process JSON in chunks of byte[] inputs.
-	 * <p>
+	 * Deserialize API for working with NIO buffers.
+	 * Deserialize provided buffer input into target object.
+	 * Input is processed from the current buffer position up to its limit.
+	 * Position of the provided buffer will not be changed.
+	 * This method reuses thread local reader for processing.
 	 *
 	 * @param manifest target type
-	 * @param stream   input JSON
+	 * @param body     input JSON
 	 * @return deserialized instance
 	 * @throws IOException error during deserialization
 	 */
 	@Nullable
 	public Object deserialize(
 			final Type manifest,
-			final InputStream stream) throws IOException {
+			final ByteBuffer body) throws IOException {
 		if (manifest instanceof Class<?>) {
-			return deserialize((Class<?>) manifest, stream);
+			return deserialize((Class<?>) manifest, body);
 		}
 		if (manifest == null) {
 			throw new IllegalArgumentException("manifest can't be null");
 		}
-		if (stream == null) {
-			throw new IllegalArgumentException("stream can't be null");
+		if (body == null) {
+			throw new IllegalArgumentException("body can't be null");
 		}
-		final JsonReader json = localReader.get().process(stream);
+		final JsonReader json = readerPool.take().process(body);
 		try {
 			json.getNextToken();
 			final Object result = deserializeWith(manifest, json);
 			if (result != unknownValue) return result;
 			if (fallback != null) {
-				return fallback.deserialize(context, manifest, new RereadStream(json.buffer, stream));
+				return fallback.deserialize(context, manifest, new JsonReader.ByteBufferStream(body.duplicate()));
 			}
 			throw new ConfigurationException("Unable to find reader for provided type: " + manifest + " and fallback serialization is not registered.\n" +
 					"Try initializing DslJson with custom fallback in case of unsupported objects or register specified type using registerReader into " + getClass());
 		} finally {
 			json.reset();
+			readerPool.release(json);
 		}
 	}
 
@@ -2138,7 +3275,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		if (stream == null) {
 			throw new IllegalArgumentException("stream can't be null");
 		}
-		final JsonReader json = localReader.get();
+		//reader is used by the iterator after this call, so it's never released back into the pool
+		final JsonReader json = readerPool.take();
 		json.process(stream);
 		return iterateOver(manifest, json, stream);
 	}
@@ -2182,6 +3320,214 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		return iterateOver(manifest, newReader(stream, buffer), stream);
 	}
 
+	/**
+	 * Streaming API for collection deserialization from large files.
+	 * DslJson will create iterator based on provided manifest info.
+	 * It will attempt to deserialize from file on each next() invocation.
+	 * <p>
+	 * File is processed from the current channel position by mapping consecutive regions of the file into memory.
+	 * Mapped regions are then processed through thread local reader in the same way as InputStream.
+	 * This avoids read calls for each processed chunk and allows for processing files larger than 2GB.
+	 * Channel position will not be changed and channel must not be closed until iteration is done.
+	 *
+	 * @param manifest  type info
+	 * @param channel   file with JSON input
+	 * @param <TResult> type info
+	 * @return Iterator to instances deserialized from input JSON
+	 * @throws IOException if reader is not found or there is an error processing the file
+	 */
+	@Nullable
+	public <TResult> Iterator<TResult> iterateOver(
+			final Class<TResult> manifest,
+			final FileChannel channel) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (channel == null) {
+			throw new IllegalArgumentException("channel can't be null");
+		}
+		return iterateOver(manifest, new MappedFileStream(channel, MappedFileStream.DEFAULT_WINDOW_SIZE));
+	}
+
+	/**
+	 * Streaming API for newline delimited JSON (NDJSON/JSON Lines) input.
+	 * Each non empty line of the input is deserialized into a separate record on next() invocation.
+	 * <p>
+	 * Lines are processed in place by a reader dedicated to the iterator, without copying them into separate arrays.
+	 * Invalid record will result in SerializationException which contains the line number.
+	 *
+	 * @param manifest  record type
+	 * @param stream    NDJSON input
+	 * @param <TResult> record type
+	 * @return Iterator to records deserialized from input lines
+	 * @throws IOException if reader is not found for the record type
+	 */
+	public <TResult> Iterator<TResult> iterateOverLines(
+			final Class<TResult> manifest,
+			final InputStream stream) throws IOException {
+		return iterateOverLines(manifest, stream, false);
+	}
+
+	/**
+	 * Streaming API for newline delimited JSON (NDJSON/JSON Lines) input.
+	 * Each non empty line of the input is deserialized into a separate record on next() invocation.
+	 * <p>
+	 * Lines are processed in place by a reader dedicated to the iterator, without copying them into separate arrays.
+	 * Since records are bounded by lines, invalid records can be skipped and processing resumed on the next line.
+	 *
+	 * @param manifest      record type
+	 * @param stream        NDJSON input
+	 * @param skipMalformed skip lines with invalid records instead of throwing SerializationException
+	 * @param <TResult>     record type
+	 * @return Iterator to records deserialized from input lines
+	 * @throws IOException if reader is not found for the record type
+	 */
+	public <TResult> Iterator<TResult> iterateOverLines(
+			final Class<TResult> manifest,
+			final InputStream stream,
+			final boolean skipMalformed) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final JsonReader.ReadObject<TResult> reader = tryFindReader(manifest);
+		if (reader == null) {
+			throw createErrorMessage(manifest);
+		}
+		//iterator holds on to its reader between lines, so it can't use the pooled one
+		return new JsonLinesIterator<TResult>(newReader(), reader, stream, 64 * 1024, skipMalformed);
+	}
+
+	/**
+	 * Create a non blocking parser which accepts input in chunks.
+	 * Each top level value, or each element of a top level array, is bound as soon as it is complete
+	 * and sent to the listener.
+	 * Parser never blocks waiting for more input, which makes it suitable for event loop threads.
+	 *
+	 * @param manifest record type
+	 * @param listener receives bound records
+	 * @param <T>      record type
+	 * @return push parser
+	 * @throws IOException if reader is not found for the record type
+	 */
+	public <T> JsonPushParser<T> newPushParser(
+			final Class<T> manifest,
+			final JsonPushParser.Listener<T> listener) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (listener == null) {
+			throw new IllegalArgumentException("listener can't be null");
+		}
+		final JsonReader.ReadObject<T> reader = tryFindReader(manifest);
+		if (reader == null) {
+			throw createErrorMessage(manifest);
+		}
+		return new JsonPushParser<T>(this, reader, listener);
+	}
+
+	/**
+	 * Backpressure aware publisher of top level array elements from the stream.
+	 * Elements are deserialized only when requested, on the thread which requested them.
+	 * Publisher supports a single subscriber.
+	 *
+	 * @param manifest element type
+	 * @param stream   JSON array input
+	 * @param <T>      element type
+	 * @return publisher of array elements
+	 */
+	public <T> JsonFlow.Publisher<T> publishArray(final Class<T> manifest, final InputStream stream) {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		return new JsonFlow.StreamPublisher<T>(this, manifest, stream);
+	}
+
+	/**
+	 * Backpressure aware processor which accepts chunks of JSON input and publishes elements of the top level array.
+	 * Next chunk is requested from upstream only when downstream requested more elements than parsed so far.
+	 * Processor supports a single subscriber.
+	 *
+	 * @param manifest element type
+	 * @param <T>      element type
+	 * @return processor from input chunks to array elements
+	 * @throws IOException if reader is not found for the element type
+	 */
+	public <T> JsonFlow.Processor<ByteBuffer, T> arrayProcessor(final Class<T> manifest) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		final JsonReader.ReadObject<T> reader = tryFindReader(manifest);
+		if (reader == null) {
+			throw createErrorMessage(manifest);
+		}
+		return new JsonFlow.ChunkProcessor<T>(this, reader);
+	}
+
+	/**
+	 * Subscriber which serializes received elements into the stream as a JSON array.
+	 * Elements are requested in batches of the specified size.
+	 *
+	 * @param manifest element type
+	 * @param stream   target stream
+	 * @param batch    number of elements requested at once
+	 * @param <T>      element type
+	 * @return subscriber which writes JSON array
+	 */
+	public <T> JsonFlow.ArraySubscriber<T> arraySubscriber(final Class<T> manifest, final OutputStream stream, final int batch) {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		if (batch < 1) {
+			throw new IllegalArgumentException("batch can't be smaller than 1");
+		}
+		final JsonWriter.WriteObject<T> writer = tryFindWriter(manifest);
+		if (writer == null) {
+			throw new ConfigurationException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+		}
+		return new JsonFlow.ArraySubscriber<T>(this, writer, stream, batch);
+	}
+
+	/**
+	 * Create a writer for newline delimited JSON (NDJSON/JSON Lines) output.
+	 * All records are serialized through a single JsonWriter
+	 * which is copied to the stream in batches of specified size.
+	 * Writer must be flushed after the last record.
+	 *
+	 * @param manifest  record type
+	 * @param stream    target stream
+	 * @param batchSize buffered bytes after which content is written to the stream
+	 * @param <T>       record type
+	 * @return writer for records of the specified type
+	 */
+	public <T> JsonLinesWriter<T> newLinesWriter(
+			final Class<T> manifest,
+			final OutputStream stream,
+			final int batchSize) {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize can't be smaller than 1");
+		}
+		final JsonWriter.WriteObject<T> writer = tryFindWriter(manifest);
+		if (writer == null) {
+			throw new ConfigurationException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+		}
+		return new JsonLinesWriter<T>(newWriter(), writer, stream, batchSize);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Nullable
 	protected <TResult> Iterator<TResult> iterateOver(
@@ -2673,6 +4019,8 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 		} else if (value instanceof JsonObject[]) {
 			serialize(writer, (JsonObject[]) value);
 			return true;
+		} else if (!columnarTypes.isEmpty() && value instanceof List && trySerializeColumnar(writer, (List<?>) value)) {
+			return true;
 		}
 		final JsonWriter.WriteObject simpleWriter = tryFindWriter(manifest);
 		if (simpleWriter != null) {
@@ -2779,7 +4127,7 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 	/**
 	 * Convenient serialize API.
 	 * In most cases JSON is serialized into target `OutputStream`.
-	 * This method will reuse thread local instance of `JsonWriter` and serialize JSON into it.
+	 * This method will reuse pooled instance of `JsonWriter` (thread local by default) and serialize JSON into it.
 	 *
 	 * @param value    		instance to serialize
 	 * @param stream 		where to write resulting JSON
@@ -2793,17 +4141,287 @@ public class DslJson<TContext> implements UnknownSerializer, TypeLookup {
 			stream.write(NULL);
 			return;
 		}
-		final JsonWriter jw = localWriter.get();
+		final JsonWriter jw = writerPool.take();
+		jw.reset(stream);
+		try {
+			final Class<?> manifest = value.getClass();
+			if (!serialize(jw, manifest, value)) {
+				if (fallback == null) {
+					throw new ConfigurationException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+				}
+				fallback.serialize(value, stream);
+			} else {
+				jw.flush();
+			}
+		} finally {
+			if (writerRetention != null) {
+				writerRetention.apply(jw);
+			}
+			jw.reset(null);
+			writerPool.release(jw);
+		}
+	}
+
+	/**
+	 * Serialize only properties from the view.
+	 * Value can be a single instance, a collection or an array of instances.
+	 * View writer is found by the class of each instance.
+	 * This allows list endpoints to return a summary of each object without a separate model.
+	 *
+	 * @param view   marker class of the view
+	 * @param value  instance, collection or array to serialize
+	 * @param stream where to write resulting JSON
+	 * @throws IOException error when unable to serialize instance
+	 */
+	@SuppressWarnings("unchecked")
+	public final void serializeView(final Class<?> view, @Nullable final Object value, final OutputStream stream) throws IOException {
+		if (view == null) {
+			throw new IllegalArgumentException("view can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final JsonWriter jw = writerPool.take();
+		jw.reset(stream);
+		try {
+			if (value instanceof Collection) {
+				serializeView(jw, view, ((Collection<?>) value).iterator());
+			} else if (value instanceof Object[]) {
+				serializeView(jw, view, Arrays.asList((Object[]) value).iterator());
+			} else if (value == null) {
+				jw.writeNull();
+			} else {
+				findViewWriter(value.getClass(), view).write(jw, value);
+			}
+			jw.flush();
+		} finally {
+			if (writerRetention != null) {
+				writerRetention.apply(jw);
+			}
+			jw.reset(null);
+			writerPool.release(jw);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void serializeView(final JsonWriter jw, final Class<?> view, final Iterator<?> iterator) {
+		jw.writeByte(JsonWriter.ARRAY_START);
+		Class<?> lastManifest = null;
+		JsonWriter.WriteObject writer = null;
+		boolean first = true;
+		while (iterator.hasNext()) {
+			if (!first) jw.writeByte(JsonWriter.COMMA);
+			first = false;
+			final Object item = iterator.next();
+			if (item == null) {
+				jw.writeNull();
+				continue;
+			}
+			//writer of the previous element is reused when the next one is of the same type
+			if (item.getClass() != lastManifest) {
+				lastManifest = item.getClass();
+				writer = findViewWriter(lastManifest, view);
+			}
+			writer.write(jw, item);
+		}
+		jw.writeByte(JsonWriter.ARRAY_END);
+	}
+
+	private JsonWriter.WriteObject findViewWriter(final Class<?> manifest, final Class<?> view) {
+		final JsonWriter.WriteObject writer = tryFindViewWriter(manifest, view);
+		if (writer == null) {
+			throw new ConfigurationException("Unable to find writer for view " + view + " on " + manifest);
+		}
+		return writer;
+	}
+
+	/**
+	 * Serialize list in columnar format.
+	 * Instead of an array of objects, list is written as an object with an array of values for each property,
+	 * eg. {"id":[1,2],"name":["a","b"]}.
+	 * Property names are written only once, which makes large homogeneous lists smaller and easier to compress.
+	 * List elements must not be null.
+	 *
+	 * @param manifest element type
+	 * @param rows     list to serialize
+	 * @param stream   where to write resulting JSON
+	 * @param <T>      element type
+	 * @throws IOException error when unable to serialize instance
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T> void serializeColumnar(final Class<T> manifest, @Nullable final List<? extends T> rows, final OutputStream stream) throws IOException {
+		if (manifest == null) {
+			throw new IllegalArgumentException("manifest can't be null");
+		}
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final ColumnarConverter<T> converter = findColumnarConverter(manifest);
+		final JsonWriter jw = writerPool.take();
 		jw.reset(stream);
+		try {
+			if (rows == null) {
+				jw.writeNull();
+			} else {
+				converter.write(jw, (List<T>) rows);
+			}
+			jw.flush();
+		} finally {
+			if (writerRetention != null) {
+				writerRetention.apply(jw);
+			}
+			jw.reset(null);
+			writerPool.release(jw);
+		}
+	}
+
+	/**
+	 * Serialize instance as CBOR (RFC 8949) into the provided stream.
+	 * CBOR writer is found by the class of the instance.
+	 * Collections and arrays are written as CBOR arrays, with writer found for each element.
+	 *
+	 * @param value  instance to serialize
+	 * @param stream where to write resulting CBOR
+	 * @throws IOException error when unable to serialize instance
+	 */
+	public final void serializeCbor(@Nullable final Object value, final OutputStream stream) throws IOException {
+		if (stream == null) {
+			throw new IllegalArgumentException("stream can't be null");
+		}
+		final CborWriter writer = cborWriterPool.take();
+		writer.reset(stream);
+		try {
+			serializeCbor(writer, value);
+			writer.flush();
+		} finally {
+			if (writerRetention != null) {
+				writerRetention.apply(writer);
+			}
+			writer.reset(null);
+			cborWriterPool.release(writer);
+		}
+	}
+
+	/**
+	 * Serialize instance as CBOR into the provided writer.
+	 * Types without CBOR writer are written through their JSON writer.
+	 *
+	 * @param writer target writer
+	 * @param value  instance to serialize
+	 */
+	@SuppressWarnings("unchecked")
+	public final void serializeCbor(final CborWriter writer, @Nullable final Object value) {
+		if (writer == null) {
+			throw new IllegalArgumentException("writer can't be null");
+		}
+		if (value == null) {
+			writer.writeNull();
+			return;
+		}
 		final Class<?> manifest = value.getClass();
-		if (!serialize(jw, manifest, value)) {
-			if (fallback == null) {
-				throw new ConfigurationException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+		final CborWriter.WriteObject found = cborWriters.get(manifest);
+		if (found != null) {
+			found.write(writer, value);
+		} else if (value instanceof Collection) {
+			final Collection<?> collection = (Collection<?>) value;
+			writer.writeArrayStart(collection.size());
+			serializeCbor(writer, collection.iterator());
+		} else if (value instanceof Object[]) {
+			final Object[] array = (Object[]) value;
+			writer.writeArrayStart(array.length);
+			serializeCbor(writer, Arrays.asList(array).iterator());
+		} else if (value instanceof Map) {
+			final Map<?, ?> map = (Map<?, ?>) value;
+			writer.writeMapStart(map.size());
+			for (Map.Entry<?, ?> kv : map.entrySet()) {
+				serializeCbor(writer, kv.getKey());
+				serializeCbor(writer, kv.getValue());
 			}
-			fallback.serialize(value, stream);
 		} else {
-			jw.flush();
+			final CborWriter.WriteObject adapted = tryFindCborWriter(manifest);
+			if (adapted != null) {
+				adapted.write(writer, value);
+			} else {
+				//runtime type of nested values is resolved by JSON serialization
+				writer.writeThroughJson(this::serializeUnchecked, value);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void serializeCbor(final CborWriter writer, final Iterator<?> iterator) {
+		Class<?> lastManifest = null;
+		CborWriter.WriteObject elementWriter = null;
+		while (iterator.hasNext()) {
+			final Object item = iterator.next();
+			if (item == null) {
+				writer.writeNull();
+			} else if (item.getClass() == lastManifest) {
+				elementWriter.write(writer, item);
+			} else {
+				lastManifest = item.getClass();
+				elementWriter = cborWriters.get(lastManifest);
+				//nested collections and maps are resolved by their content
+				if (elementWriter == null && !(item instanceof Collection || item instanceof Object[] || item instanceof Map)) {
+					elementWriter = tryFindCborWriter(lastManifest);
+				}
+				if (elementWriter == null) {
+					lastManifest = null;
+					serializeCbor(writer, item);
+				} else {
+					elementWriter.write(writer, item);
+				}
+			}
+		}
+	}
+
+	private void serializeUnchecked(final JsonWriter writer, final Object value) {
+		try {
+			serialize(writer, value);
+		} catch (IOException ex) {
+			throw new SerializationException(ex);
+		}
+	}
+
+	/**
+	 * Convenient serialize API for NIO channels.
+	 * Pooled `JsonWriter` writes directly into the channel whenever its buffer is full,
+	 * without wrapping the channel into an OutputStream.
+	 * Channel should be in blocking mode.
+	 *
+	 * @param value   instance to serialize
+	 * @param channel where to write resulting JSON
+	 * @throws IOException error when unable to serialize instance
+	 */
+	public final void serialize(@Nullable final Object value, final WritableByteChannel channel) throws IOException {
+		if (channel == null) {
+			throw new IllegalArgumentException("channel can't be null");
+		}
+		if (value == null) {
+			final ByteBuffer buffer = ByteBuffer.wrap(NULL);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			return;
+		}
+		final JsonWriter jw = writerPool.take();
+		jw.resetChannel(channel);
+		try {
+			final Class<?> manifest = value.getClass();
+			if (!serialize(jw, manifest, value)) {
+				if (fallback == null) {
+					throw new ConfigurationException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+				}
+				fallback.serialize(value, Channels.newOutputStream(channel));
+			} else {
+				jw.flush();
+			}
+		} finally {
+			if (writerRetention != null) {
+				writerRetention.apply(jw);
+			}
 			jw.reset(null);
+			writerPool.release(jw);
 		}
 	}
 
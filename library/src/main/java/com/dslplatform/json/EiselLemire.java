@@ -0,0 +1,155 @@
+package com.dslplatform.json;
+
+import java.math.BigInteger;
+
+/**
+ * Conversion of decimal significand and exponent into the closest double/float.
+ * Based on the algorithm by Michel Eisel and Daniel Lemire as used in fast_float:
+ * https://github.com/fastfloat/fast_float
+ * <p>
+ * Significand is multiplied with the 128 bit approximation of the power of five,
+ * which is proven to be sufficient for correct rounding when significand is exact (up to 19 digits).
+ * Inputs with more digits must be processed by some other means.
+ */
+abstract class EiselLemire {
+
+	static final int SMALLEST_POWER_OF_FIVE = -342;
+	static final int LARGEST_POWER_OF_FIVE = 308;
+	static final int MAX_DIGITS = 19;
+
+	private static final double[] DOUBLE_POWERS = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final float[] FLOAT_POWERS = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+	//table is created lazily, only when slow path is required
+	private static final class PowersOfFive {
+		static final long[] TABLE = create();
+
+		private static long[] create() {
+			final long[] table = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+			final BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+			int index = 0;
+			for (int q = SMALLEST_POWER_OF_FIVE; q < 0; q++) {
+				final BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+				final int z = power5.bitLength();
+				final int b = q >= -27 ? z + 127 : 2 * z + 128;
+				BigInteger c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+				if (c.compareTo(two128) >= 0) {
+					c = c.shiftRight(c.bitLength() - 128);
+				}
+				table[index++] = c.shiftRight(64).longValue();
+				table[index++] = c.longValue();
+			}
+			BigInteger power5 = BigInteger.ONE;
+			for (int q = 0; q <= LARGEST_POWER_OF_FIVE; q++) {
+				final BigInteger normalized = power5.bitLength() <= 128
+						? power5.shiftLeft(128 - power5.bitLength())
+						: power5.shiftRight(power5.bitLength() - 128);
+				table[index++] = normalized.shiftRight(64).longValue();
+				table[index++] = normalized.longValue();
+				power5 = power5.multiply(BigInteger.valueOf(5));
+			}
+			return table;
+		}
+	}
+
+	/**
+	 * Closest double for significand * 10^exponent.
+	 *
+	 * @param significand decimal digits, interpreted as unsigned. Must contain at most 19 digits
+	 * @param exponent    decimal exponent
+	 * @return correctly rounded positive double
+	 */
+	static double toDouble(final long significand, final int exponent) {
+		if (exponent >= -22 && exponent <= 22 && significand >= 0 && significand <= (1L << 53)) {
+			//both significand and power of ten are exact in double, so a single operation rounds correctly
+			return exponent < 0
+					? significand / DOUBLE_POWERS[-exponent]
+					: significand * DOUBLE_POWERS[exponent];
+		}
+		return Double.longBitsToDouble(toBits(significand, exponent, 52, -1023, 0x7FF, -4, 23));
+	}
+
+	/**
+	 * Closest float for significand * 10^exponent.
+	 *
+	 * @param significand decimal digits, interpreted as unsigned. Must contain at most 19 digits
+	 * @param exponent    decimal exponent
+	 * @return correctly rounded positive float
+	 */
+	static float toFloat(final long significand, final int exponent) {
+		if (exponent >= -10 && exponent <= 10 && significand >= 0 && significand <= (1L << 24)) {
+			return exponent < 0
+					? significand / FLOAT_POWERS[-exponent]
+					: significand * FLOAT_POWERS[exponent];
+		}
+		return Float.intBitsToFloat((int) toBits(significand, exponent, 23, -127, 0xFF, -17, 10));
+	}
+
+	private static long toBits(
+			long significand,
+			final int exponent,
+			final int mantissaBits,
+			final int minimumExponent,
+			final int infinitePower,
+			final int minRoundToEven,
+			final int maxRoundToEven) {
+		if (significand == 0 || exponent < SMALLEST_POWER_OF_FIVE) return 0;
+		if (exponent > LARGEST_POWER_OF_FIVE) return (long) infinitePower << mantissaBits;
+		final int lz = Long.numberOfLeadingZeros(significand);
+		significand <<= lz;
+		final long[] table = PowersOfFive.TABLE;
+		final int index = 2 * (exponent - SMALLEST_POWER_OF_FIVE);
+		long high = multiplyHigh(significand, table[index]);
+		long low = significand * table[index];
+		final long precisionMask = -1L >>> (mantissaBits + 3);
+		if ((high & precisionMask) == precisionMask) {
+			final long secondHigh = multiplyHigh(significand, table[index + 1]);
+			low += secondHigh;
+			if (Long.compareUnsigned(secondHigh, low) > 0) high++;
+		}
+		final int upperBit = (int) (high >>> 63);
+		final int shift = upperBit + 64 - mantissaBits - 3;
+		long mantissa = high >>> shift;
+		int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - lz - minimumExponent;
+		if (power2 <= 0) {
+			//subnormal
+			if (-power2 + 1 >= 64) return 0;
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+			return ((long) power2 << mantissaBits) | (mantissa & ((1L << mantissaBits) - 1));
+		}
+		if (Long.compareUnsigned(low, 1) <= 0 && exponent >= minRoundToEven && exponent <= maxRoundToEven
+				&& (mantissa & 3) == 1 && (mantissa << shift) == high) {
+			//exactly in between two values, round to even
+			mantissa &= ~1L;
+		}
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (mantissa >= (2L << mantissaBits)) {
+			mantissa = 1L << mantissaBits;
+			power2++;
+		}
+		mantissa &= ~(1L << mantissaBits);
+		if (power2 >= infinitePower) {
+			return (long) infinitePower << mantissaBits;
+		}
+		return ((long) power2 << mantissaBits) | mantissa;
+	}
+
+	//unsigned high part of 64x64 bit multiplication. Math.multiplyHigh is not available on Java 8
+	private static long multiplyHigh(final long x, final long y) {
+		final long x0 = x & 0xFFFFFFFFL;
+		final long x1 = x >>> 32;
+		final long y0 = y & 0xFFFFFFFFL;
+		final long y1 = y >>> 32;
+		final long p01 = x0 * y1;
+		final long p10 = x1 * y0;
+		final long middle = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+		return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+	}
+}
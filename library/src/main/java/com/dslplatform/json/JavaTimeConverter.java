@@ -161,7 +161,7 @@ public abstract class JavaTimeConverter {
 			return;
 		}
 		final byte[] buf = sw.ensureCapacity(32);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		NumberConverter.write4(year, buf, pos + 1);
 		buf[pos + 5] = '-';
@@ -212,7 +212,7 @@ public abstract class JavaTimeConverter {
 
 	public static void serialize(final LocalTime value, final JsonWriter sw) {
 		final byte[] buf = sw.ensureCapacity(22);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		NumberConverter.write2(value.getHour(), buf, pos + 1);
 		buf[pos + 3] = ':';
@@ -232,7 +232,7 @@ public abstract class JavaTimeConverter {
 
 	public static void serialize(final OffsetTime value, final JsonWriter sw) {
 		final byte[] buf = sw.ensureCapacity(22);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		NumberConverter.write2(value.getHour(), buf, pos + 1);
 		buf[pos + 3] = ':';
@@ -259,7 +259,7 @@ public abstract class JavaTimeConverter {
 			return;
 		}
 		final byte[] buf = sw.ensureCapacity(32);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		NumberConverter.write4(year, buf, pos + 1);
 		buf[pos + 5] = '-';
@@ -506,7 +506,7 @@ public abstract class JavaTimeConverter {
 			return;
 		}
 		final byte[] buf = sw.ensureCapacity(12);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		NumberConverter.write4(year, buf, pos + 1);
 		buf[pos + 5] = '-';
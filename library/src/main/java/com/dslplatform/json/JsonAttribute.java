@@ -120,4 +120,13 @@ public @interface JsonAttribute {
 		 */
 		ALWAYS
 	}
+
+	/**
+	 * Include property in the specified views.
+	 * Views must be declared on the class through @CompiledJson(views = ...).
+	 * Property is always included in the standard converter.
+	 *
+	 * @return views which contain this property
+	 */
+	Class[] views() default {};
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * On demand view over a byte[] JSON input.
+ * Instead of binding the whole document, cursor navigates through the input
+ * and only values which are requested are decoded.
+ * Everything in between is skipped over without allocations.
+ * <p>
+ * Document is a reusable cursor. Navigation methods move the cursor and return itself,
+ * so a lookup is done by chaining from the root:
+ *
+ * <pre>
+ *     JsonDocument&lt;Object&gt; doc = dslJson.newDocument();
+ *     doc.process(bytes, bytes.length);
+ *     String name = doc.root().get("user").get("name").as(String.class);
+ *     long first = doc.root().get("items").at(0).get("id").as(long.class);
+ * </pre>
+ *
+ * When requested attribute or element does not exist, cursor will point to a missing value
+ * and further navigation will keep it there. Missing value is decoded as null.
+ * <p>
+ * Values are decoded through readers registered in DslJson.
+ * Content which was skipped over is only partially validated.
+ *
+ * @param <TContext> DslJson context
+ */
+public final class JsonDocument<TContext> {
+
+	private final JsonReader<TContext> reader;
+	private final DslJson<TContext> dslJson;
+	private int start;
+	private int position = -1;
+
+	JsonDocument(final JsonReader<TContext> reader, final DslJson<TContext> dslJson) {
+		this.reader = reader;
+		this.dslJson = dslJson;
+	}
+
+	/**
+	 * Bind byte[] input for processing and move cursor to the root value.
+	 *
+	 * @param bytes  input
+	 * @param length length of valid input
+	 * @return itself
+	 * @throws IOException unable to find root value
+	 */
+	public JsonDocument<TContext> process(final byte[] bytes, final int length) throws IOException {
+		if (bytes == null) throw new IllegalArgumentException("bytes can't be null");
+		reader.process(bytes, length);
+		reader.getNextToken();
+		start = reader.getCurrentIndex() - 1;
+		position = start;
+		return this;
+	}
+
+	/**
+	 * Move cursor to the root value of the document.
+	 *
+	 * @return itself
+	 */
+	public JsonDocument<TContext> root() {
+		position = start;
+		return this;
+	}
+
+	/**
+	 * Move cursor to the attribute value of the current object.
+	 * If current value is not an object or attribute does not exist cursor will point to a missing value.
+	 *
+	 * @param name attribute name
+	 * @return itself
+	 * @throws IOException invalid JSON detected
+	 */
+	public JsonDocument<TContext> get(final String name) throws IOException {
+		if (name == null) throw new IllegalArgumentException("name can't be null");
+		if (position == -1) return this;
+		if (moveToValue() != '{') {
+			position = -1;
+			return this;
+		}
+		byte nextToken = reader.getNextToken();
+		if (nextToken == '}') {
+			position = -1;
+			return this;
+		}
+		while (true) {
+			if (nextToken != '"') throw reader.newParseError("Expecting '\"' for attribute name start");
+			reader.fillName();
+			final boolean found = reader.wasLastName(name);
+			reader.getNextToken();
+			if (found) {
+				position = reader.getCurrentIndex() - 1;
+				return this;
+			}
+			nextToken = reader.skip();
+			if (nextToken == '}') {
+				position = -1;
+				return this;
+			}
+			if (nextToken != ',') throw reader.newParseError("Expecting '}' or ',' while parsing object");
+			nextToken = reader.getNextToken();
+		}
+	}
+
+	/**
+	 * Move cursor to the element of the current array.
+	 * If current value is not an array or element does not exist cursor will point to a missing value.
+	 *
+	 * @param index element index
+	 * @return itself
+	 * @throws IOException invalid JSON detected
+	 */
+	public JsonDocument<TContext> at(final int index) throws IOException {
+		if (index < 0) throw new IllegalArgumentException("index can't be negative");
+		if (position == -1) return this;
+		if (moveToValue() != '[' || reader.getNextToken() == ']') {
+			position = -1;
+			return this;
+		}
+		for (int i = 0; i < index; i++) {
+			final byte nextToken = reader.skip();
+			if (nextToken == ']') {
+				position = -1;
+				return this;
+			}
+			if (nextToken != ',') throw reader.newParseError("Expecting ']' or ',' while parsing array");
+			reader.getNextToken();
+		}
+		position = reader.getCurrentIndex() - 1;
+		return this;
+	}
+
+	/**
+	 * Does value at the current position exist.
+	 *
+	 * @return false if cursor points to a missing value
+	 */
+	public boolean exists() {
+		return position != -1;
+	}
+
+	/**
+	 * Is value at the current position a JSON null.
+	 *
+	 * @return true if value exists and is null
+	 * @throws IOException invalid JSON detected
+	 */
+	public boolean isNull() throws IOException {
+		return position != -1 && moveToValue() == 'n' && reader.wasNull();
+	}
+
+	/**
+	 * Decode value at the current position through a reader registered in DslJson.
+	 * Cursor position is not changed.
+	 *
+	 * @param manifest type to decode into
+	 * @param <T>      type
+	 * @return decoded value or null if value is missing
+	 * @throws IOException unable to decode value
+	 */
+	@Nullable
+	public <T> T as(final Class<T> manifest) throws IOException {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (position == -1) return null;
+		reader.seek(position);
+		return reader.next(manifest);
+	}
+
+	/**
+	 * Decode value at the current position through a reader registered in DslJson.
+	 * Cursor position is not changed.
+	 *
+	 * @param manifest type to decode into
+	 * @return decoded value or null if value is missing
+	 * @throws IOException unable to decode value
+	 */
+	@Nullable
+	public Object as(final Type manifest) throws IOException {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		if (manifest instanceof Class<?>) return as((Class<?>) manifest);
+		if (position == -1) return null;
+		final JsonReader.ReadObject<?> readObject = dslJson.tryFindReader(manifest);
+		if (readObject == null) {
+			throw new ConfigurationException("Reader not found for " + manifest + ". Check if reader was registered");
+		}
+		reader.seek(position);
+		return reader.next(readObject);
+	}
+
+	/**
+	 * Decode value at the current position with the provided reader.
+	 * Cursor position is not changed.
+	 *
+	 * @param readObject reader to use
+	 * @param <T>        type
+	 * @return decoded value or null if value is missing
+	 * @throws IOException unable to decode value
+	 */
+	@Nullable
+	public <T> T as(final JsonReader.ReadObject<T> readObject) throws IOException {
+		if (readObject == null) throw new IllegalArgumentException("readObject can't be null");
+		if (position == -1) return null;
+		reader.seek(position);
+		return reader.next(readObject);
+	}
+
+	private byte moveToValue() throws IOException {
+		reader.seek(position);
+		return reader.getNextToken();
+	}
+}
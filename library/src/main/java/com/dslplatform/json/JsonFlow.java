@@ -0,0 +1,413 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backpressure aware streaming of JSON arrays.
+ * Interfaces have the same shape and contract as java.util.concurrent.Flow (and Reactive Streams).
+ * Since library targets Java 8 and Android, Flow can't be referenced directly,
+ * but it can be bridged on Java 9+ by wrapping one interface into the other.
+ * <p>
+ * Elements are deserialized only when requested by the subscriber,
+ * so large arrays can be processed without buffering the whole input or result.
+ */
+public final class JsonFlow {
+
+	private JsonFlow() {
+	}
+
+	public interface Publisher<T> {
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	public interface Subscriber<T> {
+		void onSubscribe(Subscription subscription);
+
+		void onNext(T item);
+
+		void onError(Throwable throwable);
+
+		void onComplete();
+	}
+
+	public interface Subscription {
+		void request(long n);
+
+		void cancel();
+	}
+
+	public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+	}
+
+	//subscription for rejected subscribers, since onSubscribe must be signalled before onError
+	private static final Subscription REJECTED = new Subscription() {
+		@Override
+		public void request(long n) {
+		}
+
+		@Override
+		public void cancel() {
+		}
+	};
+
+	private static long addDemand(final AtomicLong requested, final long n) {
+		while (true) {
+			final long current = requested.get();
+			final long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+			if (requested.compareAndSet(current, next)) return current;
+		}
+	}
+
+	/**
+	 * Publisher of array elements from an InputStream.
+	 * Elements are read from the stream on the thread which requested them.
+	 * Only a single subscriber is supported.
+	 */
+	static final class StreamPublisher<T> implements Publisher<T>, Subscription {
+		private final DslJson<?> dslJson;
+		private final Class<T> manifest;
+		private final InputStream stream;
+		private final AtomicBoolean subscribed = new AtomicBoolean();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private Subscriber<? super T> subscriber;
+		private Iterator<T> iterator;
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+		private boolean done;
+
+		StreamPublisher(final DslJson<?> dslJson, final Class<T> manifest, final InputStream stream) {
+			this.dslJson = dslJson;
+			this.manifest = manifest;
+			this.stream = stream;
+		}
+
+		@Override
+		public void subscribe(final Subscriber<? super T> subscriber) {
+			if (subscriber == null) throw new NullPointerException("subscriber can't be null");
+			if (!subscribed.compareAndSet(false, true)) {
+				subscriber.onSubscribe(REJECTED);
+				subscriber.onError(new IllegalStateException("Only a single subscriber is supported"));
+				return;
+			}
+			this.subscriber = subscriber;
+			subscriber.onSubscribe(this);
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				//error is signalled from the drain loop, so it can't overlap with onNext or follow onComplete
+				if (invalidRequest == null) {
+					invalidRequest = new IllegalArgumentException("Requested number of elements must be positive");
+				}
+			} else {
+				addDemand(requested, n);
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		private void drain() {
+			//elements can be requested from within onNext, so only a single drain loop is allowed
+			if (wip.getAndIncrement() != 0) return;
+			int missed = 1;
+			while (true) {
+				if (!emit()) return;
+				missed = wip.addAndGet(-missed);
+				if (missed == 0) return;
+			}
+		}
+
+		private boolean emit() {
+			if (done) return false;
+			if (invalidRequest != null) {
+				done = true;
+				subscriber.onError(invalidRequest);
+				return false;
+			}
+			try {
+				if (iterator == null) {
+					final Iterator<T> it = dslJson.iterateOver(manifest, stream, new byte[4096]);
+					iterator = it != null ? it : Collections.<T>emptyList().iterator();
+				}
+				while (requested.get() > 0) {
+					if (invalidRequest != null) {
+						done = true;
+						subscriber.onError(invalidRequest);
+						return false;
+					}
+					if (cancelled) {
+						done = true;
+						return false;
+					}
+					if (!iterator.hasNext()) {
+						done = true;
+						subscriber.onComplete();
+						return false;
+					}
+					final T item = iterator.next();
+					requested.decrementAndGet();
+					subscriber.onNext(item);
+				}
+				return true;
+			} catch (IOException ex) {
+				done = true;
+				subscriber.onError(ex);
+			} catch (RuntimeException ex) {
+				done = true;
+				subscriber.onError(ex.getCause() instanceof IOException ? ex.getCause() : ex);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Processor which receives chunks of JSON input and publishes elements of the top level array.
+	 * Next chunk is requested from upstream only when all parsed elements were delivered
+	 * and downstream still has outstanding demand.
+	 */
+	static final class ChunkProcessor<T> implements Processor<ByteBuffer, T>, Subscription, JsonPushParser.Listener<T> {
+		private static final Object NULL = new Object();
+
+		private final JsonPushParser<T> parser;
+		private final Queue<Object> parsed = new ConcurrentLinkedQueue<Object>();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private final AtomicBoolean subscribed = new AtomicBoolean();
+		private volatile Subscription upstream;
+		private volatile Subscriber<? super T> downstream;
+		private volatile boolean upstreamDone;
+		private volatile Throwable error;
+		private volatile boolean cancelled;
+		private volatile boolean chunkRequested;
+		private boolean done;
+
+		ChunkProcessor(final DslJson<?> dslJson, final JsonReader.ReadObject<T> readObject) {
+			this.parser = new JsonPushParser<T>(dslJson, readObject, this);
+		}
+
+		@Override
+		public void onRecord(@Nullable final T record) {
+			parsed.add(record == null ? NULL : record);
+		}
+
+		@Override
+		public void subscribe(final Subscriber<? super T> subscriber) {
+			if (subscriber == null) throw new NullPointerException("subscriber can't be null");
+			if (!subscribed.compareAndSet(false, true)) {
+				subscriber.onSubscribe(REJECTED);
+				subscriber.onError(new IllegalStateException("Only a single subscriber is supported"));
+				return;
+			}
+			downstream = subscriber;
+			subscriber.onSubscribe(this);
+			drain();
+		}
+
+		@Override
+		public void onSubscribe(final Subscription subscription) {
+			if (upstream != null) {
+				subscription.cancel();
+				return;
+			}
+			upstream = subscription;
+			drain();
+		}
+
+		@Override
+		public void onNext(final ByteBuffer item) {
+			try {
+				parser.feed(item);
+			} catch (IOException ex) {
+				upstream.cancel();
+				error = ex;
+				upstreamDone = true;
+			}
+			chunkRequested = false;
+			drain();
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+			upstreamDone = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			try {
+				parser.endOfInput();
+			} catch (IOException ex) {
+				error = ex;
+			}
+			upstreamDone = true;
+			drain();
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("Requested number of elements must be positive");
+				cancel();
+				upstreamDone = true;
+				drain();
+				return;
+			}
+			addDemand(requested, n);
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			final Subscription up = upstream;
+			if (up != null) up.cancel();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void drain() {
+			if (wip.getAndIncrement() != 0) return;
+			int missed = 1;
+			while (true) {
+				final Subscriber<? super T> down = downstream;
+				if (down != null && !done) {
+					while (requested.get() > 0 && !parsed.isEmpty() && !cancelled) {
+						final Object item = parsed.poll();
+						requested.decrementAndGet();
+						down.onNext(item == NULL ? null : (T) item);
+					}
+					if (cancelled) {
+						done = true;
+					} else if (error != null) {
+						done = true;
+						down.onError(error);
+					} else if (upstreamDone && parsed.isEmpty()) {
+						done = true;
+						down.onComplete();
+					} else if (requested.get() > 0 && parsed.isEmpty() && !chunkRequested && upstream != null) {
+						chunkRequested = true;
+						upstream.request(1);
+					}
+				}
+				missed = wip.addAndGet(-missed);
+				if (missed == 0) return;
+			}
+		}
+	}
+
+	/**
+	 * Subscriber which writes received elements into an OutputStream as a JSON array.
+	 * Elements are requested in batches and written through a single JsonWriter.
+	 */
+	public static final class ArraySubscriber<T> implements Subscriber<T> {
+		private final JsonWriter.WriteObject<T> writeObject;
+		private final OutputStream stream;
+		private final int batch;
+		private final JsonWriter writer;
+		private Subscription subscription;
+		private int received;
+		private boolean first = true;
+		private volatile boolean completed;
+		private volatile Throwable error;
+
+		ArraySubscriber(final DslJson<?> dslJson, final JsonWriter.WriteObject<T> writeObject, final OutputStream stream, final int batch) {
+			this.writeObject = writeObject;
+			this.stream = stream;
+			this.batch = batch;
+			this.writer = dslJson.newWriter();
+		}
+
+		@Override
+		public void onSubscribe(final Subscription subscription) {
+			if (this.subscription != null) {
+				subscription.cancel();
+				return;
+			}
+			this.subscription = subscription;
+			writer.writeByte(JsonWriter.ARRAY_START);
+			subscription.request(batch);
+		}
+
+		@Override
+		public void onNext(@Nullable final T item) {
+			if (completed || error != null) return;
+			if (first) {
+				first = false;
+			} else {
+				writer.writeByte(JsonWriter.COMMA);
+			}
+			if (item == null) {
+				writer.writeNull();
+			} else {
+				writeObject.write(writer, item);
+			}
+			try {
+				if (writer.size() >= 64 * 1024) {
+					writer.toStream(stream);
+				}
+			} catch (IOException ex) {
+				error = ex;
+				subscription.cancel();
+				return;
+			}
+			received++;
+			if (received == batch) {
+				received = 0;
+				subscription.request(batch);
+			}
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			if (error != null) return;
+			writer.writeByte(JsonWriter.ARRAY_END);
+			try {
+				writer.toStream(stream);
+				stream.flush();
+				completed = true;
+			} catch (IOException ex) {
+				error = ex;
+			}
+		}
+
+		/**
+		 * Was the whole array written into the stream.
+		 *
+		 * @return true if publisher completed and array was written without errors
+		 */
+		public boolean isCompleted() {
+			return completed;
+		}
+
+		/**
+		 * Error received from publisher or error while writing to the stream.
+		 *
+		 * @return error or null if there was none
+		 */
+		@Nullable
+		public Throwable getError() {
+			return error;
+		}
+	}
+}
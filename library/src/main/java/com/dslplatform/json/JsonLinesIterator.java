@@ -0,0 +1,131 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over newline delimited JSON (NDJSON/JSON Lines) input.
+ * Input is read into a growing buffer and each line is processed in place by the same reader,
+ * without copying lines into separate arrays.
+ * Since each record is bounded by its line, processing can resume on the next line after an invalid record.
+ *
+ * @param <T> record type
+ */
+final class JsonLinesIterator<T> implements Iterator<T> {
+
+	private final JsonReader<?> reader;
+	private final JsonReader.ReadObject<T> readObject;
+	private final InputStream stream;
+	private final boolean skipMalformed;
+
+	private byte[] buffer;
+	private int start;
+	private int end;
+	private boolean endOfStream;
+	private long line;
+
+	private boolean prepared;
+	private boolean hasNext;
+	private T next;
+
+	JsonLinesIterator(
+			final JsonReader<?> reader,
+			final JsonReader.ReadObject<T> readObject,
+			final InputStream stream,
+			final int bufferSize,
+			final boolean skipMalformed) {
+		this.reader = reader;
+		this.readObject = readObject;
+		this.stream = stream;
+		this.skipMalformed = skipMalformed;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * Find end of the line which starts at the current position, reading more input if required.
+	 *
+	 * @return index of the new line, end of input or -1 if there is no more input
+	 */
+	private int findLineEnd() throws IOException {
+		int i = start;
+		while (true) {
+			for (; i < end; i++) {
+				if (buffer[i] == '\n') return i;
+			}
+			if (endOfStream) return start == end ? -1 : end;
+			if (start > 0) {
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				i -= start;
+				end -= start;
+				start = 0;
+			} else if (end == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			final int read = stream.read(buffer, end, buffer.length - end);
+			if (read == -1) endOfStream = true;
+			else end += read;
+		}
+	}
+
+	private void prepare() throws IOException {
+		prepared = true;
+		while (true) {
+			final int lineEnd = findLineEnd();
+			if (lineEnd == -1) {
+				hasNext = false;
+				next = null;
+				return;
+			}
+			final int lineStart = start;
+			start = lineEnd == end ? end : lineEnd + 1;
+			line++;
+			reader.process(buffer, lineEnd);
+			if (reader.allWhitespace(lineStart, lineEnd)) continue;
+			reader.seek(lineStart);
+			try {
+				reader.getNextToken();
+				final T instance = reader.wasNull() ? null : readObject.read(reader);
+				if (!reader.allWhitespace(reader.getCurrentIndex(), lineEnd)) {
+					throw reader.newParseError("Expecting new line after JSON record");
+				}
+				hasNext = true;
+				next = instance;
+				return;
+			} catch (IOException ex) {
+				if (!skipMalformed) {
+					throw new SerializationException("Invalid JSON record at line " + line + ". " + ex.getMessage(), ex);
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!prepared) {
+			try {
+				prepare();
+			} catch (IOException ex) {
+				throw new SerializationException(ex);
+			}
+		}
+		return hasNext;
+	}
+
+	@Nullable
+	@Override
+	public T next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		prepared = false;
+		final T result = next;
+		next = null;
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
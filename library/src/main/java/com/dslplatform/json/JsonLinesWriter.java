@@ -0,0 +1,64 @@
+package com.dslplatform.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writer for newline delimited JSON (NDJSON/JSON Lines) output.
+ * Each record is serialized into the same JsonWriter followed by a new line.
+ * Buffer is copied to the target stream in batches, once it grows over the batch size,
+ * and on flush.
+ * <p>
+ * Writer is not thread safe. Target stream is not closed by the writer.
+ *
+ * @param <T> record type
+ */
+public final class JsonLinesWriter<T> implements Flushable {
+
+	private final JsonWriter writer;
+	private final JsonWriter.WriteObject<T> writeObject;
+	private final OutputStream stream;
+	private final int batchSize;
+
+	JsonLinesWriter(
+			final JsonWriter writer,
+			final JsonWriter.WriteObject<T> writeObject,
+			final OutputStream stream,
+			final int batchSize) {
+		this.writer = writer;
+		this.writeObject = writeObject;
+		this.stream = stream;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Serialize record and terminate it with a new line.
+	 * Content will be written to the target stream once the batch is full.
+	 *
+	 * @param value record
+	 * @throws IOException unable to write to target stream
+	 */
+	public void write(@Nullable final T value) throws IOException {
+		if (value == null) {
+			writer.writeNull();
+		} else {
+			writeObject.write(writer, value);
+		}
+		writer.writeByte((byte) '\n');
+		if (writer.size() >= batchSize) {
+			writer.toStream(stream);
+		}
+	}
+
+	/**
+	 * Write all buffered records to the target stream and flush it.
+	 *
+	 * @throws IOException unable to write to target stream
+	 */
+	@Override
+	public void flush() throws IOException {
+		writer.toStream(stream);
+		stream.flush();
+	}
+}
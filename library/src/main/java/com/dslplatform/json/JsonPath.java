@@ -0,0 +1,280 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled path for extraction of values from JSON input without binding the whole document.
+ * Path is specified as JSON Pointer (RFC 6901), eg: /order/items/0/sku
+ * In addition to the pointer syntax, * can be used as a segment which matches
+ * every attribute of an object or every element of an array, eg: /order/items/*&#47;sku
+ * <p>
+ * Input is processed in a single pass through the JsonReader.
+ * Attribute names are matched via their hash and only matched values are decoded.
+ * Everything else is skipped without allocations.
+ * Since reader is used in a streaming fashion, paths can be evaluated on top of InputStream too.
+ * <p>
+ * Paths are immutable and can be shared between threads.
+ */
+public final class JsonPath {
+
+	private final String pointer;
+	private final TypeLookup typeLookup;
+	private final byte[][] nameBytes;
+	private final int[] hashes;
+	private final int[] indexes;
+	private final boolean[] wildcards;
+
+	JsonPath(final String pointer, final TypeLookup typeLookup) {
+		if (pointer == null) throw new IllegalArgumentException("pointer can't be null");
+		if (pointer.length() != 0 && pointer.charAt(0) != '/') {
+			throw new IllegalArgumentException("pointer must be empty or start with /. Found: " + pointer);
+		}
+		this.pointer = pointer;
+		this.typeLookup = typeLookup;
+		final List<String> segments = new ArrayList<String>();
+		int start = 1;
+		while (start <= pointer.length()) {
+			int end = pointer.indexOf('/', start);
+			if (end == -1) end = pointer.length();
+			segments.add(pointer.substring(start, end));
+			start = end + 1;
+		}
+		final int size = segments.size();
+		this.nameBytes = new byte[size][];
+		this.hashes = new int[size];
+		this.indexes = new int[size];
+		this.wildcards = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			final String segment = segments.get(i);
+			wildcards[i] = "*".equals(segment);
+			final String name = unescape(segment, pointer);
+			nameBytes[i] = name.getBytes(StandardCharsets.UTF_8);
+			hashes[i] = calcHash(nameBytes[i]);
+			indexes[i] = parseIndex(name);
+		}
+	}
+
+	private static String unescape(final String segment, final String pointer) {
+		if (segment.indexOf('~') == -1) return segment;
+		final StringBuilder sb = new StringBuilder(segment.length());
+		for (int i = 0; i < segment.length(); i++) {
+			final char c = segment.charAt(i);
+			if (c != '~') {
+				sb.append(c);
+			} else if (i + 1 < segment.length() && segment.charAt(i + 1) == '0') {
+				sb.append('~');
+				i++;
+			} else if (i + 1 < segment.length() && segment.charAt(i + 1) == '1') {
+				sb.append('/');
+				i++;
+			} else {
+				throw new IllegalArgumentException("Invalid escape sequence in pointer: " + pointer + ". Only ~0 and ~1 are allowed");
+			}
+		}
+		return sb.toString();
+	}
+
+	private static int parseIndex(final String name) {
+		if (name.length() == 0 || name.length() > 9 || name.length() > 1 && name.charAt(0) == '0') return -1;
+		int result = 0;
+		for (int i = 0; i < name.length(); i++) {
+			final int digit = name.charAt(i) - '0';
+			if (digit < 0 || digit > 9) return -1;
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+
+	private static int calcHash(final byte[] name) {
+		long hash = 0x811c9dc5;
+		for (final byte b : name) {
+			hash ^= b;
+			hash *= 0x1000193;
+		}
+		return (int) hash;
+	}
+
+	/**
+	 * Extract all values matching the path.
+	 * Reader must be positioned before the start of the document (eg. right after process call).
+	 * Values are decoded with the registered reader for the specified type.
+	 *
+	 * @param reader   input
+	 * @param manifest type of matched values
+	 * @param <T>      type
+	 * @return list of matched values
+	 * @throws IOException unable to process input
+	 */
+	public <T> List<T> extract(final JsonReader reader, final Class<T> manifest) throws IOException {
+		return extract(reader, findReader(manifest));
+	}
+
+	/**
+	 * Extract all values matching the path.
+	 * Reader must be positioned before the start of the document (eg. right after process call).
+	 *
+	 * @param reader     input
+	 * @param readObject decoder for matched values
+	 * @param <T>        type
+	 * @return list of matched values
+	 * @throws IOException unable to process input
+	 */
+	public <T> List<T> extract(final JsonReader reader, final JsonReader.ReadObject<T> readObject) throws IOException {
+		final List<T> result = new ArrayList<T>(4);
+		extract(reader, readObject, result);
+		return result;
+	}
+
+	/**
+	 * Extract all values matching the path into the provided collection.
+	 * Reader must be positioned before the start of the document (eg. right after process call).
+	 *
+	 * @param reader     input
+	 * @param readObject decoder for matched values
+	 * @param target     where matched values will be added
+	 * @param <T>        type
+	 * @throws IOException unable to process input
+	 */
+	public <T> void extract(final JsonReader reader, final JsonReader.ReadObject<T> readObject, final Collection<T> target) throws IOException {
+		if (reader == null) throw new IllegalArgumentException("reader can't be null");
+		if (readObject == null) throw new IllegalArgumentException("readObject can't be null");
+		if (target == null) throw new IllegalArgumentException("target can't be null");
+		reader.getNextToken();
+		visit(reader, 0, readObject, target, false);
+	}
+
+	/**
+	 * Extract first value matching the path.
+	 * Processing stops as soon as the value is found, so the rest of the input is neither read nor validated.
+	 * Reader must be positioned before the start of the document (eg. right after process call).
+	 *
+	 * @param reader   input
+	 * @param manifest type of matched value
+	 * @param <T>      type
+	 * @return matched value or null if not found
+	 * @throws IOException unable to process input
+	 */
+	@Nullable
+	public <T> T extractFirst(final JsonReader reader, final Class<T> manifest) throws IOException {
+		return extractFirst(reader, findReader(manifest));
+	}
+
+	/**
+	 * Extract first value matching the path.
+	 * Processing stops as soon as the value is found, so the rest of the input is neither read nor validated.
+	 * Reader must be positioned before the start of the document (eg. right after process call).
+	 *
+	 * @param reader     input
+	 * @param readObject decoder for matched value
+	 * @param <T>        type
+	 * @return matched value or null if not found
+	 * @throws IOException unable to process input
+	 */
+	@Nullable
+	public <T> T extractFirst(final JsonReader reader, final JsonReader.ReadObject<T> readObject) throws IOException {
+		if (reader == null) throw new IllegalArgumentException("reader can't be null");
+		if (readObject == null) throw new IllegalArgumentException("readObject can't be null");
+		reader.getNextToken();
+		final List<T> found = new ArrayList<T>(1);
+		visit(reader, 0, readObject, found, true);
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	private <T> JsonReader.ReadObject<T> findReader(final Class<T> manifest) {
+		if (manifest == null) throw new IllegalArgumentException("manifest can't be null");
+		final JsonReader.ReadObject<T> readObject = typeLookup.tryFindReader(manifest);
+		if (readObject == null) {
+			throw new ConfigurationException("Reader not found for " + manifest + ". Check if reader was registered");
+		}
+		return readObject;
+	}
+
+	/**
+	 * Process value which starts at the current token.
+	 * Value is consumed, but token after it is not read.
+	 *
+	 * @return true if processing should stop
+	 */
+	private <T> boolean visit(
+			final JsonReader reader,
+			final int depth,
+			final JsonReader.ReadObject<T> readObject,
+			final Collection<T> target,
+			final boolean firstOnly) throws IOException {
+		if (depth == nameBytes.length) {
+			target.add(reader.wasNull() ? null : readObject.read(reader));
+			return firstOnly;
+		}
+		if (reader.last() == '{') {
+			return visitObject(reader, depth, readObject, target, firstOnly);
+		} else if (reader.last() == '[') {
+			return visitArray(reader, depth, readObject, target, firstOnly);
+		}
+		return false;
+	}
+
+	private boolean canMatch(final JsonReader reader, final int depth) {
+		return depth == nameBytes.length || reader.last() == '{' || reader.last() == '[';
+	}
+
+	private <T> boolean visitObject(
+			final JsonReader reader,
+			final int depth,
+			final JsonReader.ReadObject<T> readObject,
+			final Collection<T> target,
+			final boolean firstOnly) throws IOException {
+		byte nextToken = reader.getNextToken();
+		if (nextToken == '}') return false;
+		final boolean wildcard = wildcards[depth];
+		final int hash = hashes[depth];
+		final byte[] name = nameBytes[depth];
+		while (true) {
+			if (nextToken != '"') throw reader.newParseError("Expecting '\"' for attribute name start");
+			final boolean matched = reader.fillName() == hash && reader.wasLastName(name) || wildcard;
+			reader.getNextToken();
+			if (matched && canMatch(reader, depth + 1)) {
+				if (visit(reader, depth + 1, readObject, target, firstOnly)) return true;
+				nextToken = reader.getNextToken();
+			} else {
+				nextToken = reader.skip();
+			}
+			if (nextToken == '}') return false;
+			if (nextToken != ',') throw reader.newParseError("Expecting '}' or ',' while parsing object");
+			nextToken = reader.getNextToken();
+		}
+	}
+
+	private <T> boolean visitArray(
+			final JsonReader reader,
+			final int depth,
+			final JsonReader.ReadObject<T> readObject,
+			final Collection<T> target,
+			final boolean firstOnly) throws IOException {
+		final boolean wildcard = wildcards[depth];
+		final int index = indexes[depth];
+		if (reader.getNextToken() == ']') return false;
+		int i = 0;
+		while (true) {
+			final byte nextToken;
+			if ((wildcard || i == index) && canMatch(reader, depth + 1)) {
+				if (visit(reader, depth + 1, readObject, target, firstOnly)) return true;
+				nextToken = reader.getNextToken();
+			} else {
+				nextToken = reader.skip();
+			}
+			if (nextToken == ']') return false;
+			if (nextToken != ',') throw reader.newParseError("Expecting ']' or ',' while parsing array");
+			reader.getNextToken();
+			i++;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return pointer;
+	}
+}
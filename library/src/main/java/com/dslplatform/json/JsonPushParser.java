@@ -0,0 +1,246 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Non blocking parser which accepts input in chunks, as they arrive.
+ * It never waits for more input: when record is not yet complete, feed just returns
+ * and parsing resumes with the next chunk.
+ * <p>
+ * Parser emits each top level value as a separate record.
+ * When top level value is an array, its elements are emitted as records instead,
+ * so large arrays can be processed element by element.
+ * <p>
+ * Record boundaries are tracked by a resumable state machine which only follows strings and nesting.
+ * Once record is complete, it is bound with the regular reader directly from the accumulated input.
+ * Only incomplete record is kept between chunks.
+ * <p>
+ * Parser is not thread safe, but it can be fed from different threads, one at a time.
+ *
+ * @param <T> record type
+ */
+public final class JsonPushParser<T> {
+
+	/**
+	 * Receives records as soon as they are complete.
+	 *
+	 * @param <T> record type
+	 */
+	public interface Listener<T> {
+		void onRecord(@Nullable T record) throws IOException;
+	}
+
+	private final DslJson<?> dslJson;
+	private final JsonReader.ReadObject<T> readObject;
+	private final Listener<T> listener;
+
+	private byte[] buffer = new byte[4096];
+	private int end;
+	private long discarded;
+
+	private int position;
+	private int recordStart = -1;
+	private boolean scalar;
+	private int depth;
+	private boolean inString;
+	private boolean escaped;
+	private boolean inArray;
+	private boolean expectSeparator;
+	private boolean afterComma;
+
+	JsonPushParser(final DslJson<?> dslJson, final JsonReader.ReadObject<T> readObject, final Listener<T> listener) {
+		this.dslJson = dslJson;
+		this.readObject = readObject;
+		this.listener = listener;
+	}
+
+	/**
+	 * Process next chunk of the input.
+	 * All records completed by this chunk will be bound and sent to the listener before this method returns.
+	 *
+	 * @param bytes  input chunk
+	 * @param offset start of the chunk
+	 * @param length chunk length
+	 * @return number of records emitted from this chunk. 0 when more input is required
+	 * @throws IOException invalid JSON or error in listener
+	 */
+	public int feed(final byte[] bytes, final int offset, final int length) throws IOException {
+		if (bytes == null) throw new IllegalArgumentException("bytes can't be null");
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IllegalArgumentException("offset and length must be within bytes");
+		}
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, buffer, end, length);
+		end += length;
+		return process();
+	}
+
+	/**
+	 * Process next chunk of the input.
+	 * All remaining bytes from the buffer will be consumed.
+	 *
+	 * @param input input chunk
+	 * @return number of records emitted from this chunk. 0 when more input is required
+	 * @throws IOException invalid JSON or error in listener
+	 */
+	public int feed(final ByteBuffer input) throws IOException {
+		if (input == null) throw new IllegalArgumentException("input can't be null");
+		final int length = input.remaining();
+		ensureCapacity(length);
+		input.get(buffer, end, length);
+		end += length;
+		return process();
+	}
+
+	/**
+	 * Signal that there is no more input.
+	 * Pending top level number, boolean or null will be emitted.
+	 *
+	 * @return number of emitted records
+	 * @throws IOException when input ended within a record or an array
+	 */
+	public int endOfInput() throws IOException {
+		int emitted = 0;
+		if (recordStart != -1 && scalar && !inArray) {
+			complete(end);
+			emitted++;
+		}
+		if (recordStart != -1 || inArray) {
+			throw ParsingException.create("Unexpected end of JSON input at position: " + (discarded + end), true);
+		}
+		return emitted;
+	}
+
+	/**
+	 * Is parser in between records, so current input could end without errors.
+	 *
+	 * @return true if there are no partial records or arrays
+	 */
+	public boolean isIdle() {
+		return recordStart == -1 && !inArray;
+	}
+
+	private void ensureCapacity(final int length) {
+		//drop already processed input before growing the buffer
+		final int keep = recordStart != -1 ? recordStart : position;
+		if (keep > 0 && end + length > buffer.length) {
+			System.arraycopy(buffer, keep, buffer, 0, end - keep);
+			end -= keep;
+			position -= keep;
+			if (recordStart != -1) recordStart -= keep;
+			discarded += keep;
+		}
+		if (end + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, end + length));
+		}
+	}
+
+	private ParsingException error(final String description, final int at) {
+		return ParsingException.create(description + " at position: " + (discarded + at), true);
+	}
+
+	private int process() throws IOException {
+		int emitted = 0;
+		int i = position;
+		for (; i < end; i++) {
+			final byte b = buffer[i];
+			if (inString) {
+				if (escaped) {
+					escaped = false;
+				} else if (b == '\\') {
+					escaped = true;
+				} else if (b == '"') {
+					inString = false;
+					if (depth == (inArray ? 1 : 0)) {
+						position = i + 1;
+						complete(i + 1);
+						emitted++;
+					}
+				}
+				continue;
+			}
+			if (recordStart != -1 && scalar) {
+				if (b != ' ' && b != '\n' && b != '\r' && b != '\t' && b != ',' && b != ']' && b != '}') continue;
+				position = i;
+				complete(i);
+				emitted++;
+			}
+			if (depth > (inArray ? 1 : 0)) {
+				if (b == '"') {
+					inString = true;
+				} else if (b == '{' || b == '[') {
+					depth++;
+				} else if (b == '}' || b == ']') {
+					depth--;
+					if (depth == (inArray ? 1 : 0)) {
+						position = i + 1;
+						complete(i + 1);
+						emitted++;
+					}
+				}
+				continue;
+			}
+			if (b == ' ' || b == '\n' || b == '\r' || b == '\t') continue;
+			if (inArray) {
+				if (b == ',') {
+					if (!expectSeparator) throw error("Expecting array element", i);
+					expectSeparator = false;
+					afterComma = true;
+					continue;
+				} else if (b == ']') {
+					if (afterComma) throw error("Expecting array element", i);
+					inArray = false;
+					depth = 0;
+					expectSeparator = false;
+					continue;
+				} else if (expectSeparator) {
+					throw error("Expecting ',' or ']' after array element", i);
+				}
+			} else if (b == '[' && recordStart == -1) {
+				inArray = true;
+				depth = 1;
+				afterComma = false;
+				expectSeparator = false;
+				continue;
+			}
+			recordStart = i;
+			afterComma = false;
+			if (b == '{' || b == '[') {
+				depth++;
+			} else if (b == '"') {
+				inString = true;
+			} else if (b == '}' || b == ']' || b == ',' || b == ':') {
+				throw error("Unexpected '" + (char) b + "'", i);
+			} else {
+				scalar = true;
+			}
+		}
+		position = i;
+		return emitted;
+	}
+
+	private void complete(final int recordEnd) throws IOException {
+		final int start = recordStart;
+		recordStart = -1;
+		scalar = false;
+		expectSeparator = inArray;
+		final JsonReader<?> reader = dslJson.readerPool.take();
+		final T record;
+		try {
+			reader.process(buffer, recordEnd);
+			reader.seek(start);
+			reader.positionOffset(discarded);
+			reader.getNextToken();
+			record = reader.wasNull() ? null : readObject.read(reader);
+			if (!reader.allWhitespace(reader.getCurrentIndex(), recordEnd)) {
+				throw reader.newParseError("Unexpected content after JSON value");
+			}
+		} finally {
+			reader.reset();
+			dslJson.readerPool.release(reader);
+		}
+		listener.onRecord(record);
+	}
+}
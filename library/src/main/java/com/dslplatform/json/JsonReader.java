@@ -1,8 +1,11 @@
 package com.dslplatform.json;
 
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -33,6 +36,19 @@ public final class JsonReader<TContext> {
 		WHITESPACE[-29 + 128] = true;
 	}
 
+	//heap ByteBuffer.getLong is an intrinsic only since Java 9. On Java 8 and Android it's assembled byte by byte
+	private static final boolean WORD_SCAN = !System.getProperty("java.specification.version", "1.").startsWith("1.")
+			&& !"Dalvik".equals(System.getProperty("java.vm.name"));
+	private static final long WORD_QUOTES = 0x2222222222222222L;
+	private static final long WORD_ESCAPES = 0x5C5C5C5C5C5C5C5CL;
+	private static final long WORD_ONES = 0x0101010101010101L;
+	private static final long WORD_HIGH_BITS = 0x8080808080808080L;
+	private static final long WORD_LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long WORD_OPEN = 0x7B7B7B7B7B7B7B7BL;
+	private static final long WORD_CLOSE = 0x7D7D7D7D7D7D7D7DL;
+	//'[' and ']' differ from '{' and '}' only in 0x20 bit
+	private static final long WORD_SQUARE_BIT = 0x2020202020202020L;
+
 	private int tokenStart;
 	private int nameEnd;
 	private int currentIndex = 0;
@@ -47,6 +63,9 @@ public final class JsonReader<TContext> {
 	protected char[] chars;
 
 	private InputStream stream;
+	private ByteBuffer words;
+	//expected closing brackets while skipping nested objects and arrays
+	private byte[] skipStack;
 	private int readLimit;
 	//always leave some room for reading special stuff, so that buffer contains enough padding for such optimizations
 	private int bufferLenWithExtraSpace;
@@ -58,6 +77,10 @@ public final class JsonReader<TContext> {
 	private final byte[] originalBuffer;
 	private final int originalBufferLenWithExtraSpace;
 
+	//when raw value is captured from stream, bytes are collected before buffer is refilled
+	private ByteArrayOutputStream rawCapture;
+	private int rawStart;
+
 	public enum ErrorInfo {
 		WITH_STACK_TRACE,
 		DESCRIPTION_AND_POSITION,
@@ -176,6 +199,7 @@ public final class JsonReader<TContext> {
 		this.buffer = this.originalBuffer;
 		this.bufferLenWithExtraSpace = this.originalBufferLenWithExtraSpace;
 		currentIndex = 0;
+		currentPosition = 0;
 		this.length = 0;
 		this.readLimit = 0;
 		this.stream = null;
@@ -221,12 +245,48 @@ public final class JsonReader<TContext> {
 			throw new IllegalArgumentException("length can't be longer than buffer.length");
 		}
 		currentIndex = 0;
+		currentPosition = 0;
 		this.length = newLength;
 		this.stream = null;
 		this.readLimit = newLength;
 		return this;
 	}
 
+	/**
+	 * Bind ByteBuffer for processing.
+	 * Input will be processed from the current buffer position up to its limit.
+	 * Position of the provided buffer will not be changed.
+	 * <p>
+	 * Heap buffers are processed in place, without copying the input into a separate byte[].
+	 * Direct and read-only buffers don't expose their content as byte[],
+	 * so they will be processed in chunks through the reader buffer, the same way as InputStream.
+	 * Reference to the input will be kept until reader is bound to different input.
+	 *
+	 * @param input buffer with JSON input
+	 * @return itself
+	 * @throws IOException unable to read from buffer
+	 */
+	public final JsonReader<TContext> process(final ByteBuffer input) throws IOException {
+		if (input == null) throw new IllegalArgumentException("input can't be null");
+		if (input.hasArray()) {
+			final int start = input.arrayOffset() + input.position();
+			final int end = input.arrayOffset() + input.limit();
+			this.buffer = input.array();
+			this.bufferLenWithExtraSpace = buffer.length - 38; //currently maximum padding is for uuid
+			this.currentIndex = start;
+			//report positions relative to the start of the input
+			this.currentPosition = -start;
+			this.length = end;
+			this.readLimit = end;
+			this.stream = null;
+			return this;
+		}
+		//don't fill chunks into the array which was bound by some previous process call
+		this.buffer = this.originalBuffer;
+		this.bufferLenWithExtraSpace = this.originalBufferLenWithExtraSpace;
+		return process(new ByteBufferStream(input.duplicate()));
+	}
+
 	/**
 	 * Valid length of the input buffer.
 	 *
@@ -251,6 +311,32 @@ public final class JsonReader<TContext> {
 		return position;
 	}
 
+	static final class ByteBufferStream extends InputStream {
+		private final ByteBuffer input;
+
+		ByteBufferStream(ByteBuffer input) {
+			this.input = input;
+		}
+
+		@Override
+		public int read() {
+			return input.hasRemaining() ? input.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] buf, int off, int len) {
+			if (!input.hasRemaining()) return -1;
+			final int size = len < input.remaining() ? len : input.remaining();
+			input.get(buf, off, size);
+			return size;
+		}
+
+		@Override
+		public int available() {
+			return input.remaining();
+		}
+	}
+
 	private static class EmptyEOFException extends EOFException {
 		@Override
 		public synchronized Throwable fillInStackTrace() {
@@ -281,6 +367,10 @@ public final class JsonReader<TContext> {
 	}
 
 	private int prepareNextBlock() throws IOException {
+		if (rawCapture != null) {
+			rawCapture.write(buffer, rawStart, currentIndex - rawStart);
+			rawStart = 0;
+		}
 		final int len = length - currentIndex;
 		System.arraycopy(buffer, currentIndex, buffer, 0, len);
 		final int available = readFully(buffer, stream, len);
@@ -445,6 +535,28 @@ public final class JsonReader<TContext> {
 		return currentIndex;
 	}
 
+	/**
+	 * Move to previously visited position in the input.
+	 * Next read will start from the specified position.
+	 * Only supported when processing byte[] input.
+	 *
+	 * @param position index in the buffer
+	 */
+	final void seek(final int position) {
+		if (stream != null) throw new IllegalStateException("seek is not supported when processing stream");
+		if (position < 0 || position > length) throw new IllegalArgumentException("position must be within the input");
+		currentIndex = position;
+	}
+
+	/**
+	 * Adjust reported positions when buffer holds only a part of the input.
+	 *
+	 * @param offset position of the buffer start within the whole input
+	 */
+	final void positionOffset(final long offset) {
+		currentPosition = offset;
+	}
+
 	/**
 	 * will be removed. not used anymore
 	 *
@@ -598,6 +710,17 @@ public final class JsonReader<TContext> {
 		final int remaining = length - currentIndex;
 		int _tmpLen = _tmp.length < remaining ? _tmp.length : remaining;
 		int i = 0;
+		if (WORD_SCAN && _tmpLen >= 8) {
+			final byte[] _buf = buffer;
+			final ByteBuffer _words = wordView();
+			// Process 8 bytes at once while there are no quotes, escapes or multibyte characters.
+			// Word which contains any of those is processed in the loop below
+			while (i + 8 <= _tmpLen && !hasSpecialByte(_words.getLong(ci))) {
+				for (int end = i + 8; i < end; i++) {
+					_tmp[i] = (char) _buf[ci++];
+				}
+			}
+		}
 		while (i < _tmpLen) {
 			bb = buffer[ci++];
 			if (bb == '"') {
@@ -722,6 +845,23 @@ public final class JsonReader<TContext> {
 		throw newParseErrorAt("JSON string was not closed with a double quote", 0);
 	}
 
+	private ByteBuffer wordView() {
+		if (words == null || words.array() != buffer) {
+			words = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return words;
+	}
+
+	/**
+	 * Check if any of the 8 bytes is a quote, a backslash or has the high bit set.
+	 * Quotes and backslashes are detected by xor-ing them into zero bytes and checking for a zero byte.
+	 */
+	private static boolean hasSpecialByte(final long word) {
+		final long quotes = word ^ WORD_QUOTES;
+		final long escapes = word ^ WORD_ESCAPES;
+		return ((((quotes - WORD_ONES) & ~quotes) | ((escapes - WORD_ONES) & ~escapes) | word) & WORD_HIGH_BITS) != 0;
+	}
+
 	private int hexToInt(final byte value) throws ParsingException {
 		if (value >= '0' && value <= '9') return value - 0x30;
 		if (value >= 'A' && value <= 'F') return value - 0x37;
@@ -1057,76 +1197,230 @@ public final class JsonReader<TContext> {
 		return new String(buffer, tokenStart, nameEnd - tokenStart - 1, "UTF-8");
 	}
 
-	private byte skipString() throws IOException {
+	private void skipString() throws IOException {
 		byte c = read();
 		boolean inEscape = false;
 		while (c != '"' || inEscape) {
 			inEscape = !inEscape && c == '\\';
 			c = read();
 		}
-		return getNextToken();
 	}
 
 	/**
 	 * Skip to next non-whitespace token (byte)
 	 * Will not allocate memory while skipping over JSON input.
+	 * Objects and arrays are skipped by tracking only strings and brackets,
+	 * so their content is not validated beyond balanced brackets and closed strings.
 	 *
 	 * @return next non-whitespace byte
 	 * @throws IOException unable to read next byte (end of stream, invalid JSON, ...)
 	 */
 	public final byte skip() throws IOException {
-		if (last == '"') return skipString();
-		if (last == '{') {
-			byte nextToken = getNextToken();
-			if (nextToken == '}') return getNextToken();
-			if (nextToken == '"') {
-				nextToken = skipString();
-			} else {
-				throw newParseError("Expecting '\"' for attribute name");
-			}
-			if (nextToken != ':') throw newParseError("Expecting ':' after attribute name");
-			getNextToken();
-			nextToken = skip();
-			while (nextToken == ',') {
-				nextToken = getNextToken();
-				if (nextToken == '"') {
-					nextToken = skipString();
-				} else {
-					throw newParseError("Expecting '\"' for attribute name");
-				}
-				if (nextToken != ':') throw newParseError("Expecting ':' after attribute name");
-				getNextToken();
-				nextToken = skip();
-			}
-			if (nextToken != '}') throw newParseError("Expecting '}' for object end");
-			return getNextToken();
+		if (skipValue()) return getNextToken();
+		while (last != ',' && last != '}' && last != ']') {
+			read();
 		}
-		if (last == '[') {
-			getNextToken();
-			byte nextToken = skip();
-			while (nextToken == ',') {
-				getNextToken();
-				nextToken = skip();
-			}
-			if (nextToken != ']') throw newParseError("Expecting ']' for array end");
-			return getNextToken();
+		return last;
+	}
+
+	//skips over values which have an end marker and leaves reader at it.
+	//numbers don't have one, so for them nothing is skipped and false is returned
+	private boolean skipValue() throws IOException {
+		if (last == '"') {
+			skipString();
+			return true;
+		}
+		if (last == '{' || last == '[') {
+			skipNested();
+			return true;
 		}
 		if (last == 'n') {
 			if (!wasNull()) throw newParseErrorAt("Expecting 'null' for null constant", 0);
-			return getNextToken();
+			return true;
 		}
 		if (last == 't') {
 			if (!wasTrue()) throw newParseErrorAt("Expecting 'true' for true constant", 0);
-			return getNextToken();
+			return true;
 		}
 		if (last == 'f') {
 			if (!wasFalse()) throw newParseErrorAt("Expecting 'false' for false constant", 0);
-			return getNextToken();
+			return true;
 		}
+		return false;
+	}
+
+	/**
+	 * Skip over object or array without processing each token.
+	 * Only strings and brackets are tracked, so the rest of the content is not validated.
+	 * Input is checked 8 bytes at once; words without quotes, escapes or brackets are passed over
+	 * and otherwise only the marked bytes within the word are visited.
+	 * Brackets must match and strings must be closed, otherwise an error is reported.
+	 * Works across stream refills since state is kept outside of the buffer.
+	 * Reader is left at the closing bracket.
+	 */
+	private void skipNested() throws IOException {
+		byte[] stack = skipStack;
+		if (stack == null) {
+			stack = skipStack = new byte[16];
+		}
+		int depth = 0;
+		stack[depth++] = (byte) (last + 2);
+		boolean inString = false;
+		boolean escaped = false;
+		int i = currentIndex;
+		final ByteBuffer words = WORD_SCAN ? wordView() : null;
+		while (true) {
+			if (i >= length) {
+				currentIndex = i;
+				if (stream == null || prepareNextBlock() == 0) {
+					throw ParsingException.create("Unexpected end of JSON input", eof, withStackTrace());
+				}
+				i = currentIndex;
+			}
+			if (escaped) {
+				escaped = false;
+				i++;
+			} else if (words != null && i + 8 <= length) {
+				//pass over words without markers in a tight loop
+				final int wordsEnd = length - 16;
+				long word = words.getLong(i);
+				long markers = skipMarkers(word, inString);
+				while (markers == 0 && i <= wordsEnd) {
+					i += 8;
+					word = words.getLong(i);
+					markers = skipMarkers(word, inString);
+				}
+				while (markers != 0) {
+					final int offset = Long.numberOfTrailingZeros(markers) >>> 3;
+					final byte b = buffer[i + offset];
+					if (b == '"') {
+						inString = !inString;
+						markers = skipMarkers(word, inString) & after(offset);
+					} else if (b == '\\') {
+						if (offset == 7) escaped = true;
+						markers &= after(offset + 1);
+					} else if (b == '{' || b == '[') {
+						if (depth == stack.length) {
+							stack = skipStack = Arrays.copyOf(stack, stack.length * 2);
+						}
+						stack[depth++] = (byte) (b + 2);
+						markers &= markers - 1;
+					} else {
+						currentIndex = i + offset + 1;
+						last = b;
+						if (stack[--depth] != b) {
+							throw newParseError(stack[depth] == '}' ? "Expecting '}' for object end" : "Expecting ']' for array end");
+						}
+						if (depth == 0) return;
+						markers &= markers - 1;
+					}
+				}
+				i += 8;
+			} else {
+				final byte b = buffer[i++];
+				if (inString) {
+					if (b == '"') inString = false;
+					else if (b == '\\') escaped = true;
+				} else if (b == '"') {
+					inString = true;
+				} else if (b == '{' || b == '[') {
+					if (depth == stack.length) {
+						stack = skipStack = Arrays.copyOf(stack, stack.length * 2);
+					}
+					stack[depth++] = (byte) (b + 2);
+				} else if (b == '}' || b == ']') {
+					currentIndex = i;
+					last = b;
+					if (stack[--depth] != b) {
+						throw newParseError(stack[depth] == '}' ? "Expecting '}' for object end" : "Expecting ']' for array end");
+					}
+					if (depth == 0) return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find bytes which change the state while skipping over nested objects and arrays.
+	 * Inside a string only quotes and escapes are relevant, outside of it quotes and brackets.
+	 *
+	 * @param word     little endian input word
+	 * @param inString is the first byte of the word within a string
+	 * @return high bit set for each relevant byte
+	 */
+	private static long skipMarkers(final long word, final boolean inString) {
+		if (inString) {
+			return zeroBytes(word ^ WORD_QUOTES) | zeroBytes(word ^ WORD_ESCAPES);
+		}
+		final long curly = word | WORD_SQUARE_BIT;
+		return zeroBytes(word ^ WORD_QUOTES) | zeroBytes(curly ^ WORD_OPEN) | zeroBytes(curly ^ WORD_CLOSE);
+	}
+
+	//mark zero bytes of the word by setting their high bit
+	private static long zeroBytes(final long word) {
+		return ~(((word & WORD_LOW_BITS) + WORD_LOW_BITS) | word | WORD_LOW_BITS);
+	}
+
+	//mask of the bytes in the word after the one at the offset
+	private static long after(final int offset) {
+		return offset >= 7 ? 0 : -1L << ((offset + 1) << 3);
+	}
+
+	/**
+	 * Read current JSON value as bytes, without converting it into objects.
+	 * Value is checked in the same way as in skip(),
+	 * but reader stays at the end of the value, as with any other read method.
+	 * When processing streams, bytes are collected as the buffer is refilled, so value size is not limited by the buffer.
+	 *
+	 * @return exact bytes of the current JSON value
+	 * @throws IOException unable to read input or invalid JSON detected
+	 */
+	public final byte[] readRaw() throws IOException {
+		if (stream == null) {
+			final int start = currentIndex - 1;
+			final int end = skipRaw();
+			return Arrays.copyOfRange(buffer, start, trimEnd(buffer, start, end));
+		}
+		rawCapture = new ByteArrayOutputStream();
+		rawStart = currentIndex - 1;
+		try {
+			final int end = skipRaw();
+			rawCapture.write(buffer, rawStart, end - rawStart);
+			final byte[] result = rawCapture.toByteArray();
+			final int trimmed = trimEnd(result, 0, result.length);
+			return trimmed == result.length ? result : Arrays.copyOf(result, trimmed);
+		} finally {
+			rawCapture = null;
+		}
+	}
+
+	//same as skip, except it doesn't move to the token after the value.
+	//numbers are skipped up to the separator (or end of input), which is then left for the next token
+	private int skipRaw() throws IOException {
+		if (skipValue()) return currentIndex;
+		boolean whitespace = false;
 		while (last != ',' && last != '}' && last != ']') {
+			if (isEndOfStream()) return currentIndex;
 			read();
+			//bytes are passed through as is, so value must not continue after whitespace
+			if (isRawWhitespace(last)) whitespace = true;
+			else if (whitespace && last != ',' && last != '}' && last != ']') throw newParseError("Expecting separator after number");
 		}
-		return last;
+		final int end = currentIndex - 1;
+		currentIndex = end;
+		return end;
+	}
+
+	//whitespace between a number and the separator is not part of the value
+	private static int trimEnd(final byte[] bytes, final int start, int end) {
+		while (end > start && isRawWhitespace(bytes[end - 1])) {
+			end--;
+		}
+		return end;
+	}
+
+	private static boolean isRawWhitespace(final byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == '\r';
 	}
 
 	/**
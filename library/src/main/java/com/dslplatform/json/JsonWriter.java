@@ -1,9 +1,15 @@
 package com.dslplatform.json;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * DslJson writes JSON into JsonWriter which has two primary modes of operation:
@@ -11,10 +17,14 @@ import java.util.*;
  *  * targeting specific output stream
  *  * buffering the entire response in memory
  *
+ * Response can be buffered in a single growing byte[] or in a chain of fixed size segments.
+ * Segmented writer never copies already written data, which is useful for very large outputs.
+ *
  * In both cases JsonWriter writes into an byte[] buffer.
  * If stream is used as target, it will copy buffer into the stream whenever there is no more room in buffer for new data.
  * If stream is not used as target, it will grow the buffer to hold the encoded result.
  * To use stream as target reset(OutputStream) must be called before processing.
+ * NIO channels can be used as target via resetChannel methods.
  * This class provides low level methods for JSON serialization.
  * <p>
  * After the processing is done,
@@ -39,11 +49,17 @@ public final class JsonWriter {
 
 	private int position;
 	private long flushed;
+	private long drained;
 	private OutputStream target;
 	private byte[] buffer;
 
 	private final UnknownSerializer unknownSerializer;
-	private final Grisu3.FastDtoaBuilder doubleBuilder = new Grisu3.FastDtoaBuilder();
+	private final int segmentSize;
+	private final List<ByteBuffer> segments;
+	private final List<byte[]> spareSegments;
+
+	//consecutive writes which used only a small part of the buffer, maintained by BufferRetention
+	int smallWrites;
 
 	JsonWriter(@Nullable final UnknownSerializer unknownSerializer) {
 		this(512, unknownSerializer);
@@ -56,6 +72,17 @@ public final class JsonWriter {
 	JsonWriter(final byte[] buffer, @Nullable final UnknownSerializer unknownSerializer) {
 		this.buffer = buffer;
 		this.unknownSerializer = unknownSerializer;
+		this.segmentSize = 0;
+		this.segments = null;
+		this.spareSegments = null;
+	}
+
+	JsonWriter(@Nullable final UnknownSerializer unknownSerializer, final int segmentSize) {
+		this.buffer = new byte[segmentSize];
+		this.unknownSerializer = unknownSerializer;
+		this.segmentSize = segmentSize;
+		this.segments = new ArrayList<ByteBuffer>();
+		this.spareSegments = new ArrayList<byte[]>();
 	}
 
 	/**
@@ -91,6 +118,20 @@ public final class JsonWriter {
 	 */
 	public static final byte ESCAPE = '\\';
 
+	int capacity() {
+		return buffer.length;
+	}
+
+	//part of the buffer used since the last reset, output larger than the buffer uses all of it
+	int usedCapacity() {
+		return (int) Math.min(buffer.length, flushed + position);
+	}
+
+	void replaceBuffer(final int capacity) {
+		buffer = new byte[capacity];
+		position = 0;
+	}
+
 	private void enlargeOrFlush(final int size, final int padding) {
 		if (target != null) {
 			try {
@@ -103,11 +144,32 @@ public final class JsonWriter {
 			if (padding > buffer.length) {
 				buffer = Arrays.copyOf(buffer, buffer.length + buffer.length / 2 + padding);
 			}
+		} else if (segments != null) {
+			//written data stays where it is and writing continues in the next segment
+			segments.add(ByteBuffer.wrap(buffer, 0, size));
+			position = 0;
+			flushed += size;
+			if (padding >= segmentSize) {
+				buffer = new byte[padding + segmentSize];
+			} else if (spareSegments.isEmpty()) {
+				buffer = new byte[segmentSize];
+			} else {
+				buffer = spareSegments.remove(spareSegments.size() - 1);
+			}
 		} else {
 			buffer = Arrays.copyOf(buffer, buffer.length + buffer.length / 2 + padding);
 		}
 	}
 
+	private void recycleSegments() {
+		for (ByteBuffer segment : segments) {
+			if (segment.array().length == segmentSize) {
+				spareSegments.add(segment.array());
+			}
+		}
+		segments.clear();
+	}
+
 	/**
 	 * Optimized method for writing 'null' into the JSON.
 	 */
@@ -474,20 +536,35 @@ public final class JsonWriter {
 		} else if (value == 0.0) {
 			writeAscii("0.0");
 		} else {
-			if (Grisu3.tryConvert(value, doubleBuilder)) {
-				if (position + 24 >= buffer.length) {
-					enlargeOrFlush(position, 24);
-				}
-				final int len = doubleBuilder.copyTo(buffer, position);
-				position += len;
-			} else {
-				writeAscii(Double.toString(value));
+			if (position + Schubfach.MAX_LENGTH >= buffer.length) {
+				enlargeOrFlush(position, Schubfach.MAX_LENGTH);
+			}
+			position = Schubfach.write(value, buffer, position);
+		}
+	}
+
+	final void writeFloat(final float value) {
+		if (value == Float.POSITIVE_INFINITY) {
+			writeAscii("\"Infinity\"");
+		} else if (value == Float.NEGATIVE_INFINITY) {
+			writeAscii("\"-Infinity\"");
+		} else if (value != value) {
+			writeAscii("\"NaN\"");
+		} else if (value == 0.0f) {
+			writeAscii(Float.floatToRawIntBits(value) < 0 ? "-0.0" : "0.0");
+		} else {
+			if (position + Schubfach.MAX_LENGTH >= buffer.length) {
+				enlargeOrFlush(position, Schubfach.MAX_LENGTH);
 			}
+			position = Schubfach.write(value, buffer, position);
 		}
 	}
 
 	@Override
 	public String toString() {
+		if (segments != null && !segments.isEmpty()) {
+			return new String(toByteArray(), StandardCharsets.UTF_8);
+		}
 		return new String(buffer, 0, position, StandardCharsets.UTF_8);
 	}
 
@@ -496,6 +573,7 @@ public final class JsonWriter {
 	 * This method can't be used when targeting output stream.
 	 * Ideally it should be avoided if possible, since it will create an array copy.
 	 * It's better to use getByteBuffer and size instead.
+	 * For segmented writer, all segments are copied into the resulting array.
 	 *
 	 * @return copy of the buffer up to the current position
 	 */
@@ -503,7 +581,42 @@ public final class JsonWriter {
 		if (target != null) {
 			throw new ConfigurationException("Method is not available when targeting stream");
 		}
-		return Arrays.copyOf(buffer, position);
+		if (segments == null || segments.isEmpty()) {
+			return Arrays.copyOf(buffer, position);
+		}
+		long total = position;
+		for (ByteBuffer segment : segments) {
+			total += segment.limit();
+		}
+		final byte[] result = new byte[(int) total];
+		int offset = 0;
+		for (ByteBuffer segment : segments) {
+			System.arraycopy(segment.array(), 0, result, offset, segment.limit());
+			offset += segment.limit();
+		}
+		System.arraycopy(buffer, 0, result, offset, position);
+		return result;
+	}
+
+	/**
+	 * Content of the writer as a sequence of buffers, suitable for GatheringByteChannel.write(ByteBuffer[]).
+	 * Buffers are not copied, so they are valid only until the writer is reset.
+	 * For non segmented writer, there is only a single buffer.
+	 * This method can't be used when targeting output stream.
+	 *
+	 * @return buffers with written data in order
+	 */
+	public final ByteBuffer[] toByteBuffers() {
+		if (target != null) {
+			throw new ConfigurationException("Method is not available when targeting stream");
+		}
+		final int count = segments == null ? 0 : segments.size();
+		final ByteBuffer[] result = new ByteBuffer[count + 1];
+		for (int i = 0; i < count; i++) {
+			result[i] = segments.get(i).duplicate();
+		}
+		result[count] = ByteBuffer.wrap(buffer, 0, position);
+		return result;
 	}
 
 	/**
@@ -517,33 +630,78 @@ public final class JsonWriter {
 		if (target != null) {
 			throw new ConfigurationException("Method should not be used when targeting streams. Instead use flush() to copy what's remaining in the buffer");
 		}
+		if (segments != null && !segments.isEmpty()) {
+			for (ByteBuffer segment : segments) {
+				stream.write(segment.array(), 0, segment.limit());
+			}
+			recycleSegments();
+		}
 		stream.write(buffer, 0, position);
 		flushed += position;
 		position = 0;
+		drained = 0;
 	}
 
 	/**
 	 * Current buffer.
 	 * If buffer grows, a new instance will be created and old one will not be used anymore.
+	 * Segmented writer with more than one segment doesn't have a single buffer,
+	 * so toByteArray, toByteBuffers or toStream must be used instead.
 	 *
 	 * @return current buffer
 	 */
 	public final byte[] getByteBuffer() {
+		checkSingleSegment();
 		return buffer;
 	}
 
 	/**
 	 * Current position in the buffer. When stream is not used, this is also equivalent
-	 * to the size of the resulting JSON in bytes
+	 * to the size of the resulting JSON in bytes.
+	 * Segmented writer with more than one segment doesn't have a single buffer,
+	 * so toByteArray, toByteBuffers or toStream must be used instead.
 	 *
 	 * @return position in the populated buffer
 	 */
 	public final int size() {
+		checkSingleSegment();
+		return position;
+	}
+
+	private void checkSingleSegment() {
+		if (segments != null && !segments.isEmpty()) {
+			throw new ConfigurationException("Output of segmented writer is split into " + (segments.size() + 1) + " segments. Use toByteArray(), toByteBuffers() or toStream() instead");
+		}
+	}
+
+	/**
+	 * Position in the current buffer.
+	 * Unlike size(), it's available for segmented writers too, so converters can use it together with flushed()
+	 * to detect if something was written.
+	 *
+	 * @return position in the current buffer
+	 */
+	public final int position() {
 		return position;
 	}
 
 	/**
-	 * Total bytes currently flushed to stream
+	 * Replace the last written byte, eg. trailing comma with the end of an object.
+	 * It can be used only right after a byte was written, since previous output might already be flushed.
+	 *
+	 * @param value new value of the last byte
+	 */
+	public final void replaceLastByte(final byte value) {
+		buffer[position - 1] = value;
+	}
+
+	final byte[] currentBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Total bytes currently flushed to stream.
+	 * For segmented writer this also includes bytes in the completed segments.
 	 *
 	 * @return bytes flushed
 	 */
@@ -568,6 +726,10 @@ public final class JsonWriter {
 		position = 0;
 		target = stream;
 		flushed = 0;
+		drained = 0;
+		if (segments != null && !segments.isEmpty()) {
+			recycleSegments();
+		}
 	}
 
 	/**
@@ -588,6 +750,152 @@ public final class JsonWriter {
 			flushed += position;
 			position = 0;
 		}
+		if (target instanceof AsyncFileStream) {
+			try {
+				((AsyncFileStream) target).complete();
+			} catch (IOException ex) {
+				throw new SerializationException("Unable to write to target stream.", ex);
+			}
+		}
+	}
+
+	/**
+	 * Resets the writer and specifies the channel as target.
+	 * Buffer is written directly to the channel whenever it's full, without going through an OutputStream adapter.
+	 * Channel should be in blocking mode, otherwise writer will spin until channel accepts all the data.
+	 * After the processing is done, flush() must be called to write the remaining of the buffer.
+	 *
+	 * @param channel target channel
+	 */
+	public final void resetChannel(final WritableByteChannel channel) {
+		if (channel == null) throw new IllegalArgumentException("channel can't be null");
+		reset(new ChannelStream(channel));
+	}
+
+	/**
+	 * Resets the writer and specifies the file channel as target, starting at the provided file position.
+	 * When buffer is full it's copied into a direct buffer and written asynchronously,
+	 * while serialization continues in the writer buffer.
+	 * Before the next write, previous one must complete, so there is at most a single write in progress.
+	 * flush() must be called at the end. It will wait for all writes to complete.
+	 *
+	 * @param channel  target file
+	 * @param position file position for the start of the output
+	 */
+	public final void resetChannel(final AsynchronousFileChannel channel, final long position) {
+		if (channel == null) throw new IllegalArgumentException("channel can't be null");
+		if (position < 0) throw new IllegalArgumentException("position can't be negative");
+		reset(new AsyncFileStream(channel, position));
+	}
+
+	/**
+	 * Copies the buffered output into the provided buffer, which can be a direct buffer of a socket or a file.
+	 * If the whole output does not fit, as much as possible is copied and false is returned.
+	 * Caller should then consume the target buffer and call this method again to continue from where it stopped.
+	 * This method can't be used when targeting output stream.
+	 *
+	 * @param target buffer to copy into
+	 * @return true when all output was copied, false when target buffer overflowed
+	 */
+	public final boolean writeTo(final ByteBuffer target) {
+		if (target == null) throw new IllegalArgumentException("target can't be null");
+		if (this.target != null) {
+			throw new ConfigurationException("Method is not available when targeting stream");
+		}
+		long skip = drained;
+		if (segments != null) {
+			for (ByteBuffer segment : segments) {
+				final int length = segment.limit();
+				if (skip >= length) {
+					skip -= length;
+				} else {
+					if (!transfer(segment.array(), (int) skip, length, target)) return false;
+					skip = 0;
+				}
+			}
+		}
+		return transfer(buffer, (int) skip, position, target);
+	}
+
+	private boolean transfer(final byte[] source, final int from, final int to, final ByteBuffer target) {
+		final int count = Math.min(to - from, target.remaining());
+		target.put(source, from, count);
+		drained += count;
+		return count == to - from;
+	}
+
+	//writer always passes its own buffer, so it's wrapped instead of copied and there is no locking as in Channels.newOutputStream
+	private static final class ChannelStream extends OutputStream {
+		private final WritableByteChannel channel;
+
+		ChannelStream(final WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			final ByteBuffer wrapped = ByteBuffer.wrap(b, off, len);
+			while (wrapped.hasRemaining()) {
+				channel.write(wrapped);
+			}
+		}
+	}
+
+	private static final class AsyncFileStream extends OutputStream {
+		private final AsynchronousFileChannel channel;
+		private long position;
+		private ByteBuffer free;
+		private ByteBuffer writing;
+		private long writingAt;
+		private Future<Integer> inFlight;
+
+		AsyncFileStream(final AsynchronousFileChannel channel, final long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			complete();
+			if (free == null || free.capacity() < len) {
+				free = ByteBuffer.allocateDirect(len);
+			}
+			free.clear();
+			free.put(b, off, len);
+			free.flip();
+			final ByteBuffer next = free;
+			free = writing;
+			writing = next;
+			writingAt = position;
+			position += len;
+			inFlight = channel.write(writing, writingAt);
+		}
+
+		void complete() throws IOException {
+			while (inFlight != null) {
+				final int written;
+				try {
+					written = inFlight.get();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for write to complete");
+				} catch (ExecutionException ex) {
+					throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+				}
+				writingAt += written;
+				inFlight = writing.hasRemaining() ? channel.write(writing, writingAt) : null;
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,65 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream over a file which maps consecutive regions of the file into memory.
+ * Data is copied from page cache backed mappings into the reader buffer without any read calls,
+ * which allows for processing of files larger than 2GB through the JsonReader stream mode.
+ * <p>
+ * Processing starts from the current channel position.
+ * Channel is not closed nor its position changed by this stream.
+ */
+final class MappedFileStream extends InputStream {
+
+	static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final int windowSize;
+	private final long end;
+	private long position;
+	private ByteBuffer window;
+
+	MappedFileStream(final FileChannel channel, final int windowSize) throws IOException {
+		if (channel == null) throw new IllegalArgumentException("channel can't be null");
+		if (windowSize < 1) throw new IllegalArgumentException("windowSize can't be smaller than 1");
+		this.channel = channel;
+		this.windowSize = windowSize;
+		this.position = channel.position();
+		this.end = channel.size();
+	}
+
+	private boolean hasData() throws IOException {
+		if (window != null && window.hasRemaining()) return true;
+		if (position >= end) return false;
+		final long size = Math.min(windowSize, end - position);
+		//previous window is released when there are no more references to it
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+		position += size;
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!hasData()) return -1;
+		return window.get() & 0xff;
+	}
+
+	@Override
+	public int read(byte[] buf, int off, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!hasData()) return -1;
+		final int size = len < window.remaining() ? len : window.remaining();
+		window.get(buf, off, size);
+		return size;
+	}
+
+	@Override
+	public int available() {
+		final long left = (window == null ? 0 : window.remaining()) + end - position;
+		return left > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) left;
+	}
+}
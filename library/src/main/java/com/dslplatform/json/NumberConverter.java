@@ -392,12 +392,69 @@ public abstract class NumberConverter {
 		final int end = reader.getCurrentIndex();
 		final byte[] buf = reader.buffer;
 		final byte ch = buf[start];
+		final int offset = ch == '-' ? 1 : 0;
+		if (end != reader.length() || end - start - offset <= reader.doubleLengthLimit) {
+			final double value = parseDecimal(buf, reader, start + offset, end, false);
+			if (value == value) return offset == 1 ? -value : value;
+		}
 		if (ch == '-') {
 			return -parseDouble(buf, reader, start, end, 1);
 		}
 		return parseDouble(buf, reader, start, end, 0);
 	}
 
+	/**
+	 * Exact conversion for numbers with up to 19 significant digits.
+	 * Digits and exponent are collected in a single pass and converted via Eisel-Lemire algorithm.
+	 * NaN is returned for everything else (invalid input, too many digits) which must be processed via the regular path.
+	 */
+	private static double parseDecimal(final byte[] buf, final JsonReader reader, final int start, final int end, final boolean asFloat) {
+		if (start == end || end - start > reader.maxNumberDigits) return Double.NaN;
+		int i = start;
+		byte ch = buf[i];
+		if (ch == '0') {
+			if (i + 1 < end && buf[i + 1] >= '0' && buf[i + 1] <= '9') return Double.NaN;
+		} else if (ch < '1' || ch > '9') return Double.NaN;
+		long significand = 0;
+		int digits = 0;
+		for (; i < end; i++) {
+			final int ind = buf[i] - 48;
+			if (ind < 0 || ind > 9) break;
+			significand = (significand << 3) + (significand << 1) + ind;
+			if (digits != 0 || ind != 0) digits++;
+		}
+		int exponent = 0;
+		if (i < end && buf[i] == '.') {
+			final int decPos = ++i;
+			for (; i < end; i++) {
+				final int ind = buf[i] - 48;
+				if (ind < 0 || ind > 9) break;
+				significand = (significand << 3) + (significand << 1) + ind;
+				if (digits != 0 || ind != 0) digits++;
+			}
+			if (i == decPos) return Double.NaN;
+			exponent = decPos - i;
+		}
+		if (i < end && (buf[i] == 'e' || buf[i] == 'E')) {
+			i++;
+			final boolean negative = i < end && buf[i] == '-';
+			if (i < end && (buf[i] == '-' || buf[i] == '+')) i++;
+			final int expStart = i;
+			int exp = 0;
+			for (; i < end; i++) {
+				final int ind = buf[i] - 48;
+				if (ind < 0 || ind > 9) break;
+				if (exp < 100000) exp = exp * 10 + ind;
+			}
+			if (i == expStart) return Double.NaN;
+			exponent += negative ? -exp : exp;
+		}
+		if (digits > EiselLemire.MAX_DIGITS || i != end && !reader.allWhitespace(i, end)) return Double.NaN;
+		return asFloat
+				? EiselLemire.toFloat(significand, exponent)
+				: EiselLemire.toDouble(significand, exponent);
+	}
+
 	private static double parseDouble(final byte[] buf, final JsonReader reader, final int start, final int end, final int offset) throws IOException {
 		if (end - start - offset > reader.doubleLengthLimit) {
 			if (end == reader.length()) {
@@ -600,15 +657,7 @@ public abstract class NumberConverter {
 	}
 
 	public static void serialize(final float value, final JsonWriter sw) {
-		if (value == Float.POSITIVE_INFINITY) {
-			sw.writeAscii("\"Infinity\"");
-		} else if (value == Float.NEGATIVE_INFINITY) {
-			sw.writeAscii("\"-Infinity\"");
-		} else if (value != value) {
-			sw.writeAscii("\"NaN\"");
-		} else {
-			sw.writeAscii(Float.toString(value));//TODO: better implementation required
-		}
+		sw.writeFloat(value);
 	}
 
 	public static void serialize(@Nullable final float[] value, final JsonWriter sw) {
@@ -641,6 +690,9 @@ public abstract class NumberConverter {
 		}
 		final byte[] buf = reader.buffer;
 		final byte ch = buf[start];
+		final int offset = ch == '-' ? 1 : 0;
+		final double value = parseDecimal(buf, reader, start + offset, end, true);
+		if (value == value) return (float) (offset == 1 ? -value : value);
 		if (ch == '-') {
 			return -parseFloat(buf, reader, start, end, 1);
 		}
@@ -806,7 +858,7 @@ public abstract class NumberConverter {
 
 	public static void serialize(final int value, final JsonWriter sw) {
 		final byte[] buf = sw.ensureCapacity(11);
-		final int position = sw.size();
+		final int position = sw.position();
 		int current = serialize(buf, position, value);
 		sw.advance(current - position);
 	}
@@ -863,7 +915,7 @@ public abstract class NumberConverter {
 			sw.writeAscii("[]");
 		} else {
 			final byte[] buf = sw.ensureCapacity(values.length * 11 + 2);
-			int position = sw.size();
+			int position = sw.position();
 			buf[position++] = '[';
 			position = serialize(buf, position, values[0]);
 			for (int i = 1; i < values.length; i++) {
@@ -871,7 +923,7 @@ public abstract class NumberConverter {
 				position = serialize(buf, position, values[i]);
 			}
 			buf[position++] = ']';
-			sw.advance(position - sw.size());
+			sw.advance(position - sw.position());
 		}
 	}
 
@@ -1135,7 +1187,7 @@ public abstract class NumberConverter {
 
 	public static void serialize(final long value, final JsonWriter sw) {
 		final byte[] buf = sw.ensureCapacity(21);
-		final int position = sw.size();
+		final int position = sw.position();
 		int current = serialize(buf, position, value);
 		sw.advance(current - position);
 	}
@@ -1237,7 +1289,7 @@ public abstract class NumberConverter {
 			sw.writeAscii("[]");
 		} else {
 			final byte[] buf = sw.ensureCapacity(values.length * 21 + 2);
-			int position = sw.size();
+			int position = sw.position();
 			buf[position++] = '[';
 			position = serialize(buf, position, values[0]);
 			for (int i = 1; i < values.length; i++) {
@@ -1245,7 +1297,7 @@ public abstract class NumberConverter {
 				position = serialize(buf, position, values[i]);
 			}
 			buf[position++] = ']';
-			sw.advance(position - sw.size());
+			sw.advance(position - sw.position());
 		}
 	}
 
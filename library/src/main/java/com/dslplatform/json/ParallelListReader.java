@@ -0,0 +1,279 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Deserialization of large top level JSON arrays on multiple threads.
+ * Input is first split into chunks of elements in a single pass which only tracks strings and nesting.
+ * Each chunk is then processed with a pooled reader and results are joined in the original order.
+ */
+final class ParallelListReader {
+
+	static final int MIN_CHUNK_SIZE = 64 * 1024;
+	//chunks of a file are mapped one by one, so they are kept within the size of a mapped region
+	static final int MAX_CHUNK_SIZE = MappedFileStream.DEFAULT_WINDOW_SIZE;
+
+	private ParallelListReader() {
+	}
+
+	static int chunkSize(final long size, final ForkJoinPool pool) {
+		return (int) Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4)));
+	}
+
+	/**
+	 * Find chunk boundaries within the top level array.
+	 * First boundary is the position of the opening bracket, the last one is the position of the closing bracket
+	 * and the ones in between are positions of top level commas.
+	 *
+	 * @param body      input JSON
+	 * @param size      input length
+	 * @param chunkSize minimum distance between boundaries
+	 * @return boundaries or null if input is not an array or array end was not found
+	 * @throws ParsingException when there is content after the array end
+	 */
+	@Nullable
+	static long[] findChunks(final byte[] body, final int size, final int chunkSize) throws ParsingException {
+		final Boundaries boundaries = new Boundaries(chunkSize);
+		boundaries.feed(body, 0, size, 0);
+		return boundaries.result();
+	}
+
+	/**
+	 * Find chunk boundaries within the top level array of a file, starting from the current channel position.
+	 * Positions are relative to the channel position.
+	 *
+	 * @param channel   file with JSON input
+	 * @param chunkSize minimum distance between boundaries
+	 * @return boundaries or null if input is not an array, array end was not found or some element is too large to be mapped
+	 * @throws IOException unable to read the file or there is content after the array end
+	 */
+	@Nullable
+	static long[] findChunks(final FileChannel channel, final int chunkSize) throws IOException {
+		final MappedFileStream stream = new MappedFileStream(channel, MappedFileStream.DEFAULT_WINDOW_SIZE);
+		final Boundaries boundaries = new Boundaries(chunkSize);
+		final byte[] buffer = new byte[MIN_CHUNK_SIZE];
+		long offset = 0;
+		int read;
+		while ((read = stream.read(buffer, 0, buffer.length)) != -1 && boundaries.feed(buffer, 0, read, offset)) {
+			offset += read;
+		}
+		final long[] result = boundaries.result();
+		if (result == null) return null;
+		for (int i = 1; i < result.length; i++) {
+			if (result[i] - result[i - 1] > Integer.MAX_VALUE) return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Tracks array boundaries while input is provided in parts.
+	 * Only whitespace is allowed before the opening and after the closing bracket.
+	 */
+	private static final class Boundaries {
+		private final int chunkSize;
+		private long[] positions = new long[16];
+		private int count;
+		private int depth;
+		private boolean inString;
+		private boolean escaped;
+		private boolean closed;
+		private boolean invalid;
+		private long trailingAt = -1;
+
+		Boundaries(final int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		private void add(final long position) {
+			if (count == positions.length) positions = Arrays.copyOf(positions, count * 2);
+			positions[count++] = position;
+		}
+
+		//returns false when the rest of the input is not relevant anymore
+		boolean feed(final byte[] input, final int start, final int end, final long offset) {
+			for (int i = start; i < end; i++) {
+				final byte b = input[i];
+				if (count == 0 || closed) {
+					if (b == ' ' || b == '\t' || b == '\n' || b == '\r') continue;
+					if (closed) {
+						trailingAt = offset + i;
+						return false;
+					}
+					if (b != '[') {
+						invalid = true;
+						return false;
+					}
+					add(offset + i);
+				} else if (escaped) {
+					escaped = false;
+				} else if (inString) {
+					if (b == '\\') escaped = true;
+					else if (b == '"') inString = false;
+				} else if (b == '"') {
+					inString = true;
+				} else if (b == '{' || b == '[') {
+					depth++;
+				} else if (b == '}' || b == ']') {
+					if (depth == 0) {
+						if (b != ']') {
+							invalid = true;
+							return false;
+						}
+						add(offset + i);
+						closed = true;
+					} else {
+						depth--;
+					}
+				} else if (b == ',' && depth == 0 && offset + i - positions[count - 1] >= chunkSize) {
+					add(offset + i);
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		long[] result() throws ParsingException {
+			if (invalid || !closed) return null;
+			if (trailingAt != -1) {
+				throw ParsingException.create("Unexpected content after JSON array at position: " + trailingAt, true);
+			}
+			return Arrays.copyOf(positions, count);
+		}
+	}
+
+	static <T> List<T> deserialize(
+			final DslJson<?> dslJson,
+			final JsonReader.ReadObject<T> readObject,
+			final byte[] body,
+			final long[] chunks,
+			final ForkJoinPool pool) throws IOException {
+		final List<Chunk<T>> tasks = new ArrayList<Chunk<T>>(chunks.length - 1);
+		for (int i = 1; i < chunks.length; i++) {
+			tasks.add(new ArrayChunk<T>(dslJson, readObject, body, chunks[i - 1] + 1, chunks[i]));
+		}
+		return join(tasks, pool);
+	}
+
+	static <T> List<T> deserialize(
+			final DslJson<?> dslJson,
+			final JsonReader.ReadObject<T> readObject,
+			final FileChannel channel,
+			final long[] chunks,
+			final ForkJoinPool pool) throws IOException {
+		final long base = channel.position();
+		final List<Chunk<T>> tasks = new ArrayList<Chunk<T>>(chunks.length - 1);
+		for (int i = 1; i < chunks.length; i++) {
+			tasks.add(new FileChunk<T>(dslJson, readObject, channel, base, chunks[i - 1] + 1, chunks[i]));
+		}
+		return join(tasks, pool);
+	}
+
+	private static <T> List<T> join(final List<Chunk<T>> tasks, final ForkJoinPool pool) throws IOException {
+		pool.invokeAll(tasks);
+		int total = 0;
+		for (final Chunk<T> chunk : tasks) {
+			//pool wraps exceptions thrown from tasks, so report the original one instead
+			if (chunk.error instanceof IOException) throw (IOException) chunk.error;
+			if (chunk.error instanceof RuntimeException) throw (RuntimeException) chunk.error;
+			if (chunk.error instanceof Error) throw (Error) chunk.error;
+			if (chunk.error != null) throw new IOException("Unable to process chunk of the list", chunk.error);
+			if (chunk.result == null) throw new IOException("Chunk of the list was not processed");
+			total += chunk.result.size();
+		}
+		final ArrayList<T> result = new ArrayList<T>(total);
+		for (final Chunk<T> chunk : tasks) {
+			result.addAll(chunk.result);
+		}
+		return result;
+	}
+
+	private static abstract class Chunk<T> implements Callable<List<T>> {
+		private final DslJson<?> dslJson;
+		private final JsonReader.ReadObject<T> readObject;
+		final long start;
+		final long end;
+		private ArrayList<T> result;
+		private Throwable error;
+
+		Chunk(final DslJson<?> dslJson, final JsonReader.ReadObject<T> readObject, final long start, final long end) {
+			this.dslJson = dslJson;
+			this.readObject = readObject;
+			this.start = start;
+			this.end = end;
+		}
+
+		//chunk includes its delimiter so reader can check for it as any other array element end.
+		//reader must report positions within the whole input
+		abstract void bind(JsonReader<?> reader) throws IOException;
+
+		@Override
+		public List<T> call() {
+			try {
+				result = process();
+			} catch (Throwable ex) {
+				error = ex;
+			}
+			return result;
+		}
+
+		private ArrayList<T> process() throws IOException {
+			final JsonReader<?> reader = dslJson.readerPool.take();
+			try {
+				bind(reader);
+				final ArrayList<T> list = new ArrayList<T>();
+				while (true) {
+					reader.getNextToken();
+					list.add(reader.wasNull() ? null : readObject.read(reader));
+					final byte nextToken = reader.getNextToken();
+					if (reader.positionInStream() == end + 1) {
+						if (nextToken == ']' || nextToken == ',') return list;
+						throw reader.newParseError("Expecting ']' for list end");
+					}
+					if (nextToken != ',') throw reader.newParseError("Expecting ',' or ']' while parsing list");
+				}
+			} finally {
+				reader.reset();
+				dslJson.readerPool.release(reader);
+			}
+		}
+	}
+
+	private static final class ArrayChunk<T> extends Chunk<T> {
+		private final byte[] body;
+
+		ArrayChunk(final DslJson<?> dslJson, final JsonReader.ReadObject<T> readObject, final byte[] body, final long start, final long end) {
+			super(dslJson, readObject, start, end);
+			this.body = body;
+		}
+
+		@Override
+		void bind(final JsonReader<?> reader) {
+			reader.process(body, (int) end + 1);
+			reader.seek((int) start);
+		}
+	}
+
+	private static final class FileChunk<T> extends Chunk<T> {
+		private final FileChannel channel;
+		private final long base;
+
+		FileChunk(final DslJson<?> dslJson, final JsonReader.ReadObject<T> readObject, final FileChannel channel, final long base, final long start, final long end) {
+			super(dslJson, readObject, start, end);
+			this.channel = channel;
+			this.base = base;
+		}
+
+		@Override
+		void bind(final JsonReader<?> reader) throws IOException {
+			//mapped region is read through the reader buffer, so it doesn't need a byte[] of its own
+			reader.process(channel.map(FileChannel.MapMode.READ_ONLY, base + start, end - start + 1));
+			reader.positionOffset(start);
+		}
+	}
+}
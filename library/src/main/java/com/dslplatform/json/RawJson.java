@@ -0,0 +1,48 @@
+package com.dslplatform.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * JSON value kept as bytes, without being converted into objects.
+ * When used as a property type, input is captured as is while skipping over it
+ * and written back without changes.
+ * This is useful when parts of the payload are only passed through.
+ * <p>
+ * Bytes are not validated when instance is created directly and they are not copied,
+ * so provided array must not be changed afterwards.
+ */
+public final class RawJson {
+
+	private final byte[] json;
+
+	public RawJson(final byte[] json) {
+		if (json == null) throw new IllegalArgumentException("json can't be null");
+		if (json.length == 0) throw new IllegalArgumentException("json can't be empty");
+		this.json = json;
+	}
+
+	/**
+	 * Bytes of the JSON value. Array is not copied and it should not be changed.
+	 *
+	 * @return UTF-8 encoded JSON
+	 */
+	public byte[] getBytes() {
+		return json;
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return other instanceof RawJson && Arrays.equals(json, ((RawJson) other).json);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(json);
+	}
+
+	@Override
+	public String toString() {
+		return new String(json, StandardCharsets.UTF_8);
+	}
+}
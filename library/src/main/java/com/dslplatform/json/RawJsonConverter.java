@@ -0,0 +1,37 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+
+public abstract class RawJsonConverter {
+
+	public static final JsonReader.ReadObject<RawJson> READER = new JsonReader.ReadObject<RawJson>() {
+		@Nullable
+		@Override
+		public RawJson read(JsonReader reader) throws IOException {
+			return reader.wasNull() ? null : deserialize(reader);
+		}
+	};
+	public static final JsonWriter.WriteObject<RawJson> WRITER = (writer, value) -> serializeNullable(value, writer);
+
+	static <T> void registerDefault(DslJson<T> json) {
+		json.registerReader(RawJson.class, READER);
+		json.registerWriter(RawJson.class, WRITER);
+	}
+
+	public static void serializeNullable(@Nullable final RawJson value, final JsonWriter sw) {
+		if (value == null) {
+			sw.writeNull();
+		} else {
+			serialize(value, sw);
+		}
+	}
+
+	public static void serialize(final RawJson value, final JsonWriter sw) {
+		final byte[] json = value.getBytes();
+		sw.writeRaw(json, 0, json.length);
+	}
+
+	public static RawJson deserialize(final JsonReader reader) throws IOException {
+		return new RawJson(reader.readRaw());
+	}
+}
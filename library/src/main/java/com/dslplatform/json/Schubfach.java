@@ -0,0 +1,313 @@
+package com.dslplatform.json;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest decimal representation of doubles and floats.
+ * Based on the Schubfach algorithm by Raffaello Giulietti:
+ * https://drive.google.com/file/d/1IEeATSVnEE6TkrHlCYNY2GjaraBjOT4f
+ * <p>
+ * Result is always the shortest decimal which rounds back to the same value.
+ * When there are several such decimals, the one closest to the value is used.
+ * There are no cases where algorithm gives up, so fallback to Double.toString is not required.
+ * <p>
+ * Fixed notation is used when decimal point is in [-5, 21] range,
+ * otherwise exponential notation, eg. 1.5E+22
+ */
+abstract class Schubfach {
+
+	static final int MAX_LENGTH = 26;
+
+	private static final int K_MIN = -324;
+	private static final int K_MAX = 292;
+	private static final long MASK_63 = (1L << 63) - 1;
+	private static final long MASK_32 = (1L << 32) - 1;
+
+	private static final int DOUBLE_PRECISION = 53;
+	private static final int DOUBLE_Q_MIN = -1074;
+	private static final long DOUBLE_C_MIN = 1L << (DOUBLE_PRECISION - 1);
+	private static final long DOUBLE_C_TINY = 3;
+
+	private static final int FLOAT_PRECISION = 24;
+	private static final int FLOAT_Q_MIN = -149;
+	private static final int FLOAT_C_MIN = 1 << (FLOAT_PRECISION - 1);
+	private static final int FLOAT_C_TINY = 8;
+
+	//g = floor(10^-k * 2^-r) + 1 for 2^125 <= 10^-k * 2^-r < 2^126, split into upper and lower 63 bits
+	private static final long[] G = createTable();
+
+	private static long[] createTable() {
+		final long[] table = new long[2 * (K_MAX - K_MIN + 1)];
+		final BigInteger mask63 = BigInteger.valueOf(MASK_63);
+		for (int k = K_MIN; k <= K_MAX; k++) {
+			final BigInteger floor;
+			if (k <= 0) {
+				final BigInteger power = BigInteger.TEN.pow(-k);
+				final int r = power.bitLength() - 126;
+				floor = r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r);
+			} else {
+				final BigInteger power = BigInteger.TEN.pow(k);
+				floor = BigInteger.ONE.shiftLeft(125 + power.bitLength()).divide(power);
+			}
+			final BigInteger g = floor.add(BigInteger.ONE);
+			final int index = (k - K_MIN) << 1;
+			table[index] = g.shiftRight(63).longValue();
+			table[index + 1] = g.and(mask63).longValue();
+		}
+		return table;
+	}
+
+	/**
+	 * Write shortest representation of finite, non zero double.
+	 *
+	 * @param value    double to write
+	 * @param buffer   target with at least MAX_LENGTH bytes available
+	 * @param position start in the buffer
+	 * @return position after the last written byte
+	 */
+	static int write(final double value, final byte[] buffer, int position) {
+		final long bits = Double.doubleToRawLongBits(value);
+		if (bits < 0) {
+			buffer[position++] = '-';
+		}
+		final long t = bits & (DOUBLE_C_MIN - 1);
+		final int bq = (int) (bits >>> (DOUBLE_PRECISION - 1)) & 0x7FF;
+		if (bq != 0) {
+			final int mq = -DOUBLE_Q_MIN + 1 - bq;
+			final long c = DOUBLE_C_MIN | t;
+			if (0 < mq && mq < DOUBLE_PRECISION) {
+				//integer values are written directly
+				final long f = c >> mq;
+				if (f << mq == c) {
+					return format(f, 0, buffer, position);
+				}
+			}
+			return toDecimal(-mq, c, 0, buffer, position);
+		}
+		return t < DOUBLE_C_TINY
+				? toDecimal(DOUBLE_Q_MIN, 10 * t, -1, buffer, position)
+				: toDecimal(DOUBLE_Q_MIN, t, 0, buffer, position);
+	}
+
+	/**
+	 * Write shortest representation of finite, non zero float.
+	 *
+	 * @param value    float to write
+	 * @param buffer   target with at least MAX_LENGTH bytes available
+	 * @param position start in the buffer
+	 * @return position after the last written byte
+	 */
+	static int write(final float value, final byte[] buffer, int position) {
+		final int bits = Float.floatToRawIntBits(value);
+		if (bits < 0) {
+			buffer[position++] = '-';
+		}
+		final int t = bits & (FLOAT_C_MIN - 1);
+		final int bq = (bits >>> (FLOAT_PRECISION - 1)) & 0xFF;
+		if (bq != 0) {
+			final int mq = -FLOAT_Q_MIN + 1 - bq;
+			final int c = FLOAT_C_MIN | t;
+			if (0 < mq && mq < FLOAT_PRECISION) {
+				final int f = c >> mq;
+				if (f << mq == c) {
+					return format(f, 0, buffer, position);
+				}
+			}
+			return toDecimal(-mq, c, 0, buffer, position);
+		}
+		return t < FLOAT_C_TINY
+				? toDecimal(FLOAT_Q_MIN, 10 * t, -1, buffer, position)
+				: toDecimal(FLOAT_Q_MIN, t, 0, buffer, position);
+	}
+
+	private static int toDecimal(final int q, final long c, final int dk, final byte[] buffer, final int position) {
+		final int out = (int) c & 0x1;
+		final long cb = c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		final int h = q + flog2pow10(-k) + 2;
+		final int index = (k - K_MIN) << 1;
+		final long g1 = G[index];
+		final long g0 = G[index + 1];
+		final long vb = rop(g1, g0, cb << h);
+		final long vbl = rop(g1, g0, cbl << h);
+		final long vbr = rop(g1, g0, cbr << h);
+		final long s = vb >> 2;
+		if (s >= 100) {
+			//s / 10 via multiplication, see section 10 of the paper
+			final long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+			final long tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return format(upin ? sp10 : tp10, k, buffer, position);
+			}
+		}
+		final long t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return format(uin ? s : t, k + dk, buffer, position);
+		}
+		//both are within rounding interval, pick the closer one
+		final long cmp = vb - ((s + t) << 1);
+		return format(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, position);
+	}
+
+	private static int toDecimal(final int q, final int c, final int dk, final byte[] buffer, final int position) {
+		final int out = c & 0x1;
+		final long cb = (long) c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		final int h = q + flog2pow10(-k) + 33;
+		final long g = G[(k - K_MIN) << 1] + 1;
+		final int vb = rop(g, cb << h);
+		final int vbl = rop(g, cbl << h);
+		final int vbr = rop(g, cbr << h);
+		final int s = vb >> 2;
+		if (s >= 100) {
+			final int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+			final int tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return format(upin ? sp10 : tp10, k, buffer, position);
+			}
+		}
+		final int t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return format(uin ? s : t, k + dk, buffer, position);
+		}
+		final int cmp = vb - ((s + t) << 1);
+		return format(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, position);
+	}
+
+	//cp * g * 2^-127 rounded to odd
+	private static long rop(final long g1, final long g0, final long cp) {
+		final long x1 = multiplyHigh(g0, cp);
+		final long y0 = g1 * cp;
+		final long y1 = multiplyHigh(g1, cp);
+		final long z = (y0 >>> 1) + x1;
+		final long vbp = y1 + (z >>> 63);
+		return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+	}
+
+	private static int rop(final long g, final long cp) {
+		final long x1 = multiplyHigh(g, cp);
+		final long vbp = x1 >>> 31;
+		return (int) (vbp | ((x1 & MASK_32) + MASK_32) >>> 32);
+	}
+
+	//all arguments are positive, so this matches Math.multiplyHigh which is not available on Java 8
+	private static long multiplyHigh(final long x, final long y) {
+		final long x0 = x & MASK_32;
+		final long x1 = x >>> 32;
+		final long y0 = y & MASK_32;
+		final long y1 = y >>> 32;
+		final long p01 = x0 * y1;
+		final long p10 = x1 * y0;
+		final long middle = ((x0 * y0) >>> 32) + (p01 & MASK_32) + (p10 & MASK_32);
+		return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+	}
+
+	//floor(q * log10(2))
+	private static int flog10pow2(final int q) {
+		return (int) (q * 661971961083L >> 41);
+	}
+
+	//floor(log10(3/4 * 2^q))
+	private static int flog10threeQuartersPow2(final int q) {
+		return (int) (q * 661971961083L - 274743187321L >> 41);
+	}
+
+	//floor(e * log2(10))
+	private static int flog2pow10(final int e) {
+		return (int) (e * 913124641741L >> 38);
+	}
+
+	private static int format(long digits, int exponent, final byte[] buffer, int position) {
+		while (digits % 10 == 0) {
+			digits /= 10;
+			exponent++;
+		}
+		int length = 1;
+		for (long limit = 10; length < 19 && digits >= limit; limit *= 10) {
+			length++;
+		}
+		final int point = length + exponent;
+		if (point < -5 || point > 21) {
+			writeDigits(digits, length, buffer, position + 1);
+			buffer[position] = buffer[position + 1];
+			if (length > 1) {
+				buffer[position + 1] = '.';
+				position += length + 1;
+			} else {
+				position++;
+			}
+			buffer[position++] = 'E';
+			int exp = point - 1;
+			if (exp < 0) {
+				buffer[position++] = '-';
+				exp = -exp;
+			} else {
+				buffer[position++] = '+';
+			}
+			if (exp >= 100) {
+				buffer[position++] = (byte) ('0' + exp / 100);
+				exp %= 100;
+				buffer[position++] = (byte) ('0' + exp / 10);
+			} else if (exp >= 10) {
+				buffer[position++] = (byte) ('0' + exp / 10);
+			}
+			buffer[position++] = (byte) ('0' + exp % 10);
+		} else if (point <= 0) {
+			buffer[position++] = '0';
+			buffer[position++] = '.';
+			for (int i = point; i < 0; i++) {
+				buffer[position++] = '0';
+			}
+			writeDigits(digits, length, buffer, position);
+			position += length;
+		} else if (point < length) {
+			writeDigits(digits, length, buffer, position + 1);
+			System.arraycopy(buffer, position + 1, buffer, position, point);
+			buffer[position + point] = '.';
+			position += length + 1;
+		} else {
+			writeDigits(digits, length, buffer, position);
+			position += length;
+			for (int i = length; i < point; i++) {
+				buffer[position++] = '0';
+			}
+			buffer[position++] = '.';
+			buffer[position++] = '0';
+		}
+		return position;
+	}
+
+	private static void writeDigits(long digits, final int length, final byte[] buffer, final int position) {
+		for (int i = position + length - 1; i >= position; i--) {
+			final long div = digits / 10;
+			buffer[i] = (byte) ('0' + (digits - div * 10));
+			digits = div;
+		}
+	}
+}
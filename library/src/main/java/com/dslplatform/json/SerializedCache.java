@@ -0,0 +1,88 @@
+package com.dslplatform.json;
+
+/**
+ * Writer which remembers serialized bytes of immutable instances.
+ * When the same instance (or equal instance) is serialized again, bytes are copied via writeRaw
+ * instead of encoding each property again.
+ * This is useful for reference objects, such as currencies or countries, which are repeated in many responses.
+ * <p>
+ * Cache has a fixed number of slots. Instance is placed into a slot based on its hash,
+ * so different instance with the same slot will evict the previous one.
+ * Instances must not be changed after they were serialized, otherwise stale JSON will be written.
+ * <p>
+ * Register via DslJson.Settings#cacheSerialized so it's used by both compiled and runtime converters.
+ *
+ * @param <T> cached type
+ */
+public final class SerializedCache<T> implements JsonWriter.WriteObject<T> {
+
+	private static final class Entry {
+		final Object instance;
+		final byte[] json;
+
+		Entry(final Object instance, final byte[] json) {
+			this.instance = instance;
+			this.json = json;
+		}
+	}
+
+	static final class Config {
+		final int capacity;
+		final boolean identity;
+
+		Config(final int capacity, final boolean identity) {
+			this.capacity = capacity;
+			this.identity = identity;
+		}
+	}
+
+	private final JsonWriter.WriteObject<T> writer;
+	private final boolean identity;
+	private final int mask;
+	//entries are immutable, so races only cause a lost update
+	private final Entry[] entries;
+
+	/**
+	 * Wrap writer with a cache.
+	 *
+	 * @param writer   writer which is used when instance is not found in cache
+	 * @param capacity number of slots. Will be rounded up to the power of two
+	 * @param identity compare instances by reference instead of equals
+	 */
+	public SerializedCache(final JsonWriter.WriteObject<T> writer, final int capacity, final boolean identity) {
+		if (writer == null) throw new IllegalArgumentException("writer can't be null");
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.writer = writer;
+		this.identity = identity;
+		this.mask = size - 1;
+		this.entries = new Entry[size];
+	}
+
+	@Override
+	public void write(final JsonWriter writer, @Nullable final T value) {
+		if (value == null) {
+			writer.writeNull();
+			return;
+		}
+		final int hash = identity ? System.identityHashCode(value) : value.hashCode();
+		final int index = (hash ^ (hash >>> 16)) & mask;
+		final Entry entry = entries[index];
+		if (entry != null && (identity ? entry.instance == value : entry.instance.equals(value))) {
+			writer.writeRaw(entry.json, 0, entry.json.length);
+			return;
+		}
+		final int start = writer.position();
+		final long flushed = writer.flushed();
+		this.writer.write(writer, value);
+		//when buffer was flushed during the write, output is not available so it can't be cached this time
+		if (writer.flushed() == flushed) {
+			final byte[] json = new byte[writer.position() - start];
+			System.arraycopy(writer.currentBuffer(), start, json, 0, json.length);
+			entries[index] = new Entry(value, json);
+		}
+	}
+}
@@ -62,7 +62,7 @@ public abstract class UUIDConverter {
 		final int lo1 = (int) (lo >> 32);
 		final int lo2 = (int) lo;
 		final byte[] buf = sw.ensureCapacity(38);
-		final int pos = sw.size();
+		final int pos = sw.position();
 		buf[pos] = '"';
 		int v = (hi1 >> 24) & 255;
 		int l = Lookup[v];
@@ -609,6 +609,9 @@ public class Analysis {
 					}
 				}
 			}
+			if (!info.views.isEmpty()) {
+				validateViews(info);
+			}
 			if (info.objectFormatPolicy == CompiledJson.ObjectFormatPolicy.FULL) {
 				for (AttributeInfo attr : info.attributes.values()) {
 					if (attr.includeToMinimal == JsonAttribute.IncludePolicy.ALWAYS) {
@@ -631,6 +634,42 @@ public class Analysis {
 		return new LinkedHashMap<>(structs);
 	}
 
+	private void validateViews(StructInfo info) {
+		if (info.type != ObjectType.CLASS || info.isParameterized || !info.formats.contains(CompiledJson.Format.OBJECT)) {
+			hasError = true;
+			messager.printMessage(
+					Diagnostic.Kind.ERROR,
+					"Views are only supported in object format of non generic classes. Remove views from '" + info.element.getQualifiedName() + "'",
+					info.element,
+					info.annotation);
+			return;
+		}
+		Set<String> usedViews = new HashSet<>();
+		for (AttributeInfo attr : Context.sortedAttributes(info, true)) {
+			for (String view : attr.views) {
+				if (!info.views.contains(view)) {
+					hasError = true;
+					messager.printMessage(
+							Diagnostic.Kind.ERROR,
+							"View '" + view + "' used on property " + attr.name + " is not declared on '" + info.element.getQualifiedName() + "'. Add it to @CompiledJson(views = ...)",
+							attr.element,
+							attr.annotation);
+				}
+				usedViews.add(view);
+			}
+		}
+		for (String view : info.views) {
+			if (!usedViews.contains(view)) {
+				hasError = true;
+				messager.printMessage(
+						Diagnostic.Kind.ERROR,
+						"View '" + view + "' on '" + info.element.getQualifiedName() + "' does not contain any property. Add it to properties through @JsonAttribute(views = ...)",
+						info.element,
+						info.annotation);
+			}
+		}
+	}
+
 	private void findConverters(Element el) {
 		AnnotationMirror dslAnn = getAnnotation(el, converterType);
 		if (!(el instanceof TypeElement) || dslAnn == null) {
@@ -1251,6 +1290,9 @@ public class Analysis {
 			if (alternativeNames != null) {
 				attr.alternativeNames.addAll(Arrays.asList(alternativeNames));
 			}
+			if (attr.annotation != null) {
+				attr.views.addAll(getViews(attr.annotation));
+			}
 			AttributeInfo other = info.attributes.get(attr.id);
 			if (other != null
 					&& (other.annotation != null && attr.annotation == null
@@ -1459,6 +1501,9 @@ public class Analysis {
 							formats,
 							findGenericSignatures(element.asType()));
 			info.path.addAll(path);
+			if (annotation != null) {
+				info.views.addAll(getViews(annotation));
+			}
 			if (type == ObjectType.ENUM) {
 				info.constants.addAll(getEnumConstants(info.element));
 			}
@@ -2421,6 +2466,23 @@ public class Analysis {
 		return null;
 	}
 
+	private List<String> getViews(AnnotationMirror ann) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = ann.getElementValues();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> ee : values.entrySet()) {
+			if (ee.getKey().toString().equals("views()")) {
+				@SuppressWarnings("unchecked")
+				List<AnnotationValue> val = (List) ee.getValue().getValue();
+				if (val == null) return Collections.emptyList();
+				List<String> views = new ArrayList<>(val.size());
+				for (AnnotationValue av : val) {
+					views.add(av.getValue().toString());
+				}
+				return views;
+			}
+		}
+		return Collections.emptyList();
+	}
+
 	private boolean isFullMatch(@Nullable AnnotationMirror dslAnn) {
 		if (dslAnn == null) return false;
 		Map<? extends ExecutableElement, ? extends AnnotationValue> values = dslAnn.getElementValues();
@@ -29,6 +29,7 @@ public class AttributeInfo {
 	public final ConverterInfo converter;
 	public final boolean isJsonObject;
 	public final List<String> alternativeNames = new ArrayList<String>();
+	public final Set<String> views = new HashSet<String>();
 	public final String readProperty;
 	public final String typeName;
 	public final boolean isArray;
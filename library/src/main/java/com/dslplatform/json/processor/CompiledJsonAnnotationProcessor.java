@@ -114,6 +114,7 @@ public class CompiledJsonAnnotationProcessor extends AbstractProcessor {
 		InlinedConverters.put("java.lang.Boolean", new OptimizedConverter("com.dslplatform.json.BoolConverter", "WRITER", "serialize", "NULLABLE_READER", "deserialize", "Boolean.FALSE"));
 		InlinedConverters.put("java.lang.String", new OptimizedConverter("com.dslplatform.json.StringConverter", "WRITER", "serialize", "READER", "deserialize", "\"\""));
 		InlinedConverters.put("java.util.UUID", new OptimizedConverter("com.dslplatform.json.UUIDConverter", "WRITER", "serialize", "READER", "deserialize", "com.dslplatform.json.UUIDConverter.MIN_UUID"));
+		InlinedConverters.put("com.dslplatform.json.RawJson", new OptimizedConverter("com.dslplatform.json.RawJsonConverter", "WRITER", "serialize", "READER", "deserialize", null));
 		InlinedConverters.put("java.time.LocalDate", new OptimizedConverter("com.dslplatform.json.JavaTimeConverter", "LOCAL_DATE_WRITER", "serialize", "LOCAL_DATE_READER", "deserializeLocalDate", null));
 		InlinedConverters.put("java.time.OffsetDateTime", new OptimizedConverter("com.dslplatform.json.JavaTimeConverter", "DATE_TIME_WRITER", "serialize", "DATE_TIME_READER", "deserializeDateTime", null));
 		Defaults = new HashMap<>();
@@ -457,6 +458,19 @@ public class CompiledJsonAnnotationProcessor extends AbstractProcessor {
 				code.append("\t\t__dsljson.registerReader(").append(className).append(".class, ").append(objectFormatConverterName).append(");\n");
 				code.append("\t\t__dsljson.registerWriter(").append(className).append(".class, ").append(objectFormatConverterName).append(");\n");
 			}
+			for (int i = 0; i < si.views.size(); i++) {
+				String viewName = "view" + i;
+				code.append("\t\tObjectFormatView").append(Integer.toString(i)).append(" ").append(viewName);
+				code.append(" = new ObjectFormatView").append(Integer.toString(i)).append("(__dsljson);\n");
+				code.append("\t\t__dsljson.registerViewReader(").append(className).append(".class, ").append(si.views.get(i)).append(".class, ").append(viewName).append(");\n");
+				code.append("\t\t__dsljson.registerViewWriter(").append(className).append(".class, ").append(si.views.get(i)).append(".class, ").append(viewName).append(");\n");
+			}
+			if (si.formats.contains(CompiledJson.Format.OBJECT)) {
+				code.append("\t\tCborFormatConverter cborConverter = new CborFormatConverter(__dsljson);\n");
+				code.append("\t\t__dsljson.registerCborReader(").append(className).append(".class, cborConverter);\n");
+				code.append("\t\t__dsljson.registerCborWriter(").append(className).append(".class, cborConverter);\n");
+				code.append("\t\t__dsljson.registerColumnarConverter(").append(className).append(".class, new ColumnarFormatConverter(__dsljson));\n");
+			}
 		} else if (si.type == ObjectType.CONVERTER) {
 			String type = typeOrClass(nonGenericObject(className), className);
 			if (si.converter.legacyDeclaration) {
@@ -528,6 +542,14 @@ public class CompiledJsonAnnotationProcessor extends AbstractProcessor {
 					converterTemplate.fromArray(si, typeName);
 				}
 			}
+			for (int i = 0; i < si.views.size(); i++) {
+				converterTemplate.objectView(si, typeName, i);
+			}
+			if (!si.isParameterized && si.formats.contains(CompiledJson.Format.OBJECT)
+					&& (si.usesBuilder() || si.selectedConstructor() != null || si.annotatedFactory != null)) {
+				converterTemplate.cborObject(si, typeName);
+				converterTemplate.columnarObject(si, typeName);
+			}
 		} else if (si.type == ObjectType.ENUM) {
 			enumTemplate.create(si, className);
 		}
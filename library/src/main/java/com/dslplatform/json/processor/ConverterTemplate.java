@@ -11,8 +11,12 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.*;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.dslplatform.json.processor.CompiledJsonAnnotationProcessor.findConverterName;
 import static com.dslplatform.json.processor.Context.nonGenericObject;
@@ -24,6 +28,8 @@ class ConverterTemplate {
 	private final Writer code;
 	private final Context context;
 	private final EnumTemplate enumTemplate;
+	//when view converter is being created, only properties from that view are read and written
+	@Nullable private String view;
 
 	ConverterTemplate(Context context, EnumTemplate enumTemplate) {
 		this.code = context.code;
@@ -31,6 +37,20 @@ class ConverterTemplate {
 		this.enumTemplate = enumTemplate;
 	}
 
+	private List<AttributeInfo> inView(List<AttributeInfo> attributes) {
+		if (view == null) return attributes;
+		List<AttributeInfo> result = new ArrayList<>(attributes.size());
+		for (AttributeInfo attr : attributes) {
+			if (attr.views.contains(view)) result.add(attr);
+		}
+		return result;
+	}
+
+	//properties outside of the view are expected in the input, so they are always skipped
+	private boolean failOnUnknown(StructInfo si) {
+		return view == null && si.onUnknown == CompiledJson.Behavior.FAIL;
+	}
+
 	private boolean isStaticEnum(AttributeInfo attr) {
 		if (!attr.isEnum(context.structs)) return false;
 		StructInfo target = context.structs.get(attr.typeName);
@@ -444,8 +464,12 @@ class ConverterTemplate {
 	}
 
 	void emptyObject(final StructInfo si, String className) throws IOException {
-		asFormatConverter(si, "ObjectFormatConverter", className, true);
-		List<AttributeInfo> sortedAttributes = sortedAttributes(si, true);
+		emptyObject(si, "ObjectFormatConverter", className);
+	}
+
+	private void emptyObject(final StructInfo si, final String name, final String className) throws IOException {
+		asFormatConverter(si, name, className, true);
+		List<AttributeInfo> sortedAttributes = inView(sortedAttributes(si, true));
 		writeObject(si, className, sortedAttributes);
 		code.append("\t\tpublic ").append(className).append(" bind(final com.dslplatform.json.JsonReader reader, final ");
 		code.append(className).append(" instance) throws java.io.IOException {\n");
@@ -478,22 +502,33 @@ class ConverterTemplate {
 		}
 		code.append("\t\t\tif (reader.last() == '}')");
 		checkMandatory(sortedAttributes, 0);
+		boolean hasInput = false;
+		for (AttributeInfo attr : sortedAttributes) {
+			hasInput = hasInput || attr.canReadInput();
+		}
+		if (hasInput) {
+			code.append("\t\t\tint __hash__;\n");
+		}
 		for (int i = 0; i < sortedAttributes.size(); i++) {
 			AttributeInfo attr = sortedAttributes.get(i);
 			if (!attr.canReadInput()) continue;
-			String sn = si.serializedNames.get(attr.id);
 			if (i > 0) {
 				code.append("\t\t\tif (reader.getNextToken() == '}') ");
 				checkMandatory(sortedAttributes, i);
 				code.append("\t\t\tif (reader.last() != ',') throw reader.newParseError(\"Expecting ',' for other mandatory properties\"); else reader.getNextToken();\n");
 			}
-			code.append("\t\t\tif (reader.fillNameWeakHash() != ").append(Integer.toString(calcWeakHash(sn != null ? sn : attr.id)));
-			code.append(" || !reader.wasLastName(name_").append(attr.name).append(")) { bindSlow(reader, instance, ");
-			code.append(Integer.toString(i)).append("); return; }\n");
+			//property hashes are checked for collisions during analysis, so hash match identifies known property.
+			//name is compared only when full match was requested, same as in the switch within bindSlow
+			code.append("\t\t\t__hash__ = reader.fillName();\n");
+			code.append("\t\t\tif (__hash__ != ").append(Integer.toString(StructInfo.calcHash(si.propertyName(attr))));
+			if (attr.fullMatch) {
+				code.append(" || !reader.wasLastName(name_").append(attr.name).append(")");
+			}
+			code.append(") { bindSlow(reader, instance, ").append(Integer.toString(i)).append(", __hash__); return; }\n");
 			code.append("\t\t\treader.getNextToken();\n");
 			processPropertyValue(attr, "\t", true, si.genericSignatures);
 		}
-		if (si.onUnknown == CompiledJson.Behavior.FAIL) {
+		if (failOnUnknown(si)) {
 			if (si.discriminator.length() > 0 && !si.attributes.containsKey(si.discriminator)) {
 				code.append("\t\t\tif (reader.getNextToken() == '}') return;\n");
 				if (si.attributes.isEmpty()) {
@@ -502,8 +537,7 @@ class ConverterTemplate {
 					code.append("\t\t\tif (reader.last() == ',') {\n");
 					code.append("\t\t\t\treader.getNextToken();\n");
 				}
-				code.append("\t\t\t\treader.fillNameWeakHash();\n");
-				code.append("\t\t\t\tbindSlow(reader, instance, ").append(Integer.toString(sortedAttributes.size())).append(");\n");
+				code.append("\t\t\t\tbindSlow(reader, instance, ").append(Integer.toString(sortedAttributes.size())).append(", reader.fillName());\n");
 				code.append("\t\t\t\treturn;\n");
 				code.append("\t\t\t}\n");
 				code.append("\t\t\tthrow reader.newParseError(\"Expecting '}' for object end since unknown properties are not allowed on ");
@@ -513,8 +547,8 @@ class ConverterTemplate {
 				code.append(className).append("\");\n");
 			}
 		} else {
-			boolean hasDiscriminator = si.discriminator.length() > 0 && !si.attributes.containsKey(si.discriminator) && si.attributes.isEmpty();
-			boolean hasProperties = !si.attributes.isEmpty();
+			boolean hasProperties = view != null || !si.attributes.isEmpty();
+			boolean hasDiscriminator = si.discriminator.length() > 0 && !si.attributes.containsKey(si.discriminator) && !hasProperties;
 			if (hasDiscriminator) {
 				code.append("\t\t\tif (reader.last() == '\"') {\n");
 			} else {
@@ -524,13 +558,11 @@ class ConverterTemplate {
 					code.append("\t\t\t\t\treader.getNextToken();\n");
 				} else {
 					code.append("\t\t\tif (reader.last() != '\"') throw reader.newParseError(\"Expecting '}' for object end or '\\\"' for attribute start\");\n");
-					code.append("\t\t\treader.fillNameWeakHash();\n");
-					code.append("\t\t\tbindSlow(reader, instance, 0);\n");
+					code.append("\t\t\tbindSlow(reader, instance, 0, reader.fillName());\n");
 				}
 			}
 			if (hasDiscriminator || hasProperties) {
-				code.append("\t\t\t\t\treader.fillNameWeakHash();\n");
-				code.append("\t\t\t\t\tbindSlow(reader, instance, ").append(Integer.toString(sortedAttributes.size())).append(");\n");
+				code.append("\t\t\t\t\tbindSlow(reader, instance, ").append(Integer.toString(sortedAttributes.size())).append(", reader.fillName());\n");
 				code.append("\t\t\t\t}\n");
 				code.append("\t\t\t\tif (reader.last() != '}') throw reader.newParseError(\"Expecting '}' for object end\");\n");
 				if (!hasDiscriminator) {
@@ -540,7 +572,7 @@ class ConverterTemplate {
 		}
 		code.append("\t\t}\n");
 		code.append("\t\tprivate void bindSlow(final com.dslplatform.json.JsonReader reader, final ");
-		code.append(className).append(" instance, int index) throws java.io.IOException {\n");
+		code.append(className).append(" instance, int index, int hash) throws java.io.IOException {\n");
 		for (int i = 0; i < sortedAttributes.size(); i++) {
 			AttributeInfo attr = sortedAttributes.get(i);
 			if (!attr.canReadInput()) continue;
@@ -549,7 +581,7 @@ class ConverterTemplate {
 				code.append("\t\t\tboolean __detected_").append(attr.name).append("__ = index > ").append(Integer.toString(i)).append(";\n");
 			}
 		}
-		code.append("\t\t\tswitch(reader.getLastHash()) {\n");
+		code.append("\t\t\tswitch(hash) {\n");
 		handleSwitch(si, "\t\t\t", true);
 		code.append("\t\t\t}\n");
 		if (sortedAttributes.isEmpty()) {
@@ -591,8 +623,12 @@ class ConverterTemplate {
 	}
 
 	void fromObject(final StructInfo si, final String className) throws IOException {
-		asFormatConverter(si, "ObjectFormatConverter", className, false);
-		writeObject(si, className, sortedAttributes(si, true));
+		fromObject(si, "ObjectFormatConverter", className);
+	}
+
+	private void fromObject(final StructInfo si, final String name, final String className) throws IOException {
+		asFormatConverter(si, name, className, false);
+		writeObject(si, className, inView(sortedAttributes(si, true)));
 		List<AttributeInfo> sortedAttributes = sortedAttributes(si, false);
 		code.append("\t\tpublic ").append(className).append(" read(final com.dslplatform.json.JsonReader reader) throws java.io.IOException {\n");
 		code.append("\t\t\tif (reader.wasNull()) return null;\n");
@@ -618,7 +654,7 @@ class ConverterTemplate {
 			}
 		}
 		code.append("\t\t\tif (reader.last() == '}') {\n");
-		checkMandatory(sortedAttributes, "\t\t\t\t");
+		checkMandatory(inView(sortedAttributes), "\t\t\t\t");
 		returnInstance("\t\t\t\t", si, className);
 		code.append("\t\t\t}\n");
 		code.append("\t\t\tswitch(reader.fillName()) {\n");
@@ -631,12 +667,672 @@ class ConverterTemplate {
 		code.append("\t\t\t\t}\n");
 		code.append("\t\t\t}\n");
 		code.append("\t\t\tif (reader.last() != '}') throw reader.newParseError(\"Expecting '}' for object end\");\n");
-		checkMandatory(sortedAttributes, "\t\t\t");
+		checkMandatory(inView(sortedAttributes), "\t\t\t");
 		returnInstance("\t\t\t", si, className);
 		code.append("\t\t}\n");
 		code.append("\t}\n");
 	}
 
+	/**
+	 * Converter which reads and writes only properties from the specified view.
+	 * Other properties are skipped during reading and left at their default values.
+	 */
+	void objectView(final StructInfo si, final String className, final int index) throws IOException {
+		view = si.views.get(index);
+		try {
+			code.append("\t//view: ").append(view).append("\n");
+			if (si.createFromEmptyInstance()) {
+				emptyObject(si, "ObjectFormatView" + index, className);
+			} else {
+				fromObject(si, "ObjectFormatView" + index, className);
+			}
+		} finally {
+			view = null;
+		}
+	}
+
+	private static final Map<String, String[]> CBOR_NATIVE = new HashMap<>();
+
+	static {
+		//type -> write method, read method
+		for (String type : new String[]{"boolean", "java.lang.Boolean"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeBool", "readBool"});
+		}
+		for (String type : new String[]{"byte", "java.lang.Byte"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeInt", "readByte"});
+		}
+		for (String type : new String[]{"short", "java.lang.Short"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeInt", "readShort"});
+		}
+		for (String type : new String[]{"int", "java.lang.Integer"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeInt", "readInt"});
+		}
+		for (String type : new String[]{"long", "java.lang.Long"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeLong", "readLong"});
+		}
+		for (String type : new String[]{"float", "java.lang.Float"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeFloat", "readFloat"});
+		}
+		for (String type : new String[]{"double", "java.lang.Double"}) {
+			CBOR_NATIVE.put(type, new String[]{"writeDouble", "readDouble"});
+		}
+		CBOR_NATIVE.put("java.lang.String", new String[]{"writeString", "readString"});
+		CBOR_NATIVE.put("byte[]", new String[]{"writeBinary", "readBinary"});
+	}
+
+	/**
+	 * Converter for CBOR which uses the same property metadata as the JSON converter.
+	 * Numbers, strings and byte[] are processed directly, other properties through converters found in DslJson.
+	 * All properties are written, regardless of the object format policy.
+	 */
+	void cborObject(final StructInfo si, final String className) throws IOException {
+		final boolean useInstance = si.createFromEmptyInstance();
+		final List<AttributeInfo> writeAttributes = new ArrayList<>();
+		for (AttributeInfo attr : sortedAttributes(si, true)) {
+			if (attr.canWriteOutput()) writeAttributes.add(attr);
+		}
+		final List<AttributeInfo> readAttributes = new ArrayList<>();
+		for (AttributeInfo attr : sortedAttributes(si, useInstance)) {
+			if (attr.canReadInput()) readAttributes.add(attr);
+		}
+		final boolean hasDiscriminator = si.discriminator.length() > 0 && !si.attributes.containsKey(si.discriminator);
+		code.append("\tpublic final static class CborFormatConverter implements com.dslplatform.json.CborWriter.WriteObject<");
+		code.append(className).append(">, com.dslplatform.json.CborReader.ReadObject<").append(className).append("> {\n");
+		code.append("\t\tprivate final com.dslplatform.json.DslJson __dsljson;\n");
+		code.append("\t\tpublic CborFormatConverter(com.dslplatform.json.DslJson __dsljson) {\n");
+		code.append("\t\t\tthis.__dsljson = __dsljson;\n");
+		code.append("\t\t}\n");
+		if (hasDiscriminator) {
+			code.append("\t\tprivate static final byte[] key_discriminator = com.dslplatform.json.CborWriter.encodeKey(\"").append(si.discriminator).append("\");\n");
+		}
+		final List<AttributeInfo> all = new ArrayList<>(writeAttributes);
+		for (AttributeInfo attr : readAttributes) {
+			if (!all.contains(attr)) all.add(attr);
+		}
+		for (AttributeInfo attr : all) {
+			String name = si.propertyName(attr);
+			if (writeAttributes.contains(attr)) {
+				code.append("\t\tprivate static final byte[] key_").append(attr.name).append(" = com.dslplatform.json.CborWriter.encodeKey(\"").append(name).append("\");\n");
+			}
+			if (readAttributes.contains(attr) && attr.fullMatch) {
+				code.append("\t\tprivate static final byte[] name_").append(attr.name).append(" = \"").append(name).append("\".getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+			}
+			if (CBOR_NATIVE.containsKey(attr.typeName)) continue;
+			String typeName = propertyTypeName(attr, si);
+			if (attr.converter != null) {
+				code.append("\t\tprivate final com.dslplatform.json.CborWriter.WriteObject<").append(typeName).append("> writer_").append(attr.name);
+				code.append(" = com.dslplatform.json.CborConverter.throughJson(new com.dslplatform.json.JsonWriter.WriteObject<").append(typeName).append(">() {\n");
+				code.append("\t\t\t@Override\n");
+				code.append("\t\t\tpublic void write(com.dslplatform.json.JsonWriter writer, ").append(typeName).append(" value) {\n");
+				code.append("\t\t\t\t");
+				attr.converter.write(code);
+				code.append(".write(writer, value);\n");
+				code.append("\t\t\t}\n");
+				code.append("\t\t});\n");
+				code.append("\t\tprivate final com.dslplatform.json.CborReader.ReadObject<").append(typeName).append("> reader_").append(attr.name);
+				code.append(" = com.dslplatform.json.CborConverter.throughJson(new com.dslplatform.json.JsonReader.ReadObject<").append(typeName).append(">() {\n");
+				code.append("\t\t\t@Override\n");
+				code.append("\t\t\tpublic ").append(typeName).append(" read(com.dslplatform.json.JsonReader reader) throws java.io.IOException {\n");
+				code.append("\t\t\t\treturn ");
+				attr.converter.read(code);
+				code.append(".read(reader);\n");
+				code.append("\t\t\t}\n");
+				code.append("\t\t});\n");
+			} else {
+				String type = extractTypeSignature(attr, attr.type, si.genericSignatures);
+				for (String kind : new String[]{"Reader", "Writer"}) {
+					String field = kind.toLowerCase() + "_" + attr.name;
+					String objectType = "com.dslplatform.json.Cbor" + kind + "." + ("Reader".equals(kind) ? "ReadObject<" : "WriteObject<") + typeName + ">";
+					code.append("\t\tprivate ").append(objectType).append(" ").append(field).append(";\n");
+					code.append("\t\tprivate ").append(objectType).append(" ").append(field).append("() {\n");
+					code.append("\t\t\tif (").append(field).append(" == null) {\n");
+					code.append("\t\t\t\tjava.lang.reflect.Type manifest = ").append(type).append(";\n");
+					code.append("\t\t\t\t").append(field).append(" = __dsljson.tryFindCbor").append(kind).append("(manifest);\n");
+					code.append("\t\t\t\tif (").append(field).append(" == null) {\n");
+					code.append("\t\t\t\t\tthrow new com.dslplatform.json.ConfigurationException(\"Unable to find ").append(kind.toLowerCase());
+					code.append(" for \" + manifest + \". Enable runtime conversion by initializing DslJson with new DslJson<>(Settings.basicSetup())\");\n");
+					code.append("\t\t\t\t}\n");
+					code.append("\t\t\t}\n");
+					code.append("\t\t\treturn ").append(field).append(";\n");
+					code.append("\t\t}\n");
+				}
+			}
+		}
+
+		code.append("\t\tpublic void write(final com.dslplatform.json.CborWriter writer, final ").append(className).append(" instance) {\n");
+		code.append("\t\t\tif (instance == null) {\n");
+		code.append("\t\t\t\twriter.writeNull();\n");
+		code.append("\t\t\t\treturn;\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\twriter.writeMapStart(").append(Integer.toString(writeAttributes.size() + (hasDiscriminator ? 1 : 0))).append(");\n");
+		if (hasDiscriminator) {
+			String name = si.deserializeName.isEmpty() ? si.binaryName.replace('$', '.') : si.deserializeName;
+			code.append("\t\t\twriter.writeRaw(key_discriminator);\n");
+			code.append("\t\t\twriter.writeString(\"").append(name).append("\");\n");
+		}
+		for (AttributeInfo attr : writeAttributes) {
+			String readValue = "instance." + attr.readProperty;
+			boolean nonPrimitive = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			code.append("\t\t\twriter.writeRaw(key_").append(attr.name).append(");\n");
+			String[] nativeMethods = CBOR_NATIVE.get(attr.typeName);
+			if (nonPrimitive && attr.notNull) {
+				code.append("\t\t\tif (").append(readValue).append(" == null) throw new com.dslplatform.json.ConfigurationException(\"Property '");
+				code.append(attr.name).append("' is not allowed to be null\");\n");
+				code.append("\t\t\t");
+			} else if (nonPrimitive && nativeMethods != null) {
+				code.append("\t\t\tif (").append(readValue).append(" == null) writer.writeNull();\n");
+				code.append("\t\t\telse ");
+			} else {
+				code.append("\t\t\t");
+			}
+			if (nativeMethods != null) {
+				code.append("writer.").append(nativeMethods[0]).append("(").append(readValue).append(");\n");
+			} else {
+				code.append("writer_").append(attr.name).append(attr.converter == null ? "()" : "").append(".write(writer, ").append(readValue).append(");\n");
+			}
+		}
+		code.append("\t\t}\n");
+
+		code.append("\t\tpublic ").append(className).append(" read(final com.dslplatform.json.CborReader reader) throws java.io.IOException {\n");
+		code.append("\t\t\tif (reader.tryReadNull()) return null;\n");
+		if (useInstance) {
+			code.append("\t\t\tfinal ").append(className).append(" instance = ");
+			if (si.annotatedFactory != null) {
+				code.append(si.annotatedFactory.getEnclosingElement().toString()).append(".").append(si.annotatedFactory.getSimpleName()).append("();\n");
+			} else {
+				code.append("new ").append(className).append("();\n");
+			}
+		}
+		for (AttributeInfo attr : readAttributes) {
+			boolean nonPrimitive = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			String defaultValue = context.getDefault(attr);
+			if (!useInstance) {
+				code.append("\t\t\t").append(attr.typeName).append(" _").append(attr.name).append("_ = ");
+				if (attr.isArray && attr.notNull) {
+					emptyArray(attr, si);
+				} else if (context.isObjectInstance(attr)) {
+					code.append("null");
+				} else {
+					code.append(defaultValue);
+				}
+				code.append(";\n");
+			}
+			if (attr.mandatory || attr.notNull && nonPrimitive && ("null".equals(defaultValue) || !useInstance && context.isObjectInstance(attr))) {
+				code.append("\t\t\tboolean __detected_").append(attr.name).append("__ = false;\n");
+			}
+		}
+		code.append("\t\t\tfinal int __size__ = reader.readMapStart();\n");
+		code.append("\t\t\tfor (int __i__ = 0; __size__ < 0 ? !reader.tryReadBreak() : __i__ < __size__; __i__++) {\n");
+		code.append("\t\t\t\tswitch (reader.fillName()) {\n");
+		final Set<Integer> hashes = new HashSet<>();
+		for (AttributeInfo attr : readAttributes) {
+			boolean hasCase = false;
+			List<String> names = new ArrayList<>();
+			names.add(si.propertyName(attr));
+			names.addAll(attr.alternativeNames);
+			for (String name : names) {
+				int hash = StructInfo.calcHash(name);
+				if (!hashes.add(hash)) continue;
+				code.append("\t\t\t\t\tcase ").append(Integer.toString(hash)).append(":\n");
+				hasCase = true;
+			}
+			if (!hasCase) continue;
+			if (attr.fullMatch) {
+				code.append("\t\t\t\t\t\tif (!reader.wasLastName(name_").append(attr.name).append(")) {\n");
+				if (si.onUnknown == CompiledJson.Behavior.FAIL) {
+					code.append("\t\t\t\t\t\t\tthrow reader.newParseError(\"Unknown property detected: \" + reader.getLastName());\n");
+				} else {
+					code.append("\t\t\t\t\t\t\treader.skip();\n");
+					code.append("\t\t\t\t\t\t\tbreak;\n");
+				}
+				code.append("\t\t\t\t\t\t}\n");
+			}
+			boolean nonPrimitive = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			String defaultValue = context.getDefault(attr);
+			if (attr.mandatory || attr.notNull && nonPrimitive && ("null".equals(defaultValue) || !useInstance && context.isObjectInstance(attr))) {
+				code.append("\t\t\t\t\t\t__detected_").append(attr.name).append("__ = true;\n");
+			}
+			if (attr.notNull && nonPrimitive) {
+				code.append("\t\t\t\t\t\tif (reader.tryReadNull()) throw reader.newParseErrorAt(\"Property '").append(attr.name).append("' is not allowed to be null\", 1);\n");
+			}
+			code.append("\t\t\t\t\t\t");
+			String ending = ";\n";
+			if (!useInstance) {
+				code.append("_").append(attr.name).append("_ = ");
+			} else if (attr.field != null) {
+				code.append("instance.").append(attr.field.getSimpleName()).append(" = ");
+			} else if (attr.writeMethod != null) {
+				code.append("instance.").append(attr.writeMethod.getSimpleName()).append("(");
+				ending = ");\n";
+			} else {
+				code.append("instance.").append(attr.readMethod.getSimpleName()).append("().addAll(");
+				ending = ");\n";
+			}
+			String[] nativeMethods = CBOR_NATIVE.get(attr.typeName);
+			if (nativeMethods == null) {
+				code.append("reader_").append(attr.name).append(attr.converter == null ? "()" : "").append(".read(reader)");
+			} else if (nonPrimitive && !attr.notNull) {
+				code.append("reader.tryReadNull() ? null : reader.").append(nativeMethods[1]).append("()");
+			} else {
+				code.append("reader.").append(nativeMethods[1]).append("()");
+			}
+			code.append(ending);
+			code.append("\t\t\t\t\t\tbreak;\n");
+		}
+		if (hasDiscriminator && hashes.add(StructInfo.calcHash(si.discriminator))) {
+			code.append("\t\t\t\t\tcase ").append(Integer.toString(StructInfo.calcHash(si.discriminator))).append(":\n");
+			code.append("\t\t\t\t\t\treader.skip();\n");
+			code.append("\t\t\t\t\t\tbreak;\n");
+		}
+		code.append("\t\t\t\t\tdefault:\n");
+		if (si.onUnknown == CompiledJson.Behavior.FAIL) {
+			code.append("\t\t\t\t\t\tthrow reader.newParseError(\"Unknown property detected: \" + reader.getLastName());\n");
+		} else {
+			code.append("\t\t\t\t\t\treader.skip();\n");
+		}
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t}\n");
+		for (AttributeInfo attr : readAttributes) {
+			boolean nonPrimitive = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			String defaultValue = context.getDefault(attr);
+			if (attr.mandatory || attr.notNull && nonPrimitive && ("null".equals(defaultValue) || !useInstance && context.isObjectInstance(attr))) {
+				code.append("\t\t\tif (!__detected_").append(attr.name).append("__) throw reader.newParseErrorAt(\"Property '");
+				code.append(attr.name).append("' is ");
+				if (attr.mandatory) code.append("mandatory");
+				else code.append("not-nullable and doesn't have a default");
+				code.append(" but was not found in CBOR\", 0);\n");
+			} else if (useInstance && attr.notNull && nonPrimitive && (attr.field != null || attr.writeMethod != null)) {
+				code.append("\t\t\tif (instance.").append(attr.readProperty).append(" == null) instance.");
+				if (attr.field != null) code.append(attr.field.getSimpleName()).append(" = ");
+				else code.append(attr.writeMethod.getSimpleName()).append("(");
+				if (attr.isArray) emptyArray(attr, si);
+				else code.append(defaultValue);
+				code.append(attr.field != null ? ";\n" : ");\n");
+			}
+		}
+		if (useInstance) {
+			code.append("\t\t\treturn instance;\n");
+		} else {
+			returnInstance("\t\t\t", si, className);
+		}
+		code.append("\t\t}\n");
+		code.append("\t}\n");
+	}
+
+	private static final Map<String, String> COLUMN_ARRAY_READERS = new HashMap<>();
+
+	static {
+		COLUMN_ARRAY_READERS.put("int", "com.dslplatform.json.NumberConverter.INT_ARRAY_READER");
+		COLUMN_ARRAY_READERS.put("long", "com.dslplatform.json.NumberConverter.LONG_ARRAY_READER");
+		COLUMN_ARRAY_READERS.put("short", "com.dslplatform.json.NumberConverter.SHORT_ARRAY_READER");
+		COLUMN_ARRAY_READERS.put("float", "com.dslplatform.json.NumberConverter.FLOAT_ARRAY_READER");
+		COLUMN_ARRAY_READERS.put("double", "com.dslplatform.json.NumberConverter.DOUBLE_ARRAY_READER");
+		COLUMN_ARRAY_READERS.put("boolean", "com.dslplatform.json.BoolConverter.ARRAY_READER");
+	}
+
+	/**
+	 * Converter for lists in columnar format, eg. {"id":[1,2],"name":["a","b"]}.
+	 * Primitive columns are read directly into primitive arrays, other columns into lists,
+	 * and objects are constructed only after all columns were processed.
+	 */
+	void columnarObject(final StructInfo si, final String className) throws IOException {
+		final boolean useInstance = si.createFromEmptyInstance();
+		final List<AttributeInfo> writeAttributes = new ArrayList<>();
+		for (AttributeInfo attr : sortedAttributes(si, true)) {
+			if (attr.canWriteOutput()) writeAttributes.add(attr);
+		}
+		final List<AttributeInfo> allAttributes = sortedAttributes(si, useInstance);
+		final List<AttributeInfo> readAttributes = new ArrayList<>();
+		for (AttributeInfo attr : allAttributes) {
+			if (attr.canReadInput()) readAttributes.add(attr);
+		}
+		code.append("\tpublic final static class ColumnarFormatConverter implements com.dslplatform.json.ColumnarConverter<");
+		code.append(className).append("> {\n");
+		code.append("\t\tprivate final com.dslplatform.json.DslJson __dsljson;\n");
+		code.append("\t\tpublic ColumnarFormatConverter(com.dslplatform.json.DslJson __dsljson) {\n");
+		code.append("\t\t\tthis.__dsljson = __dsljson;\n");
+		code.append("\t\t}\n");
+		final List<AttributeInfo> columns = new ArrayList<>(writeAttributes);
+		for (AttributeInfo attr : readAttributes) {
+			if (!columns.contains(attr)) columns.add(attr);
+		}
+		for (AttributeInfo attr : columns) {
+			String name = si.propertyName(attr);
+			if (writeAttributes.contains(attr)) {
+				code.append("\t\tprivate static final byte[] column_").append(attr.name).append(" = \"");
+				code.append(writeAttributes.indexOf(attr) == 0 ? "{" : ",").append("\\\"").append(name).append("\\\":[\".getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+			}
+			if (readAttributes.contains(attr) && attr.fullMatch) {
+				code.append("\t\tprivate static final byte[] name_").append(attr.name).append(" = \"").append(name).append("\".getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+			}
+			if (attr.converter != null || context.inlinedConverters.containsKey(attr.typeName)) continue;
+			String typeName = propertyTypeName(attr, si);
+			List<String> types = columnCollection(attr);
+			if (types == null) {
+				String type = extractTypeSignature(attr, attr.type, si.genericSignatures);
+				lazyColumnConverter("reader_" + attr.name, "Reader", typeName, type);
+				lazyColumnConverter("writer_" + attr.name, "Writer", typeName, type);
+				continue;
+			}
+			//without runtime there are no collection converters, so they are composed from element converters
+			final String[] prefixes = attr.isMap ? new String[]{"key_", "value_"} : new String[]{"item_"};
+			for (int i = 0; i < prefixes.length; i++) {
+				String content = types.get(i);
+				if (context.inlinedConverters.containsKey(content)) continue;
+				String contentType = typeOrClass(nonGenericObject(content), content);
+				lazyColumnConverter(prefixes[i] + "reader_" + attr.name, "Reader", content, contentType);
+				lazyColumnConverter(prefixes[i] + "writer_" + attr.name, "Writer", content, contentType);
+			}
+			if (attr.isArray) {
+				code.append("\t\tprivate final ").append(attr.typeName).append(" emptyArray_").append(attr.name).append(" = ");
+				emptyArray(attr, si);
+				code.append(";\n");
+			}
+			String field = "reader_" + attr.name;
+			String objectType = "com.dslplatform.json.JsonReader.ReadObject<" + typeName + ">";
+			code.append("\t\tprivate ").append(objectType).append(" ").append(field).append(";\n");
+			code.append("\t\tprivate ").append(objectType).append(" ").append(field).append("() {\n");
+			code.append("\t\t\tif (").append(field).append(" == null) {\n");
+			code.append("\t\t\t\t").append(field).append(" = new ").append(objectType).append("() {\n");
+			code.append("\t\t\t\t\tpublic ").append(typeName).append(" read(final com.dslplatform.json.JsonReader reader) throws java.io.IOException {\n");
+			code.append("\t\t\t\t\t\tif (reader.wasNull()) return null;\n");
+			code.append("\t\t\t\t\t\treturn ");
+			if (attr.isArray) {
+				String content = context.extractRawType(((ArrayType) attr.type).getComponentType(), si.genericSignatures);
+				code.append("(").append(content).append("[])reader.readArray(").append(columnItem(attr, "item_", "reader", types.get(0)));
+				code.append(", emptyArray_").append(attr.name).append(")");
+			} else if (attr.isList) {
+				code.append("reader.readCollection(").append(columnItem(attr, "item_", "reader", types.get(0))).append(")");
+			} else if (attr.isSet) {
+				code.append("reader.readSet(").append(columnItem(attr, "item_", "reader", types.get(0))).append(")");
+			} else {
+				code.append("reader.readMap(").append(columnItem(attr, "key_", "reader", types.get(0)));
+				code.append(", ").append(columnItem(attr, "value_", "reader", types.get(1))).append(")");
+			}
+			code.append(";\n");
+			code.append("\t\t\t\t\t}\n");
+			code.append("\t\t\t\t};\n");
+			code.append("\t\t\t}\n");
+			code.append("\t\t\treturn ").append(field).append(";\n");
+			code.append("\t\t}\n");
+		}
+
+		code.append("\t\tpublic void write(final com.dslplatform.json.JsonWriter writer, final java.util.List<").append(className).append("> rows) {\n");
+		code.append("\t\t\tfinal int size = rows.size();\n");
+		code.append("\t\t\tfor (int i = 0; i < size; i++) {\n");
+		code.append("\t\t\t\tif (rows.get(i) == null) throw new com.dslplatform.json.SerializationException(\"Null elements are not supported in columnar format. Found null at index: \" + i);\n");
+		code.append("\t\t\t}\n");
+		if (writeAttributes.isEmpty()) {
+			code.append("\t\t\twriter.writeByte(com.dslplatform.json.JsonWriter.OBJECT_START);\n");
+		}
+		for (AttributeInfo attr : writeAttributes) {
+			String readValue = "instance." + attr.readProperty;
+			boolean canBeNull = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			code.append("\t\t\twriter.writeAscii(column_").append(attr.name).append(");\n");
+			code.append("\t\t\tfor (int i = 0; i < size; i++) {\n");
+			code.append("\t\t\t\tfinal ").append(className).append(" instance = rows.get(i);\n");
+			code.append("\t\t\t\tif (i != 0) writer.writeByte(com.dslplatform.json.JsonWriter.COMMA);\n");
+			if (attr.notNull && canBeNull) {
+				code.append("\t\t\t\tif (").append(readValue).append(" == null) throw new com.dslplatform.json.ConfigurationException(\"Property '");
+				code.append(attr.name).append("' is not allowed to be null\");\n");
+				code.append("\t\t\t\t");
+			} else if (canBeNull) {
+				code.append("\t\t\t\tif (").append(readValue).append(" == null) writer.writeNull();\n");
+				code.append("\t\t\t\telse ");
+			} else {
+				code.append("\t\t\t\t");
+			}
+			OptimizedConverter optimizedConverter = context.inlinedConverters.get(attr.typeName);
+			if (attr.converter != null) {
+				attr.converter.write(code);
+				code.append(".write(writer, ").append(readValue).append(");\n");
+			} else if (optimizedConverter != null) {
+				code.append(optimizedConverter.nonNullableEncoder("writer", readValue)).append(";\n");
+			} else if (columnCollection(attr) != null) {
+				List<String> types = columnCollection(attr);
+				if (attr.type.toString().equals(attr.typeName) || attr.isArray) {
+					code.append("writer.serialize(").append(readValue);
+				} else {
+					code.append("writer.serializeRaw(").append(readValue);
+				}
+				if (attr.isMap) {
+					code.append(", ").append(columnItem(attr, "key_", "writer", types.get(0)));
+					code.append(", ").append(columnItem(attr, "value_", "writer", types.get(1))).append(");\n");
+				} else {
+					code.append(", ").append(columnItem(attr, "item_", "writer", types.get(0))).append(");\n");
+				}
+			} else {
+				code.append("writer_").append(attr.name).append("().write(writer, ").append(readValue).append(");\n");
+			}
+			code.append("\t\t\t}\n");
+			code.append("\t\t\twriter.writeByte(com.dslplatform.json.JsonWriter.ARRAY_END);\n");
+		}
+		code.append("\t\t\twriter.writeByte(com.dslplatform.json.JsonWriter.OBJECT_END);\n");
+		code.append("\t\t}\n");
+
+		code.append("\t\tpublic java.util.List<").append(className).append("> read(final com.dslplatform.json.JsonReader reader) throws java.io.IOException {\n");
+		code.append("\t\t\tif (reader.last() != '{') throw reader.newParseError(\"Expecting '{' for columnar format start\");\n");
+		for (AttributeInfo attr : readAttributes) {
+			code.append("\t\t\t").append(columnType(attr, si)).append(" column_").append(attr.name).append(" = null;\n");
+		}
+		code.append("\t\t\tint __size__ = -1;\n");
+		code.append("\t\t\tif (reader.getNextToken() != '}') {\n");
+		code.append("\t\t\t\tswitch(reader.fillName()) {\n");
+		columnSwitch(si, readAttributes, "\t\t\t\t");
+		code.append("\t\t\t\t}\n");
+		final boolean onlyUnknown = readAttributes.isEmpty() && (si.discriminator.length() == 0 || si.attributes.containsKey(si.discriminator));
+		if (!onlyUnknown || !failOnUnknown(si)) {
+			code.append("\t\t\t\twhile (reader.last() == ',') {\n");
+			code.append("\t\t\t\t\treader.getNextToken();\n");
+			code.append("\t\t\t\t\tswitch(reader.fillName()) {\n");
+			columnSwitch(si, readAttributes, "\t\t\t\t\t");
+			code.append("\t\t\t\t\t}\n");
+			code.append("\t\t\t\t}\n");
+			code.append("\t\t\t\tif (reader.last() != '}') throw reader.newParseError(\"Expecting '}' for object end\");\n");
+		}
+		code.append("\t\t\t}\n");
+		for (AttributeInfo attr : readAttributes) {
+			boolean nonPrimitive = attr.typeName.equals(Analysis.objectName(attr.typeName));
+			String defaultValue = context.getDefault(attr);
+			if (attr.mandatory || attr.notNull && nonPrimitive && ("null".equals(defaultValue) || !useInstance && context.isObjectInstance(attr))) {
+				code.append("\t\t\tif (column_").append(attr.name).append(" == null && __size__ > 0) throw reader.newParseErrorAt(\"Property '");
+				code.append(attr.name).append("' is ");
+				if (attr.mandatory) code.append("mandatory");
+				else code.append("not-nullable and doesn't have a default");
+				code.append(" but column was not found\", 0);\n");
+			}
+		}
+		code.append("\t\t\tfinal java.util.ArrayList<").append(className).append("> __result__ = new java.util.ArrayList<").append(className).append(">(__size__ < 0 ? 0 : __size__);\n");
+		code.append("\t\t\tfor (int __row__ = 0; __row__ < __size__; __row__++) {\n");
+		code.append("\t\t\t\t__result__.add(create(__row__");
+		for (AttributeInfo attr : readAttributes) {
+			code.append(", column_").append(attr.name);
+		}
+		code.append("));\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treturn __result__;\n");
+		code.append("\t\t}\n");
+
+		code.append("\t\tprivate ").append(className).append(" create(final int __row__");
+		for (AttributeInfo attr : readAttributes) {
+			code.append(", final ").append(columnType(attr, si)).append(" column_").append(attr.name);
+		}
+		code.append(") throws java.io.IOException {\n");
+		if (useInstance) {
+			code.append("\t\t\tfinal ").append(className).append(" instance = ");
+			if (si.annotatedFactory != null) {
+				code.append(si.annotatedFactory.getEnclosingElement().toString()).append(".").append(si.annotatedFactory.getSimpleName()).append("();\n");
+			} else {
+				code.append("new ").append(className).append("();\n");
+			}
+			for (AttributeInfo attr : readAttributes) {
+				String value = columnValue(attr);
+				code.append("\t\t\tif (column_").append(attr.name).append(" != null) ");
+				if (attr.field != null) {
+					code.append("instance.").append(attr.field.getSimpleName()).append(" = ").append(value).append(";\n");
+				} else if (attr.writeMethod != null) {
+					code.append("instance.").append(attr.writeMethod.getSimpleName()).append("(").append(value).append(");\n");
+				} else {
+					code.append("{\n");
+					code.append("\t\t\t\tfinal ").append(attr.typeName).append(" __value__ = ").append(value).append(";\n");
+					code.append("\t\t\t\tif (__value__ != null) instance.").append(attr.readMethod.getSimpleName()).append("().addAll(__value__);\n");
+					code.append("\t\t\t}\n");
+				}
+			}
+			code.append("\t\t\treturn instance;\n");
+		} else {
+			for (AttributeInfo attr : allAttributes) {
+				code.append("\t\t\tfinal ").append(attr.typeName).append(" _").append(attr.name).append("_ = ");
+				if (readAttributes.contains(attr)) {
+					code.append("column_").append(attr.name).append(" != null ? ").append(columnValue(attr)).append(" : ");
+				}
+				if (attr.isArray && attr.notNull) {
+					emptyArray(attr, si);
+				} else if (context.isObjectInstance(attr)) {
+					code.append("null");
+				} else {
+					code.append(context.getDefault(attr));
+				}
+				code.append(";\n");
+			}
+			returnInstance("\t\t\t", si, className);
+		}
+		code.append("\t\t}\n");
+		code.append("\t}\n");
+	}
+
+	//type signature drops wildcards, so declared type must be used for properties such as Map<String, ? extends Number>
+	private String propertyTypeName(final AttributeInfo attr, final StructInfo si) {
+		String declared = attr.type.toString();
+		if (!attr.isGeneric && declared.indexOf('?') != -1) return declared;
+		return Analysis.objectName(attr.createTypeSignature(context.types(), attr.type, si.genericSignatures));
+	}
+
+	private void lazyColumnConverter(final String field, final String kind, final String typeName, final String type) throws IOException {
+		String objectType = "Reader".equals(kind)
+				? "com.dslplatform.json.JsonReader.ReadObject<" + typeName + ">"
+				: "com.dslplatform.json.JsonWriter.WriteObject<" + typeName + ">";
+		code.append("\t\tprivate ").append(objectType).append(" ").append(field).append(";\n");
+		code.append("\t\tprivate ").append(objectType).append(" ").append(field).append("() {\n");
+		code.append("\t\t\tif (").append(field).append(" == null) {\n");
+		code.append("\t\t\t\tjava.lang.reflect.Type manifest = ").append(type).append(";\n");
+		code.append("\t\t\t\t").append(field).append(" = __dsljson.tryFind").append(kind).append("(manifest);\n");
+		code.append("\t\t\t\tif (").append(field).append(" == null) {\n");
+		code.append("\t\t\t\t\tthrow new com.dslplatform.json.ConfigurationException(\"Unable to find ").append(kind.toLowerCase());
+		code.append(" for \" + manifest + \". Enable runtime conversion by initializing DslJson with new DslJson<>(Settings.basicSetup())\");\n");
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treturn ").append(field).append(";\n");
+		code.append("\t\t}\n");
+	}
+
+	@Nullable
+	private List<String> columnCollection(final AttributeInfo attr) {
+		if (attr.converter != null || attr.isGeneric || context.inlinedConverters.containsKey(attr.typeName)) return null;
+		List<String> types = attr.collectionContent(context.typeSupport, context.structs);
+		if (types == null || types.size() != (attr.isMap ? 2 : 1)) return null;
+		if (!attr.isArray && !attr.isList && !attr.isSet && !attr.isMap) return null;
+		return types;
+	}
+
+	private String columnItem(final AttributeInfo attr, final String prefix, final String kind, final String content) {
+		OptimizedConverter converter = context.inlinedConverters.get(content);
+		if (converter != null) return "reader".equals(kind) ? converter.decoderField : converter.encoderField;
+		return prefix + kind + "_" + attr.name + "()";
+	}
+
+	private String columnType(final AttributeInfo attr, final StructInfo si) {
+		String arrayReader = COLUMN_ARRAY_READERS.get(attr.typeName);
+		if (arrayReader != null) return attr.typeName + "[]";
+		return "java.util.List<" + Analysis.objectName(attr.createTypeSignature(context.types(), attr.type, si.genericSignatures)) + ">";
+	}
+
+	private String columnValue(final AttributeInfo attr) {
+		if (COLUMN_ARRAY_READERS.containsKey(attr.typeName)) return "column_" + attr.name + "[__row__]";
+		return "column_" + attr.name + ".get(__row__)";
+	}
+
+	private void columnSwitch(final StructInfo si, final List<AttributeInfo> readAttributes, final String alignment) throws IOException {
+		final Set<Integer> hashes = new HashSet<>();
+		for (AttributeInfo attr : readAttributes) {
+			boolean hasCase = false;
+			List<String> names = new ArrayList<>();
+			names.add(si.propertyName(attr));
+			names.addAll(attr.alternativeNames);
+			for (String name : names) {
+				int hash = StructInfo.calcHash(name);
+				if (!hashes.add(hash)) continue;
+				code.append(alignment).append("\tcase ").append(Integer.toString(hash)).append(":\n");
+				hasCase = true;
+			}
+			if (!hasCase) continue;
+			if (attr.fullMatch) {
+				code.append(alignment).append("\t\tif (!reader.wasLastName(name_").append(attr.name).append(")) {\n");
+				if (failOnUnknown(si)) {
+					code.append(alignment).append("\t\t\tthrow reader.newParseErrorWith(\"Unknown property detected\", reader.getLastName().length() + 3, \"\", \"Unknown property detected\", reader.getLastName(), \"\");\n");
+				} else {
+					code.append(alignment).append("\t\t\treader.getNextToken(); reader.skip(); break;\n");
+				}
+				code.append(alignment).append("\t\t}\n");
+			}
+			code.append(alignment).append("\t\treader.getNextToken();\n");
+			String arrayReader = COLUMN_ARRAY_READERS.get(attr.typeName);
+			if (arrayReader != null) {
+				code.append(alignment).append("\t\tcolumn_").append(attr.name).append(" = ").append(arrayReader).append(".read(reader);\n");
+				code.append(alignment).append("\t\tif (column_").append(attr.name).append(" != null) __size__ = com.dslplatform.json.ColumnarFormat.checkSize(reader, __size__, column_");
+				code.append(attr.name).append(".length, \"").append(attr.name).append("\");\n");
+			} else {
+				OptimizedConverter optimizedConverter = context.inlinedConverters.get(attr.typeName);
+				code.append(alignment).append("\t\tcolumn_").append(attr.name).append(" = reader.readCollection(");
+				if (attr.converter != null) {
+					attr.converter.read(code);
+				} else if (optimizedConverter != null) {
+					code.append(optimizedConverter.decoderField);
+				} else {
+					code.append("reader_").append(attr.name).append("()");
+				}
+				code.append(");\n");
+				code.append(alignment).append("\t\tif (column_").append(attr.name).append(" != null) {\n");
+				code.append(alignment).append("\t\t\t__size__ = com.dslplatform.json.ColumnarFormat.checkSize(reader, __size__, column_");
+				code.append(attr.name).append(".size(), \"").append(attr.name).append("\");\n");
+				if (attr.notNull && attr.typeName.equals(Analysis.objectName(attr.typeName))) {
+					code.append(alignment).append("\t\t\tif (column_").append(attr.name).append(".contains(null)) throw reader.newParseErrorAt(\"Property '");
+					code.append(attr.name).append("' is not allowed to be null\", 0);\n");
+				}
+				code.append(alignment).append("\t\t}\n");
+			}
+			code.append(alignment).append("\t\treader.getNextToken();\n");
+			code.append(alignment).append("\t\tbreak;\n");
+		}
+		if (si.discriminator.length() > 0 && !si.attributes.containsKey(si.discriminator) && hashes.add(StructInfo.calcHash(si.discriminator))) {
+			code.append(alignment).append("\tcase ").append(Integer.toString(StructInfo.calcHash(si.discriminator))).append(":\n");
+			code.append(alignment).append("\t\treader.getNextToken();\n");
+			code.append(alignment).append("\t\treader.skip();\n");
+			code.append(alignment).append("\t\tbreak;\n");
+		}
+		code.append(alignment).append("\tdefault:\n");
+		if (failOnUnknown(si)) {
+			code.append(alignment).append("\t\tString lastName = reader.getLastName();\n");
+			code.append(alignment).append("\t\tthrow reader.newParseErrorWith(\"Unknown property detected\", lastName.length() + 3, \"\", \"Unknown property detected\", lastName, \"\");\n");
+		} else {
+			code.append(alignment).append("\t\treader.getNextToken();\n");
+			code.append(alignment).append("\t\treader.skip();\n");
+		}
+	}
+
+	private void emptyArray(final AttributeInfo attr, final StructInfo si) throws IOException {
+		OptimizedConverter converter = context.inlinedConverters.get(attr.typeName);
+		if (converter != null && converter.defaultValue != null) {
+			code.append(converter.defaultValue);
+			return;
+		}
+		TypeMirror arrayComponentType = ((ArrayType) attr.type).getComponentType();
+		String content = context.extractRawType(arrayComponentType, si.genericSignatures);
+		code.append("(").append(content).append("[]) java.lang.reflect.Array.newInstance((Class<?>) ");
+		buildArrayType(arrayComponentType, attr.typeVariablesIndex, si.genericSignatures);
+		code.append(", 0)");
+	}
+
 	private void writeDiscriminator(final StructInfo si) throws IOException {
 		String name = si.deserializeName.isEmpty() ? si.binaryName.replace('$', '.') : si.deserializeName;
 		code.append("\t\t\t\twriter.writeAscii(\"\\\"").append(si.discriminator).append("\\\":\\\"").append(name).append("\\\"");
@@ -666,13 +1362,13 @@ class ConverterTemplate {
 			writeDiscriminator(si);
 			if (!si.attributes.isEmpty()) {
 				code.append("\t\t\t\tif (alwaysSerialize) { writeContentFull(writer, instance); writer.writeByte((byte)'}'); }\n");
-				code.append("\t\t\t\telse { writeContentMinimal(writer, instance); writer.getByteBuffer()[writer.size() - 1] = '}'; }\n");
+				code.append("\t\t\t\telse { writeContentMinimal(writer, instance); writer.replaceLastByte((byte)'}'); }\n");
 			} else {
 				code.append("\t\t\t\twriter.writeByte((byte)'}');\n");
 			}
 		} else {
 			code.append("\t\t\t\tif (alwaysSerialize) { writeContentFull(writer, instance); writer.writeByte((byte)'}'); }\n");
-			code.append("\t\t\t\telse if (writeContentMinimal(writer, instance)) writer.getByteBuffer()[writer.size() - 1] = '}';\n");
+			code.append("\t\t\t\telse if (writeContentMinimal(writer, instance)) writer.replaceLastByte((byte)'}');\n");
 			code.append("\t\t\t\telse writer.writeByte((byte)'}');\n");
 		}
 		code.append("\t\t\t}\n");
@@ -976,7 +1672,7 @@ class ConverterTemplate {
 
 	private void handleSwitch(StructInfo si, String alignment, boolean useInstance) throws IOException {
 		for (AttributeInfo attr : si.attributes.values()) {
-			if (!attr.canReadInput()) continue;
+			if (!attr.canReadInput() || view != null && !attr.views.contains(view)) continue;
 			String name = si.propertyName(attr);
 			code.append(alignment).append("\tcase ").append(Integer.toString(StructInfo.calcHash(name))).append(":\n");
 			for (String an : attr.alternativeNames) {
@@ -984,7 +1680,7 @@ class ConverterTemplate {
 			}
 			if (attr.fullMatch) {
 				code.append(alignment).append("\t\tif (!reader.wasLastName(name_").append(attr.name).append(")) {\n");
-				if (si.onUnknown == CompiledJson.Behavior.FAIL) {
+				if (failOnUnknown(si)) {
 					code.append(alignment).append("\t\tthrow reader.newParseErrorWith(\"Unknown property detected\", reader.getLastName().length() + 3, \"\", \"Unknown property detected\", reader.getLastName(), \"\");\n");
 				} else {
 					code.append(alignment).append("\t\treader.getNextToken(); reader.skip(); break;\n");
@@ -1017,7 +1713,7 @@ class ConverterTemplate {
 			code.append(alignment).append("\t\tbreak;\n");
 		}
 		code.append(alignment).append("\tdefault:\n");
-		if (si.onUnknown == CompiledJson.Behavior.FAIL) {
+		if (failOnUnknown(si)) {
 			code.append(alignment).append("\t\tString lastName = reader.getLastName();\n");
 			code.append(alignment).append("\t\tthrow reader.newParseErrorWith(\"Unknown property detected\", lastName.length() + 3, \"\", \"Unknown property detected\", lastName, \"\");\n");
 		} else {
@@ -1131,12 +1827,4 @@ class ConverterTemplate {
 			code.append(assignmentEnding);
 		}
 	}
-
-	private static int calcWeakHash(String name) {
-		int hash = 0;
-		for (int i = 0; i < name.length(); i++) {
-			hash += (byte) name.charAt(i);
-		}
-		return hash;
-	}
 }
@@ -44,6 +44,7 @@ public class StructInfo {
 	public final List<String> typeParametersNames;
 	public final Map<String, TypeMirror> genericSignatures;
 	public final Map<VariableElement, VariableElement> argumentMapping = new HashMap<VariableElement, VariableElement>();
+	public final List<String> views = new ArrayList<String>();
 
 	private ExecutableElement selectedConstructor;
 	private boolean createThroughConstructor;
@@ -405,7 +405,7 @@ public abstract class ImmutableAnalyzer {
 			found.put(
 					field.getName(),
 					Settings.createEncoder(
-							new Reflection.ReadField(field),
+							Reflection.readField(field),
 							field.getName(),
 							json,
 							isUnknown ? null : concreteType));
@@ -429,7 +429,7 @@ public abstract class ImmutableAnalyzer {
 			found.put(
 					name,
 					Settings.createEncoder(
-							new Reflection.ReadMethod(mget),
+							Reflection.readMethod(mget),
 							name,
 							json,
 							isUnknown ? null : concreteType));
@@ -120,7 +120,7 @@ public abstract class MixinAnalyzer {
 			foundWrite.put(
 					field.getName(),
 					Settings.createEncoder(
-							new Reflection.ReadField(field),
+							Reflection.readField(field),
 							field.getName(),
 							json,
 							isUnknown ? null : concreteType));
@@ -145,7 +145,7 @@ public abstract class MixinAnalyzer {
 			foundWrite.put(
 					name,
 					Settings.createEncoder(
-							new Reflection.ReadMethod(mget),
+							Reflection.readMethod(mget),
 							name,
 							json,
 							isUnknown ? null : concreteType));
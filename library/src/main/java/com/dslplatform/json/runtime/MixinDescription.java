@@ -149,30 +149,30 @@ public final class MixinDescription<T> implements JsonWriter.WriteObject<T>, Jso
 				FormatConverter<T> ofd = od.objectFormat;
 				if (alwaysSerialize) {
 					writer.writeByte(JsonWriter.COMMA);
-					final int pos = writer.size();
+					final int pos = writer.position();
 					final long flushed = writer.flushed();
 					ofd.writeContentFull(writer, instance);
-					if (pos != writer.size() || flushed != writer.flushed()) {
+					if (pos != writer.position() || flushed != writer.flushed()) {
 						writer.writeByte(JsonWriter.OBJECT_END);
 					} else {
-						writer.getByteBuffer()[writer.size() - 1] = JsonWriter.OBJECT_END;
+						writer.replaceLastByte(JsonWriter.OBJECT_END);
 					}
 				} else {
 					writer.writeByte(JsonWriter.COMMA);
 					ofd.writeContentMinimal(writer, instance);
-					writer.getByteBuffer()[writer.size() - 1] = JsonWriter.OBJECT_END;
+					writer.replaceLastByte(JsonWriter.OBJECT_END);
 				}
 			} else {
 				writer.writeByte(JsonWriter.ARRAY_START);
 				writer.writeAscii(od.quotedTypeName);
 				writer.writeByte(JsonWriter.COMMA);
-				final int pos = writer.size();
+				final int pos = writer.position();
 				final long flushed = writer.flushed();
 				od.arrayFormat.writeContentFull(writer, instance);
-				if (pos != writer.size() || flushed != writer.flushed()) {
+				if (pos != writer.position() || flushed != writer.flushed()) {
 					writer.writeByte(JsonWriter.ARRAY_END);
 				} else {
-					writer.getByteBuffer()[writer.size() - 1] = JsonWriter.ARRAY_END;
+					writer.replaceLastByte(JsonWriter.ARRAY_END);
 				}
 			}
 			return;
@@ -321,14 +321,14 @@ public abstract class ObjectAnalyzer {
 			foundWrite.put(
 					field.getName(),
 					Settings.createEncoder(
-							new Reflection.ReadField(field),
+							Reflection.readField(field),
 							field.getName(),
 							json,
 							isUnknown ? null : concreteType));
 			foundRead.put(
 					field.getName(),
 					Settings.createDecoder(
-							new Reflection.SetField(field),
+							Reflection.setField(field),
 							field.getName(),
 							json,
 							false,
@@ -369,14 +369,14 @@ public abstract class ObjectAnalyzer {
 			foundWrite.put(
 					name,
 					Settings.createEncoder(
-							new Reflection.ReadMethod(mget),
+							Reflection.readMethod(mget),
 							name,
 							json,
 							isUnknown ? null : concreteType));
 			foundRead.put(
 					name,
 					Settings.createDecoder(
-							new Reflection.SetMethod(mset),
+							Reflection.setMethod(mset),
 							name,
 							json,
 							false,
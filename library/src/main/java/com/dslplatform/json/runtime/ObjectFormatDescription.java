@@ -4,6 +4,7 @@ import com.dslplatform.json.*;
 
 import java.io.IOException;
 import java.lang.reflect.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class ObjectFormatDescription<B, T> extends WriteDescription<T> implements FormatConverter<T>, JsonReader.BindObject<B> {
 
@@ -16,6 +17,24 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 	private final long mandatoryFlag;
 	private final String startError;
 	private final String endError;
+	private final boolean learnOrder;
+	//expected order is replaced as a whole, so readers on other threads see either the old or the new order
+	private volatile DecodePropertyInfo<JsonReader.BindObject>[] expected;
+	private final AtomicReference<ObservedOrder> observed = new AtomicReference<>();
+
+	private static final int ORDER_REPEATS = 3;
+
+	private static final class ObservedOrder {
+		final DecodePropertyInfo<JsonReader.BindObject>[] order;
+		final int count;
+		final int repeats;
+
+		ObservedOrder(final DecodePropertyInfo<JsonReader.BindObject>[] order, final int count, final int repeats) {
+			this.order = order;
+			this.count = count;
+			this.repeats = repeats;
+		}
+	}
 
 	private static final Settings.Function identity = new Settings.Function() {
 		@Override
@@ -54,6 +73,8 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 		this.skipOnUnknown = skipOnUnknown;
 		this.mandatoryFlag = DecodePropertyInfo.calculateMandatory(this.decoders);
 		this.hasMandatory = mandatoryFlag != 0;
+		this.learnOrder = json.learnPropertyOrder;
+		this.expected = this.decoders;
 		this.startError = String.format("Expecting '{' to start decoding %s", Reflection.typeDescription(manifest));
 		this.endError = String.format("Expecting '}' or ',' while decoding %s", Reflection.typeDescription(manifest));
 	}
@@ -93,13 +114,19 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 			}
 			return;
 		}
+		final DecodePropertyInfo<JsonReader.BindObject>[] expected = this.expected;
 		long currentMandatory = mandatoryFlag;
 		int i = 0;
-		while(i < decoders.length) {
-			final DecodePropertyInfo<JsonReader.BindObject> ri = decoders[i++];
+		while(i < expected.length) {
+			final DecodePropertyInfo<JsonReader.BindObject> ri = expected[i++];
 			final int weakHash = reader.fillNameWeakHash();
 			if (weakHash != ri.weakHash || !reader.wasLastName(ri.nameBytes)) {
-				bindObjectSlow(reader, instance, currentMandatory);
+				if (learnOrder) {
+					//matched prefix is already in place, rest of the order is recorded in the slow path
+					bindObjectSlow(reader, instance, currentMandatory, expected.clone(), i - 1);
+				} else {
+					bindObjectSlow(reader, instance, currentMandatory, null, 0);
+				}
 				return;
 			}
 			reader.getNextToken();
@@ -108,17 +135,47 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 			}
 			ri.value.bind(reader, instance);
 			currentMandatory = currentMandatory & ri.mandatoryValue;
-			if (reader.getNextToken() == ',' && i != decoders.length) reader.getNextToken();
+			if (reader.getNextToken() == ',' && i != expected.length) reader.getNextToken();
 			else break;
 		}
 		finalChecks(reader, instance, currentMandatory);
 	}
 
-	private void bindObjectSlow(final JsonReader reader, final B instance, long currentMandatory) throws IOException {
-		boolean processed = false;
-		final int oldHash = reader.getLastHash();
+	private void bindObjectSlow(
+			final JsonReader reader,
+			final B instance,
+			long currentMandatory,
+			@Nullable DecodePropertyInfo<JsonReader.BindObject>[] order,
+			int count) throws IOException {
+		int hash = reader.getLastHash();
+		while (true) {
+			final DecodePropertyInfo<JsonReader.BindObject> ri = bindProperty(reader, instance, hash);
+			if (ri == null) {
+				//order can't help when there are unknown properties
+				order = null;
+				skip(reader);
+			} else {
+				currentMandatory = currentMandatory & ri.mandatoryValue;
+				if (order != null) {
+					if (count == order.length) order = null;
+					else order[count++] = ri;
+				}
+				reader.getNextToken();
+			}
+			if (reader.last() != ',') break;
+			reader.getNextToken();
+			hash = reader.fillName();
+		}
+		if (order != null) {
+			learn(order, count);
+		}
+		finalChecks(reader, instance, currentMandatory);
+	}
+
+	@Nullable
+	private DecodePropertyInfo<JsonReader.BindObject> bindProperty(final JsonReader reader, final B instance, final int hash) throws IOException {
 		for (final DecodePropertyInfo<JsonReader.BindObject> ri : decoders) {
-			if (oldHash != ri.hash) continue;
+			if (hash != ri.hash) continue;
 			if (ri.exactName) {
 				if (!reader.wasLastName(ri.nameBytes)) continue;
 			}
@@ -127,34 +184,55 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 				throw reader.newParseErrorWith("Null value found for non-null attribute", ri.name);
 			}
 			ri.value.bind(reader, instance);
-			currentMandatory = currentMandatory & ri.mandatoryValue;
-			processed = true;
-			break;
+			return ri;
 		}
-		if (!processed) skip(reader);
-		else reader.getNextToken();
-		while (reader.last() == ','){
-			reader.getNextToken();
-			final int hash = reader.fillName();
-			processed = false;
-			for (final DecodePropertyInfo<JsonReader.BindObject> ri : decoders) {
-				if (hash != ri.hash) continue;
-				if (ri.exactName) {
-					if (!reader.wasLastName(ri.nameBytes)) continue;
-				}
-				reader.getNextToken();
-				if (ri.nonNull && reader.wasNull()) {
-					throw reader.newParseErrorWith("Null value found for non-null attribute", ri.name);
-				}
-				ri.value.bind(reader, instance);
-				currentMandatory = currentMandatory & ri.mandatoryValue;
-				processed = true;
-				break;
+		return null;
+	}
+
+	private void learn(final DecodePropertyInfo<JsonReader.BindObject>[] order, final int count) {
+		final ObservedOrder current = observed.get();
+		if (current == null || !sameOrder(current, order, count)) {
+			observed.compareAndSet(current, new ObservedOrder(order, count, 1));
+		} else if (current.repeats + 1 < ORDER_REPEATS) {
+			observed.compareAndSet(current, new ObservedOrder(order, count, current.repeats + 1));
+		} else if (observed.compareAndSet(current, null)) {
+			final DecodePropertyInfo<JsonReader.BindObject>[] reordered = reorder(order, count);
+			if (reordered != null) {
+				expected = reordered;
 			}
-			if (!processed) skip(reader);
-			else reader.getNextToken();
 		}
-		finalChecks(reader, instance, currentMandatory);
+	}
+
+	private static boolean sameOrder(final ObservedOrder observed, final DecodePropertyInfo[] order, final int count) {
+		if (observed.count != count) return false;
+		for (int i = 0; i < count; i++) {
+			if (observed.order[i] != order[i]) return false;
+		}
+		return true;
+	}
+
+	@Nullable
+	private DecodePropertyInfo<JsonReader.BindObject>[] reorder(final DecodePropertyInfo<JsonReader.BindObject>[] order, final int count) {
+		final DecodePropertyInfo<JsonReader.BindObject>[] result = decoders.clone();
+		int position = 0;
+		for (int i = 0; i < count; i++) {
+			//property repeated in the input can't be expected twice
+			if (indexOf(order, i, order[i]) != -1) return null;
+			result[position++] = order[i];
+		}
+		for (final DecodePropertyInfo<JsonReader.BindObject> ri : decoders) {
+			if (indexOf(order, count, ri) == -1) {
+				result[position++] = ri;
+			}
+		}
+		return result;
+	}
+
+	private static int indexOf(final DecodePropertyInfo[] order, final int count, final DecodePropertyInfo value) {
+		for (int i = 0; i < count; i++) {
+			if (order[i] == value) return i;
+		}
+		return -1;
 	}
 
 	private void finalChecks(final JsonReader reader, final B instance, final long currentMandatory) throws IOException {
@@ -162,7 +240,7 @@ public final class ObjectFormatDescription<B, T> extends WriteDescription<T> imp
 			if (reader.last() == ',') {
 				reader.getNextToken();
 				reader.fillNameWeakHash();
-				bindObjectSlow(reader, instance, currentMandatory);
+				bindObjectSlow(reader, instance, currentMandatory, null, 0);
 				return;
 			} else throw reader.newParseError(endError);
 		}
@@ -3,13 +3,226 @@ package com.dslplatform.json.runtime;
 import com.dslplatform.json.ConfigurationException;
 import com.dslplatform.json.Nullable;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 
 abstract class Reflection {
 
+	private static final boolean HAS_METHOD_HANDLES = hasClass("java.lang.invoke.MethodHandles");
+	private static final boolean HAS_LAMBDA_FACTORY = HAS_METHOD_HANDLES && hasClass("java.lang.invoke.LambdaMetafactory");
+
+	private static boolean hasClass(final String name) {
+		try {
+			Class.forName(name);
+			return true;
+		} catch (Throwable ignore) {
+			return false;
+		}
+	}
+
+	/**
+	 * Property reader for the field.
+	 * MethodHandle is used when field is accessible from the library, otherwise it's read through reflection.
+	 *
+	 * @param field public field
+	 * @return property reader
+	 */
+	static Settings.Function readField(final Field field) {
+		if (HAS_METHOD_HANDLES && isAccessible(field.getDeclaringClass(), field.getModifiers())) {
+			try {
+				final MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+				return new ReadFieldHandle(field, handle.asType(MethodType.methodType(Object.class, Object.class)));
+			} catch (IllegalAccessException | LinkageError ignore) {
+			}
+		}
+		return new ReadField(field);
+	}
+
+	/**
+	 * Property writer for the field.
+	 * MethodHandle is used when field is accessible from the library, otherwise it's set through reflection.
+	 *
+	 * @param field public field
+	 * @return property writer
+	 */
+	static Settings.BiConsumer setField(final Field field) {
+		if (HAS_METHOD_HANDLES && isAccessible(field.getDeclaringClass(), field.getModifiers())
+				&& (field.getModifiers() & Modifier.FINAL) == 0) {
+			try {
+				final MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+				return new SetFieldHandle(field, handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+			} catch (IllegalAccessException | LinkageError ignore) {
+			}
+		}
+		return new SetField(field);
+	}
+
+	/**
+	 * Property reader for the getter.
+	 * When method is accessible from the library, lambda is created with LambdaMetafactory
+	 * so getter is invoked directly, otherwise it's invoked through reflection.
+	 *
+	 * @param method public getter
+	 * @return property reader
+	 */
+	static Settings.Function readMethod(final Method method) {
+		if (HAS_LAMBDA_FACTORY && isAccessible(method.getDeclaringClass(), method.getModifiers())
+				&& isAccessible(method.getReturnType(), Modifier.PUBLIC)
+				&& isVisible(method.getDeclaringClass()) && isVisible(method.getReturnType())) {
+			try {
+				final MethodHandles.Lookup lookup = MethodHandles.lookup();
+				final CallSite site = LambdaMetafactory.metafactory(
+						lookup,
+						"apply",
+						MethodType.methodType(Settings.Function.class),
+						MethodType.methodType(Object.class, Object.class),
+						lookup.unreflect(method),
+						MethodType.methodType(boxed(method.getReturnType()), method.getDeclaringClass()));
+				return new ReadLambda(method, (Settings.Function) site.getTarget().invokeExact());
+			} catch (Throwable ignore) {
+			}
+		}
+		return new ReadMethod(method);
+	}
+
+	/**
+	 * Property writer for the setter.
+	 * When method is accessible from the library, lambda is created with LambdaMetafactory
+	 * so setter is invoked directly, otherwise it's invoked through reflection.
+	 *
+	 * @param method public setter
+	 * @return property writer
+	 */
+	static Settings.BiConsumer setMethod(final Method method) {
+		final Class<?>[] parameters = method.getParameterTypes();
+		if (HAS_LAMBDA_FACTORY && parameters.length == 1
+				&& isAccessible(method.getDeclaringClass(), method.getModifiers())
+				&& isAccessible(parameters[0], Modifier.PUBLIC)
+				&& isVisible(method.getDeclaringClass()) && isVisible(parameters[0])) {
+			try {
+				final MethodHandles.Lookup lookup = MethodHandles.lookup();
+				final CallSite site = LambdaMetafactory.metafactory(
+						lookup,
+						"accept",
+						MethodType.methodType(Settings.BiConsumer.class),
+						MethodType.methodType(void.class, Object.class, Object.class),
+						lookup.unreflect(method),
+						MethodType.methodType(void.class, method.getDeclaringClass(), boxed(parameters[0])));
+				return new SetLambda(method, (Settings.BiConsumer) site.getTarget().invokeExact());
+			} catch (Throwable ignore) {
+			}
+		}
+		return new SetMethod(method);
+	}
+
+	//generated classes live in this package, so they can link only against public members of public classes
+	private static boolean isAccessible(final Class<?> type, final int modifiers) {
+		return (modifiers & Modifier.PUBLIC) != 0 && (type.getModifiers() & Modifier.PUBLIC) != 0;
+	}
+
+	//generated classes resolve types through the library class loader,
+	//so models from other loaders (eg. child loaders in application servers) must use reflection
+	private static boolean isVisible(final Class<?> type) {
+		if (type.isPrimitive()) return true;
+		try {
+			return Class.forName(type.getName(), false, Reflection.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException | LinkageError ignore) {
+			return false;
+		}
+	}
+
+	private static Class<?> boxed(final Class<?> type) {
+		return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+	}
+
+	static final class ReadFieldHandle implements Settings.Function {
+		private final Field field;
+		private final MethodHandle handle;
+
+		ReadFieldHandle(Field field, MethodHandle handle) {
+			this.field = field;
+			this.handle = handle;
+		}
+
+		@Override
+		public Object apply(@Nullable Object instance) {
+			try {
+				return (Object) handle.invokeExact(instance);
+			} catch (ClassCastException | NullPointerException e) {
+				throw new ConfigurationException("Unable to find field " + field.getName() + " in " + field.getDeclaringClass() + " for object " + instance, e);
+			} catch (Throwable e) {
+				throw new ConfigurationException("Unable to read field " + field.getName() + " of " + field.getDeclaringClass(), e);
+			}
+		}
+	}
+
+	static final class SetFieldHandle implements Settings.BiConsumer {
+		private final Field field;
+		private final MethodHandle handle;
+
+		SetFieldHandle(Field field, MethodHandle handle) {
+			this.field = field;
+			this.handle = handle;
+		}
+
+		@Override
+		public void accept(Object instance, @Nullable Object value) {
+			try {
+				handle.invokeExact(instance, value);
+			} catch (ClassCastException | NullPointerException e) {
+				throw new ConfigurationException("Unable to set field " + field.getName() + " in " + field.getDeclaringClass() + " of object " + instance + " to value of type " + (value == null ? "Void" : value.getClass().getCanonicalName()), e);
+			} catch (Throwable e) {
+				throw new ConfigurationException("Unable to set field " + field.getName() + " of " + field.getDeclaringClass(), e);
+			}
+		}
+	}
+
+	static final class ReadLambda implements Settings.Function {
+		private final Method method;
+		private final Settings.Function getter;
+
+		ReadLambda(Method method, Settings.Function getter) {
+			this.method = method;
+			this.getter = getter;
+		}
+
+		@Override
+		public Object apply(@Nullable Object instance) {
+			try {
+				return getter.apply(instance);
+			} catch (RuntimeException e) {
+				throw new ConfigurationException("Unable to call method " + method.getName() + " of " + method.getDeclaringClass(), e);
+			}
+		}
+	}
+
+	static final class SetLambda implements Settings.BiConsumer {
+		private final Method method;
+		private final Settings.BiConsumer setter;
+
+		SetLambda(Method method, Settings.BiConsumer setter) {
+			this.method = method;
+			this.setter = setter;
+		}
+
+		@Override
+		public void accept(Object instance, @Nullable Object value) {
+			try {
+				setter.accept(instance, value);
+			} catch (RuntimeException e) {
+				throw new ConfigurationException("Unable to call method " + method.getName() + " of " + method.getDeclaringClass(), e);
+			}
+		}
+	}
+
 	static final class ReadField implements Settings.Function {
 		private final Field field;
 
@@ -26,7 +26,7 @@ abstract class WriteDescription<T> implements JsonWriter.WriteObject<T> {
 		} else {
 			writer.writeByte(JsonWriter.OBJECT_START);
 			if (writeContentMinimal(writer, instance)) {
-				writer.getByteBuffer()[writer.size() - 1] = JsonWriter.OBJECT_END;
+				writer.replaceLastByte(JsonWriter.OBJECT_END);
 			} else {
 				writer.writeByte(JsonWriter.OBJECT_END);
 			}
@@ -44,21 +44,21 @@ abstract class WriteDescription<T> implements JsonWriter.WriteObject<T> {
 
 	public final boolean writeContentMinimal(final JsonWriter writer, @Nullable final T instance) {
 		if (isEmpty) return false;
-		final int originalPos = writer.size();
+		final int originalPos = writer.position();
 		final long originalFlushed = writer.flushed();
 		int pos = originalPos;
 		long flushed = originalFlushed;
 		encoders[0].write(writer, instance);
-		if (writer.size() != pos || writer.flushed() != flushed) {
+		if (writer.position() != pos || writer.flushed() != flushed) {
 			writer.writeByte(JsonWriter.COMMA);
-			pos = writer.size();
+			pos = writer.position();
 			flushed = writer.flushed();
 		}
 		for (int i = 1; i < encoders.length; i++) {
 			encoders[i].write(writer, instance);
-			if (writer.size() != pos || writer.flushed() != flushed) {
+			if (writer.position() != pos || writer.flushed() != flushed) {
 				writer.writeByte(JsonWriter.COMMA);
-				pos = writer.size();
+				pos = writer.position();
 				flushed = writer.flushed();
 			}
 		}
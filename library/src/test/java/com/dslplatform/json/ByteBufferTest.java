@@ -0,0 +1,229 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Generics;
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ByteBufferTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public String name;
+		public int value;
+		public List<Double> numbers;
+	}
+
+	private static byte[] largeInput(int count) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) sb.append(",");
+			sb.append("{\"name\":\"abc").append(i).append("\",\"value\":").append(i).append(",\"numbers\":[1.5,").append(i).append("]}");
+		}
+		sb.append("]");
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void heapBuffer() throws IOException {
+		byte[] input = "{\"name\":\"abc\",\"value\":42,\"numbers\":[1,2.5]}".getBytes(StandardCharsets.UTF_8);
+		Model model = dslJson.deserialize(Model.class, ByteBuffer.wrap(input));
+		Assert.assertEquals("abc", model.name);
+		Assert.assertEquals(42, model.value);
+		Assert.assertEquals(2, model.numbers.size());
+	}
+
+	@Test
+	public void heapBufferWithOffset() throws IOException {
+		byte[] input = "garbage{\"name\":\"abc\",\"value\":42}garbage".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.wrap(input, 7, input.length - 14);
+		Model model = dslJson.deserialize(Model.class, buffer.slice());
+		Assert.assertEquals("abc", model.name);
+		Assert.assertEquals(42, model.value);
+		model = dslJson.deserialize(Model.class, buffer);
+		Assert.assertEquals("abc", model.name);
+		Assert.assertEquals(7, buffer.position());
+	}
+
+	@Test
+	public void errorPositionIsRelativeToBufferStart() throws IOException {
+		byte[] input = "xxxx{\"name\":\"abc\",\"value\":4a2}".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.wrap(input, 4, input.length - 4);
+		try {
+			dslJson.deserialize(Model.class, buffer);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("at position: 22"));
+		}
+	}
+
+	@Test
+	public void directBuffer() throws IOException {
+		byte[] input = largeInput(1000);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(input.length);
+		buffer.put(input);
+		buffer.flip();
+		Model[] result = dslJson.deserialize(Model[].class, buffer);
+		Assert.assertEquals(1000, result.length);
+		for (int i = 0; i < result.length; i++) {
+			Assert.assertEquals("abc" + i, result[i].name);
+			Assert.assertEquals(i, result[i].value);
+		}
+		Assert.assertEquals(0, buffer.position());
+	}
+
+	@Test
+	public void readOnlyBufferWithGenericType() throws IOException {
+		byte[] input = largeInput(100);
+		Type type = Generics.makeParameterizedType(List.class, Model.class);
+		List<Model> result = (List<Model>) dslJson.deserialize(type, ByteBuffer.wrap(input).asReadOnlyBuffer());
+		Assert.assertEquals(100, result.size());
+		Assert.assertEquals("abc99", result.get(99).name);
+	}
+
+	@Test
+	public void reuseReaderAcrossBuffers() throws IOException {
+		JsonReader<Object> reader = dslJson.newReader();
+		ByteBuffer direct = ByteBuffer.allocateDirect(64);
+		direct.put("{\"a\":1}".getBytes(StandardCharsets.UTF_8)).flip();
+		reader.process(direct);
+		reader.getNextToken();
+		Map map = ObjectConverter.deserializeMap(reader);
+		Assert.assertEquals(1L, map.get("a"));
+		reader.process(ByteBuffer.wrap("{\"b\":2}".getBytes(StandardCharsets.UTF_8)));
+		reader.getNextToken();
+		map = ObjectConverter.deserializeMap(reader);
+		Assert.assertEquals(2L, map.get("b"));
+		Assert.assertEquals(7, reader.positionInStream());
+	}
+
+	@Test
+	public void bufferIsNotModified() throws IOException {
+		List<Model> models = new ArrayList<Model>();
+		Model m = new Model();
+		m.name = "x";
+		models.add(m);
+		JsonWriter writer = dslJson.newWriter();
+		dslJson.serialize(writer, models);
+		ByteBuffer buffer = ByteBuffer.wrap(writer.toByteArray());
+		List<Model> result = (List<Model>) dslJson.deserialize(Generics.makeParameterizedType(List.class, Model.class), buffer);
+		Assert.assertEquals("x", result.get(0).name);
+		Assert.assertEquals(0, buffer.position());
+		Assert.assertEquals(writer.size(), buffer.limit());
+	}
+
+	@Test
+	public void segmentedWriter() throws IOException {
+		byte[] input = largeInput(1000);
+		List<Model> models = dslJson.deserializeList(Model.class, input, input.length);
+		JsonWriter plain = dslJson.newWriter();
+		dslJson.serialize(plain, models);
+		byte[] expected = plain.toByteArray();
+		JsonWriter segmented = dslJson.newSegmentedWriter(256);
+		for (int repeat = 0; repeat < 2; repeat++) {
+			segmented.reset();
+			dslJson.serialize(segmented, models);
+			Assert.assertArrayEquals(expected, segmented.toByteArray());
+			Assert.assertEquals(expected.length, segmented.flushed() + segmented.position());
+			try {
+				segmented.size();
+				Assert.fail("Expecting exception");
+			} catch (ConfigurationException ex) {
+				Assert.assertTrue(ex.getMessage().contains("toByteArray()"));
+			}
+			ByteBuffer[] buffers = segmented.toByteBuffers();
+			Assert.assertTrue(buffers.length > expected.length / 256);
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			for (ByteBuffer buffer : buffers) {
+				Assert.assertTrue(buffer.remaining() <= 256);
+				os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			}
+			Assert.assertArrayEquals(expected, os.toByteArray());
+			Assert.assertEquals(new String(expected, StandardCharsets.UTF_8), segmented.toString());
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		segmented.toStream(os);
+		Assert.assertArrayEquals(expected, os.toByteArray());
+		Assert.assertEquals(1, segmented.toByteBuffers().length);
+		dslJson.serialize(segmented, models);
+		Assert.assertArrayEquals(expected, segmented.toByteArray());
+		String large = new String(new char[1000]).replace('\0', 'x');
+		segmented.reset();
+		segmented.writeString(large);
+		Assert.assertEquals("\"" + large + "\"", segmented.toString());
+	}
+
+	@Test
+	public void channelTargets() throws Exception {
+		byte[] input = largeInput(1000);
+		List<Model> models = dslJson.deserializeList(Model.class, input, input.length);
+		JsonWriter plain = dslJson.newWriter();
+		dslJson.serialize(plain, models);
+		byte[] expected = plain.toByteArray();
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(models, Channels.newChannel(os));
+		Assert.assertArrayEquals(expected, os.toByteArray());
+
+		File file = File.createTempFile("dsl-json", ".json");
+		try {
+			AsynchronousFileChannel channel = AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+			try {
+				JsonWriter writer = dslJson.newWriter(256);
+				writer.resetChannel(channel, 3);
+				dslJson.serialize(writer, models);
+				writer.flush();
+				Assert.assertEquals(expected.length, writer.flushed());
+			} finally {
+				channel.close();
+			}
+			byte[] written = Files.readAllBytes(file.toPath());
+			Assert.assertEquals(expected.length + 3, written.length);
+			Assert.assertArrayEquals(expected, Arrays.copyOfRange(written, 3, written.length));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void writeToDirectBuffer() throws IOException {
+		byte[] input = largeInput(100);
+		List<Model> models = dslJson.deserializeList(Model.class, input, input.length);
+		for (JsonWriter writer : new JsonWriter[]{dslJson.newWriter(), dslJson.newSegmentedWriter(100)}) {
+			dslJson.serialize(writer, models);
+			byte[] expected = writer.toByteArray();
+			ByteBuffer direct = ByteBuffer.allocateDirect(333);
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			boolean done;
+			do {
+				direct.clear();
+				done = writer.writeTo(direct);
+				direct.flip();
+				byte[] chunk = new byte[direct.remaining()];
+				direct.get(chunk);
+				os.write(chunk);
+			} while (!done);
+			Assert.assertArrayEquals(expected, os.toByteArray());
+			direct.clear();
+			Assert.assertTrue(writer.writeTo(direct));
+			Assert.assertEquals(0, direct.position());
+		}
+	}
+}
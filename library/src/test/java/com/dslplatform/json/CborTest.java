@@ -0,0 +1,271 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CborTest {
+
+	private final DslJson<Object> dslJson = new DslJson<>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public int id;
+		public String name;
+		public List<Double> values;
+		public Map<String, Model> children;
+	}
+
+	private byte[] serialize(Object value) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeCbor(value, os);
+		return os.toByteArray();
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void integerEncoding() throws IOException {
+		Assert.assertEquals("00", hex(serialize(0)));
+		Assert.assertEquals("17", hex(serialize(23)));
+		Assert.assertEquals("1818", hex(serialize(24)));
+		Assert.assertEquals("1903e8", hex(serialize(1000)));
+		Assert.assertEquals("1a000f4240", hex(serialize(1000000)));
+		Assert.assertEquals("1b000000e8d4a51000", hex(serialize(1000000000000L)));
+		Assert.assertEquals("20", hex(serialize(-1)));
+		Assert.assertEquals("3863", hex(serialize(-100)));
+		Assert.assertEquals("3b7fffffffffffffff", hex(serialize(Long.MIN_VALUE)));
+	}
+
+	@Test
+	public void simpleValues() throws IOException {
+		Assert.assertEquals("f4", hex(serialize(false)));
+		Assert.assertEquals("f5", hex(serialize(true)));
+		Assert.assertEquals("f6", hex(serialize(null)));
+		Assert.assertEquals("fa3fc00000", hex(serialize(1.5)));
+		Assert.assertEquals("fb3ff199999999999a", hex(serialize(1.1)));
+		Assert.assertEquals("6161", hex(serialize("a")));
+		Assert.assertEquals("4401020304", hex(serialize(new byte[]{1, 2, 3, 4})));
+	}
+
+	@Test
+	public void numberRoundtrip() throws IOException {
+		for (long value : new long[]{0, 23, 24, 255, 256, 65535, 65536, -24, -25, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+			byte[] bytes = serialize(value);
+			Assert.assertEquals(Long.valueOf(value), dslJson.deserializeCbor(long.class, bytes, bytes.length));
+		}
+		for (double value : new double[]{0, -0.5, 1e300, Double.MIN_VALUE, 3.14}) {
+			byte[] bytes = serialize(value);
+			Assert.assertEquals(value, dslJson.deserializeCbor(double.class, bytes, bytes.length), 0);
+		}
+		BigInteger big = new BigInteger("123456789012345678901234567890");
+		byte[] bytes = serialize(big);
+		Assert.assertEquals(big, dslJson.deserializeCbor(BigInteger.class, bytes, bytes.length));
+		bytes = serialize(big.negate());
+		Assert.assertEquals(big.negate(), dslJson.deserializeCbor(BigInteger.class, bytes, bytes.length));
+		BigDecimal decimal = new BigDecimal("-12345678901234567890.120");
+		bytes = serialize(decimal);
+		Assert.assertEquals(decimal, dslJson.deserializeCbor(BigDecimal.class, bytes, bytes.length));
+	}
+
+	@Test
+	public void intRangeIsChecked() throws IOException {
+		byte[] bytes = serialize(Long.MAX_VALUE);
+		try {
+			dslJson.deserializeCbor(int.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("int"));
+		}
+	}
+
+	@Test
+	public void stringRoundtrip() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			sb.append("aš€😀");
+		}
+		for (String value : new String[]{"", "abc", "žšđ", sb.toString()}) {
+			byte[] bytes = serialize(value);
+			Assert.assertEquals(value, dslJson.deserializeCbor(String.class, bytes, bytes.length));
+		}
+	}
+
+	@Test
+	public void indefiniteLengthItems() throws IOException {
+		CborWriter writer = dslJson.newCborWriter();
+		writer.writeArrayStart();
+		writer.writeInt(1);
+		writer.writeNull();
+		writer.writeInt(3);
+		writer.writeBreak();
+		byte[] bytes = writer.toByteArray();
+		Assert.assertEquals("9f01f603ff", hex(bytes));
+		List<Integer> list = dslJson.deserializeCborList(Integer.class, bytes, bytes.length);
+		Assert.assertEquals(Arrays.asList(1, null, 3), list);
+		//chunked text string: "ab" + "c"
+		bytes = new byte[]{0x7f, 0x62, 'a', 'b', 0x61, 'c', (byte) 0xff};
+		Assert.assertEquals("abc", dslJson.deserializeCbor(String.class, bytes, bytes.length));
+	}
+
+	@Test
+	public void runtimeModelThroughJson() throws IOException {
+		Model model = new Model();
+		model.id = 5;
+		model.name = "root";
+		model.values = Arrays.asList(1.5, 2.25);
+		model.children = new LinkedHashMap<>();
+		Model child = new Model();
+		child.id = 6;
+		model.children.put("first", child);
+		byte[] bytes = serialize(model);
+		Model result = dslJson.deserializeCbor(Model.class, bytes, bytes.length);
+		Assert.assertEquals(5, result.id);
+		Assert.assertEquals("root", result.name);
+		Assert.assertEquals(model.values, result.values);
+		Assert.assertEquals(6, result.children.get("first").id);
+		Assert.assertNull(result.children.get("first").name);
+	}
+
+	@Test
+	public void collectionsAreNative() throws IOException {
+		List<Set<String>> value = Arrays.asList(new LinkedHashSet<>(Arrays.asList("a", "b")), null);
+		CborWriter writer = dslJson.newCborWriter();
+		dslJson.serializeCbor(writer, value);
+		byte[] bytes = writer.toByteArray();
+		Assert.assertEquals("828261616162f6", hex(bytes));
+		Map<Integer, String> map = new LinkedHashMap<>();
+		map.put(1, "x");
+		writer.reset();
+		dslJson.serializeCbor(writer, map);
+		Assert.assertEquals("a1016178", hex(writer.toByteArray()));
+	}
+
+	@Test
+	public void unknownItemsAreSkipped() throws IOException {
+		CborWriter writer = dslJson.newCborWriter();
+		writer.writeMapStart(3);
+		writer.writeString("tags");
+		writer.writeMapStart();
+		writer.writeString("x");
+		writer.writeBinary(new byte[100]);
+		writer.writeBreak();
+		writer.writeString("id");
+		writer.writeInt(42);
+		writer.writeString("other");
+		writer.writeDouble(1.1);
+		byte[] bytes = writer.toByteArray();
+		Model result = dslJson.deserializeCbor(Model.class, bytes, bytes.length);
+		Assert.assertEquals(42, result.id);
+	}
+
+	@Test
+	public void invalidInputIsReported() throws IOException {
+		byte[] bytes = new byte[]{0x63, 'a', 'b'};
+		try {
+			dslJson.deserializeCbor(String.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("position"));
+		}
+	}
+
+	private static <T> DslJson.BufferPool<T> counting(final DslJson.BufferPool<T> pool, final AtomicInteger taken, final AtomicInteger active) {
+		return new DslJson.BufferPool<T>() {
+			@Override
+			public T take() {
+				taken.incrementAndGet();
+				active.incrementAndGet();
+				return pool.take();
+			}
+
+			@Override
+			public void release(T instance) {
+				active.decrementAndGet();
+				pool.release(instance);
+			}
+		};
+	}
+
+	@Test
+	public void pooledReadersAndWriters() throws IOException {
+		final AtomicInteger json = new AtomicInteger();
+		final AtomicInteger cbor = new AtomicInteger();
+		final AtomicInteger active = new AtomicInteger();
+		final DslJson<Object> pooled = new DslJson<>(Settings.withRuntime().includeServiceLoader().bufferPool(new DslJson.BoundedBufferPool(2) {
+			@Override
+			public DslJson.BufferPool<JsonWriter> writers(DslJson<?> dslJson) {
+				return counting(super.writers(dslJson), json, active);
+			}
+
+			@Override
+			public DslJson.BufferPool<JsonReader> readers(DslJson<?> dslJson) {
+				return counting(super.readers(dslJson), json, active);
+			}
+
+			@Override
+			public DslJson.BufferPool<CborWriter> cborWriters(DslJson<?> dslJson) {
+				return counting(super.cborWriters(dslJson), cbor, active);
+			}
+
+			@Override
+			public DslJson.BufferPool<CborReader> cborReaders(DslJson<?> dslJson) {
+				return counting(super.cborReaders(dslJson), cbor, active);
+			}
+		}));
+		Model model = new Model();
+		model.id = 7;
+		model.name = "pooled";
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		pooled.serializeCbor(model, os);
+		Assert.assertEquals(0, active.get());
+		Assert.assertEquals(1, cbor.get());
+		Assert.assertEquals(2, json.get());
+		byte[] bytes = os.toByteArray();
+		Model result = pooled.deserializeCbor(Model.class, bytes, bytes.length);
+		Assert.assertEquals(7, result.id);
+		Assert.assertEquals("pooled", result.name);
+		Assert.assertEquals(0, active.get());
+		Assert.assertEquals(2, cbor.get());
+		Assert.assertEquals(4, json.get());
+		try {
+			pooled.deserializeCbor(Model.class, bytes, bytes.length - 1);
+			Assert.fail("Expecting exception");
+		} catch (IOException ignore) {
+		}
+		Assert.assertEquals(0, active.get());
+	}
+
+	@Test
+	public void writerRetentionTrimsCborBuffers() throws IOException {
+		DslJson.BufferRetention retention = new DslJson.BufferRetention(64 * 1024, 3);
+		DslJson<Object> trimming = new DslJson<>(new DslJson.Settings<>().writerRetention(retention));
+		char[] chars = new char[1024 * 1024];
+		Arrays.fill(chars, 'a');
+		String large = new String(chars);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		trimming.serializeCbor(large, os);
+		byte[] bytes = os.toByteArray();
+		Assert.assertEquals(large, trimming.deserializeCbor(String.class, bytes, bytes.length));
+		Assert.assertEquals(1, retention.getOversizedCount());
+		for (int i = 0; i < 3; i++) {
+			os.reset();
+			trimming.serializeCbor(i, os);
+			Assert.assertEquals(1, os.size());
+		}
+		Assert.assertEquals(1, retention.getOversizedCount());
+		Assert.assertEquals(1, retention.getDecayedCount());
+	}
+}
@@ -0,0 +1,106 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class ColumnarTest {
+
+	private final DslJson<Object> dslJson = new DslJson<>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public int id;
+		public String name;
+		public List<Double> values;
+	}
+
+	private static Model model(int id, String name, Double... values) {
+		Model model = new Model();
+		model.id = id;
+		model.name = name;
+		model.values = values.length == 0 ? null : Arrays.asList(values);
+		return model;
+	}
+
+	private String columnar(List<Model> models) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeColumnar(Model.class, models, os);
+		return os.toString("UTF-8");
+	}
+
+	@Test
+	public void runtimeModelIsSplitIntoColumns() throws IOException {
+		String json = columnar(Arrays.asList(model(1, "a", 1.5), model(2, null)));
+		Assert.assertEquals("{\"id\":[1,2],\"name\":[\"a\",null],\"values\":[[1.5],null]}", json);
+	}
+
+	@Test
+	public void runtimeModelRoundtrip() throws IOException {
+		List<Model> models = Arrays.asList(model(1, "a", 1.5, 2.5), model(2, null), model(3, "c"));
+		byte[] bytes = columnar(models).getBytes(StandardCharsets.UTF_8);
+		List<Model> result = dslJson.deserializeColumnar(Model.class, new ByteArrayInputStream(bytes));
+		Assert.assertEquals(3, result.size());
+		for (int i = 0; i < models.size(); i++) {
+			Assert.assertEquals(models.get(i).id, result.get(i).id);
+			Assert.assertEquals(models.get(i).name, result.get(i).name);
+			Assert.assertEquals(models.get(i).values, result.get(i).values);
+		}
+	}
+
+	@Test
+	public void missingColumnsUseDefaults() throws IOException {
+		byte[] bytes = "{\"name\":[\"x\",\"y\"],\"other\":[1,{}]}".getBytes(StandardCharsets.UTF_8);
+		List<Model> result = dslJson.deserializeColumnar(Model.class, bytes, bytes.length);
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals(0, result.get(1).id);
+		Assert.assertEquals("y", result.get(1).name);
+	}
+
+	@Test
+	public void differentColumnSizes() throws IOException {
+		byte[] bytes = "{\"id\":[1,2],\"name\":[\"x\"]}".getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeColumnar(Model.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Column sizes are different"));
+		}
+	}
+
+	@Test
+	public void emptyList() throws IOException {
+		Assert.assertEquals("{}", columnar(Collections.<Model>emptyList()));
+		byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(0, dslJson.deserializeColumnar(Model.class, bytes, bytes.length).size());
+	}
+
+	@Test
+	public void nonObjectFormatIsRejected() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		try {
+			dslJson.serializeColumnar(String.class, Arrays.asList("a", "b"), os);
+			Assert.fail("Expecting exception");
+		} catch (SerializationException ex) {
+			Assert.assertTrue(ex.getMessage().contains("object format"));
+		}
+	}
+
+	@Test
+	public void selectedPerType() throws IOException {
+		DslJson<Object> json = new DslJson<>(Settings.withRuntime().includeServiceLoader().columnar(Model.class));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(Arrays.asList(model(1, "a"), model(2, "b")), os);
+		Assert.assertEquals("{\"id\":[1,2],\"name\":[\"a\",\"b\"],\"values\":[null,null]}", os.toString("UTF-8"));
+		List<Model> result = json.deserializeList(Model.class, os.toByteArray(), os.size());
+		Assert.assertEquals("b", result.get(1).name);
+		os.reset();
+		json.serialize(Arrays.asList(model(1, "a"), null), os);
+		Assert.assertTrue(os.toString("UTF-8").startsWith("[{"));
+	}
+}
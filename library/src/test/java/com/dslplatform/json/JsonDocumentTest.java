@@ -0,0 +1,82 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Generics;
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class JsonDocumentTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Item {
+		public int id;
+		public String name;
+	}
+
+	private static final byte[] INPUT = ("{\"skip\":{\"a\":[1,2,{\"b\":\"}\"}]},\"user\":{\"name\":\"abc\",\"age\":42}," +
+			"\"items\":[{\"id\":1,\"name\":\"x\"},{\"id\":2,\"name\":\"y\"}],\"nothing\":null,\"empty\":{},\"list\":[]}").getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void navigateToNestedValues() throws IOException {
+		JsonDocument<Object> doc = dslJson.newDocument().process(INPUT, INPUT.length);
+		Assert.assertEquals("abc", doc.get("user").get("name").as(String.class));
+		Assert.assertEquals(42, (int) doc.root().get("user").get("age").as(int.class));
+		Assert.assertEquals(2L, (long) doc.root().get("items").at(1).get("id").as(long.class));
+		Assert.assertEquals("}", doc.root().get("skip").get("a").at(2).get("b").as(String.class));
+	}
+
+	@Test
+	public void decodeThroughRegisteredReaders() throws IOException {
+		JsonDocument<Object> doc = dslJson.newDocument().process(INPUT, INPUT.length);
+		Item item = doc.get("items").at(0).as(Item.class);
+		Assert.assertEquals(1, item.id);
+		Assert.assertEquals("x", item.name);
+		List<Item> items = (List<Item>) doc.root().get("items").as(Generics.makeParameterizedType(List.class, Item.class));
+		Assert.assertEquals(2, items.size());
+		Assert.assertEquals("y", items.get(1).name);
+	}
+
+	@Test
+	public void missingValues() throws IOException {
+		JsonDocument<Object> doc = dslJson.newDocument().process(INPUT, INPUT.length);
+		Assert.assertFalse(doc.get("unknown").exists());
+		Assert.assertFalse(doc.get("name").exists());
+		Assert.assertNull(doc.get("other").as(String.class));
+		Assert.assertFalse(doc.root().get("items").at(2).exists());
+		Assert.assertFalse(doc.root().get("user").at(0).exists());
+		Assert.assertFalse(doc.root().get("items").get("id").exists());
+		Assert.assertFalse(doc.root().get("empty").get("a").exists());
+		Assert.assertFalse(doc.root().get("list").at(0).exists());
+		Assert.assertTrue(doc.root().get("nothing").exists());
+		Assert.assertTrue(doc.isNull());
+		Assert.assertNull(doc.as(String.class));
+		Assert.assertFalse(doc.root().isNull());
+	}
+
+	@Test
+	public void documentCanBeReused() throws IOException {
+		JsonDocument<Object> doc = dslJson.newDocument();
+		byte[] first = "  [1, 2, 3]".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(3, (int) doc.process(first, first.length).at(2).as(int.class));
+		byte[] second = "{\"a\" : \"b\" }".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals("b", doc.process(second, second.length).get("a").as(String.class));
+	}
+
+	@Test
+	public void invalidJsonOnNavigationPath() throws IOException {
+		byte[] input = "{\"a\":\"x\" \"b\":2}".getBytes(StandardCharsets.UTF_8);
+		JsonDocument<Object> doc = dslJson.newDocument().process(input, input.length);
+		Assert.assertEquals("x", doc.get("a").as(String.class));
+		try {
+			doc.root().get("b");
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Expecting '}' or ','"));
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonFlowTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public int id;
+	}
+
+	private static class Collect<T> implements JsonFlow.Subscriber<T> {
+		final List<T> items = new ArrayList<T>();
+		JsonFlow.Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		@Override
+		public void onSubscribe(JsonFlow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+
+	private static class CountingStream extends ByteArrayInputStream {
+		int consumed;
+
+		CountingStream(byte[] bytes) {
+			super(bytes);
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			int read = super.read(b, off, len);
+			if (read > 0) consumed += read;
+			return read;
+		}
+	}
+
+	private static byte[] array(int count) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"id\":").append(i).append('}');
+		}
+		sb.append(']');
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void publisherRespectsDemand() throws IOException {
+		CountingStream stream = new CountingStream(array(10000));
+		Collect<Model> subscriber = new Collect<Model>();
+		dslJson.publishArray(Model.class, stream).subscribe(subscriber);
+		Assert.assertEquals(0, subscriber.items.size());
+		Assert.assertEquals(0, stream.consumed);
+		subscriber.subscription.request(3);
+		Assert.assertEquals(3, subscriber.items.size());
+		Assert.assertTrue(stream.consumed < 10000);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		Assert.assertEquals(10000, subscriber.items.size());
+		Assert.assertEquals(9999, subscriber.items.get(9999).id);
+		Assert.assertTrue(subscriber.completed);
+		Assert.assertNull(subscriber.error);
+	}
+
+	@Test
+	public void publisherReportsErrors() {
+		byte[] input = "[{\"id\":1},{\"id\":x}]".getBytes(StandardCharsets.UTF_8);
+		Collect<Model> subscriber = new Collect<Model>();
+		JsonFlow.Publisher<Model> publisher = dslJson.publishArray(Model.class, new ByteArrayInputStream(input));
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(10);
+		Assert.assertEquals(1, subscriber.items.size());
+		Assert.assertTrue(subscriber.error instanceof ParsingException);
+		Assert.assertFalse(subscriber.completed);
+		Collect<Model> second = new Collect<Model>();
+		publisher.subscribe(second);
+		Assert.assertTrue(second.error instanceof IllegalStateException);
+	}
+
+	private static class ChunkSource implements JsonFlow.Subscription {
+		final byte[] input;
+		final int chunk;
+		final JsonFlow.Subscriber<ByteBuffer> target;
+		int position;
+		int requested;
+		boolean cancelled;
+
+		ChunkSource(byte[] input, int chunk, JsonFlow.Subscriber<ByteBuffer> target) {
+			this.input = input;
+			this.chunk = chunk;
+			this.target = target;
+		}
+
+		@Override
+		public void request(long n) {
+			requested += n;
+			for (int i = 0; i < n && position < input.length && !cancelled; i++) {
+				int len = Math.min(chunk, input.length - position);
+				ByteBuffer buffer = ByteBuffer.wrap(input, position, len);
+				position += len;
+				target.onNext(buffer);
+			}
+			if (position == input.length && !cancelled) {
+				target.onComplete();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+
+	@Test
+	public void processorRequestsChunksOnDemand() throws IOException {
+		byte[] input = array(1000);
+		JsonFlow.Processor<ByteBuffer, Model> processor = dslJson.arrayProcessor(Model.class);
+		ChunkSource source = new ChunkSource(input, 100, processor);
+		processor.onSubscribe(source);
+		Collect<Model> subscriber = new Collect<Model>();
+		processor.subscribe(subscriber);
+		Assert.assertEquals(0, source.requested);
+		subscriber.subscription.request(5);
+		Assert.assertEquals(5, subscriber.items.size());
+		Assert.assertTrue(source.requested < 3);
+		subscriber.subscription.request(2000);
+		Assert.assertEquals(1000, subscriber.items.size());
+		Assert.assertEquals(999, subscriber.items.get(999).id);
+		Assert.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void subscriberWritesArray() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		JsonFlow.ArraySubscriber<Model> writer = dslJson.arraySubscriber(Model.class, os, 16);
+		JsonFlow.Publisher<Model> publisher = dslJson.publishArray(Model.class, new ByteArrayInputStream(array(100)));
+		publisher.subscribe(writer);
+		Assert.assertTrue(writer.isCompleted());
+		Assert.assertNull(writer.getError());
+		Assert.assertArrayEquals(array(100), os.toByteArray());
+	}
+
+	@Test
+	public void cancelStopsPublishing() {
+		Collect<Model> subscriber = new Collect<Model>() {
+			@Override
+			public void onNext(Model item) {
+				super.onNext(item);
+				if (items.size() == 2) subscription.cancel();
+			}
+		};
+		dslJson.publishArray(Model.class, new ByteArrayInputStream(array(100))).subscribe(subscriber);
+		subscriber.subscription.request(50);
+		Assert.assertEquals(2, subscriber.items.size());
+		Assert.assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void invalidRequestIsSignalledOnce() {
+		Collect<Model> subscriber = new Collect<Model>() {
+			int errors;
+
+			@Override
+			public void onNext(Model item) {
+				super.onNext(item);
+				if (items.size() == 2) subscription.request(0);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				Assert.assertEquals(0, errors++);
+				Assert.assertFalse(completed);
+				super.onError(throwable);
+			}
+		};
+		dslJson.publishArray(Model.class, new ByteArrayInputStream(array(100))).subscribe(subscriber);
+		subscriber.subscription.request(50);
+		Assert.assertEquals(2, subscriber.items.size());
+		Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+		subscriber.subscription.request(-1);
+		Assert.assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void invalidRequestAfterCompletion() {
+		Collect<Model> subscriber = new Collect<Model>();
+		dslJson.publishArray(Model.class, new ByteArrayInputStream(array(3))).subscribe(subscriber);
+		subscriber.subscription.request(10);
+		Assert.assertTrue(subscriber.completed);
+		subscriber.subscription.request(0);
+		Assert.assertNull(subscriber.error);
+	}
+
+	@Test
+	public void processorRejectsSecondSubscriber() throws IOException {
+		JsonFlow.Processor<ByteBuffer, Model> processor = dslJson.arrayProcessor(Model.class);
+		processor.subscribe(new Collect<Model>());
+		Collect<Model> second = new Collect<Model>() {
+			@Override
+			public void onError(Throwable throwable) {
+				Assert.assertNotNull(subscription);
+				super.onError(throwable);
+			}
+		};
+		processor.subscribe(second);
+		Assert.assertTrue(second.error instanceof IllegalStateException);
+	}
+}
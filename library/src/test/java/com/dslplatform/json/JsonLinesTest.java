@@ -0,0 +1,119 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class JsonLinesTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Record {
+		public int id;
+		public String name;
+	}
+
+	private static InputStream input(String value) {
+		return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static <T> List<T> toList(Iterator<T> iterator) {
+		List<T> result = new ArrayList<T>();
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+		return result;
+	}
+
+	@Test
+	public void readLines() throws IOException {
+		List<Record> records = toList(dslJson.iterateOverLines(Record.class, input("{\"id\":1,\"name\":\"a\"}\r\n\n  \n{\"id\":2}\nnull\n{\"id\":3,\"name\":\"c\"}")));
+		Assert.assertEquals(4, records.size());
+		Assert.assertEquals(1, records.get(0).id);
+		Assert.assertEquals("a", records.get(0).name);
+		Assert.assertEquals(2, records.get(1).id);
+		Assert.assertNull(records.get(2));
+		Assert.assertEquals("c", records.get(3).name);
+	}
+
+	@Test
+	public void linesLargerThanBuffer() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < 200000; i++) {
+			name.append((char) ('a' + i % 26));
+		}
+		for (int i = 0; i < 20; i++) {
+			sb.append("{\"id\":").append(i).append(",\"name\":\"").append(name, 0, i * 10000).append("\"}\n");
+		}
+		List<Record> records = toList(dslJson.iterateOverLines(Record.class, input(sb.toString())));
+		Assert.assertEquals(20, records.size());
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals(i, records.get(i).id);
+			Assert.assertEquals(i * 10000, records.get(i).name.length());
+		}
+	}
+
+	@Test
+	public void otherDeserializationBetweenLines() throws IOException {
+		Iterator<Record> iterator = dslJson.iterateOverLines(Record.class, input("{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\"}\n{\"id\":3,\"name\":\"c\"}"));
+		Assert.assertEquals("a", iterator.next().name);
+		Record other = dslJson.deserialize(Record.class, input("{\"id\":100,\"name\":\"overwritten\"}"));
+		Assert.assertEquals(100, other.id);
+		Assert.assertEquals("b", iterator.next().name);
+		Assert.assertEquals("c", iterator.next().name);
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void malformedLineFailsWithLineNumber() throws IOException {
+		Iterator<Record> iterator = dslJson.iterateOverLines(Record.class, input("{\"id\":1}\n{\"id\":2\n{\"id\":3}\n"));
+		Assert.assertEquals(1, iterator.next().id);
+		try {
+			iterator.next();
+			Assert.fail("Expecting exception");
+		} catch (SerializationException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Invalid JSON record at line 2."));
+		}
+	}
+
+	@Test
+	public void resyncAfterMalformedLines() throws IOException {
+		List<Record> records = toList(dslJson.iterateOverLines(Record.class, input("{\"id\":1}\n{\"id\":2\n{\"id\":3} {\"id\":4}\n{\"id\":\"x\"}\n{\"id\":5}"), true));
+		Assert.assertEquals(2, records.size());
+		Assert.assertEquals(1, records.get(0).id);
+		Assert.assertEquals(5, records.get(1).id);
+	}
+
+	@Test
+	public void writeAndReadBack() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		JsonLinesWriter<Record> writer = dslJson.newLinesWriter(Record.class, os, 100);
+		for (int i = 0; i < 50; i++) {
+			Record r = new Record();
+			r.id = i;
+			r.name = "name" + i;
+			writer.write(i == 10 ? null : r);
+			if (i == 20) {
+				Assert.assertTrue(os.size() >= 100);
+			}
+		}
+		writer.flush();
+		String result = os.toString("UTF-8");
+		Assert.assertTrue(result.startsWith("{\"id\":0,\"name\":\"name0\"}\n"));
+		Assert.assertTrue(result.endsWith("\n"));
+		List<Record> records = toList(dslJson.iterateOverLines(Record.class, new ByteArrayInputStream(os.toByteArray())));
+		Assert.assertEquals(50, records.size());
+		Assert.assertNull(records.get(10));
+		Assert.assertEquals("name49", records.get(49).name);
+	}
+}
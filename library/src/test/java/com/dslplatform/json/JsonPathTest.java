@@ -0,0 +1,93 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JsonPathTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	private static final byte[] ORDER = ("{\"id\":5,\"order\":{\"customer\":{\"name\":\"abc\",\"tags\":[\"x\"]}," +
+			"\"items\":[{\"sku\":\"A-1\",\"qty\":1},{\"qty\":2,\"sku\":\"B-2\"},{\"qty\":3},{\"sku\":null}]," +
+			"\"a/b\":{\"c~d\":true},\"0\":\"zero\"}}").getBytes(StandardCharsets.UTF_8);
+
+	private JsonReader<Object> reader(byte[] input) {
+		return dslJson.newReader(input);
+	}
+
+	@Test
+	public void extractWithWildcard() throws IOException {
+		List<String> skus = dslJson.compilePath("/order/items/*/sku").extract(reader(ORDER), String.class);
+		Assert.assertEquals(Arrays.asList("A-1", "B-2", null), skus);
+	}
+
+	@Test
+	public void extractWithIndexes() throws IOException {
+		Assert.assertEquals(Collections.singletonList(2), dslJson.compilePath("/order/items/1/qty").extract(reader(ORDER), int.class));
+		Assert.assertEquals("x", dslJson.compilePath("/order/customer/tags/0").extractFirst(reader(ORDER), String.class));
+		Assert.assertEquals("zero", dslJson.compilePath("/order/0").extractFirst(reader(ORDER), String.class));
+		Assert.assertNull(dslJson.compilePath("/order/items/4/qty").extractFirst(reader(ORDER), int.class));
+	}
+
+	@Test
+	public void escapedPointerSegments() throws IOException {
+		Assert.assertEquals(Boolean.TRUE, dslJson.compilePath("/order/a~1b/c~0d").extractFirst(reader(ORDER), Boolean.class));
+	}
+
+	@Test
+	public void wholeDocumentAndWildcardOnObject() throws IOException {
+		byte[] input = "{\"a\":{\"v\":1},\"b\":{\"v\":2},\"c\":3}".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(Arrays.asList(1L, 2L), dslJson.compilePath("/*/v").extract(reader(input), long.class));
+		byte[] number = " 42 ".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(42, (int) dslJson.compilePath("").extractFirst(reader(number), int.class));
+	}
+
+	@Test
+	public void firstMatchStopsProcessing() throws IOException {
+		byte[] input = "{\"id\":5,\"broken\":[".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(5, (int) dslJson.compilePath("/id").extractFirst(reader(input), int.class));
+		try {
+			dslJson.compilePath("/id").extract(reader(input), int.class);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ignore) {
+		}
+	}
+
+	@Test
+	public void extractFromStream() throws IOException {
+		StringBuilder sb = new StringBuilder("{\"items\":[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"name\":\"item").append(i).append("\",\"value\":").append(i).append('}');
+		}
+		sb.append("],\"total\":1000}");
+		JsonReader<Object> reader = dslJson.newReader(new byte[64]).process(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		List<Integer> values = dslJson.compilePath("/items/*/value").extract(reader, int.class);
+		Assert.assertEquals(1000, values.size());
+		Assert.assertEquals(999, (int) values.get(999));
+		reader.process(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		Assert.assertEquals(1000, (int) dslJson.compilePath("/total").extractFirst(reader, int.class));
+	}
+
+	@Test
+	public void invalidPointer() {
+		try {
+			dslJson.compilePath("order");
+			Assert.fail("Expecting exception");
+		} catch (IllegalArgumentException ignore) {
+		}
+		try {
+			dslJson.compilePath("/a~2");
+			Assert.fail("Expecting exception");
+		} catch (IllegalArgumentException ignore) {
+		}
+	}
+}
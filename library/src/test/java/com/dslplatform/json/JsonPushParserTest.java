@@ -0,0 +1,169 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JsonPushParserTest {
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public int id;
+		public String text;
+		public List<Integer> values;
+	}
+
+	private static class Collect<T> implements JsonPushParser.Listener<T> {
+		final List<T> records = new ArrayList<T>();
+
+		@Override
+		public void onRecord(T record) {
+			records.add(record);
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void arrayElementsFedByteByByte() throws IOException {
+		byte[] input = bytes(" [ {\"id\":1,\"text\":\"]}\\\"{[\",\"values\":[1,2]}, null,\n{\"id\":2,\"text\":\"\\\\\",\"values\":[]} ] ");
+		Collect<Model> listener = new Collect<Model>();
+		JsonPushParser<Model> parser = dslJson.newPushParser(Model.class, listener);
+		int emitted = 0;
+		for (int i = 0; i < input.length; i++) {
+			emitted += parser.feed(input, i, 1);
+			if (i > 0 && i < input.length - 2) {
+				Assert.assertFalse(parser.isIdle());
+			}
+		}
+		Assert.assertTrue(parser.isIdle());
+		Assert.assertEquals(0, parser.endOfInput());
+		Assert.assertEquals(3, emitted);
+		Assert.assertEquals(3, listener.records.size());
+		Assert.assertEquals("]}\"{[", listener.records.get(0).text);
+		Assert.assertNull(listener.records.get(1));
+		Assert.assertEquals(2, listener.records.get(2).id);
+		Assert.assertEquals("\\", listener.records.get(2).text);
+	}
+
+	@Test
+	public void recordsAreEmittedAsSoonAsTheyComplete() throws IOException {
+		Collect<Model> listener = new Collect<Model>();
+		JsonPushParser<Model> parser = dslJson.newPushParser(Model.class, listener);
+		Assert.assertEquals(0, parser.feed(bytes("[{\"id\":1}"), 0, 8));
+		Assert.assertEquals(1, parser.feed(ByteBuffer.wrap(bytes("}"))));
+		Assert.assertEquals(1, listener.records.size());
+		Assert.assertEquals(0, parser.feed(bytes(",{\"id\":"), 0, 7));
+		Assert.assertEquals(1, parser.feed(ByteBuffer.wrap(bytes("2}"))));
+		Assert.assertFalse(parser.isIdle());
+		try {
+			parser.endOfInput();
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ignore) {
+		}
+	}
+
+	@Test
+	public void topLevelValues() throws IOException {
+		Collect<Integer> listener = new Collect<Integer>();
+		JsonPushParser<Integer> parser = dslJson.newPushParser(Integer.class, listener);
+		byte[] input = bytes("1 22\n[333, 4444 ,null] 55");
+		parser.feed(input, 0, 10);
+		parser.feed(input, 10, input.length - 10);
+		Assert.assertEquals(1, parser.endOfInput());
+		Assert.assertEquals(6, listener.records.size());
+		Assert.assertEquals(Integer.valueOf(4444), listener.records.get(3));
+		Assert.assertNull(listener.records.get(4));
+		Assert.assertEquals(Integer.valueOf(55), listener.records.get(5));
+	}
+
+	@Test
+	public void largeInputInChunks() throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 10000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"id\":").append(i).append(",\"text\":\"abc").append(i).append("\",\"values\":[").append(i).append("]}");
+		}
+		sb.append(']');
+		byte[] input = bytes(sb.toString());
+		Collect<Model> listener = new Collect<Model>();
+		JsonPushParser<Model> parser = dslJson.newPushParser(Model.class, listener);
+		for (int i = 0; i < input.length; i += 1000) {
+			parser.feed(input, i, Math.min(1000, input.length - i));
+		}
+		parser.endOfInput();
+		Assert.assertEquals(10000, listener.records.size());
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertEquals(i, listener.records.get(i).id);
+			Assert.assertEquals("abc" + i, listener.records.get(i).text);
+		}
+	}
+
+	@Test
+	public void invalidInput() throws IOException {
+		JsonPushParser<Model> parser = dslJson.newPushParser(Model.class, new Collect<Model>());
+		byte[] input = bytes("[{\"id\":1} {\"id\":2}]");
+		try {
+			parser.feed(input, 0, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Expecting ',' or ']' after array element at position: 10"));
+		}
+		parser = dslJson.newPushParser(Model.class, new Collect<Model>());
+		parser.feed(bytes("[{\"id\":1},"), 0, 10);
+		try {
+			parser.feed(bytes("{\"id\":x}]"), 0, 9);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("at position: 16"));
+		}
+	}
+
+	@Test
+	public void recordsAreParsedWithPooledReaders() throws IOException {
+		final AtomicInteger taken = new AtomicInteger();
+		final AtomicInteger outstanding = new AtomicInteger();
+		final DslJson<Object> pooled = new DslJson<Object>(Settings.withRuntime().includeServiceLoader().bufferPool(new DslJson.BoundedBufferPool(1) {
+			@Override
+			public DslJson.BufferPool<JsonReader> readers(final DslJson<?> dslJson) {
+				final DslJson.BufferPool<JsonReader> pool = super.readers(dslJson);
+				return new DslJson.BufferPool<JsonReader>() {
+					@Override
+					public JsonReader take() {
+						taken.incrementAndGet();
+						outstanding.incrementAndGet();
+						return pool.take();
+					}
+
+					@Override
+					public void release(JsonReader instance) {
+						outstanding.decrementAndGet();
+						pool.release(instance);
+					}
+				};
+			}
+		}));
+		Collect<Model> listener = new Collect<Model>();
+		JsonPushParser<Model> parser = pooled.newPushParser(Model.class, listener);
+		Assert.assertEquals(2, parser.feed(bytes("[{\"id\":1},{\"id\":2}"), 0, 18));
+		Assert.assertEquals(2, taken.get());
+		Assert.assertEquals(0, outstanding.get());
+		try {
+			parser.feed(bytes(",{\"id\":x}]"), 0, 10);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ignore) {
+		}
+		Assert.assertEquals(0, outstanding.get());
+		Assert.assertEquals(2, listener.records.get(1).id);
+	}
+}
@@ -7,6 +7,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.nio.charset.Charset;
 import java.util.*;
 
@@ -676,6 +678,94 @@ public class NumberConverterTest {
 		}
 	}
 
+	@Test
+	public void exactDecimalConversion() throws IOException {
+		final JsonReader<Object> jr = dslJson.newReader();
+		final JsonReader<Object> jsr = dslJson.newReader(new ByteArrayInputStream(new byte[0]), new byte[64]);
+		final List<String> inputs = new ArrayList<String>(Arrays.asList(
+				"9007199254740993", "9007199254740995", "16777217", "16777219", "1e23",
+				"2.2250738585072011e-308", "2.2250738585072012e-308", "4.9e-324", "2.4703282292062327e-324",
+				"2.4703282292062328e-324", "1.7976931348623157e308", "1.7976931348623159e308", "8.988465674311579e307",
+				"7.038531e-26", "3.4028235e38", "3.4028236e38", "1.4e-45", "7e-46", "-0.0e5", "1e-400", "1e400",
+				"9999999999999999999", "0.000000000000000000000000000000000123456789012345678"));
+		final Random rnd = new Random(0);
+		for (int i = 0; i < 100000; i++) {
+			inputs.add(Double.toString(Double.longBitsToDouble(rnd.nextLong() & Long.MAX_VALUE)).replace("E", "e"));
+			inputs.add(Float.toString(Float.intBitsToFloat(rnd.nextInt() & Integer.MAX_VALUE)).replace("E", "e"));
+			inputs.add(Long.toString(rnd.nextLong() >>> rnd.nextInt(64)) + "e" + (rnd.nextInt(700) - 350));
+		}
+		for (String input : inputs) {
+			if (input.equals("NaN") || input.equals("Infinity")) continue;
+			final byte[] bytes = input.getBytes("UTF-8");
+			jr.process(bytes, bytes.length);
+			jr.read();
+			Assert.assertEquals(input, Double.doubleToLongBits(Double.parseDouble(input)), Double.doubleToLongBits(NumberConverter.deserializeDouble(jr)));
+			jr.process(bytes, bytes.length);
+			jr.read();
+			Assert.assertEquals(input, Float.floatToIntBits(Float.parseFloat(input)), Float.floatToIntBits(NumberConverter.deserializeFloat(jr)));
+			jsr.process(new ByteArrayInputStream(bytes));
+			jsr.read();
+			Assert.assertEquals(input, Double.doubleToLongBits(Double.parseDouble(input)), Double.doubleToLongBits(NumberConverter.deserializeDouble(jsr)));
+		}
+	}
+
+	private static void assertShortest(String output, BigDecimal exact, boolean isFloat) {
+		final BigDecimal decimal = new BigDecimal(output);
+		final int digits = decimal.stripTrailingZeros().precision();
+		if (digits == 1) return;
+		final MathContext shorter = new MathContext(digits - 1, RoundingMode.FLOOR);
+		final BigDecimal down = exact.round(shorter);
+		final BigDecimal up = down.add(BigDecimal.ONE.scaleByPowerOfTen(down.precision() - down.scale() - digits + 1));
+		for (BigDecimal candidate : new BigDecimal[]{down, up}) {
+			final String text = candidate.toString();
+			if (isFloat) {
+				Assert.assertTrue(output + " vs " + text, Float.parseFloat(output) != Float.parseFloat(text));
+			} else {
+				Assert.assertTrue(output + " vs " + text, Double.parseDouble(output) != Double.parseDouble(text));
+			}
+		}
+	}
+
+	@Test
+	public void shortestSerialization() throws IOException {
+		final JsonWriter sw = dslJson.newWriter();
+		final Random rnd = new Random(0);
+		for (int i = 0; i < 100000; i++) {
+			final double d = i % 2 == 0
+					? Double.longBitsToDouble(rnd.nextLong() & Long.MAX_VALUE)
+					: rnd.nextDouble() * Math.pow(10, rnd.nextInt(40) - 20);
+			final float f = Float.intBitsToFloat(rnd.nextInt() & Integer.MAX_VALUE);
+			if (Double.isNaN(d) || Double.isInfinite(d) || Float.isNaN(f) || Float.isInfinite(f)) continue;
+			sw.reset();
+			NumberConverter.serialize(d, sw);
+			final String ds = sw.toString();
+			Assert.assertEquals(ds, d, Double.parseDouble(ds), 0);
+			//smallest subnormals are written with two digits, same as in JDK
+			if (d > 3 * Double.MIN_VALUE) assertShortest(ds, new BigDecimal(d), false);
+			sw.reset();
+			NumberConverter.serialize(f, sw);
+			final String fs = sw.toString();
+			Assert.assertEquals(fs, f, Float.parseFloat(fs), 0);
+			if (f > 8 * Float.MIN_VALUE) assertShortest(fs, new BigDecimal(f), true);
+		}
+		final String[] expected = {"1.0", "0.1", "0.3", "1E+22", "1E+23", "0.00001", "0.000001", "-1.5E-7", "123456789012345680000.0",
+				"1.7976931348623157E+308", "4.9E-324", "0.0", "-2.5"};
+		final double[] doubles = {1, 0.1, 0.3, 1e22, 1e23, 1e-5, 1e-6, -1.5e-7, 123456789012345678901.0,
+				Double.MAX_VALUE, Double.MIN_VALUE, 0, -2.5};
+		for (int i = 0; i < doubles.length; i++) {
+			sw.reset();
+			NumberConverter.serialize(doubles[i], sw);
+			Assert.assertEquals(expected[i], sw.toString());
+		}
+		final String[] expectedFloats = {"1.0", "0.1", "-0.0", "10000000000.0", "3.4028235E+38", "1.4E-45", "16777216.0", "1E-7"};
+		final float[] floats = {1f, 0.1f, -0f, 1e10f, Float.MAX_VALUE, Float.MIN_VALUE, 16777216f, 1e-7f};
+		for (int i = 0; i < floats.length; i++) {
+			sw.reset();
+			NumberConverter.serialize(floats[i], sw);
+			Assert.assertEquals(expectedFloats[i], sw.toString());
+		}
+	}
+
 	private void prepareJson(JsonReader<Object> reader, byte[] input) throws IOException {
 		reader.process(input, input.length);
 		reader.read();
@@ -0,0 +1,260 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.runtime.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelListTest {
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	private final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().includeServiceLoader());
+
+	public static class Model {
+		public int id;
+		public String text;
+		public List<Model> children;
+	}
+
+	private static byte[] largeInput(int count) {
+		StringBuilder sb = new StringBuilder(" [");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) sb.append(",\n");
+			if (i % 100 == 7) {
+				sb.append("null");
+				continue;
+			}
+			sb.append("{\"id\":").append(i).append(",\"text\":\"],[{\\\"").append(i).append("\\\\\",\"children\":[");
+			if (i % 3 == 0) sb.append("{\"id\":-1,\"text\":\"}\"}");
+			sb.append("]}");
+		}
+		sb.append("] ");
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void sameResultAsSequential() throws IOException {
+		byte[] input = largeInput(20000);
+		List<Model> parallel = dslJson.deserializeList(Model.class, input, input.length, pool);
+		List<Model> sequential = dslJson.deserializeList(Model.class, input, input.length);
+		Assert.assertEquals(sequential.size(), parallel.size());
+		Assert.assertEquals(20000, parallel.size());
+		for (int i = 0; i < parallel.size(); i++) {
+			Model p = parallel.get(i);
+			if (i % 100 == 7) {
+				Assert.assertNull(p);
+				continue;
+			}
+			Assert.assertEquals(i, p.id);
+			Assert.assertEquals("],[{\"" + i + "\\", p.text);
+			Assert.assertEquals(i % 3 == 0 ? 1 : 0, p.children.size());
+		}
+	}
+
+	@Test
+	public void primitiveElements() throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 100000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(i);
+		}
+		sb.append(']');
+		byte[] input = sb.toString().getBytes(StandardCharsets.UTF_8);
+		List<Integer> result = dslJson.deserializeList(int.class, input, input.length, pool);
+		Assert.assertEquals(100000, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			Assert.assertEquals(i, result.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void errorFromChunkIsPropagated() throws IOException {
+		byte[] input = largeInput(20000);
+		String json = new String(input, StandardCharsets.UTF_8).replace("{\"id\":15000,", "{\"id\":1x5000,");
+		input = json.getBytes(StandardCharsets.UTF_8);
+		String expected = null;
+		try {
+			dslJson.deserializeList(Model.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			expected = ex.getMessage();
+		}
+		try {
+			dslJson.deserializeList(Model.class, input, input.length, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertEquals(expected, ex.getMessage());
+		}
+	}
+
+	@Test
+	public void smallAndInvalidInputsAreProcessedSequentially() throws IOException {
+		byte[] small = "[{\"id\":1},null]".getBytes(StandardCharsets.UTF_8);
+		List<Model> result = dslJson.deserializeList(Model.class, small, small.length, pool);
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals(1, result.get(0).id);
+		byte[] input = largeInput(20000);
+		byte[] unclosed = new String(input, StandardCharsets.UTF_8).trim().replaceAll("]$", "").getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeList(Model.class, unclosed, unclosed.length, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ignore) {
+		}
+	}
+
+	@Test
+	public void contentAfterArrayIsRejected() throws IOException {
+		byte[] input = new String(largeInput(20000), StandardCharsets.UTF_8).concat("\n]").getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeList(Model.class, input, input.length, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertEquals("Unexpected content after JSON array at position: " + (input.length - 1), ex.getMessage());
+		}
+		byte[] small = "[1,2] x".getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeList(int.class, small, small.length, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertEquals("Unexpected content after JSON array at position: 6", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void chunksArePooled() throws IOException {
+		final AtomicInteger taken = new AtomicInteger();
+		final AtomicInteger outstanding = new AtomicInteger();
+		final DslJson<Object> pooled = new DslJson<Object>(Settings.withRuntime().includeServiceLoader().bufferPool(new DslJson.BoundedBufferPool(4) {
+			@Override
+			public DslJson.BufferPool<JsonReader> readers(final DslJson<?> dslJson) {
+				final DslJson.BufferPool<JsonReader> pool = super.readers(dslJson);
+				return new DslJson.BufferPool<JsonReader>() {
+					@Override
+					public JsonReader take() {
+						taken.incrementAndGet();
+						outstanding.incrementAndGet();
+						return pool.take();
+					}
+
+					@Override
+					public void release(JsonReader instance) {
+						outstanding.decrementAndGet();
+						pool.release(instance);
+					}
+				};
+			}
+		}));
+		byte[] input = largeInput(20000);
+		Assert.assertEquals(20000, pooled.deserializeList(Model.class, input, input.length, pool).size());
+		Assert.assertTrue(taken.get() > 1);
+		Assert.assertEquals(0, outstanding.get());
+	}
+
+	private static FileChannel file(byte[] prefix, byte[] input) throws IOException {
+		File file = File.createTempFile("parallel", ".json");
+		file.deleteOnExit();
+		try (FileOutputStream os = new FileOutputStream(file)) {
+			os.write(prefix);
+			os.write(input);
+		}
+		FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+		channel.position(prefix.length);
+		return channel;
+	}
+
+	@Test
+	public void fileChannelSameResultAsSequential() throws IOException {
+		byte[] input = largeInput(20000);
+		try (FileChannel channel = file("garbage".getBytes(StandardCharsets.UTF_8), input)) {
+			List<Model> parallel = dslJson.deserializeList(Model.class, channel, pool);
+			Assert.assertEquals(7, channel.position());
+			List<Model> sequential = dslJson.deserializeList(Model.class, input, input.length);
+			Assert.assertEquals(20000, parallel.size());
+			for (int i = 0; i < parallel.size(); i++) {
+				if (i % 100 == 7) {
+					Assert.assertNull(parallel.get(i));
+					continue;
+				}
+				Assert.assertEquals(sequential.get(i).id, parallel.get(i).id);
+				Assert.assertEquals(sequential.get(i).text, parallel.get(i).text);
+				Assert.assertEquals(sequential.get(i).children.size(), parallel.get(i).children.size());
+			}
+		}
+		byte[] small = "[{\"id\":1},null] ".getBytes(StandardCharsets.UTF_8);
+		try (FileChannel channel = file(new byte[0], small)) {
+			List<Model> result = dslJson.deserializeList(Model.class, channel, pool);
+			Assert.assertEquals(2, result.size());
+			Assert.assertEquals(1, result.get(0).id);
+		}
+	}
+
+	@Test
+	public void fileChannelErrors() throws IOException {
+		byte[] input = largeInput(20000);
+		String json = new String(input, StandardCharsets.UTF_8).replace("{\"id\":15000,", "{\"id\":1x5000,");
+		input = json.getBytes(StandardCharsets.UTF_8);
+		String expected = null;
+		try {
+			dslJson.deserializeList(Model.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			expected = ex.getMessage();
+		}
+		try (FileChannel channel = file(new byte[0], input)) {
+			dslJson.deserializeList(Model.class, channel, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith(expected.substring(0, expected.indexOf(", following"))));
+		}
+		byte[] trailing = (json + ",").getBytes(StandardCharsets.UTF_8);
+		try (FileChannel channel = file(new byte[0], trailing)) {
+			dslJson.deserializeList(Model.class, channel, pool);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertEquals("Unexpected content after JSON array at position: " + (trailing.length - 1), ex.getMessage());
+		}
+	}
+
+	public static class Marker {
+		public int value;
+	}
+
+	private static class ConverterError extends Error {
+	}
+
+	@Test
+	public void errorFromConverterIsRethrown() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		json.registerReader(Marker.class, new JsonReader.ReadObject<Marker>() {
+			@Override
+			public Marker read(JsonReader reader) throws IOException {
+				final Marker marker = new Marker();
+				marker.value = NumberConverter.deserializeInt(reader);
+				if (marker.value == 70000) throw new ConverterError();
+				return marker;
+			}
+		});
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 100000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(i);
+		}
+		sb.append(']');
+		byte[] input = sb.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			json.deserializeList(Marker.class, input, input.length, pool);
+			Assert.fail("Expecting error");
+		} catch (ConverterError ignore) {
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 
 public class ReaderTest {
@@ -413,4 +414,96 @@ public class ReaderTest {
 			Assert.assertEquals("Unexpected end of JSON input", ex.getMessage());
 		}
 	}
+
+	@Test
+	public void readRawKeepsExactInput() throws IOException {
+		final String value = "{ \"a\" : [1, -2.5e+3, true, null, \"x\\\"}\"], \"b\":{}, \"c\":[ ] }";
+		final byte[] buf = ("[" + value + ",42 ,\"end\"]").getBytes("UTF-8");
+		readRawKeepsExactInput(dslJson.newReader(buf), value);
+		readRawKeepsExactInput(dslJson.newReader(new ByteArrayInputStream(buf), new byte[64]), value);
+		final StringBuilder large = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) large.append(',');
+			large.append("{\"id\":").append(i).append('}');
+		}
+		large.append(']');
+		final byte[] bytes = large.toString().getBytes("UTF-8");
+		final JsonReader<Object> reader = dslJson.newReader(new ByteArrayInputStream(bytes), new byte[64]);
+		reader.getNextToken();
+		Assert.assertArrayEquals(bytes, reader.readRaw());
+	}
+
+	private void readRawKeepsExactInput(JsonReader<Object> jr, String value) throws IOException {
+		jr.startArray();
+		jr.getNextToken();
+		Assert.assertEquals(value, new String(jr.readRaw(), "UTF-8"));
+		Assert.assertEquals(',', jr.getNextToken());
+		jr.getNextToken();
+		Assert.assertEquals("42", new String(jr.readRaw(), "UTF-8"));
+		Assert.assertEquals(',', jr.getNextToken());
+		jr.getNextToken();
+		Assert.assertEquals("\"end\"", new String(jr.readRaw(), "UTF-8"));
+		Assert.assertEquals(']', jr.getNextToken());
+	}
+
+	@Test
+	public void readRawValidatesLikeSkip() throws IOException {
+		final byte[] buf = "[nope,1]".getBytes("UTF-8");
+		final JsonReader<Object> jr = dslJson.newReader(buf);
+		jr.startArray();
+		jr.getNextToken();
+		try {
+			jr.readRaw();
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Invalid null constant"));
+		}
+	}
+
+	@Test
+	public void readRawNumbers() throws IOException {
+		final byte[] buf = "[ 12.5e3  , -1\n]".getBytes("UTF-8");
+		for (JsonReader<Object> jr : Arrays.asList(dslJson.newReader(buf), dslJson.newReader(new ByteArrayInputStream(buf), new byte[64]))) {
+			jr.startArray();
+			jr.getNextToken();
+			Assert.assertEquals("12.5e3", new String(jr.readRaw(), "UTF-8"));
+			Assert.assertEquals(',', jr.getNextToken());
+			jr.getNextToken();
+			Assert.assertEquals("-1", new String(jr.readRaw(), "UTF-8"));
+			Assert.assertEquals(']', jr.getNextToken());
+		}
+		final JsonReader<Object> invalid = dslJson.newReader("[1 2]".getBytes("UTF-8"));
+		invalid.startArray();
+		invalid.getNextToken();
+		try {
+			invalid.readRaw();
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting separator after number"));
+		}
+		final byte[] single = "123".getBytes("UTF-8");
+		final JsonReader<Object> jr = dslJson.newReader(single);
+		jr.getNextToken();
+		Assert.assertEquals("123", new String(jr.readRaw(), "UTF-8"));
+	}
+
+	@Test
+	public void readRawKeepsNonAsciiAfterScalar() throws IOException {
+		final byte[] buf = "[12\u00e9,1]".getBytes("UTF-8");
+		for (JsonReader<Object> jr : Arrays.asList(dslJson.newReader(buf), dslJson.newReader(new ByteArrayInputStream(buf), new byte[64]))) {
+			jr.startArray();
+			jr.getNextToken();
+			Assert.assertEquals("12\u00e9", new String(jr.readRaw(), "UTF-8"));
+			Assert.assertEquals(',', jr.getNextToken());
+		}
+		final JsonReader<Object> jr = dslJson.newReader("[1 \u00e9]".getBytes("UTF-8"));
+		jr.startArray();
+		jr.getNextToken();
+		try {
+			jr.readRaw();
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting separator after number"));
+		}
+	}
 }
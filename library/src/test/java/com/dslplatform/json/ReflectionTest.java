@@ -939,4 +939,273 @@ public class ReflectionTest {
 		Assert.assertEquals("abc", deser.getName());
 		Assert.assertEquals(true, deser.active);
 	}
+
+	public static class OrderedModel {
+		public int a;
+		public String b;
+		public long c;
+		public boolean d;
+	}
+
+	private static OrderedModel deserializeOrdered(DslJson<Object> dslJson, String input) throws IOException {
+		byte[] bytes = input.getBytes("UTF-8");
+		return dslJson.deserialize(OrderedModel.class, bytes, bytes.length);
+	}
+
+	@Test
+	public void learnedPropertyOrder() throws IOException {
+		DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().learnPropertyOrder(true).includeServiceLoader());
+		String[] inputs = {
+				"{\"d\":true,\"c\":3,\"b\":\"x\",\"a\":1}",
+				"{\"a\":1,\"b\":\"x\",\"c\":3,\"d\":true}",
+				"{\"c\":3,\"a\":1,\"d\":true,\"b\":\"x\"}",
+				"{\"d\":true,\"e\":5,\"c\":3,\"b\":\"x\",\"a\":1}",
+				"{\"d\":true,\"c\":3,\"b\":\"x\",\"a\":1,\"a\":1}"
+		};
+		for (String input : inputs) {
+			for (int i = 0; i < 10; i++) {
+				OrderedModel model = deserializeOrdered(dslJson, input);
+				Assert.assertEquals(1, model.a);
+				Assert.assertEquals("x", model.b);
+				Assert.assertEquals(3, model.c);
+				Assert.assertTrue(model.d);
+			}
+			OrderedModel partial = deserializeOrdered(dslJson, "{\"d\":true,\"a\":2}");
+			Assert.assertEquals(2, partial.a);
+			Assert.assertNull(partial.b);
+			Assert.assertTrue(partial.d);
+		}
+	}
+
+	@Test
+	public void learnedPropertyOrderAcrossThreads() throws Exception {
+		final DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().learnPropertyOrder(true).includeServiceLoader());
+		final String[] inputs = {
+				"{\"d\":true,\"c\":3,\"b\":\"x\",\"a\":1}",
+				"{\"b\":\"x\",\"a\":1,\"d\":true,\"c\":3}"
+		};
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int offset = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 1000; i++) {
+							OrderedModel model = deserializeOrdered(dslJson, inputs[((i / 5) + offset) % 2]);
+							Assert.assertEquals(1, model.a);
+							Assert.assertEquals("x", model.b);
+							Assert.assertEquals(3, model.c);
+							Assert.assertTrue(model.d);
+						}
+					} catch (Throwable ex) {
+						errors.add(ex);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(Collections.emptyList(), errors);
+	}
+
+	public static class Currency {
+		static int encoded;
+		private final String code;
+		private final int digits;
+
+		public Currency(String code, int digits) {
+			this.code = code;
+			this.digits = digits;
+		}
+
+		public String getCode() {
+			encoded++;
+			return code;
+		}
+
+		public int getDigits() {
+			return digits;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Currency && ((Currency) other).code.equals(code);
+		}
+
+		@Override
+		public int hashCode() {
+			return code.hashCode();
+		}
+	}
+
+	public static class Price {
+		public Currency currency;
+		public int amount;
+	}
+
+	@Test
+	public void cachedSerializationOfImmutables() throws IOException {
+		DslJson<Object> dslJson = new DslJson<Object>(Settings.withRuntime().cacheSerialized(Currency.class, 16, false).includeServiceLoader());
+		Currency.encoded = 0;
+		List<Price> prices = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Price price = new Price();
+			price.currency = new Currency(i % 2 == 0 ? "EUR" : "USD", 2);
+			price.amount = i;
+			prices.add(price);
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(prices, os);
+		Assert.assertEquals(2, Currency.encoded);
+		List<Price> result = dslJson.deserializeList(Price.class, new ByteArrayInputStream(os.toByteArray()));
+		Assert.assertEquals(100, result.size());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(i % 2 == 0 ? "EUR" : "USD", result.get(i).currency.code);
+			Assert.assertEquals(i, result.get(i).amount);
+		}
+		os.reset();
+		dslJson.serialize(new Currency("EUR", 2), os);
+		Assert.assertEquals("{\"code\":\"EUR\",\"digits\":2}", os.toString());
+		Assert.assertEquals(2, Currency.encoded);
+	}
+
+	@Test
+	public void cachedSerializationOfRegisteredWriter() throws IOException {
+		DslJson<Object> dslJson = new DslJson<Object>(new DslJson.Settings<Object>().cacheSerialized(Currency.class, 4, true));
+		final int[] calls = new int[1];
+		dslJson.registerWriter(Currency.class, new JsonWriter.WriteObject<Currency>() {
+			@Override
+			public void write(JsonWriter writer, Currency value) {
+				calls[0]++;
+				writer.writeString(value.code);
+			}
+		});
+		Currency eur = new Currency("EUR", 2);
+		JsonWriter writer = dslJson.newWriter();
+		for (int i = 0; i < 10; i++) {
+			dslJson.serialize(writer, eur);
+		}
+		dslJson.serialize(writer, new Currency("EUR", 2));
+		Assert.assertEquals(2, calls[0]);
+		Assert.assertEquals("\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"\"EUR\"", writer.toString());
+	}
+
+	public static class Envelope {
+		public String type;
+		public RawJson payload;
+	}
+
+	@Test
+	public void rawJsonPassthrough() throws IOException {
+		byte[] input = "{\"type\":\"event\",\"payload\":{\"id\": 1, \"tags\":[\"a\",\"b\"]}}".getBytes("UTF-8");
+		Envelope envelope = json.deserialize(Envelope.class, input, input.length);
+		Assert.assertEquals("event", envelope.type);
+		Assert.assertEquals("{\"id\": 1, \"tags\":[\"a\",\"b\"]}", envelope.payload.toString());
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(envelope, os);
+		Assert.assertArrayEquals(input, os.toByteArray());
+		envelope = json.deserialize(Envelope.class, new ByteArrayInputStream("{\"payload\":null}".getBytes("UTF-8")));
+		Assert.assertNull(envelope.payload);
+		envelope.payload = new RawJson("[1,2]".getBytes("UTF-8"));
+		os.reset();
+		json.serialize(envelope, os);
+		Assert.assertEquals("{\"type\":null,\"payload\":[1,2]}", os.toString());
+	}
+
+	public static class Accessors {
+		private int count;
+		private Long total;
+		public double ratio;
+		public final List<String> names = new ArrayList<>();
+
+		public int getCount() { return count; }
+		public void setCount(int value) { count = value; }
+		public Long getTotal() { return total; }
+		public void setTotal(Long value) { total = value; }
+	}
+
+	@Test
+	public void accessorsRoundtrip() throws IOException {
+		Accessors accessors = new Accessors();
+		accessors.count = 3;
+		accessors.total = 1234567890123L;
+		accessors.ratio = 0.5;
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(accessors, os);
+		Accessors result = json.deserialize(Accessors.class, os.toByteArray(), os.size());
+		Assert.assertEquals(3, result.count);
+		Assert.assertEquals(accessors.total, result.total);
+		Assert.assertEquals(0.5, result.ratio, 0);
+	}
+
+	@Test
+	public void nullForPrimitiveSetter() throws IOException {
+		byte[] input = "{\"count\":null}".getBytes("UTF-8");
+		try {
+			json.deserialize(Accessors.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ConfigurationException | ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("count"));
+		}
+	}
+
+	public static class FailingGetter {
+		public String getValue() { throw new IllegalStateException("failed"); }
+		public void setValue(String value) {}
+	}
+
+	@Test
+	public void getterExceptionIsWrapped() throws IOException {
+		try {
+			json.serialize(new FailingGetter(), new ByteArrayOutputStream());
+			Assert.fail("Expecting exception");
+		} catch (ConfigurationException ex) {
+			Assert.assertTrue(ex.getMessage().contains("getValue"));
+			Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	//defines test classes again in a child loader, so the library loader can't see them
+	private static class ChildLoader extends ClassLoader {
+		ChildLoader() {
+			super(ReflectionTest.class.getClassLoader());
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+			if (!className.startsWith(ReflectionTest.class.getName())) return super.loadClass(className, resolve);
+			Class<?> found = findLoadedClass(className);
+			if (found != null) return found;
+			try (InputStream is = getParent().getResourceAsStream(className.replace('.', '/') + ".class")) {
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int len;
+				while ((len = is.read(buffer)) != -1) {
+					os.write(buffer, 0, len);
+				}
+				return defineClass(className, os.toByteArray(), 0, os.size());
+			} catch (IOException ex) {
+				throw new ClassNotFoundException(className, ex);
+			}
+		}
+	}
+
+	@Test
+	public void modelFromChildClassLoader() throws Exception {
+		Class<?> manifest = new ChildLoader().loadClass(Accessors.class.getName());
+		Assert.assertTrue(Accessors.class != manifest);
+		Object instance = manifest.newInstance();
+		manifest.getMethod("setCount", int.class).invoke(instance, 5);
+		manifest.getField("ratio").set(instance, 1.5);
+		DslJson<Object> dslJson = new DslJson<>(Settings.withRuntime().includeServiceLoader());
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(instance, os);
+		Object result = dslJson.deserialize(manifest, os.toByteArray(), os.size());
+		Assert.assertEquals(5, manifest.getMethod("getCount").invoke(result));
+		Assert.assertEquals(1.5, manifest.getField("ratio").get(result));
+	}
 }
@@ -4,6 +4,7 @@ import com.dslplatform.json.runtime.Settings;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 public class SkippingTest {
@@ -116,4 +117,94 @@ public class SkippingTest {
 		S s = dslJson.deserialize(S.class, input, input.length);
 		Assert.assertEquals("s", s.s);
 	}
+
+	@Test
+	public void skipNestedWithBracketsInStrings() throws IOException {
+		byte[] input = ("[{\"meta\":{\"a\":[1,{\"b\":\"}]\\\"[{\"}],\"c\":\"x\\\\\"},\"x\":1}," +
+				"{\"x\":2,\"meta\":[[],{},\"]\"]}," +
+				"{\"meta\":[{\"deep\":[[[[{\"q\":\"[[[\"}]]]]}],\"x\":3}]").getBytes("UTF-8");
+		Single[] result = dslJson.deserialize(Single[].class, input, input.length);
+		Assert.assertEquals(3, result.length);
+		Assert.assertEquals(1, result[0].x);
+		Assert.assertEquals(2, result[1].x);
+		Assert.assertEquals(3, result[2].x);
+	}
+
+	@Test
+	public void skipWhenReaderIsReusedForDifferentInput() throws IOException {
+		byte[] first = "{\"a\":{\"b\":[1,2,3]},\"x\":1}".getBytes("UTF-8");
+		byte[] second = "{\"a\":[{\"b\":2}],\"x\":2}".getBytes("UTF-8");
+		byte[] buffer = new byte[64];
+		JsonReader<Object> reader = dslJson.newReader(buffer);
+		System.arraycopy(first, 0, buffer, 0, first.length);
+		reader.process(buffer, first.length);
+		Assert.assertEquals(1, reader.next(Single.class).x);
+		System.arraycopy(second, 0, buffer, 0, second.length);
+		reader.process(buffer, second.length);
+		Assert.assertEquals(2, reader.next(Single.class).x);
+	}
+
+	@Test
+	public void mismatchedBracketsWhenSkipping() throws IOException {
+		byte[] input = "{\"a\":{\"b\":1],\"x\":1}".getBytes("UTF-8");
+		try {
+			dslJson.deserialize(Single.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Expecting '}' for object end"));
+		}
+	}
+
+	@Test
+	public void unclosedStringWhenSkipping() throws IOException {
+		byte[] input = "{\"x\":1,\"a\":{\"b\":\"abc}}".getBytes("UTF-8");
+		try {
+			dslJson.deserialize(Single.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("end of JSON input"));
+		}
+	}
+
+	@Test
+	public void skipLargeNestedValues() throws IOException {
+		StringBuilder sb = new StringBuilder("{\"meta\":{\"items\":[");
+		for (int i = 0; i < 500; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"name\":\"item \\\"").append(i).append("\\\" [with] {brackets}\\\\\",\"values\":[1,2.5,true,null,[[]]],\"empty\":{}}");
+		}
+		sb.append("]},\"x\":42}");
+		byte[] input = sb.toString().getBytes("UTF-8");
+		Single s = dslJson.deserialize(Single.class, input, input.length);
+		Assert.assertEquals(42, s.x);
+		for (int size = 64; size < 80; size++) {
+			JsonReader<Object> reader = dslJson.newReader(new ByteArrayInputStream(input), new byte[size]);
+			reader.getNextToken();
+			reader.getNextToken();
+			reader.fillName();
+			reader.getNextToken();
+			Assert.assertEquals(',', reader.skip());
+			reader.getNextToken();
+			Assert.assertEquals("x", reader.readKey());
+			Assert.assertEquals(42, NumberConverter.deserializeInt(reader));
+		}
+	}
+
+	@Test
+	public void skipReportsMismatchedBrackets() throws IOException {
+		byte[] input = "{\"a\":{\"b\":[1,2}},\"x\":1}".getBytes("UTF-8");
+		try {
+			dslJson.deserialize(Single.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting ']' for array end"));
+		}
+		input = "{\"a\":{\"b\":\"}}\"".getBytes("UTF-8");
+		try {
+			dslJson.deserialize(Single.class, new ByteArrayInputStream(input));
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Unexpected end of JSON input"));
+		}
+	}
 }
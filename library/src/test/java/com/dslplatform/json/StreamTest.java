@@ -7,12 +7,18 @@ import org.junit.Test;
 import java.awt.geom.Point2D;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StreamTest {
 
@@ -607,4 +613,193 @@ public class StreamTest {
 			Assert.assertEquals("split_in_buffer_with_very_long_name_more_than_buffer_size", input.getLastName());
 		}
 	}
+
+	private static File createLongFile(int count) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("[null");
+		for (int i = 0; i < count; i++) {
+			sb.append(",");
+			sb.append(Integer.toString(i));
+		}
+		sb.append("]");
+		File file = File.createTempFile("dsl-json-stream", ".json");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		try {
+			fos.write(sb.toString().getBytes("UTF-8"));
+		} finally {
+			fos.close();
+		}
+		return file;
+	}
+
+	@Test
+	public void deserializeListFromMappedFile() throws IOException {
+		File file = createLongFile(100000);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			List<Long> result = dslJson.deserializeList(Long.class, raf.getChannel());
+			Assert.assertEquals(100001, result.size());
+			Assert.assertNull(result.get(0));
+			Assert.assertEquals(Long.valueOf(99999), result.get(100000));
+			Assert.assertEquals(0, raf.getChannel().position());
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test
+	public void iterateOverMappedFile() throws IOException {
+		File file = createLongFile(100000);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			Iterator<Long> result = dslJson.iterateOver(Long.class, raf.getChannel());
+			int total = 0;
+			while (result.hasNext()) {
+				Long value = result.next();
+				if (total > 0) {
+					Assert.assertEquals(Long.valueOf(total - 1), value);
+				}
+				total++;
+			}
+			Assert.assertEquals(100001, total);
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test
+	public void mappedFileWithSmallWindows() throws IOException {
+		File file = createLongFile(10000);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			Iterator<Long> iter = dslJson.iterateOver(Long.class, new MappedFileStream(channel, 1001));
+			int total = 0;
+			while (iter.hasNext()) {
+				iter.next();
+				total++;
+			}
+			Assert.assertEquals(10001, total);
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test
+	public void pooledBuffersAreReused() throws IOException {
+		final AtomicInteger writers = new AtomicInteger();
+		final AtomicInteger readers = new AtomicInteger();
+		final DslJson<Object> pooled = new DslJson<Object>(new DslJson.Settings<Object>().bufferPool(new DslJson.BoundedBufferPool(2) {
+			@Override
+			public DslJson.BufferPool<JsonWriter> writers(final DslJson<?> dslJson) {
+				final DslJson.BufferPool<JsonWriter> pool = super.writers(dslJson);
+				return new DslJson.BufferPool<JsonWriter>() {
+					@Override
+					public JsonWriter take() {
+						writers.incrementAndGet();
+						return pool.take();
+					}
+
+					@Override
+					public void release(JsonWriter instance) {
+						writers.decrementAndGet();
+						pool.release(instance);
+					}
+				};
+			}
+
+			@Override
+			public DslJson.BufferPool<JsonReader> readers(final DslJson<?> dslJson) {
+				final DslJson.BufferPool<JsonReader> pool = super.readers(dslJson);
+				return new DslJson.BufferPool<JsonReader>() {
+					@Override
+					public JsonReader take() {
+						readers.incrementAndGet();
+						return pool.take();
+					}
+
+					@Override
+					public void release(JsonReader instance) {
+						readers.decrementAndGet();
+						pool.release(instance);
+					}
+				};
+			}
+		}));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		pooled.serialize(Arrays.asList(1, 2, 3), os);
+		Assert.assertEquals("[1,2,3]", os.toString());
+		Assert.assertEquals(0, writers.get());
+		List<Integer> list = pooled.deserializeList(Integer.class, new ByteArrayInputStream(os.toByteArray()));
+		Assert.assertEquals(Arrays.asList(1, 2, 3), list);
+		Assert.assertEquals(0, readers.get());
+		try {
+			pooled.deserialize(Integer.class, new ByteArrayInputStream("x".getBytes()));
+			Assert.fail("Expecting parsing exception");
+		} catch (ParsingException ignore) {
+		}
+		Assert.assertEquals(0, readers.get());
+		try {
+			pooled.serialize(new Object(), os);
+			Assert.fail("Expecting configuration exception");
+		} catch (ConfigurationException ignore) {
+		}
+		Assert.assertEquals(0, writers.get());
+	}
+
+	@Test
+	public void boundedPoolAcrossThreads() throws Exception {
+		final DslJson<Object> pooled = new DslJson<Object>(new DslJson.Settings<Object>().bufferPool(new DslJson.BoundedBufferPool(4)));
+		final AtomicInteger failures = new AtomicInteger();
+		Thread[] threads = new Thread[32];
+		for (int t = 0; t < threads.length; t++) {
+			final int offset = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 200; i++) {
+							ByteArrayOutputStream os = new ByteArrayOutputStream();
+							pooled.serialize(Arrays.asList(offset, i), os);
+							List<Integer> result = pooled.deserializeList(Integer.class, new ByteArrayInputStream(os.toByteArray()));
+							if (result.get(0) != offset || result.get(1) != i) failures.incrementAndGet();
+						}
+					} catch (IOException ex) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(0, failures.get());
+	}
+
+	@Test
+	public void writerRetentionTrimsBuffers() throws IOException {
+		DslJson.BufferRetention retention = new DslJson.BufferRetention(64 * 1024, 3);
+		DslJson<Object> trimming = new DslJson<Object>(new DslJson.Settings<Object>().writerRetention(retention));
+		char[] chars = new char[1024 * 1024];
+		Arrays.fill(chars, 'a');
+		String large = new String(chars);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		trimming.serialize(large, os);
+		Assert.assertEquals(large.length() + 2, os.size());
+		Assert.assertEquals(1, retention.getOversizedCount());
+		Assert.assertEquals(0, retention.getDecayedCount());
+		for (int i = 0; i < 6; i++) {
+			os.reset();
+			trimming.serialize(i, os);
+			Assert.assertEquals(Integer.toString(i), os.toString());
+		}
+		Assert.assertEquals(1, retention.getOversizedCount());
+		Assert.assertEquals(2, retention.getDecayedCount());
+		os.reset();
+		trimming.serialize(large, os);
+		Assert.assertEquals(large.length() + 2, os.size());
+		Assert.assertEquals(2, retention.getOversizedCount());
+	}
 }
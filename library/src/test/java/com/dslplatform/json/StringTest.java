@@ -69,4 +69,32 @@ public class StringTest {
 			Assert.assertEquals("Expecting ']' as array end. Found l at position: 72, following: `��� something\",nulll`, before: `,x]`", ex.getMessage());
 		}
 	}
+
+	@Test
+	public void specialCharactersAtEveryPosition() throws IOException {
+		String[] specials = {"\\\"", "\\\\", "\\n", "\\u0041", "č", "💗"};
+		String[] decoded = {"\"", "\\", "\n", "A", "č", "💗"};
+		JsonReader<Object> reader = dslJson.newReader();
+		for (int len = 0; len < 40; len++) {
+			for (int pos = 0; pos <= len; pos++) {
+				for (int s = 0; s < specials.length; s++) {
+					StringBuilder input = new StringBuilder("\"");
+					StringBuilder expected = new StringBuilder();
+					for (int i = 0; i < len; i++) {
+						if (i == pos) {
+							input.append(specials[s]);
+							expected.append(decoded[s]);
+						}
+						input.append((char) ('a' + i % 26));
+						expected.append((char) ('a' + i % 26));
+					}
+					input.append("\"");
+					byte[] bytes = input.toString().getBytes("UTF-8");
+					reader.process(bytes, bytes.length).read();
+					Assert.assertEquals(expected.toString(), StringConverter.deserialize(reader));
+					Assert.assertEquals(bytes.length, reader.getCurrentIndex());
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,187 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class CborTest {
+
+	private final DslJson<Object> dslJson = new DslJson<>(new DslJson.Settings<>().includeServiceLoader());
+
+	public enum State {
+		ACTIVE,
+		CLOSED
+	}
+
+	@CompiledJson
+	public static class Account {
+		public long id;
+		public String name;
+		public Integer rank;
+		public double balance;
+		public BigDecimal limit;
+		public byte[] signature;
+		public State state;
+		public LocalDate opened;
+		public List<Item> items;
+		public Map<String, Integer> counters;
+	}
+
+	@CompiledJson
+	public static class Item {
+		@JsonAttribute(nullable = false)
+		public final String code;
+		public final float quantity;
+		@JsonAttribute(mandatory = true)
+		public final boolean active;
+
+		public Item(String code, float quantity, boolean active) {
+			this.code = code;
+			this.quantity = quantity;
+			this.active = active;
+		}
+	}
+
+	@CompiledJson
+	public static class Wildcards {
+		public Map<String, ? extends BigDecimal> map;
+		public List<? extends String> list;
+	}
+
+	private static Account account() {
+		Account account = new Account();
+		account.id = 1234567890123L;
+		account.name = "žšđ name";
+		account.balance = 12.25;
+		account.limit = new BigDecimal("1000.10");
+		account.signature = new byte[]{1, 2, 3, 4};
+		account.state = State.CLOSED;
+		account.opened = LocalDate.of(2020, 2, 29);
+		account.items = Arrays.asList(new Item("abc", 1.5f, true), new Item("def", 0f, false));
+		account.counters = new java.util.LinkedHashMap<>();
+		account.counters.put("x", 1);
+		account.counters.put("y", null);
+		return account;
+	}
+
+	private byte[] serialize(Object value) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeCbor(value, os);
+		return os.toByteArray();
+	}
+
+	@Test
+	public void roundtripGeneratedConverter() throws IOException {
+		Account account = account();
+		byte[] bytes = serialize(account);
+		Account result = dslJson.deserializeCbor(Account.class, bytes, bytes.length);
+		Assert.assertEquals(account.id, result.id);
+		Assert.assertEquals(account.name, result.name);
+		Assert.assertNull(result.rank);
+		Assert.assertEquals(account.balance, result.balance, 0);
+		Assert.assertEquals(account.limit, result.limit);
+		Assert.assertArrayEquals(account.signature, result.signature);
+		Assert.assertEquals(account.state, result.state);
+		Assert.assertEquals(account.opened, result.opened);
+		Assert.assertEquals(2, result.items.size());
+		Assert.assertEquals("def", result.items.get(1).code);
+		Assert.assertEquals(1.5f, result.items.get(0).quantity, 0);
+		Assert.assertTrue(result.items.get(0).active);
+		Assert.assertEquals(account.counters, result.counters);
+	}
+
+	@Test
+	public void cborIsSmallerThanJson() throws IOException {
+		Account account = account();
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(account, os);
+		Assert.assertTrue(serialize(account).length < os.size());
+	}
+
+	@Test
+	public void registeredConverterIsGenerated() {
+		Assert.assertNotNull(dslJson.tryFindCborWriter(Account.class));
+		Assert.assertTrue(dslJson.tryFindCborWriter(Account.class).getClass().getName().contains("CborFormatConverter"));
+		Assert.assertTrue(dslJson.tryFindCborReader(Item.class).getClass().getName().contains("CborFormatConverter"));
+	}
+
+	@Test
+	public void listRoundtrip() throws IOException {
+		List<Item> items = Arrays.asList(new Item("a", 1, true), null, new Item("b", 2, false));
+		byte[] bytes = serialize(items);
+		List<Item> result = dslJson.deserializeCborList(Item.class, bytes, bytes.length);
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals("a", result.get(0).code);
+		Assert.assertNull(result.get(1));
+		Assert.assertEquals(2f, result.get(2).quantity, 0);
+	}
+
+	@Test
+	public void unknownPropertiesAreSkipped() throws IOException {
+		CborWriter writer = dslJson.newCborWriter();
+		writer.writeMapStart();
+		writer.writeString("unknown");
+		writer.writeArrayStart(2);
+		writer.writeInt(1);
+		writer.writeString("x");
+		writer.writeString("code");
+		writer.writeString("abc");
+		writer.writeString("active");
+		writer.writeBool(true);
+		writer.writeBreak();
+		byte[] bytes = writer.toByteArray();
+		Item item = dslJson.deserializeCbor(Item.class, bytes, bytes.length);
+		Assert.assertEquals("abc", item.code);
+		Assert.assertTrue(item.active);
+	}
+
+	@Test
+	public void mandatoryPropertyIsChecked() throws IOException {
+		CborWriter writer = dslJson.newCborWriter();
+		writer.writeMapStart(1);
+		writer.writeString("code");
+		writer.writeString("abc");
+		byte[] bytes = writer.toByteArray();
+		try {
+			dslJson.deserializeCbor(Item.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Property 'active' is mandatory"));
+		}
+	}
+
+	@Test
+	public void nullIsNotAllowed() throws IOException {
+		CborWriter writer = dslJson.newCborWriter();
+		writer.writeMapStart(2);
+		writer.writeString("code");
+		writer.writeNull();
+		writer.writeString("active");
+		writer.writeBool(true);
+		byte[] bytes = writer.toByteArray();
+		try {
+			dslJson.deserializeCbor(Item.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Property 'code' is not allowed to be null"));
+		}
+	}
+
+	@Test
+	public void wildcardProperties() throws IOException {
+		Wildcards wildcards = new Wildcards();
+		wildcards.map = java.util.Collections.singletonMap("a", new BigDecimal("1.50"));
+		wildcards.list = Arrays.asList("x", null);
+		byte[] bytes = serialize(wildcards);
+		Wildcards result = dslJson.deserializeCbor(Wildcards.class, bytes, bytes.length);
+		Assert.assertEquals(wildcards.map, result.map);
+		Assert.assertEquals(wildcards.list, result.list);
+	}
+}
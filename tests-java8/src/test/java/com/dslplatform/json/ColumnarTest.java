@@ -0,0 +1,217 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ColumnarTest {
+
+	private final DslJson<Object> dslJson = new DslJson<>(new DslJson.Settings<>().includeServiceLoader());
+
+	public enum Side {
+		BUY,
+		SELL
+	}
+
+	@CompiledJson
+	public static class Trade {
+		public long id;
+		public double price;
+		public int quantity;
+		public boolean settled;
+		public String symbol;
+		public Integer venue;
+		public BigDecimal fee;
+		public Side side;
+		public List<String> tags;
+		public String[] notes;
+		public Map<String, Integer> limits;
+	}
+
+	@CompiledJson
+	public static class Point {
+		@JsonAttribute(nullable = false)
+		public final String label;
+		public final float x;
+		@JsonAttribute(mandatory = true)
+		public final float y;
+
+		public Point(String label, float x, float y) {
+			this.label = label;
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	@CompiledJson
+	public static class Wildcards {
+		public Map<String, ? extends BigDecimal> map;
+		public List<? extends String> list;
+	}
+
+	private static Trade trade(int i) {
+		Trade t = new Trade();
+		t.id = i;
+		t.price = 100.25 + i;
+		t.quantity = i * 10;
+		t.settled = i % 2 == 0;
+		t.symbol = "SYM" + (i % 3);
+		t.venue = i % 2 == 0 ? null : i;
+		t.fee = BigDecimal.valueOf(i, 2);
+		t.side = i % 2 == 0 ? Side.BUY : Side.SELL;
+		t.tags = Arrays.asList("a" + i);
+		t.notes = i % 2 == 0 ? null : new String[]{"n", null};
+		t.limits = Collections.singletonMap("max", i);
+		return t;
+	}
+
+	private String columnar(Class<?> manifest, List rows) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeColumnar((Class) manifest, rows, os);
+		return os.toString("UTF-8");
+	}
+
+	@Test
+	public void writeColumns() throws IOException {
+		String json = columnar(Point.class, Arrays.asList(new Point("a", 1, 2), new Point("b", 3, 4)));
+		Assert.assertEquals("{\"label\":[\"a\",\"b\"],\"x\":[1.0,3.0],\"y\":[2.0,4.0]}", json);
+	}
+
+	@Test
+	public void roundtripBean() throws IOException {
+		List<Trade> trades = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			trades.add(trade(i));
+		}
+		byte[] bytes = columnar(Trade.class, trades).getBytes(StandardCharsets.UTF_8);
+		List<Trade> result = dslJson.deserializeColumnar(Trade.class, bytes, bytes.length);
+		Assert.assertEquals(100, result.size());
+		for (int i = 0; i < 100; i++) {
+			Trade e = trades.get(i);
+			Trade a = result.get(i);
+			Assert.assertEquals(e.id, a.id);
+			Assert.assertEquals(e.price, a.price, 0);
+			Assert.assertEquals(e.quantity, a.quantity);
+			Assert.assertEquals(e.settled, a.settled);
+			Assert.assertEquals(e.symbol, a.symbol);
+			Assert.assertEquals(e.venue, a.venue);
+			Assert.assertEquals(e.fee, a.fee);
+			Assert.assertEquals(e.side, a.side);
+			Assert.assertEquals(e.tags, a.tags);
+			Assert.assertArrayEquals(e.notes, a.notes);
+			Assert.assertEquals(e.limits, a.limits);
+		}
+	}
+
+	@Test
+	public void columnarIsSmaller() throws IOException {
+		List<Trade> trades = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			trades.add(trade(i));
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(trades, os);
+		Assert.assertTrue(columnar(Trade.class, trades).length() < os.size() / 2);
+	}
+
+	@Test
+	public void immutableWithMissingColumns() throws IOException {
+		byte[] bytes = "{\"y\":[1,2],\"label\":[\"a\",\"b\"],\"unknown\":[{},[]]}".getBytes(StandardCharsets.UTF_8);
+		List<Point> result = dslJson.deserializeColumnar(Point.class, bytes, bytes.length);
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals("b", result.get(1).label);
+		Assert.assertEquals(0f, result.get(1).x, 0);
+		Assert.assertEquals(2f, result.get(1).y, 0);
+	}
+
+	@Test
+	public void mandatoryColumn() throws IOException {
+		byte[] bytes = "{\"label\":[\"a\"]}".getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeColumnar(Point.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Property 'y' is mandatory"));
+		}
+	}
+
+	@Test
+	public void differentColumnSizes() throws IOException {
+		byte[] bytes = "{\"label\":[\"a\",\"b\"],\"y\":[1]}".getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeColumnar(Point.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Column sizes are different"));
+		}
+	}
+
+	@Test
+	public void notNullColumn() throws IOException {
+		byte[] bytes = "{\"label\":[null],\"y\":[1]}".getBytes(StandardCharsets.UTF_8);
+		try {
+			dslJson.deserializeColumnar(Point.class, bytes, bytes.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Property 'label' is not allowed to be null"));
+		}
+	}
+
+	@Test
+	public void emptyList() throws IOException {
+		Assert.assertEquals("{\"label\":[],\"x\":[],\"y\":[]}", columnar(Point.class, Collections.emptyList()));
+		byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals(0, dslJson.deserializeColumnar(Point.class, bytes, bytes.length).size());
+	}
+
+	@Test
+	public void nullElementsAreNotAllowed() throws IOException {
+		try {
+			columnar(Point.class, Arrays.asList(new Point("a", 1, 2), null));
+			Assert.fail("Expecting exception");
+		} catch (SerializationException ex) {
+			Assert.assertTrue(ex.getMessage().contains("index: 1"));
+		}
+	}
+
+	@Test
+	public void compiledConverterIsRegistered() {
+		Assert.assertTrue(dslJson.tryFindColumnarConverter(Trade.class).getClass().getName().contains("ColumnarFormatConverter"));
+	}
+
+	@Test
+	public void selectedPerType() throws IOException {
+		DslJson<Object> json = new DslJson<>(new DslJson.Settings<>().includeServiceLoader().columnar(Point.class));
+		List<Point> points = Arrays.asList(new Point("a", 1, 2), new Point("b", 3, 4));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(points, os);
+		Assert.assertEquals("{\"label\":[\"a\",\"b\"],\"x\":[1.0,3.0],\"y\":[2.0,4.0]}", os.toString("UTF-8"));
+		List<Point> result = json.deserializeList(Point.class, os.toByteArray(), os.size());
+		Assert.assertEquals("b", result.get(1).label);
+		byte[] array = "[{\"label\":\"c\",\"y\":5}]".getBytes(StandardCharsets.UTF_8);
+		Assert.assertEquals("c", json.deserializeList(Point.class, array, array.length).get(0).label);
+	}
+
+	@Test
+	public void wildcardProperties() throws IOException {
+		Wildcards wildcards = new Wildcards();
+		wildcards.map = Collections.singletonMap("a", new BigDecimal("1.50"));
+		wildcards.list = Arrays.asList("x", null);
+		byte[] bytes = columnar(Wildcards.class, Arrays.asList(wildcards, new Wildcards())).getBytes(StandardCharsets.UTF_8);
+		List<Wildcards> result = dslJson.deserializeColumnar(Wildcards.class, bytes, bytes.length);
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals(wildcards.map, result.get(0).map);
+		Assert.assertEquals(wildcards.list, result.get(0).list);
+		Assert.assertNull(result.get(1).map);
+		Assert.assertNull(result.get(1).list);
+	}
+}
@@ -637,4 +637,37 @@ public class TypesTest {
 		Assert.assertNull(e.sourceNull);
 		Assert.assertNotNull(e.sourceNonNull);
 	}
-}
\ No newline at end of file
+
+	@CompiledJson
+	public static class Envelope {
+		public String type;
+		public RawJson payload;
+		@JsonAttribute(nullable = false)
+		public RawJson required;
+		public List<RawJson> items;
+	}
+
+	@Test
+	public void rawJsonPassthrough() throws IOException {
+		byte[] input = "{\"required\":-1.5e3,\"items\":[true,\"x\",null,[ ]],\"type\":\"event\",\"payload\":{\"id\": 1, \"tags\":[\"a\",\"b\"]}}".getBytes(StandardCharsets.UTF_8);
+		for (DslJson<Object> dslJson : dslJsons) {
+			Envelope e = dslJson.deserialize(Envelope.class, input, input.length);
+			Assert.assertEquals("event", e.type);
+			Assert.assertEquals("{\"id\": 1, \"tags\":[\"a\",\"b\"]}", e.payload.toString());
+			Assert.assertEquals("-1.5e3", e.required.toString());
+			Assert.assertEquals(4, e.items.size());
+			Assert.assertEquals("\"x\"", e.items.get(1).toString());
+			Assert.assertNull(e.items.get(2));
+			Assert.assertEquals("[ ]", e.items.get(3).toString());
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			dslJson.serialize(e, os);
+			Envelope res = dslJson.deserialize(Envelope.class, os.toByteArray(), os.size());
+			Assert.assertEquals(e.payload, res.payload);
+			Assert.assertEquals(e.required, res.required);
+			Assert.assertEquals(e.items, res.items);
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJsonFull.serialize(dslJsonFull.deserialize(Envelope.class, input, input.length), os);
+		Assert.assertArrayEquals(input, os.toByteArray());
+	}
+}
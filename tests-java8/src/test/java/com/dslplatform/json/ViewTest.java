@@ -0,0 +1,126 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class ViewTest {
+
+	private final DslJson<Object> dslJson = new DslJson<>(new DslJson.Settings<>().includeServiceLoader());
+
+	public interface Summary {
+	}
+
+	public interface Audit {
+	}
+
+	@CompiledJson(views = {Summary.class, Audit.class})
+	public static class Entity {
+		@JsonAttribute(views = {Summary.class, Audit.class})
+		public long id;
+		@JsonAttribute(views = Summary.class)
+		public String name;
+		public String description;
+		public List<String> tags;
+		@JsonAttribute(views = Audit.class, mandatory = true)
+		public String modifiedBy;
+	}
+
+	@CompiledJson(views = Summary.class)
+	public static class ImmutableEntity {
+		@JsonAttribute(views = Summary.class)
+		public final int id;
+		public final String details;
+		@JsonAttribute(views = Summary.class)
+		public final double price;
+
+		public ImmutableEntity(int id, String details, double price) {
+			this.id = id;
+			this.details = details;
+			this.price = price;
+		}
+	}
+
+	private static Entity entity(long id) {
+		Entity entity = new Entity();
+		entity.id = id;
+		entity.name = "name " + id;
+		entity.description = "long description";
+		entity.tags = Arrays.asList("a", "b");
+		entity.modifiedBy = "admin";
+		return entity;
+	}
+
+	@Test
+	public void writeOnlyViewProperties() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeView(Summary.class, entity(1), os);
+		Assert.assertEquals("{\"id\":1,\"name\":\"name 1\"}", os.toString("UTF-8"));
+		os.reset();
+		dslJson.serializeView(Audit.class, Arrays.asList(entity(1), null, entity(2)), os);
+		Assert.assertEquals("[{\"id\":1,\"modifiedBy\":\"admin\"},null,{\"id\":2,\"modifiedBy\":\"admin\"}]", os.toString("UTF-8"));
+		os.reset();
+		dslJson.serialize(entity(3), os);
+		String full = os.toString("UTF-8");
+		Assert.assertTrue(full.contains("\"description\":\"long description\""));
+		Assert.assertTrue(full.contains("\"tags\":[\"a\",\"b\"]"));
+	}
+
+	@Test
+	public void readOnlyViewProperties() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serialize(entity(5), os);
+		byte[] input = os.toByteArray();
+		Entity summary = dslJson.deserializeView(Entity.class, Summary.class, input, input.length);
+		Assert.assertEquals(5, summary.id);
+		Assert.assertEquals("name 5", summary.name);
+		Assert.assertNull(summary.description);
+		Assert.assertNull(summary.tags);
+		Assert.assertNull(summary.modifiedBy);
+		byte[] reordered = "{\"tags\":[\"x\"],\"name\":\"abc\",\"unknown\":{\"a\":[1,2]},\"id\":7}".getBytes(StandardCharsets.UTF_8);
+		summary = dslJson.deserializeView(Entity.class, Summary.class, reordered, reordered.length);
+		Assert.assertEquals(7, summary.id);
+		Assert.assertEquals("abc", summary.name);
+		Assert.assertNull(summary.tags);
+	}
+
+	@Test
+	public void mandatoryOnlyWithinView() throws IOException {
+		byte[] input = "{\"id\":1,\"name\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+		Entity summary = dslJson.deserializeView(Entity.class, Summary.class, input, input.length);
+		Assert.assertEquals("abc", summary.name);
+		try {
+			dslJson.deserializeView(Entity.class, Audit.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (ParsingException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Property 'modifiedBy' is mandatory"));
+		}
+	}
+
+	@Test
+	public void viewOnImmutable() throws IOException {
+		ImmutableEntity entity = new ImmutableEntity(3, "details", 2.5);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		dslJson.serializeView(Summary.class, new ImmutableEntity[]{entity}, os);
+		Assert.assertEquals("[{\"id\":3,\"price\":2.5}]", os.toString("UTF-8"));
+		os.reset();
+		dslJson.serialize(entity, os);
+		byte[] input = os.toByteArray();
+		ImmutableEntity result = dslJson.deserializeView(ImmutableEntity.class, Summary.class, input, input.length);
+		Assert.assertEquals(3, result.id);
+		Assert.assertNull(result.details);
+		Assert.assertEquals(2.5, result.price, 0);
+	}
+
+	@Test
+	public void viewConvertersAreRegistered() {
+		Assert.assertNotNull(dslJson.tryFindViewReader(Entity.class, Audit.class));
+		Assert.assertNotNull(dslJson.tryFindViewWriter(Entity.class, Summary.class));
+		Assert.assertNull(dslJson.tryFindViewWriter(Entity.class, Entity.class));
+	}
+}